@@ -0,0 +1,6 @@
+USE `zl-ai2`;
+
+-- Catalog search reads the public catalog in one snapshot query and ranks agents by session count.
+ALTER TABLE `gpt` ADD INDEX `idx_gpt_public_deleted` (`is_public`, `is_deleted`);
+ALTER TABLE `agent` ADD INDEX `idx_agent_public_deleted` (`is_public`, `is_deleted`);
+ALTER TABLE `chat_session` ADD INDEX `idx_chat_session_agent` (`agent_id`);
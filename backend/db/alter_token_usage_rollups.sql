@@ -0,0 +1,62 @@
+USE `zl-ai2`;
+
+-- Keyset pagination indexes for the admin log views (also used by the retention jobs).
+ALTER TABLE `token_consumption`
+    ADD INDEX `idx_token_created_id` (`created_at`, `id`),
+    ADD INDEX `idx_token_user_created_id` (`user_id`, `created_at`, `id`);
+
+ALTER TABLE `login_log`
+    ADD INDEX `idx_login_time_id` (`login_time`, `id`),
+    ADD INDEX `idx_login_user_time_id` (`user_id`, `login_time`, `id`);
+
+ALTER TABLE `system_log`
+    ADD INDEX `idx_system_created_id` (`created_at`, `id`),
+    ADD INDEX `idx_system_user_created_id` (`user_id`, `created_at`, `id`);
+
+CREATE TABLE IF NOT EXISTS `token_usage_hourly` (
+    `user_id` BIGINT NOT NULL COMMENT 'User ID',
+    `model` VARCHAR(128) NOT NULL COMMENT 'Model',
+    `bucket_start` DATETIME NOT NULL COMMENT 'Hour bucket start',
+    `prompt_tokens` BIGINT NOT NULL DEFAULT 0 COMMENT 'Prompt tokens',
+    `completion_tokens` BIGINT NOT NULL DEFAULT 0 COMMENT 'Completion tokens',
+    `total_tokens` BIGINT NOT NULL DEFAULT 0 COMMENT 'Total tokens',
+    `request_count` BIGINT NOT NULL DEFAULT 0 COMMENT 'Billed requests',
+    PRIMARY KEY (`user_id`, `model`, `bucket_start`),
+    INDEX `idx_usage_hourly_bucket` (`bucket_start`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='Token usage per user/model/hour';
+
+CREATE TABLE IF NOT EXISTS `token_usage_daily` (
+    `user_id` BIGINT NOT NULL COMMENT 'User ID',
+    `model` VARCHAR(128) NOT NULL COMMENT 'Model',
+    `bucket_start` DATE NOT NULL COMMENT 'Day bucket start',
+    `prompt_tokens` BIGINT NOT NULL DEFAULT 0 COMMENT 'Prompt tokens',
+    `completion_tokens` BIGINT NOT NULL DEFAULT 0 COMMENT 'Completion tokens',
+    `total_tokens` BIGINT NOT NULL DEFAULT 0 COMMENT 'Total tokens',
+    `request_count` BIGINT NOT NULL DEFAULT 0 COMMENT 'Billed requests',
+    PRIMARY KEY (`user_id`, `model`, `bucket_start`),
+    INDEX `idx_usage_daily_bucket` (`bucket_start`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='Token usage per user/model/day';
+
+-- One-off backfill from existing raw rows; afterwards the billing write path keeps both tables current.
+INSERT INTO `token_usage_hourly` (`user_id`, `model`, `bucket_start`, `prompt_tokens`, `completion_tokens`, `total_tokens`, `request_count`)
+SELECT `user_id`, COALESCE(`model`, ''), DATE_FORMAT(`created_at`, '%Y-%m-%d %H:00:00'),
+       SUM(COALESCE(`prompt_tokens`, 0)), SUM(COALESCE(`completion_tokens`, 0)), SUM(COALESCE(`total_tokens`, 0)), COUNT(*)
+FROM `token_consumption`
+WHERE `user_id` IS NOT NULL AND `created_at` IS NOT NULL
+GROUP BY `user_id`, COALESCE(`model`, ''), DATE_FORMAT(`created_at`, '%Y-%m-%d %H:00:00')
+ON DUPLICATE KEY UPDATE
+    `prompt_tokens` = VALUES(`prompt_tokens`),
+    `completion_tokens` = VALUES(`completion_tokens`),
+    `total_tokens` = VALUES(`total_tokens`),
+    `request_count` = VALUES(`request_count`);
+
+INSERT INTO `token_usage_daily` (`user_id`, `model`, `bucket_start`, `prompt_tokens`, `completion_tokens`, `total_tokens`, `request_count`)
+SELECT `user_id`, `model`, DATE(`bucket_start`),
+       SUM(`prompt_tokens`), SUM(`completion_tokens`), SUM(`total_tokens`), SUM(`request_count`)
+FROM `token_usage_hourly`
+GROUP BY `user_id`, `model`, DATE(`bucket_start`)
+ON DUPLICATE KEY UPDATE
+    `prompt_tokens` = VALUES(`prompt_tokens`),
+    `completion_tokens` = VALUES(`completion_tokens`),
+    `total_tokens` = VALUES(`total_tokens`),
+    `request_count` = VALUES(`request_count`);
@@ -0,0 +1,233 @@
+package com.harmony.backend.ai.agent.planner;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.cache.CacheStats;
+import com.google.common.hash.Hashing;
+import com.harmony.backend.ai.agent.model.TeamAgentRuntime;
+import com.harmony.backend.ai.skill.AgentSkillRegistry;
+import com.harmony.backend.common.cache.NearCache;
+import com.harmony.backend.common.cache.NearCacheManager;
+import com.harmony.backend.common.cache.NearCacheNames;
+import com.harmony.backend.common.entity.Agent;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.TreeSet;
+
+/**
+ * Per-node cache of LLM planner decisions. Keys combine the agent (or team) configuration version,
+ * the skill catalog version, the allowed skills, the planner model and a normalized prompt
+ * signature, so any config edit misses naturally; the TTL bounds how long a decision is reused.
+ * Planners store only the routing decision, without prompt-specific text such as the planner's
+ * reason; plans are stored as JSON so every hit hands out a fresh, mutable copy.
+ */
+@Component
+@Slf4j
+public class PlanCache {
+
+    private final NearCacheManager nearCacheManager;
+    private final AgentSkillRegistry skillRegistry;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final long ttlMs;
+    private final long maxEntries;
+
+    private NearCache<String> singlePlans;
+    private NearCache<String> multiPlans;
+
+    public PlanCache(NearCacheManager nearCacheManager,
+                     AgentSkillRegistry skillRegistry,
+                     ObjectMapper objectMapper,
+                     @Value("${app.agents.plan-cache.enabled:true}") boolean enabled,
+                     @Value("${app.agents.plan-cache.ttl-ms:600000}") long ttlMs,
+                     @Value("${app.agents.plan-cache.max-entries:5000}") long maxEntries) {
+        this.nearCacheManager = nearCacheManager;
+        this.skillRegistry = skillRegistry;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.ttlMs = Math.max(1000, ttlMs);
+        this.maxEntries = Math.max(1, maxEntries);
+    }
+
+    @PostConstruct
+    public void initCaches() {
+        // Lookup-only caches: entries are put by the planners and never loaded or refreshed.
+        singlePlans = buildCache(NearCacheNames.AGENT_SINGLE_PLANS);
+        multiPlans = buildCache(NearCacheNames.AGENT_MULTI_PLANS);
+    }
+
+    public String singleAgentKey(Agent agent, List<String> allowedSkills, String plannerModel, String prompt) {
+        if (!enabled || agent == null) {
+            return null;
+        }
+        return hash(String.join("\n",
+                agentVersion(agent),
+                String.valueOf(skillRegistry.snapshot().version()),
+                String.join(",", sorted(allowedSkills)),
+                Objects.toString(plannerModel, ""),
+                promptSignature(prompt)));
+    }
+
+    public String multiAgentKey(Agent manager, List<TeamAgentRuntime> teamAgents, String plannerModel, String prompt) {
+        if (!enabled || manager == null) {
+            return null;
+        }
+        TreeSet<String> team = new TreeSet<>();
+        if (teamAgents != null) {
+            for (TeamAgentRuntime runtime : teamAgents) {
+                if (runtime != null && runtime.getAgent() != null) {
+                    team.add(agentVersion(runtime.getAgent()) + "/" + Objects.toString(runtime.getRole(), "")
+                            + "/" + String.join(",", sorted(runtime.getSkills())));
+                }
+            }
+        }
+        return hash(String.join("\n",
+                agentVersion(manager),
+                String.join(";", team),
+                String.valueOf(skillRegistry.snapshot().version()),
+                Objects.toString(plannerModel, ""),
+                promptSignature(prompt)));
+    }
+
+    public <T> T getSingle(String key, Class<T> type) {
+        return read(singlePlans, key, type);
+    }
+
+    public void putSingle(String key, Object plan) {
+        write(singlePlans, key, plan);
+    }
+
+    public <T> T getMulti(String key, Class<T> type) {
+        return read(multiPlans, key, type);
+    }
+
+    public void putMulti(String key, Object plan) {
+        write(multiPlans, key, plan);
+    }
+
+    public List<PlanCacheStatus> status() {
+        return List.of(status(singlePlans), status(multiPlans));
+    }
+
+    /**
+     * Drops every cached plan on all nodes.
+     */
+    public void flush() {
+        singlePlans.invalidateAll();
+        multiPlans.invalidateAll();
+        log.info("Planner cache flushed");
+    }
+
+    /**
+     * Lower-cases the prompt, masks digit runs and collapses punctuation and whitespace, so prompts
+     * that differ only in numbers, casing or formatting share a plan.
+     */
+    static String promptSignature(String prompt) {
+        if (prompt == null) {
+            return "";
+        }
+        StringBuilder sb = new StringBuilder(prompt.length());
+        boolean pendingSpace = false;
+        boolean inDigits = false;
+        String normalized = prompt.toLowerCase(Locale.ROOT);
+        for (int i = 0; i < normalized.length(); ) {
+            int cp = normalized.codePointAt(i);
+            i += Character.charCount(cp);
+            if (Character.isDigit(cp)) {
+                if (!inDigits) {
+                    appendSeparator(sb, pendingSpace);
+                    sb.append('#');
+                    pendingSpace = false;
+                }
+                inDigits = true;
+                continue;
+            }
+            inDigits = false;
+            if (Character.isLetter(cp)) {
+                appendSeparator(sb, pendingSpace);
+                sb.appendCodePoint(cp);
+                pendingSpace = false;
+            } else {
+                pendingSpace = true;
+            }
+        }
+        return sb.toString();
+    }
+
+    private static void appendSeparator(StringBuilder sb, boolean pendingSpace) {
+        if (pendingSpace && sb.length() > 0) {
+            sb.append(' ');
+        }
+    }
+
+    private NearCache<String> buildCache(String name) {
+        return nearCacheManager.<String>builder(name)
+                .maximumSize(maxEntries)
+                .expireAfterWrite(Duration.ofMillis(ttlMs))
+                .loader(key -> null)
+                .build();
+    }
+
+    private <T> T read(NearCache<String> cache, String key, Class<T> type) {
+        if (!enabled || key == null) {
+            return null;
+        }
+        String json = cache.getIfPresent(key);
+        if (json == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(json, type);
+        } catch (Exception e) {
+            log.debug("Cached plan unreadable, dropping: cache={}, error={}", cache.getName(), e.getMessage());
+            cache.invalidate(key);
+            return null;
+        }
+    }
+
+    private void write(NearCache<String> cache, String key, Object plan) {
+        if (!enabled || key == null || plan == null) {
+            return;
+        }
+        try {
+            cache.putLocal(key, objectMapper.writeValueAsString(plan));
+        } catch (Exception e) {
+            log.debug("Plan not cached: cache={}, error={}", cache.getName(), e.getMessage());
+        }
+    }
+
+    private PlanCacheStatus status(NearCache<String> cache) {
+        CacheStats stats = cache.stats();
+        return PlanCacheStatus.builder()
+                .name(cache.getName())
+                .enabled(enabled)
+                .size(cache.size())
+                .hits(stats.hitCount())
+                .misses(stats.missCount())
+                .hitRate(stats.hitRate())
+                .build();
+    }
+
+    private String agentVersion(Agent agent) {
+        return agent.getAgentId() + "@" + agent.getUpdatedAt();
+    }
+
+    private List<String> sorted(List<String> values) {
+        if (values == null) {
+            return List.of();
+        }
+        return new ArrayList<>(new TreeSet<>(values.stream().filter(Objects::nonNull).toList()));
+    }
+
+    private String hash(String value) {
+        return Hashing.sha256().hashString(value, StandardCharsets.UTF_8).toString();
+    }
+}
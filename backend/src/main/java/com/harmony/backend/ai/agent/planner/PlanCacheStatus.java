@@ -0,0 +1,19 @@
+package com.harmony.backend.ai.agent.planner;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PlanCacheStatus {
+    private String name;
+    private boolean enabled;
+    private long size;
+    private long hits;
+    private long misses;
+    private double hitRate;
+}
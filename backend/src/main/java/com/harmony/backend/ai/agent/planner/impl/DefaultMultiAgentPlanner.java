@@ -5,6 +5,7 @@ import com.harmony.backend.ai.agent.model.TeamAgentRuntime;
 import com.harmony.backend.ai.agent.planner.MultiAgentPlan;
 import com.harmony.backend.ai.agent.planner.MultiAgentPlanStep;
 import com.harmony.backend.ai.agent.planner.MultiAgentPlanner;
+import com.harmony.backend.ai.agent.planner.PlanCache;
 import com.harmony.backend.common.entity.Agent;
 import com.harmony.backend.modules.chat.adapter.LlmAdapter;
 import com.harmony.backend.modules.chat.adapter.LlmAdapterRegistry;
@@ -26,6 +27,7 @@ import java.util.Set;
 public class DefaultMultiAgentPlanner implements MultiAgentPlanner {
 
     private final ObjectMapper objectMapper;
+    private final PlanCache planCache;
 
     @Value("${app.agents.workflow-planner-model:}")
     private String plannerModelOverride;
@@ -55,8 +57,13 @@ public class DefaultMultiAgentPlanner implements MultiAgentPlanner {
             rulePlan.deriveStepsIfMissing();
             return rulePlan;
         }
+        String plannerModel = resolvePlannerModel(defaultModel);
+        String cacheKey = planCache.multiAgentKey(manager, teamAgents, plannerModel, userPrompt);
+        MultiAgentPlan cached = planCache.getMulti(cacheKey, MultiAgentPlan.class);
+        if (cached != null) {
+            return cached;
+        }
         try {
-            String plannerModel = resolvePlannerModel(defaultModel);
             LlmAdapter plannerAdapter = adapterRegistry.getAdapter(plannerModel);
             List<LlmMessage> plannerMessages = new ArrayList<>();
             plannerMessages.add(new LlmMessage("system", """
@@ -79,6 +86,7 @@ public class DefaultMultiAgentPlanner implements MultiAgentPlanner {
                 parsed.setUsedLlmPlanner(true);
                 parsed.setConfidence(Math.max(parsed.getConfidence(), 0.7));
                 parsed.deriveStepsIfMissing();
+                planCache.putMulti(cacheKey, routingOnly(parsed));
                 return parsed;
             }
         } catch (Exception e) {
@@ -88,6 +96,20 @@ public class DefaultMultiAgentPlanner implements MultiAgentPlanner {
         return rulePlan;
     }
 
+    /**
+     * The planner's reason and step objectives are written for the prompt that produced them, and a
+     * cache hit may serve a different prompt with the same signature, so only the routing is kept.
+     */
+    private MultiAgentPlan routingOnly(MultiAgentPlan plan) {
+        List<MultiAgentPlanStep> steps = new ArrayList<>();
+        for (MultiAgentPlanStep step : plan.getSteps()) {
+            steps.add(new MultiAgentPlanStep(step.getOrder(), step.getAgentId(), step.getStepType(),
+                    step.isDependsOnPriorSteps(), null));
+        }
+        return new MultiAgentPlan(plan.getSelectedAgentIds(), plan.isParallel(), null,
+                true, plan.getConfidence(), steps);
+    }
+
     private boolean shouldUseLlmPlanner(String userPrompt, RankedAgents ranked) {
         if (ranked == null || ranked.scored().isEmpty()) {
             return false;
@@ -0,0 +1,91 @@
+package com.harmony.backend.ai.agent.runtime;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+@Component
+@Slf4j
+public class AgentRunCancellationRegistry implements MessageListener {
+
+    static final String CANCEL_CHANNEL = "agent:run:cancel";
+
+    private final ConcurrentHashMap<String, AgentRunCancellationToken> tokens = new ConcurrentHashMap<>();
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final AgentRunStateService agentRunStateService;
+    private final Executor taskExecutor;
+    private final long durableCheckIntervalMs;
+
+    public AgentRunCancellationRegistry(StringRedisTemplate stringRedisTemplate,
+                                        RedisMessageListenerContainer listenerContainer,
+                                        AgentRunStateService agentRunStateService,
+                                        @Qualifier("taskExecutor") Executor taskExecutor,
+                                        @Value("${app.agents.cancellation.db-check-interval-ms:2000}") long durableCheckIntervalMs) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.agentRunStateService = agentRunStateService;
+        this.taskExecutor = taskExecutor;
+        this.durableCheckIntervalMs = Math.max(200, durableCheckIntervalMs);
+    }
+
+    @PostConstruct
+    public void subscribe() {
+        listenerContainer.addMessageListener(this, new ChannelTopic(CANCEL_CHANNEL));
+    }
+
+    public AgentRunCancellationToken register(String executionId) {
+        return tokens.computeIfAbsent(executionId, id -> new AgentRunCancellationToken(id,
+                () -> agentRunStateService.isCancellationRequested(id), durableCheckIntervalMs));
+    }
+
+    public void release(String executionId) {
+        if (executionId != null) {
+            tokens.remove(executionId);
+        }
+    }
+
+    public void cancel(String executionId) {
+        if (executionId == null || executionId.isBlank()) {
+            return;
+        }
+        cancelLocal(executionId);
+        try {
+            stringRedisTemplate.convertAndSend(CANCEL_CHANNEL, executionId);
+        } catch (Exception e) {
+            log.warn("Agent run cancel broadcast failed: executionId={}, error={}", executionId, e.getMessage());
+        }
+        try {
+            taskExecutor.execute(() -> agentRunStateService.requestCancellation(executionId));
+        } catch (Exception e) {
+            log.warn("Agent run cancel persist rejected, writing inline: executionId={}", executionId);
+            agentRunStateService.requestCancellation(executionId);
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String executionId = new String(message.getBody(), StandardCharsets.UTF_8).trim();
+        if (!executionId.isEmpty()) {
+            cancelLocal(executionId);
+        }
+    }
+
+    private void cancelLocal(String executionId) {
+        AgentRunCancellationToken token = tokens.get(executionId);
+        if (token != null) {
+            token.cancel();
+        }
+    }
+}
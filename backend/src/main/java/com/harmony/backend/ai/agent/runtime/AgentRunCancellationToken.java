@@ -0,0 +1,87 @@
+package com.harmony.backend.ai.agent.runtime;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Cancellation flag for one agent run. The pub/sub broadcast flips it immediately; because a
+ * broadcast can be lost, {@link #isCancelled()} also consults the durable cancel flag at most once
+ * per check interval.
+ */
+@Slf4j
+public class AgentRunCancellationToken {
+
+    private final String executionId;
+    private final BooleanSupplier durableCheck;
+    private final long checkIntervalNanos;
+    private final Set<Thread> boundThreads = new LinkedHashSet<>();
+    private volatile boolean cancelled;
+    private volatile long lastDurableCheckNanos = System.nanoTime();
+
+    public AgentRunCancellationToken(String executionId, BooleanSupplier durableCheck, long checkIntervalMs) {
+        this.executionId = executionId;
+        this.durableCheck = durableCheck;
+        this.checkIntervalNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, checkIntervalMs));
+    }
+
+    public String getExecutionId() {
+        return executionId;
+    }
+
+    public boolean isCancelled() {
+        if (cancelled || durableCheck == null) {
+            return cancelled;
+        }
+        long now = System.nanoTime();
+        if (now - lastDurableCheckNanos >= checkIntervalNanos) {
+            lastDurableCheckNanos = now;
+            try {
+                if (durableCheck.getAsBoolean()) {
+                    cancel();
+                }
+            } catch (RuntimeException e) {
+                log.warn("Agent run cancel check failed: executionId={}, error={}", executionId, e.getMessage());
+            }
+        }
+        return cancelled;
+    }
+
+    public synchronized void cancel() {
+        if (cancelled) {
+            return;
+        }
+        cancelled = true;
+        // block() on an interrupted thread disposes its subscription, which aborts the in-flight HTTP exchange.
+        boundThreads.forEach(Thread::interrupt);
+    }
+
+    public <T> T runInterruptibly(Supplier<T> call) {
+        Thread current = Thread.currentThread();
+        synchronized (this) {
+            if (cancelled) {
+                throw new AgentRunCancelledException(executionId);
+            }
+            boundThreads.add(current);
+        }
+        try {
+            return call.get();
+        } catch (RuntimeException e) {
+            if (cancelled) {
+                throw new AgentRunCancelledException(executionId);
+            }
+            throw e;
+        } finally {
+            synchronized (this) {
+                boundThreads.remove(current);
+            }
+            if (cancelled) {
+                Thread.interrupted();
+            }
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.harmony.backend.ai.agent.runtime;
+
+public class AgentRunCancelledException extends RuntimeException {
+
+    private final String executionId;
+
+    public AgentRunCancelledException(String executionId) {
+        super("Cancellation requested");
+        this.executionId = executionId;
+    }
+
+    public String getExecutionId() {
+        return executionId;
+    }
+}
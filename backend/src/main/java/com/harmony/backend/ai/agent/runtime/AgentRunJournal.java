@@ -0,0 +1,217 @@
+package com.harmony.backend.ai.agent.runtime;
+
+import com.harmony.backend.common.entity.AgentRun;
+import com.harmony.backend.common.entity.AgentRunStep;
+import com.harmony.backend.common.mapper.AgentRunMapper;
+import com.harmony.backend.common.mapper.AgentRunStepMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+@Component
+@Slf4j
+public class AgentRunJournal {
+
+    private final AgentRunMapper agentRunMapper;
+    private final AgentRunStepMapper agentRunStepMapper;
+    private final Executor taskExecutor;
+    private final int batchSize;
+
+    private final ConcurrentLinkedQueue<Entry> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private final AtomicBoolean flushQueued = new AtomicBoolean(false);
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    public AgentRunJournal(AgentRunMapper agentRunMapper,
+                           AgentRunStepMapper agentRunStepMapper,
+                           @Qualifier("taskExecutor") Executor taskExecutor,
+                           @Value("${app.agents.journal.batch-size:32}") int batchSize) {
+        this.agentRunMapper = agentRunMapper;
+        this.agentRunStepMapper = agentRunStepMapper;
+        this.taskExecutor = taskExecutor;
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    public void appendRun(AgentRun run) {
+        if (run == null || run.getId() == null) {
+            return;
+        }
+        enqueue(new Entry(run, snapshotRun(run), null));
+    }
+
+    public void appendStep(AgentRunStep step) {
+        if (step == null) {
+            return;
+        }
+        enqueue(new Entry(step, snapshotStep(step), null));
+    }
+
+    public void appendAction(Runnable action) {
+        if (action == null) {
+            return;
+        }
+        enqueue(new Entry(null, null, action));
+    }
+
+    @Scheduled(fixedDelayString = "${app.agents.journal.flush-interval-ms:500}")
+    public void flushPeriodically() {
+        if (pendingCount.get() > 0) {
+            flush();
+        }
+    }
+
+    @PreDestroy
+    public void flush() {
+        flushLock.lock();
+        try {
+            List<Entry> drained = new ArrayList<>();
+            Entry entry;
+            while ((entry = pending.poll()) != null) {
+                pendingCount.decrementAndGet();
+                drained.add(entry);
+            }
+            if (!drained.isEmpty()) {
+                write(drained);
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void enqueue(Entry entry) {
+        pending.add(entry);
+        if (pendingCount.incrementAndGet() < batchSize || !flushQueued.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            taskExecutor.execute(() -> {
+                try {
+                    flush();
+                } finally {
+                    flushQueued.set(false);
+                }
+            });
+        } catch (Exception e) {
+            flushQueued.set(false);
+            log.debug("Agent run journal flush deferred to schedule: {}", e.getMessage());
+        }
+    }
+
+    private void write(List<Entry> drained) {
+        // Coalesce repeated transitions of the same entity so a step created and completed
+        // between two flushes costs one insert instead of an insert plus an update.
+        Map<Object, Entry> latest = new IdentityHashMap<>();
+        List<Object> order = new ArrayList<>();
+        List<Runnable> actions = new ArrayList<>();
+        for (Entry entry : drained) {
+            if (entry.action() != null) {
+                actions.add(entry.action());
+                continue;
+            }
+            if (latest.put(entry.source(), entry) == null) {
+                order.add(entry.source());
+            }
+        }
+
+        List<AgentRun> runUpdates = new ArrayList<>();
+        List<AgentRunStep> stepUpdates = new ArrayList<>();
+        for (Object source : order) {
+            Object snapshot = latest.get(source).snapshot();
+            if (snapshot instanceof AgentRun run) {
+                runUpdates.add(run);
+            } else if (snapshot instanceof AgentRunStep step) {
+                AgentRunStep original = (AgentRunStep) source;
+                if (original.getId() == null) {
+                    insertStep(original, step);
+                } else {
+                    step.setId(original.getId());
+                    stepUpdates.add(step);
+                }
+            }
+        }
+        if (!runUpdates.isEmpty()) {
+            try {
+                agentRunMapper.updateById(runUpdates);
+            } catch (Exception e) {
+                log.warn("Agent run journal batch update failed, retrying row by row: size={}, error={}", runUpdates.size(), e.getMessage());
+                runUpdates.forEach(run -> writeSafely(() -> agentRunMapper.updateById(run)));
+            }
+        }
+        if (!stepUpdates.isEmpty()) {
+            try {
+                agentRunStepMapper.updateById(stepUpdates);
+            } catch (Exception e) {
+                log.warn("Agent step journal batch update failed, retrying row by row: size={}, error={}", stepUpdates.size(), e.getMessage());
+                stepUpdates.forEach(step -> writeSafely(() -> agentRunStepMapper.updateById(step)));
+            }
+        }
+        for (Runnable action : actions) {
+            writeSafely(action);
+        }
+    }
+
+    private void insertStep(AgentRunStep original, AgentRunStep snapshot) {
+        writeSafely(() -> {
+            agentRunStepMapper.insert(snapshot);
+            original.setId(snapshot.getId());
+        });
+    }
+
+    private void writeSafely(Runnable write) {
+        try {
+            write.run();
+        } catch (Exception e) {
+            log.warn("Agent run journal write failed: {}", e.getMessage());
+        }
+    }
+
+    private AgentRun snapshotRun(AgentRun run) {
+        // cancelRequested is left null so a journaled update never overwrites a concurrent cancel request.
+        return AgentRun.builder()
+                .id(run.getId())
+                .status(run.getStatus())
+                .currentStep(run.getCurrentStep())
+                .planSummaryJson(run.getPlanSummaryJson())
+                .checkpointJson(run.getCheckpointJson())
+                .waitReason(run.getWaitReason())
+                .finalOutput(run.getFinalOutput())
+                .errorMessage(run.getErrorMessage())
+                .stepCount(run.getStepCount())
+                .toolCallCount(run.getToolCallCount())
+                .completedAt(run.getCompletedAt())
+                .build();
+    }
+
+    private AgentRunStep snapshotStep(AgentRunStep step) {
+        return AgentRunStep.builder()
+                .executionId(step.getExecutionId())
+                .runId(step.getRunId())
+                .stepOrder(step.getStepOrder())
+                .stepKey(step.getStepKey())
+                .agentId(step.getAgentId())
+                .status(step.getStatus())
+                .inputSummary(step.getInputSummary())
+                .outputSummary(step.getOutputSummary())
+                .errorMessage(step.getErrorMessage())
+                .artifactsJson(step.getArtifactsJson())
+                .startedAt(step.getStartedAt())
+                .completedAt(step.getCompletedAt())
+                .build();
+    }
+
+    private record Entry(Object source, Object snapshot, Runnable action) {
+    }
+}
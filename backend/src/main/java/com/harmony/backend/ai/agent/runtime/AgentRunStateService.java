@@ -4,7 +4,6 @@ import com.baomidou.mybatisplus.core.toolkit.Wrappers;
 import com.harmony.backend.common.entity.AgentRun;
 import com.harmony.backend.common.entity.AgentRunStep;
 import com.harmony.backend.common.mapper.AgentRunMapper;
-import com.harmony.backend.common.mapper.AgentRunStepMapper;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
@@ -14,11 +13,11 @@ import java.util.UUID;
 public class AgentRunStateService {
 
     private final AgentRunMapper agentRunMapper;
-    private final AgentRunStepMapper agentRunStepMapper;
+    private final AgentRunJournal journal;
 
-    public AgentRunStateService(AgentRunMapper agentRunMapper, AgentRunStepMapper agentRunStepMapper) {
+    public AgentRunStateService(AgentRunMapper agentRunMapper, AgentRunJournal journal) {
         this.agentRunMapper = agentRunMapper;
-        this.agentRunStepMapper = agentRunStepMapper;
+        this.journal = journal;
     }
 
     public AgentRun createPlannedRun(Long userId,
@@ -59,12 +58,16 @@ public class AgentRunStateService {
     }
 
     public void requestCancellation(String executionId) {
-        AgentRun run = findByExecutionId(executionId);
-        if (run == null || run.getId() == null) {
+        if (executionId == null || executionId.isBlank()) {
             return;
         }
-        run.setCancelRequested(true);
-        agentRunMapper.updateById(run);
+        agentRunMapper.update(Wrappers.<AgentRun>lambdaUpdate()
+                .eq(AgentRun::getExecutionId, executionId)
+                .set(AgentRun::getCancelRequested, true));
+    }
+
+    public void appendWorkflowProgress(Runnable progressWrite) {
+        journal.appendAction(progressWrite);
     }
 
     public void markRunRunning(AgentRun run,
@@ -83,7 +86,7 @@ public class AgentRunStateService {
         run.setWaitReason(null);
         run.setStepCount(stepCount);
         run.setToolCallCount(toolCallCount);
-        agentRunMapper.updateById(run);
+        journal.appendRun(run);
     }
 
     public void markRunWaiting(AgentRun run,
@@ -103,7 +106,8 @@ public class AgentRunStateService {
         run.setToolCallCount(toolCallCount);
         run.setCheckpointJson(checkpointJson);
         run.setPlanSummaryJson(planSummaryJson);
-        agentRunMapper.updateById(run);
+        journal.appendRun(run);
+        journal.flush();
     }
 
     public void markRunResumed(AgentRun run,
@@ -120,7 +124,7 @@ public class AgentRunStateService {
         run.setStepCount(stepCount);
         run.setToolCallCount(toolCallCount);
         run.setCheckpointJson(checkpointJson);
-        agentRunMapper.updateById(run);
+        journal.appendRun(run);
     }
 
     public void markRunCompleted(AgentRun run,
@@ -142,7 +146,8 @@ public class AgentRunStateService {
         run.setPlanSummaryJson(planSummaryJson);
         run.setWaitReason(null);
         run.setCompletedAt(LocalDateTime.now());
-        agentRunMapper.updateById(run);
+        journal.appendRun(run);
+        journal.flush();
     }
 
     public void markRunFailed(AgentRun run,
@@ -163,7 +168,8 @@ public class AgentRunStateService {
         run.setCheckpointJson(checkpointJson);
         run.setPlanSummaryJson(planSummaryJson);
         run.setCompletedAt(LocalDateTime.now());
-        agentRunMapper.updateById(run);
+        journal.appendRun(run);
+        journal.flush();
     }
 
     public void markRunCancelled(AgentRun run,
@@ -184,7 +190,8 @@ public class AgentRunStateService {
         run.setCheckpointJson(checkpointJson);
         run.setPlanSummaryJson(planSummaryJson);
         run.setCompletedAt(LocalDateTime.now());
-        agentRunMapper.updateById(run);
+        journal.appendRun(run);
+        journal.flush();
     }
 
     public AgentRunStep createRunningStep(AgentRun run,
@@ -204,29 +211,29 @@ public class AgentRunStateService {
                 .artifactsJson(artifactsJson)
                 .startedAt(LocalDateTime.now())
                 .build();
-        agentRunStepMapper.insert(step);
+        journal.appendStep(step);
         return step;
     }
 
     public void markStepCompleted(AgentRunStep step, String outputSummary, String artifactsJson) {
-        if (step == null || step.getId() == null) {
+        if (step == null) {
             return;
         }
         step.setStatus(AgentRunStepStatus.COMPLETED);
         step.setOutputSummary(outputSummary);
         step.setArtifactsJson(artifactsJson);
         step.setCompletedAt(LocalDateTime.now());
-        agentRunStepMapper.updateById(step);
+        journal.appendStep(step);
     }
 
     public void markStepFailed(AgentRunStep step, String errorMessage, String artifactsJson) {
-        if (step == null || step.getId() == null) {
+        if (step == null) {
             return;
         }
         step.setStatus(AgentRunStepStatus.FAILED);
         step.setErrorMessage(errorMessage);
         step.setArtifactsJson(artifactsJson);
         step.setCompletedAt(LocalDateTime.now());
-        agentRunStepMapper.updateById(step);
+        journal.appendStep(step);
     }
 }
@@ -132,12 +132,12 @@ public class AgentSpecialistExecutor {
         String skillModel = runtime.getAgent() != null ? runtime.getAgent().getToolModel() : null;
         String finalInput = normalizeSkillInput(skillKey, input, extractLastUserPrompt(contextMessages));
         SkillExecutionResult result = skillExecutor.execute(new SkillExecutionRequest(skillKey, finalInput, skillModel, executionId, stepKey));
+        if (usageRecorder != null && result != null && result.getPromptTokens() != null && result.getCompletionTokens() != null) {
+            usageRecorder.record(result.getModel(), result.getPromptTokens(), result.getCompletionTokens());
+        }
         if (result == null || !result.isSuccess()) {
             return "Skill execution failed: " + (result != null ? result.getError() : "unknown error");
         }
-        if (usageRecorder != null && result.getPromptTokens() != null && result.getCompletionTokens() != null) {
-            usageRecorder.record(result.getModel(), result.getPromptTokens(), result.getCompletionTokens());
-        }
         List<LlmMessage> followup = new ArrayList<>(contextMessages);
         if (draft != null && !draft.isBlank()) {
             followup.add(new LlmMessage("assistant", draft));
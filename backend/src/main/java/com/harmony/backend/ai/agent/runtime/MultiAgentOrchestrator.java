@@ -37,6 +37,7 @@ public class MultiAgentOrchestrator {
     private final AgentPlanResolver agentPlanResolver;
     private final AgentSpecialistExecutor specialistExecutor;
     private final AgentSynthesisService synthesisService;
+    private final AgentRunCancellationRegistry cancellationRegistry;
 
     public MultiAgentOrchestrator(@Qualifier("agentExecutor") java.util.concurrent.Executor agentExecutor,
                                   @Value("${app.agents.multiagent-timeout-seconds:20}") long agentTimeoutSeconds,
@@ -50,7 +51,8 @@ public class MultiAgentOrchestrator {
                                   AutonomousAgentRuntimeLoop runtimeLoop,
                                   AgentPlanResolver agentPlanResolver,
                                   AgentSpecialistExecutor specialistExecutor,
-                                  AgentSynthesisService synthesisService) {
+                                  AgentSynthesisService synthesisService,
+                                  AgentRunCancellationRegistry cancellationRegistry) {
         this.objectMapper = objectMapper;
         this.agentMemoryService = agentMemoryService;
         this.multiAgentPlanner = multiAgentPlanner;
@@ -59,6 +61,7 @@ public class MultiAgentOrchestrator {
         this.agentPlanResolver = agentPlanResolver;
         this.specialistExecutor = specialistExecutor;
         this.synthesisService = synthesisService;
+        this.cancellationRegistry = cancellationRegistry;
     }
 
     public String run(List<LlmMessage> contextMessages, String model, LlmAdapter adapter) {
@@ -117,10 +120,11 @@ public class MultiAgentOrchestrator {
                                                        String assistantMessageId) {
         AgentRun run = agentRunStateService.createPlannedRun(userId, chatId, assistantMessageId,
                 manager != null ? manager.getAgentId() : null, resolveManagerModel(defaultModel, manager), extractLastUserPrompt(contextMessages));
+        AgentRunCancellationToken token = cancellationRegistry.register(run.getExecutionId());
         try {
             AgentRunStep planningStep = agentRunStateService.createRunningStep(run, 1, "planning",
                     manager != null ? manager.getAgentId() : null, compact(extractLastUserPrompt(contextMessages), 320), null);
-            MultiAgentPlan plan = multiAgentPlanner.plan(contextMessages, defaultModel, manager, teamAgents, adapterRegistry);
+            MultiAgentPlan plan = token.runInterruptibly(() -> multiAgentPlanner.plan(contextMessages, defaultModel, manager, teamAgents, adapterRegistry));
             if (plan != null) {
                 plan.deriveStepsIfMissing();
             }
@@ -130,11 +134,15 @@ public class MultiAgentOrchestrator {
             AutonomousCheckpoint checkpoint = runtimeLoop.newCheckpoint(resolvedPlan.selectedAgents(), resolvedPlan.parallel(), resolvedPlan.reason(), 1, 0);
             agentRunStateService.markRunRunning(run, "specialists", planSummaryJson, runtimeLoop.writeCheckpoint(checkpoint), 1, 0);
             recordWorkflowProgress(userId, chatId, assistantMessageId, extractLastUserPrompt(contextMessages), "planned", planSummaryJson, "ACTIVE");
-            return continueTeamWorkflow(run, contextMessages, defaultModel, manager, resolvedPlan, adapterRegistry, usageRecorder,
+            return continueTeamWorkflow(run, token, contextMessages, defaultModel, manager, resolvedPlan, adapterRegistry, usageRecorder,
                     userId, chatId, assistantMessageId, planSummaryJson, checkpoint);
+        } catch (AgentRunCancelledException e) {
+            return finalizeInterrupted(run, defaultModel, manager, run.getPlanSummaryJson(), e, userId, chatId, assistantMessageId);
         } catch (Exception e) {
             agentRunStateService.markRunFailed(run, "failed", safe(e.getMessage()), safeStepCount(run), safeToolCallCount(run), run.getCheckpointJson(), run.getPlanSummaryJson());
             throw e;
+        } finally {
+            cancellationRegistry.release(run.getExecutionId());
         }
     }
 
@@ -162,14 +170,21 @@ public class MultiAgentOrchestrator {
         resumePlan.deriveStepsIfMissing();
         AgentPlanResolver.ResolvedAgentPlan resolvedPlan = agentPlanResolver.resolve(teamAgents, resumePlan);
         agentRunStateService.markRunResumed(run, checkpoint.synthesisPending() ? "synthesis" : "specialists", checkpoint.stepCount(), checkpoint.toolCallCount(), run.getCheckpointJson());
-        return continueTeamWorkflow(run, contextMessages, defaultModel, manager, resolvedPlan, adapterRegistry, usageRecorder,
-                run.getUserId(), run.getChatId(), run.getAssistantMessageId(), run.getPlanSummaryJson(), checkpoint);
+        AgentRunCancellationToken token = cancellationRegistry.register(run.getExecutionId());
+        try {
+            return continueTeamWorkflow(run, token, contextMessages, defaultModel, manager, resolvedPlan, adapterRegistry, usageRecorder,
+                    run.getUserId(), run.getChatId(), run.getAssistantMessageId(), run.getPlanSummaryJson(), checkpoint);
+        } finally {
+            cancellationRegistry.release(run.getExecutionId());
+        }
     }
 
     void cancelTeamWorkflow(String executionId) {
-        agentRunStateService.requestCancellation(executionId);
+        cancellationRegistry.cancel(executionId);
     }
+
     private AutonomousAgentExecutionResult continueTeamWorkflow(AgentRun run,
+                                                                AgentRunCancellationToken token,
                                                                 List<LlmMessage> contextMessages,
                                                                 String defaultModel,
                                                                 Agent manager,
@@ -183,17 +198,18 @@ public class MultiAgentOrchestrator {
                                                                 AutonomousCheckpoint checkpoint) {
         try {
             AutonomousCheckpoint currentCheckpoint = checkpoint;
+            String outputsArtifacts = null;
             if (!currentCheckpoint.synthesisPending()) {
                 AutonomousCheckpoint checkpointRef = currentCheckpoint;
                 AutonomousLoopOutcome specialistOutcome = runtimeLoop.executeSpecialistSlice(
                         resolvedPlan.selectedAgents(),
                         checkpointRef,
                         System.nanoTime(),
-                        () -> agentRunStateService.isCancellationRequested(run.getExecutionId()),
+                        token::isCancelled,
                         (runtime, priorOutputs, specialistIndex, stepOrder) -> {
                             List<LlmMessage> stepMessages = checkpointRef.parallel() ? contextMessages
                                     : buildWorkflowStepMessages(contextMessages, resolvedPlan.selectedAgents(), priorOutputs, specialistIndex);
-                            return runAgentStep(run, runtime, stepMessages, defaultModel, adapterRegistry, usageRecorder, stepOrder);
+                            return runAgentStep(run, token, runtime, stepMessages, defaultModel, adapterRegistry, usageRecorder, stepOrder);
                         }
                 );
                 if (specialistOutcome.failed()) {
@@ -207,12 +223,12 @@ public class MultiAgentOrchestrator {
                     return finalizeWaiting(run, defaultModel, manager, planSummaryJson, specialistOutcome, "specialists", userId, chatId, assistantMessageId);
                 }
                 currentCheckpoint = runtimeLoop.readCheckpoint(specialistOutcome.checkpointJson());
+                outputsArtifacts = buildOutputsArtifacts(resolvedPlan.selectedAgents(), currentCheckpoint.outputs());
                 recordWorkflowProgress(userId, chatId, assistantMessageId, extractLastUserPrompt(contextMessages), "specialists_completed",
-                        buildOutputsArtifacts(resolvedPlan.selectedAgents(), currentCheckpoint.outputs()), "ACTIVE");
+                        outputsArtifacts, "ACTIVE");
             }
 
-            AutonomousLoopOutcome synthesisGate = runtimeLoop.gateSynthesis(currentCheckpoint, System.nanoTime(),
-                    () -> agentRunStateService.isCancellationRequested(run.getExecutionId()));
+            AutonomousLoopOutcome synthesisGate = runtimeLoop.gateSynthesis(currentCheckpoint, System.nanoTime(), token::isCancelled);
             if (synthesisGate.failed()) {
                 return finalizeFailed(run, defaultModel, manager, planSummaryJson, synthesisGate, "synthesis",
                         userId, chatId, assistantMessageId);
@@ -229,13 +245,16 @@ public class MultiAgentOrchestrator {
             AgentRunStep synthesisStep = agentRunStateService.createRunningStep(run, synthesisStepOrder, "synthesis",
                     manager != null ? manager.getAgentId() : null,
                     compact(synthesisService.formatTeamOutputs(resolvedPlan.selectedAgents(), outputs, resolvedPlan.reason()), 500),
-                    buildOutputsArtifacts(resolvedPlan.selectedAgents(), outputs));
-            String finalAnswer = synthesisService.synthesize(contextMessages, defaultModel, manager, resolvedPlan.selectedAgents(), outputs, adapterRegistry, resolvedPlan.reason());
+                    outputsArtifacts != null ? outputsArtifacts : buildOutputsArtifacts(resolvedPlan.selectedAgents(), outputs));
+            String finalAnswer = token.runInterruptibly(() -> synthesisService.synthesize(contextMessages, defaultModel, manager,
+                    resolvedPlan.selectedAgents(), outputs, adapterRegistry, resolvedPlan.reason()));
             String finalArtifacts = buildFinalArtifacts(resolvedPlan.reason(), resolvedPlan.selectedAgents(), outputs, finalAnswer);
             agentRunStateService.markStepCompleted(synthesisStep, compact(finalAnswer, 320), finalArtifacts);
             recordWorkflowProgress(userId, chatId, assistantMessageId, extractLastUserPrompt(contextMessages), "synthesized", finalArtifacts, "ACTIVE");
             agentRunStateService.markRunCompleted(run, "completed", finalAnswer, synthesisStepOrder, currentCheckpoint.toolCallCount(), null, planSummaryJson);
             return AutonomousAgentExecutionResult.completed(finalAnswer, resolveManagerModel(defaultModel, manager), run.getExecutionId(), AgentRunStatus.COMPLETED, synthesisStepOrder);
+        } catch (AgentRunCancelledException e) {
+            return finalizeInterrupted(run, defaultModel, manager, planSummaryJson, e, userId, chatId, assistantMessageId);
         } catch (Exception e) {
             agentRunStateService.markRunFailed(run, "failed", safe(e.getMessage()), safeStepCount(run), safeToolCallCount(run), run.getCheckpointJson(), planSummaryJson);
             throw e;
@@ -256,6 +275,14 @@ public class MultiAgentOrchestrator {
         return AutonomousAgentExecutionResult.cancelled(run.getExecutionId(), resolveManagerModel(defaultModel, manager), outcome.stepCount(), outcome.waitReason());
     }
 
+    private AutonomousAgentExecutionResult finalizeInterrupted(AgentRun run, String defaultModel, Agent manager, String planSummaryJson,
+                                                               AgentRunCancelledException cancellation,
+                                                               Long userId, String chatId, String assistantMessageId) {
+        AutonomousLoopOutcome outcome = AutonomousLoopOutcome.cancelled(List.of(), safeStepCount(run), safeToolCallCount(run),
+                run.getCheckpointJson(), cancellation.getMessage());
+        return finalizeCancelled(run, defaultModel, manager, planSummaryJson, outcome, userId, chatId, assistantMessageId);
+    }
+
     private AutonomousAgentExecutionResult finalizeFailed(AgentRun run, String defaultModel, Agent manager, String planSummaryJson,
                                                           AutonomousLoopOutcome outcome, String currentStep,
                                                           Long userId, String chatId, String assistantMessageId) {
@@ -286,6 +313,7 @@ public class MultiAgentOrchestrator {
     }
 
     private AgentStepExecutionResult runAgentStep(AgentRun run,
+                                                  AgentRunCancellationToken token,
                                                   TeamAgentRuntime runtime,
                                                   List<LlmMessage> contextMessages,
                                                   String defaultModel,
@@ -293,15 +321,17 @@ public class MultiAgentOrchestrator {
                                                   ToolUsageRecorder usageRecorder,
                                                   int stepOrder) {
         String stepKey = "specialist-" + stepOrder;
+        String stepArtifacts = buildStepArtifacts(runtime);
         AgentRunStep step = agentRunStateService.createRunningStep(run, stepOrder, "specialist",
                 runtime != null && runtime.getAgent() != null ? runtime.getAgent().getAgentId() : null,
-                compact(extractLastUserPrompt(contextMessages), 320), buildStepArtifacts(runtime));
+                compact(extractLastUserPrompt(contextMessages), 320), stepArtifacts);
         try {
-            AgentStepExecutionResult result = specialistExecutor.execute(runtime, contextMessages, defaultModel, adapterRegistry, usageRecorder, run.getExecutionId(), stepKey);
-            agentRunStateService.markStepCompleted(step, compact(result.output(), 320), buildStepArtifacts(runtime));
+            AgentStepExecutionResult result = token.runInterruptibly(() -> specialistExecutor.execute(runtime, contextMessages, defaultModel,
+                    adapterRegistry, usageRecorder, run.getExecutionId(), stepKey));
+            agentRunStateService.markStepCompleted(step, compact(result.output(), 320), stepArtifacts);
             return result;
         } catch (Exception e) {
-            agentRunStateService.markStepFailed(step, safe(e.getMessage()), buildStepArtifacts(runtime));
+            agentRunStateService.markStepFailed(step, safe(e.getMessage()), stepArtifacts);
             throw e;
         }
     }
@@ -309,7 +339,13 @@ public class MultiAgentOrchestrator {
         if (userId == null || chatId == null || assistantMessageId == null) {
             return;
         }
-        agentMemoryService.recordWorkflowProgress(userId, chatId, TEAM_WORKFLOW_KEY, goal, currentStep, status, artifactsJson, assistantMessageId);
+        Runnable write = () -> agentMemoryService.recordWorkflowProgress(userId, chatId, TEAM_WORKFLOW_KEY, goal, currentStep, status,
+                artifactsJson, assistantMessageId);
+        if ("ACTIVE".equals(status)) {
+            agentRunStateService.appendWorkflowProgress(write);
+            return;
+        }
+        write.run();
     }
 
     private String buildPlanArtifacts(MultiAgentPlan plan, AgentPlanResolver.ResolvedAgentPlan resolvedPlan) {
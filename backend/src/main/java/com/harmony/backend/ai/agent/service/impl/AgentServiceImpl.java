@@ -25,7 +25,9 @@ import com.harmony.backend.common.mapper.AgentRunStepMapper;
 import com.harmony.backend.common.mapper.MessageMapper;
 import com.harmony.backend.common.mapper.SessionMapper;
 import com.harmony.backend.common.response.PageResult;
+import com.harmony.backend.common.search.CatalogSearchService;
 import com.harmony.backend.common.util.PageResultUtils;
+import com.harmony.backend.modules.chat.service.support.ChatDefinitionCache;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
@@ -47,6 +49,8 @@ public class AgentServiceImpl extends ServiceImpl<AgentMapper, Agent> implements
     private final MessageMapper messageMapper;
     private final AgentRunStepMapper agentRunStepMapper;
     private final AgentRuntimeBridgeService agentRuntimeBridgeService;
+    private final CatalogSearchService catalogSearchService;
+    private final ChatDefinitionCache chatDefinitionCache;
 
     @Override
     public List<String> validateSkills(List<String> skills) {
@@ -83,17 +87,14 @@ public class AgentServiceImpl extends ServiceImpl<AgentMapper, Agent> implements
 
     @Override
     public PageResult<AgentVO> listPublic(int page, int size, String keyword) {
+        if (StringUtils.hasText(keyword)) {
+            return toVoPage(catalogSearchService.searchPublicAgents(keyword, page, size));
+        }
         Page<Agent> pageResult = new Page<>(page, size);
         LambdaQueryWrapper<Agent> query = new LambdaQueryWrapper<>();
         query.eq(Agent::getIsDeleted, false).eq(Agent::getIsPublic, true);
-        if (StringUtils.hasText(keyword)) {
-            query.and(q -> q.like(Agent::getName, keyword).or().like(Agent::getDescription, keyword));
-        }
         query.orderByDesc(Agent::getCreatedAt);
-        Page<Agent> result = baseMapper.selectPage(pageResult, query);
-        long total = baseMapper.selectCount(query);
-        result.setTotal(total);
-        return toVoPage(result);
+        return toVoPage(baseMapper.selectPage(pageResult, query));
     }
 
     @Override
@@ -151,6 +152,9 @@ public class AgentServiceImpl extends ServiceImpl<AgentMapper, Agent> implements
         agent.setIsPublic(isAdmin && requestPublic);
         agent.setRequestPublic(!isAdmin && requestPublic);
         baseMapper.insert(agent);
+        if (Boolean.TRUE.equals(agent.getIsPublic())) {
+            catalogSearchService.invalidateAgents();
+        }
         return toVo(agent, skills);
     }
 
@@ -169,6 +173,7 @@ public class AgentServiceImpl extends ServiceImpl<AgentMapper, Agent> implements
         if (!isAdmin && Boolean.TRUE.equals(agent.getIsPublic())) {
             throw new BusinessException(403, "Public agent can only be updated by admin");
         }
+        boolean wasPublic = Boolean.TRUE.equals(agent.getIsPublic());
         boolean finalMultiAgent = request.getMultiAgent() != null ? Boolean.TRUE.equals(request.getMultiAgent()) : Boolean.TRUE.equals(agent.getMultiAgent());
         boolean finalIsPublic = Boolean.TRUE.equals(agent.getIsPublic());
         boolean finalRequestPublic = Boolean.TRUE.equals(agent.getRequestPublic());
@@ -209,8 +214,13 @@ public class AgentServiceImpl extends ServiceImpl<AgentMapper, Agent> implements
             agent.setIsPublic(false);
             agent.setRequestPublic(Boolean.TRUE.equals(request.getRequestPublic()));
         }
-        if (updated) {
+        if (updated || request.getRequestPublic() != null) {
             baseMapper.updateById(agent);
+            chatDefinitionCache.invalidateAgent(agentId);
+            boolean isPublic = Boolean.TRUE.equals(agent.getIsPublic());
+            if (wasPublic != isPublic || (isPublic && updated)) {
+                catalogSearchService.invalidateAgents();
+            }
         }
         return toVo(agent);
     }
@@ -238,6 +248,10 @@ public class AgentServiceImpl extends ServiceImpl<AgentMapper, Agent> implements
                     .set(Agent::getIsPublic, false)
                     .set(Agent::getRequestPublic, false)
                     .set(Agent::getUpdatedAt, LocalDateTime.now()));
+            chatDefinitionCache.invalidateAgent(agentId);
+            if (Boolean.TRUE.equals(agent.getIsPublic())) {
+                catalogSearchService.invalidateAgents();
+            }
             cleanupAgentSessions(agentId);
         }
         return ok;
@@ -254,7 +268,8 @@ public class AgentServiceImpl extends ServiceImpl<AgentMapper, Agent> implements
         AgentRun run = agentRuntimeBridgeService.getStatus(executionId);
         AgentRun accessible = ensureRunAccess(run, userId, isAdmin);
         agentRuntimeBridgeService.cancel(executionId);
-        return toRunStatusVO(agentRuntimeBridgeService.getStatus(accessible.getExecutionId()));
+        accessible.setCancelRequested(true);
+        return toRunStatusVO(accessible);
     }
 
     @Override
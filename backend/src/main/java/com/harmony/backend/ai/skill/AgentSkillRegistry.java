@@ -24,6 +24,10 @@ public class AgentSkillRegistry {
         return agentSkillCatalogService.getEnabledDefinition(key.trim());
     }
 
+    public SkillCatalogSnapshot snapshot() {
+        return agentSkillCatalogService.snapshot();
+    }
+
     public boolean isValidKey(String key) {
         return get(key) != null;
     }
@@ -0,0 +1,147 @@
+package com.harmony.backend.ai.skill;
+
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable view of the enabled skill catalog at one version, with the lookups the chat path needs
+ * (skill to tools, tool to skills, keyword match index) computed once when the snapshot is built.
+ */
+public final class SkillCatalogSnapshot {
+
+    private final long version;
+    private final List<AgentSkillDefinition> definitions;
+    private final Map<String, AgentSkillDefinition> byKey;
+    private final Map<String, List<String>> skillsByTool;
+    private final SkillMatchIndex matchIndex;
+
+    private SkillCatalogSnapshot(long version,
+                                 List<AgentSkillDefinition> definitions,
+                                 Map<String, AgentSkillDefinition> byKey,
+                                 Map<String, List<String>> skillsByTool,
+                                 SkillMatchIndex matchIndex) {
+        this.version = version;
+        this.definitions = definitions;
+        this.byKey = byKey;
+        this.skillsByTool = skillsByTool;
+        this.matchIndex = matchIndex;
+    }
+
+    public static SkillCatalogSnapshot build(long version,
+                                             Collection<AgentSkillDefinition> definitions,
+                                             Map<String, List<String>> aliases) {
+        List<AgentSkillDefinition> ordered = new ArrayList<>(definitions.size());
+        Map<String, AgentSkillDefinition> byKey = new LinkedHashMap<>();
+        Map<String, List<String>> skillsByTool = new LinkedHashMap<>();
+        for (AgentSkillDefinition definition : definitions) {
+            AgentSkillDefinition frozen = freeze(definition);
+            ordered.add(frozen);
+            byKey.put(frozen.getKey(), frozen);
+            for (String toolKey : frozen.getToolKeys()) {
+                List<String> skills = skillsByTool.computeIfAbsent(toolKey, key -> new ArrayList<>());
+                if (!skills.contains(frozen.getKey())) {
+                    skills.add(frozen.getKey());
+                }
+            }
+        }
+        skillsByTool.replaceAll((tool, skills) -> List.copyOf(skills));
+        return new SkillCatalogSnapshot(version,
+                Collections.unmodifiableList(ordered),
+                Collections.unmodifiableMap(byKey),
+                Collections.unmodifiableMap(skillsByTool),
+                SkillMatchIndex.build(ordered, aliases == null ? Map.of() : aliases));
+    }
+
+    public long version() {
+        return version;
+    }
+
+    public List<AgentSkillDefinition> definitions() {
+        return definitions;
+    }
+
+    public AgentSkillDefinition get(String key) {
+        return StringUtils.hasText(key) ? byKey.get(key.trim().toLowerCase(Locale.ROOT)) : null;
+    }
+
+    public SkillMatchIndex matchIndex() {
+        return matchIndex;
+    }
+
+    public List<String> expandTools(List<String> skills) {
+        if (skills == null || skills.isEmpty()) {
+            return List.of();
+        }
+        Set<String> toolKeys = new LinkedHashSet<>();
+        for (String skill : skills) {
+            AgentSkillDefinition definition = get(skill);
+            if (definition != null) {
+                toolKeys.addAll(definition.getToolKeys());
+            }
+        }
+        return new ArrayList<>(toolKeys);
+    }
+
+    public List<String> recommendSkills(List<String> tools) {
+        if (tools == null || tools.isEmpty()) {
+            return List.of();
+        }
+        Set<String> matched = new LinkedHashSet<>();
+        for (String tool : tools) {
+            if (tool != null) {
+                matched.addAll(skillsByTool.getOrDefault(tool, List.of()));
+            }
+        }
+        // Keep catalog order, as the previous full scan did.
+        List<String> skills = new ArrayList<>(matched.size());
+        for (AgentSkillDefinition definition : definitions) {
+            if (matched.contains(definition.getKey())) {
+                skills.add(definition.getKey());
+            }
+        }
+        return skills;
+    }
+
+    public String findSkillForTool(String toolKey, List<String> allowedSkills) {
+        if (!StringUtils.hasText(toolKey)) {
+            return null;
+        }
+        for (String skill : skillsByTool.getOrDefault(toolKey.trim(), List.of())) {
+            if (allowedSkills == null || allowedSkills.isEmpty() || allowedSkills.contains(skill)) {
+                return skill;
+            }
+        }
+        return null;
+    }
+
+    private static AgentSkillDefinition freeze(AgentSkillDefinition definition) {
+        List<String> toolKeys = new ArrayList<>();
+        if (definition.getToolKeys() != null) {
+            for (String toolKey : definition.getToolKeys()) {
+                if (StringUtils.hasText(toolKey) && !toolKeys.contains(toolKey.trim())) {
+                    toolKeys.add(toolKey.trim());
+                }
+            }
+        }
+        return new AgentSkillDefinition(definition.getKey(),
+                definition.getName(),
+                definition.getDescription(),
+                List.copyOf(toolKeys),
+                definition.getExecutionMode(),
+                unmodifiableCopy(definition.getInputSchema()),
+                unmodifiableCopy(definition.getStepConfig()));
+    }
+
+    private static <T> List<T> unmodifiableCopy(List<T> values) {
+        return values == null ? List.of() : Collections.unmodifiableList(new ArrayList<>(values));
+    }
+}
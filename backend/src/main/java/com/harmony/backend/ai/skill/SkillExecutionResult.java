@@ -61,6 +61,18 @@ public class SkillExecutionResult implements AgentExecutionResultView {
         return new SkillExecutionResult(false, null, error, null, null, null, List.of(), Map.of());
     }
 
+    /**
+     * Failure that still carries the usage of the steps that ran before it, so it can be billed.
+     */
+    public static SkillExecutionResult fail(String error, String model, Integer promptTokens, Integer completionTokens,
+                                            List<String> usedTools, Map<String, Object> metadata) {
+        return new SkillExecutionResult(false, null, error, model, promptTokens, completionTokens, usedTools, metadata);
+    }
+
+    public boolean hasUsage() {
+        return (promptTokens != null && promptTokens > 0) || (completionTokens != null && completionTokens > 0);
+    }
+
     @Override
     public List<String> getUsedTools() {
         return usedTools == null ? List.of() : usedTools;
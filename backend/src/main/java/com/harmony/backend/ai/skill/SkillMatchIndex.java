@@ -0,0 +1,159 @@
+package com.harmony.backend.ai.skill;
+
+import com.harmony.backend.common.search.CatalogTokenizer;
+import org.springframework.util.StringUtils;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Inverted index from catalog terms (key, name, aliases, description, tools; CJK as n-grams) to
+ * skills, compiled once per catalog snapshot. Scoring walks the prompt's terms once and adds a
+ * bonus for every whole key, name or alias phrase the prompt contains. Alphabetic phrases must
+ * match whole terms in sequence ("date" does not match inside "update"); phrases containing CJK,
+ * which has no word boundaries, match as substrings.
+ */
+public final class SkillMatchIndex {
+
+    private static final int KEY_WEIGHT = 5;
+    private static final int NAME_WEIGHT = 4;
+    private static final int ALIAS_WEIGHT = 4;
+    private static final int DESCRIPTION_WEIGHT = 2;
+    private static final int TOOL_WEIGHT = 1;
+    private static final int TERM_POINTS = 2;
+    private static final int PHRASE_POINTS = 6;
+
+    private final Map<String, Map<String, Integer>> postings;
+    private final Map<String, Double> idf;
+    private final Map<String, Map<Phrase, Integer>> phrasesBySkill;
+
+    private SkillMatchIndex(Map<String, Map<String, Integer>> postings,
+                            Map<String, Double> idf,
+                            Map<String, Map<Phrase, Integer>> phrasesBySkill) {
+        this.postings = postings;
+        this.idf = idf;
+        this.phrasesBySkill = phrasesBySkill;
+    }
+
+    static SkillMatchIndex build(Collection<AgentSkillDefinition> definitions, Map<String, List<String>> aliases) {
+        Map<String, Map<String, Integer>> postings = new HashMap<>();
+        Map<String, Map<Phrase, Integer>> phrasesBySkill = new HashMap<>();
+        for (AgentSkillDefinition definition : definitions) {
+            String key = definition.getKey();
+            Map<Phrase, Integer> phrases = new LinkedHashMap<>();
+            addField(postings, phrases, key, key, KEY_WEIGHT, true);
+            addField(postings, phrases, key, definition.getName(), NAME_WEIGHT, true);
+            for (String alias : aliases.getOrDefault(key, List.of())) {
+                addField(postings, phrases, key, alias, ALIAS_WEIGHT, true);
+            }
+            addField(postings, phrases, key, definition.getDescription(), DESCRIPTION_WEIGHT, false);
+            for (String toolKey : definition.getToolKeys()) {
+                addField(postings, phrases, key, toolKey, TOOL_WEIGHT, false);
+            }
+            phrasesBySkill.put(key, Collections.unmodifiableMap(phrases));
+        }
+        // Normalized so a term unique to one skill weighs 1 and one shared by every skill weighs least.
+        int skillCount = Math.max(1, definitions.size());
+        double maxIdf = Math.log(1.0 + skillCount);
+        Map<String, Double> idf = new HashMap<>();
+        for (Map.Entry<String, Map<String, Integer>> entry : postings.entrySet()) {
+            idf.put(entry.getKey(), Math.log(1.0 + (double) skillCount / entry.getValue().size()) / maxIdf);
+            entry.setValue(Collections.unmodifiableMap(entry.getValue()));
+        }
+        return new SkillMatchIndex(Collections.unmodifiableMap(postings), Collections.unmodifiableMap(idf),
+                Collections.unmodifiableMap(phrasesBySkill));
+    }
+
+    /**
+     * Keyword scores for the given skills; skills with no match are absent from the result.
+     */
+    public Map<String, Integer> score(String prompt, Collection<String> skillKeys) {
+        if (!StringUtils.hasText(prompt) || skillKeys == null || skillKeys.isEmpty()) {
+            return Map.of();
+        }
+        Set<String> allowed = new HashSet<>();
+        for (String skillKey : skillKeys) {
+            if (StringUtils.hasText(skillKey)) {
+                allowed.add(skillKey.trim().toLowerCase(Locale.ROOT));
+            }
+        }
+        Map<String, Double> scores = new HashMap<>();
+        List<String> promptTerms = CatalogTokenizer.queryTerms(prompt);
+        for (String term : new LinkedHashSet<>(promptTerms)) {
+            Map<String, Integer> posting = postings.get(term);
+            if (posting == null) {
+                continue;
+            }
+            double termIdf = idf.get(term);
+            for (Map.Entry<String, Integer> entry : posting.entrySet()) {
+                if (allowed.contains(entry.getKey())) {
+                    scores.merge(entry.getKey(), TERM_POINTS * entry.getValue() * termIdf, Double::sum);
+                }
+            }
+        }
+        String normalizedPrompt = normalizePhrase(prompt);
+        for (String skillKey : allowed) {
+            for (Map.Entry<Phrase, Integer> phrase : phrasesBySkill.getOrDefault(skillKey, Map.of()).entrySet()) {
+                if (phrase.getKey().matches(normalizedPrompt, promptTerms)) {
+                    scores.merge(skillKey, (double) PHRASE_POINTS * phrase.getValue(), Double::sum);
+                }
+            }
+        }
+        Map<String, Integer> result = new HashMap<>();
+        scores.forEach((skillKey, score) -> result.put(skillKey, (int) Math.round(score)));
+        return result;
+    }
+
+    private static void addField(Map<String, Map<String, Integer>> postings,
+                                 Map<Phrase, Integer> phrases,
+                                 String skillKey,
+                                 String text,
+                                 int weight,
+                                 boolean phrase) {
+        if (!StringUtils.hasText(text)) {
+            return;
+        }
+        for (String term : CatalogTokenizer.indexTerms(text)) {
+            // A term that appears in several fields counts once, at its strongest field.
+            postings.computeIfAbsent(term, k -> new HashMap<>()).merge(skillKey, weight, Math::max);
+        }
+        if (phrase) {
+            phrases.merge(Phrase.of(text), weight, Math::max);
+        }
+    }
+
+    private static String normalizePhrase(String text) {
+        return text.trim().toLowerCase(Locale.ROOT).replaceAll("[\\s_\\-]+", " ");
+    }
+
+    /**
+     * A key, name or alias phrase: CJK phrases keep their normalized text for substring matching,
+     * alphabetic ones their term sequence.
+     */
+    private record Phrase(String text, List<String> terms, boolean cjk) {
+
+        static Phrase of(String raw) {
+            List<String> terms = List.copyOf(CatalogTokenizer.queryTerms(raw));
+            boolean cjk = terms.stream().anyMatch(CatalogTokenizer::isCjkTerm);
+            return new Phrase(normalizePhrase(raw), cjk ? List.of() : terms, cjk);
+        }
+
+        boolean matches(String normalizedPrompt, List<String> promptTerms) {
+            if (cjk) {
+                return normalizedPrompt.contains(text);
+            }
+            if (terms.isEmpty() || terms.size() > promptTerms.size()) {
+                return false;
+            }
+            return Collections.indexOfSubList(promptTerms, terms) >= 0;
+        }
+    }
+}
@@ -14,6 +14,7 @@ public class SkillPlan {
     private List<SkillCandidate> candidates;
     private String normalizedInput;
     private String reason;
+    private double confidence;
 
     public boolean hasSelection() {
         return selectedSkillKey != null && !selectedSkillKey.isBlank();
@@ -1,13 +1,44 @@
 package com.harmony.backend.ai.skill;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.List;
+
+/**
+ * One tool call in a skill. Steps without {@code dependsOn} form a chain, each consuming the
+ * previous output; once any step declares {@code dependsOn} (ids of earlier steps, or
+ * {@value #ORIGINAL_INPUT} for the skill input) the steps run as a graph, and the optional
+ * {@code join} step produces the skill output.
+ */
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class SkillStepDefinition {
+    public static final String ORIGINAL_INPUT = "input";
+
     private String toolKey;
     private String prompt;
+    private String id;
+    private List<String> dependsOn;
+    private Boolean join;
+
+    public SkillStepDefinition(String toolKey, String prompt) {
+        this(toolKey, prompt, null, null, null);
+    }
+
+    public String resolveId() {
+        return id != null && !id.isBlank() ? id.trim() : toolKey;
+    }
+
+    public boolean hasDependencies() {
+        return dependsOn != null && !dependsOn.isEmpty();
+    }
+
+    @JsonIgnore
+    public boolean isJoinStep() {
+        return Boolean.TRUE.equals(join);
+    }
 }
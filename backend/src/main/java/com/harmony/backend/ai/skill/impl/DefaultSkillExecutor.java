@@ -9,11 +9,10 @@ import com.harmony.backend.ai.skill.SkillExecutionResult;
 import com.harmony.backend.ai.skill.SkillExecutor;
 import com.harmony.backend.ai.skill.SkillInputField;
 import com.harmony.backend.ai.skill.SkillStepDefinition;
-import com.harmony.backend.ai.tool.AgentToolRegistry;
-import com.harmony.backend.ai.tool.ExecutableAgentTool;
 import com.harmony.backend.ai.tool.ToolExecutionRequest;
 import com.harmony.backend.ai.tool.ToolExecutionResult;
 import com.harmony.backend.ai.tool.ToolExecutor;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -21,11 +20,19 @@ import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 @Component
 @Slf4j
@@ -33,13 +40,17 @@ import java.util.Set;
 public class DefaultSkillExecutor implements SkillExecutor {
 
     private final AgentSkillRegistry skillRegistry;
-    private final AgentToolRegistry toolRegistry;
     private final ToolExecutor toolExecutor;
     private final ObjectMapper objectMapper;
 
+    private final ExecutorService stepExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
     @Value("${app.skills.max-pipeline-steps:4}")
     private int maxPipelineSteps;
 
+    @Value("${app.skills.pipeline-deadline-ms:30000}")
+    private long pipelineDeadlineMs;
+
     @Override
     public SkillExecutionResult execute(SkillExecutionRequest request) {
         if (request == null || !StringUtils.hasText(request.getSkillKey())) {
@@ -87,33 +98,224 @@ public class DefaultSkillExecutor implements SkillExecutor {
         );
     }
 
+    /**
+     * Runs the steps as a dependency graph: each step is submitted to a virtual thread as soon as
+     * the steps it reads from finish, so independent steps overlap. Plain step lists are the chain
+     * graph where every step reads its predecessor. The first failed step or the skill deadline
+     * fails the whole skill and interrupts the steps still running; tokens already spent by
+     * finished steps are still reported on the failed result so callers can bill them.
+     */
     private SkillExecutionResult executePipeline(AgentSkillDefinition definition,
                                                  SkillExecutionRequest request,
                                                  List<SkillStepDefinition> steps) {
-        String currentInput = request.getInput();
-        String lastModel = null;
+        boolean graph = steps.stream().anyMatch(SkillStepDefinition::hasDependencies);
+        Map<String, List<String>> dependencies = new LinkedHashMap<>();
+        Map<String, SkillStepDefinition> stepsById = new LinkedHashMap<>();
+        String previousId = null;
+        for (SkillStepDefinition step : steps) {
+            String id = step.resolveId();
+            if (stepsById.putIfAbsent(id, step) != null) {
+                return SkillExecutionResult.fail(graph
+                        ? "Skill pipeline declares duplicate step id: " + id
+                        : "Skill pipeline attempted repeated tool execution: " + step.getToolKey());
+            }
+            List<String> inputs;
+            if (graph) {
+                inputs = step.hasDependencies() ? step.getDependsOn() : List.of(SkillStepDefinition.ORIGINAL_INPUT);
+            } else {
+                inputs = List.of(previousId == null ? SkillStepDefinition.ORIGINAL_INPUT : previousId);
+            }
+            for (String input : inputs) {
+                if (!SkillStepDefinition.ORIGINAL_INPUT.equals(input) && !dependencies.containsKey(input)) {
+                    return SkillExecutionResult.fail("Skill step " + id + " depends on unknown or later step: " + input);
+                }
+            }
+            dependencies.put(id, inputs);
+            previousId = id;
+        }
+
+        long startedAt = System.currentTimeMillis();
+        long deadlineMs = Math.max(1000, pipelineDeadlineMs);
+        long deadline = startedAt + deadlineMs;
+        Map<String, StepOutcome> finished = new LinkedHashMap<>();
+        Map<String, Future<StepOutcome>> running = new LinkedHashMap<>();
+        ExecutorCompletionService<StepOutcome> completion = new ExecutorCompletionService<>(stepExecutor);
+        String failure = null;
+        try {
+            while (finished.size() < dependencies.size()) {
+                for (Map.Entry<String, List<String>> entry : dependencies.entrySet()) {
+                    String id = entry.getKey();
+                    if (finished.containsKey(id) || running.containsKey(id) || !isReady(entry.getValue(), finished)) {
+                        continue;
+                    }
+                    SkillStepDefinition step = stepsById.get(id);
+                    String input = assembleStepInput(entry.getValue(), request.getInput(), finished);
+                    running.put(id, completion.submit(() -> runStep(id, step, input, request)));
+                }
+                long remaining = deadline - System.currentTimeMillis();
+                Future<StepOutcome> next = remaining > 0 ? completion.poll(remaining, TimeUnit.MILLISECONDS) : null;
+                if (next == null) {
+                    log.warn("Skill pipeline timed out: skillKey={}, deadlineMs={}", definition.getKey(), deadlineMs);
+                    failure = "Skill pipeline timed out after " + deadlineMs + "ms";
+                    break;
+                }
+                StepOutcome outcome;
+                try {
+                    outcome = next.get();
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause();
+                    failure = cause != null && StringUtils.hasText(cause.getMessage()) ? cause.getMessage() : "Skill pipeline failed";
+                    break;
+                }
+                running.remove(outcome.id());
+                finished.put(outcome.id(), outcome);
+                if (!outcome.result().isSuccess()) {
+                    failure = StringUtils.hasText(outcome.result().getError()) ? outcome.result().getError() : "Skill pipeline failed";
+                    break;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failure = "Skill pipeline interrupted";
+        } finally {
+            running.values().forEach(future -> future.cancel(true));
+        }
+
+        Map<String, Object> extra = summarize(finished.values(), dependencies, graph, startedAt);
+        int promptTokens = finished.values().stream().mapToInt(outcome -> tokens(outcome.result().getPromptTokens())).sum();
+        int completionTokens = finished.values().stream().mapToInt(outcome -> tokens(outcome.result().getCompletionTokens())).sum();
+        List<String> usedTools = usedTools(finished.values());
+        if (failure != null) {
+            String model = finished.isEmpty() ? null : lastOf(finished).result().getModel();
+            return SkillExecutionResult.fail(failure, model, promptTokens, completionTokens, usedTools,
+                    metadata(definition.getKey(), usedTools, request, extra));
+        }
+
+        // Output: the declared join step, else the single step nothing reads from, else every such sink.
+        Set<String> consumed = new HashSet<>();
+        dependencies.values().forEach(consumed::addAll);
+        List<String> outputIds = new ArrayList<>();
+        SkillStepDefinition last = steps.get(steps.size() - 1);
+        if (last.isJoinStep() || !graph) {
+            outputIds.add(last.resolveId());
+        } else {
+            for (String id : dependencies.keySet()) {
+                if (!consumed.contains(id)) {
+                    outputIds.add(id);
+                }
+            }
+        }
+        String output = assembleStepInput(outputIds, request.getInput(), finished);
+        String model = finished.get(outputIds.get(outputIds.size() - 1)).result().getModel();
+        log.info("Skill pipeline success: skillKey={}, usedTools={}, graph={}", definition.getKey(), usedTools, graph);
+        return SkillExecutionResult.ok(output, model, promptTokens, completionTokens, usedTools,
+                metadata(definition.getKey(), usedTools, request, extra));
+    }
+
+    private boolean isReady(List<String> sources, Map<String, StepOutcome> finished) {
+        for (String source : sources) {
+            if (!SkillStepDefinition.ORIGINAL_INPUT.equals(source) && !finished.containsKey(source)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the tool result even when it failed, so the tokens the step spent are not lost.
+     */
+    private StepOutcome runStep(String id, SkillStepDefinition step, String input, SkillExecutionRequest request) {
+        long startedAt = System.currentTimeMillis();
+        ToolExecutionResult result = executeTool(step.getToolKey(), buildToolInput(step.getPrompt(), input), request);
+        if (result == null) {
+            result = ToolExecutionResult.fail("Skill pipeline failed");
+        }
+        log.debug("Skill step done: stepId={}, toolKey={}, success={}", id, step.getToolKey(), result.isSuccess());
+        return new StepOutcome(id, step.getToolKey(), result, System.currentTimeMillis() - startedAt);
+    }
+
+    private Map<String, Object> summarize(Collection<StepOutcome> outcomes,
+                                          Map<String, List<String>> dependencies,
+                                          boolean graph,
+                                          long startedAt) {
         int promptTokens = 0;
         int completionTokens = 0;
+        List<Map<String, Object>> stepMetadata = new ArrayList<>();
+        for (StepOutcome outcome : outcomes) {
+            ToolExecutionResult result = outcome.result();
+            int stepPrompt = tokens(result.getPromptTokens());
+            int stepCompletion = tokens(result.getCompletionTokens());
+            promptTokens += stepPrompt;
+            completionTokens += stepCompletion;
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("id", outcome.id());
+            item.put("tool", outcome.toolKey());
+            item.put("depends_on", dependencies.get(outcome.id()));
+            item.put("success", result.isSuccess());
+            item.put("prompt_tokens", stepPrompt);
+            item.put("completion_tokens", stepCompletion);
+            item.put("duration_ms", outcome.durationMs());
+            stepMetadata.add(item);
+        }
+        Map<String, Object> extra = new LinkedHashMap<>();
+        extra.put("pipeline", true);
+        extra.put("graph", graph);
+        extra.put("prompt_tokens", promptTokens);
+        extra.put("completion_tokens", completionTokens);
+        extra.put("duration_ms", System.currentTimeMillis() - startedAt);
+        extra.put("steps", stepMetadata);
+        return extra;
+    }
+
+    private int tokens(Integer value) {
+        return value == null ? 0 : value;
+    }
+
+    private List<String> usedTools(Collection<StepOutcome> outcomes) {
         List<String> usedTools = new ArrayList<>();
-        Set<String> visitedTools = new HashSet<>();
-        for (SkillStepDefinition step : steps) {
-            String toolKey = step.getToolKey();
-            if (!visitedTools.add(toolKey)) {
-                return SkillExecutionResult.fail("Skill pipeline attempted repeated tool execution: " + toolKey);
+        for (StepOutcome outcome : outcomes) {
+            if (!usedTools.contains(outcome.toolKey())) {
+                usedTools.add(outcome.toolKey());
             }
-            ToolExecutionResult toolResult = executeTool(toolKey, buildToolInput(step.getPrompt(), currentInput), request);
-            if (toolResult == null || !toolResult.isSuccess()) {
-                return SkillExecutionResult.fail(toolResult != null ? toolResult.getError() : "Skill pipeline failed");
-            }
-            currentInput = toolResult.getOutput();
-            lastModel = toolResult.getModel();
-            promptTokens += toolResult.getPromptTokens() == null ? 0 : toolResult.getPromptTokens();
-            completionTokens += toolResult.getCompletionTokens() == null ? 0 : toolResult.getCompletionTokens();
-            usedTools.add(toolKey);
         }
-        log.info("Skill pipeline success: skillKey={}, usedTools={}", definition.getKey(), usedTools);
-        return SkillExecutionResult.ok(currentInput, lastModel, promptTokens, completionTokens, usedTools,
-                metadata(definition.getKey(), usedTools, request, Map.of("pipeline", true)));
+        return usedTools;
+    }
+
+    private StepOutcome lastOf(Map<String, StepOutcome> finished) {
+        StepOutcome last = null;
+        for (StepOutcome outcome : finished.values()) {
+            last = outcome;
+        }
+        return last;
+    }
+
+    /**
+     * A step reading one source gets its text as is; several sources are labelled and concatenated
+     * in declaration order.
+     */
+    private String assembleStepInput(List<String> sources,
+                                     String originalInput,
+                                     Map<String, StepOutcome> finished) {
+        if (sources.size() == 1) {
+            return sourceText(sources.get(0), originalInput, finished);
+        }
+        List<String> parts = new ArrayList<>(sources.size());
+        for (String source : sources) {
+            parts.add("[" + source + "]\n" + Objects.toString(sourceText(source, originalInput, finished), ""));
+        }
+        return String.join("\n\n", parts);
+    }
+
+    private String sourceText(String source, String originalInput, Map<String, StepOutcome> finished) {
+        if (SkillStepDefinition.ORIGINAL_INPUT.equals(source)) {
+            return originalInput;
+        }
+        return finished.get(source).result().getOutput();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        stepExecutor.shutdownNow();
     }
 
     private List<SkillStepDefinition> resolveSteps(AgentSkillDefinition definition) {
@@ -135,10 +337,6 @@ public class DefaultSkillExecutor implements SkillExecutor {
 
     private ToolExecutionResult executeTool(String toolKey, String input, SkillExecutionRequest request) {
         ToolExecutionRequest toolRequest = new ToolExecutionRequest(toolKey, input, request.getModelOverride(), request.getExecutionId(), request.getStepKey());
-        ExecutableAgentTool executableTool = toolRegistry.getExecutable(toolKey);
-        if (executableTool != null) {
-            return executableTool.execute(toolRequest);
-        }
         return toolExecutor.execute(toolRequest);
     }
 
@@ -154,6 +352,9 @@ public class DefaultSkillExecutor implements SkillExecutor {
         return metadata;
     }
 
+    private record StepOutcome(String id, String toolKey, ToolExecutionResult result, long durationMs) {
+    }
+
     private String validateInput(AgentSkillDefinition definition, String input) {
         List<SkillInputField> inputSchema = definition.getInputSchema();
         if (inputSchema == null || inputSchema.isEmpty()) {
@@ -5,10 +5,12 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.harmony.backend.ai.skill.AgentSkillDefinition;
 import com.harmony.backend.ai.skill.AgentSkillRegistry;
 import com.harmony.backend.ai.skill.SkillCandidate;
+import com.harmony.backend.ai.skill.SkillCatalogSnapshot;
 import com.harmony.backend.ai.skill.SkillInputField;
 import com.harmony.backend.ai.skill.SkillPlan;
 import com.harmony.backend.ai.skill.SkillPlanner;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 
@@ -23,108 +25,114 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class DefaultSkillPlanner implements SkillPlanner {
 
+    private static final double MAX_CONFIDENCE = 0.95;
+
     private final AgentSkillRegistry skillRegistry;
     private final ObjectMapper objectMapper;
 
+    @Value("${app.skill.match.confidence-saturation:20}")
+    private double confidenceSaturation;
+
     @Override
     public SkillPlan plan(String userPrompt, String requestedSkill, String rawInput, List<String> allowedSkills) {
         if (allowedSkills == null || allowedSkills.isEmpty()) {
-            return new SkillPlan(null, List.of(), normalizeRawInput(rawInput), "no allowed skills");
+            return new SkillPlan(null, List.of(), normalizeRawInput(rawInput), "no allowed skills", 0.0);
         }
+        SkillCatalogSnapshot catalog = skillRegistry.snapshot();
+        Map<String, Integer> keywordScores = catalog.matchIndex().score(userPrompt, allowedSkills);
+        JsonNode inputObject = parseInputObject(rawInput);
+        String requested = normalize(requestedSkill);
         List<SkillCandidate> candidates = new ArrayList<>();
         for (String allowedSkill : allowedSkills) {
-            AgentSkillDefinition definition = skillRegistry.get(allowedSkill);
+            AgentSkillDefinition definition = catalog.get(allowedSkill);
             if (definition == null) {
                 continue;
             }
-            int score = scoreSkill(definition, userPrompt, requestedSkill, rawInput);
-            String reason = buildReason(definition, requestedSkill, rawInput, score);
-            candidates.add(new SkillCandidate(definition.getKey(), score, reason));
+            int requestScore = scoreRequested(definition, requested);
+            int schemaScore = scoreInputSchema(definition, inputObject);
+            int score = requestScore + keywordScores.getOrDefault(definition.getKey(), 0) + schemaScore;
+            candidates.add(new SkillCandidate(definition.getKey(), score, buildReason(requestScore, schemaScore, score)));
         }
         candidates.sort(Comparator.comparingInt(SkillCandidate::getScore).reversed()
                 .thenComparing(SkillCandidate::getSkillKey));
         String selected = candidates.isEmpty() ? null : candidates.get(0).getSkillKey();
-        AgentSkillDefinition selectedDefinition = selected == null ? null : skillRegistry.get(selected);
+        AgentSkillDefinition selectedDefinition = selected == null ? null : catalog.get(selected);
+        boolean explicitMatch = selectedDefinition != null && scoreRequested(selectedDefinition, requested) > 0;
         String normalizedInput = normalizeInputForSkill(selectedDefinition, userPrompt, rawInput);
         return new SkillPlan(selected, candidates, normalizedInput,
-                selected == null ? "no matching skill candidate" : "selected highest scoring allowed skill");
+                selected == null ? "no matching skill candidate" : "selected highest scoring allowed skill",
+                calibrateConfidence(candidates, explicitMatch));
     }
 
-    private int scoreSkill(AgentSkillDefinition definition, String userPrompt, String requestedSkill, String rawInput) {
-        int score = 0;
-        String prompt = normalize(userPrompt);
-        String requested = normalize(requestedSkill);
-        if (StringUtils.hasText(requested)) {
-            if (requested.equals(normalize(definition.getKey()))) {
-                score += 100;
-            } else if (requested.equals(normalize(definition.getName()))) {
-                score += 80;
-            }
+    private int scoreRequested(AgentSkillDefinition definition, String requested) {
+        if (!StringUtils.hasText(requested)) {
+            return 0;
         }
-        score += scoreText(prompt, definition.getKey()) * 5;
-        score += scoreText(prompt, definition.getName()) * 4;
-        score += scoreText(prompt, definition.getDescription()) * 2;
-        if (definition.getToolKeys() != null) {
-            for (String toolKey : definition.getToolKeys()) {
-                score += scoreText(prompt, toolKey);
-            }
+        if (requested.equals(normalize(definition.getKey()))) {
+            return 100;
         }
-        score += scoreInputSchema(definition, rawInput);
-        return score;
+        if (requested.equals(normalize(definition.getName()))) {
+            return 80;
+        }
+        return 0;
     }
 
-    private int scoreInputSchema(AgentSkillDefinition definition, String rawInput) {
-        if (!StringUtils.hasText(rawInput) || definition.getInputSchema() == null || definition.getInputSchema().isEmpty()) {
-            return 0;
+    private JsonNode parseInputObject(String rawInput) {
+        if (!StringUtils.hasText(rawInput)) {
+            return null;
         }
         try {
             JsonNode root = objectMapper.readTree(rawInput);
-            if (!root.isObject()) {
-                return 0;
-            }
-            int score = 0;
-            for (SkillInputField field : definition.getInputSchema()) {
-                if (field == null || !StringUtils.hasText(field.getKey())) {
-                    continue;
-                }
-                JsonNode node = root.get(field.getKey());
-                if (node != null && !node.isNull()) {
-                    score += Boolean.TRUE.equals(field.getRequired()) ? 15 : 8;
-                }
-            }
-            return score;
+            return root != null && root.isObject() ? root : null;
         } catch (Exception ignored) {
-            return 0;
+            return null;
         }
     }
 
-    private int scoreText(String prompt, String candidate) {
-        if (!StringUtils.hasText(prompt) || !StringUtils.hasText(candidate)) {
+    private int scoreInputSchema(AgentSkillDefinition definition, JsonNode inputObject) {
+        if (inputObject == null || definition.getInputSchema() == null || definition.getInputSchema().isEmpty()) {
             return 0;
         }
-        String normalized = normalize(candidate);
-        if (prompt.contains(normalized)) {
-            return 6;
-        }
         int score = 0;
-        for (String token : normalized.split("[\\s,_-]+")) {
-            if (token.length() < 3) {
+        for (SkillInputField field : definition.getInputSchema()) {
+            if (field == null || !StringUtils.hasText(field.getKey())) {
                 continue;
             }
-            if (prompt.contains(token)) {
-                score += 2;
+            JsonNode node = inputObject.get(field.getKey());
+            if (node != null && !node.isNull()) {
+                score += Boolean.TRUE.equals(field.getRequired()) ? 15 : 8;
             }
         }
         return score;
     }
 
-    private String buildReason(AgentSkillDefinition definition, String requestedSkill, String rawInput, int score) {
+    /**
+     * Maps the top score to a 0..0.95 confidence: how much evidence the top skill has (saturating
+     * around {@code confidenceSaturation} points), discounted when the runner-up scores close to it.
+     */
+    private double calibrateConfidence(List<SkillCandidate> candidates, boolean explicitMatch) {
+        if (candidates.isEmpty()) {
+            return 0.0;
+        }
+        if (explicitMatch) {
+            return MAX_CONFIDENCE;
+        }
+        int top = candidates.get(0).getScore();
+        if (top <= 0) {
+            return 0.0;
+        }
+        int second = candidates.size() > 1 ? Math.max(0, candidates.get(1).getScore()) : 0;
+        double evidence = 1.0 - Math.exp(-top / Math.max(1.0, confidenceSaturation));
+        double separation = (double) (top - second) / top;
+        return Math.min(MAX_CONFIDENCE, evidence * (0.5 + 0.5 * separation));
+    }
+
+    private String buildReason(int requestScore, int schemaScore, int score) {
         List<String> reasons = new ArrayList<>();
-        if (StringUtils.hasText(requestedSkill)
-                && normalize(requestedSkill).equals(normalize(definition.getKey()))) {
+        if (requestScore >= 100) {
             reasons.add("explicit skill request matched");
         }
-        if (definition.getInputSchema() != null && !definition.getInputSchema().isEmpty() && scoreInputSchema(definition, rawInput) > 0) {
+        if (schemaScore > 0) {
             reasons.add("input schema matched");
         }
         if (reasons.isEmpty()) {
@@ -1,12 +1,15 @@
 package com.harmony.backend.ai.skill.service;
 
 import com.harmony.backend.ai.skill.AgentSkillDefinition;
+import com.harmony.backend.ai.skill.SkillCatalogSnapshot;
 import com.harmony.backend.ai.skill.model.SkillUpsertRequest;
 import com.harmony.backend.ai.skill.model.SkillVO;
 
 import java.util.List;
 
 public interface AgentSkillCatalogService {
+    SkillCatalogSnapshot snapshot();
+
     List<AgentSkillDefinition> listEnabledDefinitions();
 
     List<SkillVO> listManagedSkills();
@@ -4,6 +4,7 @@ import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.harmony.backend.ai.skill.AgentSkillDefinition;
+import com.harmony.backend.ai.skill.SkillCatalogSnapshot;
 import com.harmony.backend.ai.skill.SkillInputField;
 import com.harmony.backend.ai.skill.SkillStepDefinition;
 import com.harmony.backend.ai.skill.model.SkillUpsertRequest;
@@ -11,31 +12,66 @@ import com.harmony.backend.ai.skill.model.SkillVO;
 import com.harmony.backend.ai.skill.service.AgentSkillCatalogService;
 import com.harmony.backend.ai.tool.AgentToolRegistry;
 import com.harmony.backend.common.entity.AgentSkill;
+import com.harmony.backend.common.event.SkillCatalogChangedEvent;
 import com.harmony.backend.common.exception.BusinessException;
 import com.harmony.backend.common.mapper.AgentSkillMapper;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
 
 @Service
+@Slf4j
 @RequiredArgsConstructor
 public class AgentSkillCatalogServiceImpl implements AgentSkillCatalogService {
     private static final String EXECUTION_MODE_SINGLE_TOOL = "single_tool";
     private static final String EXECUTION_MODE_PIPELINE = "pipeline";
+    private static final String VERSION_KEY = "skill:catalog:version";
+    // Phrases users say for the built-in skills, compiled into the snapshot's match index.
+    private static final Map<String, List<String>> BUILT_IN_ALIASES = Map.of(
+            "web_research", List.of("search", "research", "look up", "find information", "\u641c\u7d22", "\u67e5\u8be2", "\u68c0\u7d22"),
+            "time_lookup", List.of("time", "timezone", "date", "clock", "\u65f6\u95f4", "\u51e0\u70b9", "\u65e5\u671f", "\u65f6\u533a"),
+            "calculation", List.of("calculate", "compute", "math", "\u8ba1\u7b97", "\u7b49\u4e8e"),
+            "translation", List.of("translate", "translation", "\u7ffb\u8bd1"),
+            "summarization", List.of("summarize", "summary", "tl;dr", "\u603b\u7ed3", "\u6458\u8981", "\u6982\u62ec")
+    );
 
     private final AgentSkillMapper agentSkillMapper;
     private final AgentToolRegistry toolRegistry;
     private final ObjectMapper objectMapper;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private volatile SkillCatalogSnapshot current;
+
+    @Override
+    public SkillCatalogSnapshot snapshot() {
+        SkillCatalogSnapshot snapshot = current;
+        if (snapshot != null) {
+            return snapshot;
+        }
+        synchronized (this) {
+            if (current == null) {
+                reload(readVersion());
+            }
+            return current;
+        }
+    }
 
     @Override
     public List<AgentSkillDefinition> listEnabledDefinitions() {
-        return new ArrayList<>(loadEnabledDefinitionMap().values());
+        return snapshot().definitions();
     }
 
     @Override
@@ -47,66 +83,40 @@ public class AgentSkillCatalogServiceImpl implements AgentSkillCatalogService {
 
     @Override
     public AgentSkillDefinition getEnabledDefinition(String key) {
-        if (!StringUtils.hasText(key)) {
-            return null;
-        }
-        return loadEnabledDefinitionMap().get(normalizeKey(key));
+        return snapshot().get(key);
     }
 
     @Override
     public List<String> expandToolsForSkills(List<String> skills) {
-        if (skills == null || skills.isEmpty()) {
-            return List.of();
-        }
-        Map<String, AgentSkillDefinition> definitions = loadEnabledDefinitionMap();
-        List<String> toolKeys = new ArrayList<>();
-        for (String skill : skills) {
-            AgentSkillDefinition definition = definitions.get(normalizeKey(skill));
-            if (definition == null || definition.getToolKeys() == null) {
-                continue;
-            }
-            for (String toolKey : definition.getToolKeys()) {
-                if (StringUtils.hasText(toolKey) && !toolKeys.contains(toolKey)) {
-                    toolKeys.add(toolKey.trim());
-                }
-            }
-        }
-        return toolKeys;
+        return snapshot().expandTools(skills);
     }
 
     @Override
     public List<String> recommendSkillsForTools(List<String> tools) {
-        if (tools == null || tools.isEmpty()) {
-            return List.of();
-        }
-        Map<String, AgentSkillDefinition> definitions = loadEnabledDefinitionMap();
-        List<String> skills = new ArrayList<>();
-        for (AgentSkillDefinition definition : definitions.values()) {
-            if (definition.getToolKeys() == null || definition.getToolKeys().isEmpty()) {
-                continue;
-            }
-            boolean matched = tools.stream().anyMatch(tool -> definition.getToolKeys().contains(tool));
-            if (matched && !skills.contains(definition.getKey())) {
-                skills.add(definition.getKey());
-            }
-        }
-        return skills;
+        return snapshot().recommendSkills(tools);
     }
 
     @Override
     public String findSkillForTool(String toolKey, List<String> allowedSkills) {
-        if (!StringUtils.hasText(toolKey)) {
-            return null;
-        }
-        for (AgentSkillDefinition definition : loadEnabledDefinitionMap().values()) {
-            if (definition.getToolKeys() == null || !definition.getToolKeys().contains(toolKey.trim())) {
-                continue;
-            }
-            if (allowedSkills == null || allowedSkills.isEmpty() || allowedSkills.contains(definition.getKey())) {
-                return definition.getKey();
+        return snapshot().findSkillForTool(toolKey, allowedSkills);
+    }
+
+    /**
+     * Picks up catalog edits made on other nodes: they bump the shared version key, and any node
+     * whose snapshot carries a different version rebuilds it.
+     */
+    @Scheduled(fixedDelayString = "${app.skill.catalog.version-check-ms:5000}")
+    public void syncVersion() {
+        SkillCatalogSnapshot snapshot = current;
+        if (snapshot == null) {
+            return;
+        }
+        long version = readVersion();
+        if (version != snapshot.version()) {
+            synchronized (this) {
+                reload(version);
             }
         }
-        return null;
     }
 
     @Override
@@ -116,6 +126,7 @@ public class AgentSkillCatalogServiceImpl implements AgentSkillCatalogService {
         AgentSkill skill = new AgentSkill();
         fillSkill(skill, key, request, true);
         agentSkillMapper.insert(skill);
+        publishChange();
         return toVo(findByKey(key));
     }
 
@@ -131,6 +142,7 @@ public class AgentSkillCatalogServiceImpl implements AgentSkillCatalogService {
         ensureUniqueKey(nextKey, existing.getId());
         fillSkill(existing, nextKey, request, false);
         agentSkillMapper.updateById(existing);
+        publishChange();
         return toVo(findByKey(nextKey));
     }
 
@@ -140,7 +152,53 @@ public class AgentSkillCatalogServiceImpl implements AgentSkillCatalogService {
         if (existing == null) {
             throw new BusinessException(404, "Skill not found");
         }
-        return agentSkillMapper.deleteById(existing.getId()) > 0;
+        boolean deleted = agentSkillMapper.deleteById(existing.getId()) > 0;
+        if (deleted) {
+            publishChange();
+        }
+        return deleted;
+    }
+
+    private void publishChange() {
+        long version;
+        try {
+            Long next = stringRedisTemplate.opsForValue().increment(VERSION_KEY);
+            version = next == null ? nextLocalVersion() : next;
+        } catch (Exception e) {
+            log.warn("Skill catalog version bump failed, other nodes will lag: {}", e.getMessage());
+            version = nextLocalVersion();
+        }
+        synchronized (this) {
+            reload(version);
+        }
+    }
+
+    private long nextLocalVersion() {
+        SkillCatalogSnapshot snapshot = current;
+        return snapshot == null ? 1 : snapshot.version() + 1;
+    }
+
+    private long readVersion() {
+        try {
+            String value = stringRedisTemplate.opsForValue().get(VERSION_KEY);
+            return StringUtils.hasText(value) ? Long.parseLong(value.trim()) : 0;
+        } catch (Exception e) {
+            log.debug("Skill catalog version read failed: {}", e.getMessage());
+            SkillCatalogSnapshot snapshot = current;
+            return snapshot == null ? 0 : snapshot.version();
+        }
+    }
+
+    /**
+     * Builds a fresh snapshot and swaps it in; callers hold the monitor so rebuilds never overlap.
+     */
+    private void reload(long version) {
+        SkillCatalogSnapshot previous = current;
+        current = SkillCatalogSnapshot.build(version, loadEnabledDefinitionMap().values(), BUILT_IN_ALIASES);
+        log.info("Skill catalog snapshot loaded: version={}, skills={}", version, current.definitions().size());
+        if (previous != null) {
+            eventPublisher.publishEvent(new SkillCatalogChangedEvent(this, version));
+        }
     }
 
     private void fillSkill(AgentSkill skill,
@@ -393,6 +451,8 @@ public class AgentSkillCatalogServiceImpl implements AgentSkillCatalogService {
                     .toList();
         }
         List<SkillStepDefinition> normalized = new ArrayList<>();
+        Set<String> declaredIds = new HashSet<>();
+        boolean joinDeclared = false;
         for (SkillStepDefinition step : stepConfig) {
             if (step == null || !StringUtils.hasText(step.getToolKey())) {
                 continue;
@@ -401,7 +461,37 @@ public class AgentSkillCatalogServiceImpl implements AgentSkillCatalogService {
             if (!safeToolKeys.contains(toolKey)) {
                 throw new BusinessException(400, "Step tool must be selected in toolKeys: " + toolKey);
             }
-            normalized.add(new SkillStepDefinition(toolKey, trimOrNull(step.getPrompt())));
+            if (joinDeclared) {
+                throw new BusinessException(400, "Join step must be the last step");
+            }
+            String id = trimOrNull(step.getId());
+            if (id != null && !id.matches("[A-Za-z0-9_\\-]{1,64}")) {
+                throw new BusinessException(400, "Invalid step id: " + id);
+            }
+            String resolvedId = id != null ? id : toolKey;
+            if (SkillStepDefinition.ORIGINAL_INPUT.equals(resolvedId) || !declaredIds.add(resolvedId)) {
+                throw new BusinessException(400, "Duplicate or reserved step id: " + resolvedId + " (set a distinct id)");
+            }
+            // Dependencies may only name earlier steps, which keeps every step graph acyclic.
+            List<String> dependsOn = null;
+            if (step.getDependsOn() != null && !step.getDependsOn().isEmpty()) {
+                dependsOn = new ArrayList<>();
+                for (String dependency : step.getDependsOn()) {
+                    String trimmed = trimOrNull(dependency);
+                    if (trimmed == null || dependsOn.contains(trimmed)) {
+                        continue;
+                    }
+                    if (!SkillStepDefinition.ORIGINAL_INPUT.equals(trimmed)
+                            && (trimmed.equals(resolvedId) || !declaredIds.contains(trimmed))) {
+                        throw new BusinessException(400, "Step " + resolvedId + " depends on unknown or later step: " + trimmed);
+                    }
+                    dependsOn.add(trimmed);
+                }
+            }
+            joinDeclared = step.isJoinStep();
+            normalized.add(new SkillStepDefinition(toolKey, trimOrNull(step.getPrompt()), id,
+                    dependsOn == null || dependsOn.isEmpty() ? null : dependsOn,
+                    joinDeclared ? Boolean.TRUE : null));
         }
         if (normalized.isEmpty()) {
             throw new BusinessException(400, "Step config cannot be empty");
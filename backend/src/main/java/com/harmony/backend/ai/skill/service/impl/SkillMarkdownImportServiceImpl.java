@@ -33,6 +33,9 @@ public class SkillMarkdownImportServiceImpl implements SkillMarkdownImportServic
     private static final Pattern CODE_PATTERN = Pattern.compile("`([^`]+)`");
     private static final Pattern META_PATTERN = Pattern.compile("^(?:[-*+]\\s*)?(key|name|title|description|tools?|tool keys|execution mode|execution_mode)\\s*:\\s*(.+)$", Pattern.CASE_INSENSITIVE);
     private static final Pattern TOOL_PATTERN = Pattern.compile("(?:tool|use)\\s*:\\s*([A-Za-z0-9_\\-]+)", Pattern.CASE_INSENSITIVE);
+    private static final Pattern STEP_ID_PATTERN = Pattern.compile("^\\[([A-Za-z0-9_\\-]{1,64})]\\s*");
+    private static final Pattern STEP_DEPENDS_PATTERN = Pattern.compile("\\((?:after|depends on|needs)\\s*:?\\s*([A-Za-z0-9_\\-,\\s]+)\\)", Pattern.CASE_INSENSITIVE);
+    private static final Pattern STEP_JOIN_PATTERN = Pattern.compile("\\(join\\)", Pattern.CASE_INSENSITIVE);
     private static final Pattern INPUT_BULLET_PATTERN = Pattern.compile("^(?:[-*+]\\s+|\\d+[.)]\\s+)?`?([A-Za-z0-9_\\-]+)`?\\s*(?:\\(([^)]*)\\)|\\[([^]]*)])?\\s*(?::|-)?\\s*(.*)$");
 
     private final AgentSkillCatalogService agentSkillCatalogService;
@@ -394,15 +397,38 @@ public class SkillMarkdownImportServiceImpl implements SkillMarkdownImportServic
             if (line.isEmpty()) {
                 continue;
             }
-            String toolKey = extractToolKeyFromLine(line, aliases, validToolKeys);
+            // Graph annotations: "[id] ... (after: a, b) (join)"; plain lines stay a sequential chain.
+            String body = stripLinePrefix(line);
+            String id = null;
+            Matcher idMatcher = STEP_ID_PATTERN.matcher(body);
+            if (idMatcher.find()) {
+                id = idMatcher.group(1);
+                body = body.substring(idMatcher.end());
+            }
+            List<String> dependsOn = new ArrayList<>();
+            Matcher dependsMatcher = STEP_DEPENDS_PATTERN.matcher(body);
+            while (dependsMatcher.find()) {
+                for (String dependency : dependsMatcher.group(1).split(",")) {
+                    if (StringUtils.hasText(dependency) && !dependsOn.contains(dependency.trim())) {
+                        dependsOn.add(dependency.trim());
+                    }
+                }
+            }
+            body = STEP_DEPENDS_PATTERN.matcher(body).replaceAll(" ");
+            boolean join = STEP_JOIN_PATTERN.matcher(body).find();
+            body = STEP_JOIN_PATTERN.matcher(body).replaceAll(" ");
+
+            String toolKey = extractToolKeyFromLine(body, aliases, validToolKeys);
             if (toolKey == null) {
                 continue;
             }
-            String prompt = trimToNull(stripLinePrefix(line)
+            String prompt = trimToNull(body
                     .replaceAll("(?i)(tool|use)\\s*:\\s*" + Pattern.quote(toolKey), "")
                     .replace('`', ' ')
                     .replaceAll("\\s+", " "));
-            steps.add(new SkillStepDefinition(toolKey, prompt));
+            steps.add(new SkillStepDefinition(toolKey, prompt, id,
+                    dependsOn.isEmpty() ? null : dependsOn,
+                    join ? Boolean.TRUE : null));
         }
         return steps;
     }
@@ -469,6 +495,9 @@ public class SkillMarkdownImportServiceImpl implements SkillMarkdownImportServic
         if (stepConfig != null && stepConfig.size() > 1) {
             return "pipeline";
         }
+        if (stepConfig != null && stepConfig.stream().anyMatch(step -> step.hasDependencies() || step.isJoinStep())) {
+            return "pipeline";
+        }
         if (toolKeys != null && toolKeys.size() > 1) {
             return "pipeline";
         }
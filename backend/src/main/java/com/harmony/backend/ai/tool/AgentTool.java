@@ -12,4 +12,8 @@ public interface AgentTool {
     default Map<String, Object> getParametersSchema() {
         return Map.of();
     }
+
+    default ToolResultCaching getResultCaching() {
+        return ToolResultCaching.NONE;
+    }
 }
@@ -0,0 +1,14 @@
+package com.harmony.backend.ai.tool;
+
+/**
+ * How the tool runtime may reuse a successful result for an identical call (same tool, model and
+ * input).
+ */
+public enum ToolResultCaching {
+    /** Every call runs the tool, e.g. tools that read the clock. */
+    NONE,
+    /** Reused only within the same execution run, for tools whose answers drift over time. */
+    RUN,
+    /** Reused across runs and users: the output depends only on the input and model. */
+    SHARED
+}
@@ -0,0 +1,33 @@
+package com.harmony.backend.ai.tool.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.tools.runtime")
+public class ToolRuntimeProperties {
+    private long defaultTimeoutMs = 30000;
+    private int defaultMaxConcurrency = 32;
+    private long bulkheadWaitMs = 2000;
+    /** Per-tool overrides keyed by tool key. */
+    private Map<String, Long> timeoutMs = new HashMap<>();
+    private Map<String, Integer> maxConcurrency = new HashMap<>();
+
+    private boolean cacheEnabled = true;
+    private long cacheTtlMs = 600000;
+    private long runCacheTtlMs = 300000;
+    private long cacheMaxEntries = 10000;
+
+    public long timeoutFor(String toolKey) {
+        return Math.max(100, timeoutMs.getOrDefault(toolKey, defaultTimeoutMs));
+    }
+
+    public int maxConcurrencyFor(String toolKey) {
+        return Math.max(1, maxConcurrency.getOrDefault(toolKey, defaultMaxConcurrency));
+    }
+}
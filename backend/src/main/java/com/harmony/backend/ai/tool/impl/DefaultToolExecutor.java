@@ -1,24 +1,127 @@
 package com.harmony.backend.ai.tool.impl;
 
+import com.google.common.hash.Hashing;
+import com.harmony.backend.ai.tool.AgentTool;
+import com.harmony.backend.ai.tool.AgentToolDefinition;
 import com.harmony.backend.ai.tool.AgentToolRegistry;
+import com.harmony.backend.ai.tool.ExecutableAgentTool;
 import com.harmony.backend.ai.tool.ToolExecutionRequest;
 import com.harmony.backend.ai.tool.ToolExecutionResult;
 import com.harmony.backend.ai.tool.ToolExecutor;
 import com.harmony.backend.ai.tool.ToolHandler;
-import lombok.RequiredArgsConstructor;
+import com.harmony.backend.ai.tool.ToolResultCaching;
+import com.harmony.backend.ai.tool.config.ToolRuntimeProperties;
+import com.harmony.backend.common.cache.NearCache;
+import com.harmony.backend.common.cache.NearCacheManager;
+import com.harmony.backend.common.cache.NearCacheNames;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Primary;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
 
+/**
+ * Tool runtime: dispatches through a key-to-invoker map built at startup, bounds each tool with its
+ * own concurrency limit and deadline, and reuses results of tools that opt into caching through
+ * {@link AgentTool#getResultCaching()}.
+ */
 @Component
 @Primary
-@RequiredArgsConstructor
+@Slf4j
 public class DefaultToolExecutor implements ToolExecutor {
 
     private final AgentToolRegistry toolRegistry;
     private final List<ToolHandler> toolHandlers;
+    private final List<AgentTool> tools;
+    private final ToolRuntimeProperties properties;
+    private final NearCacheManager nearCacheManager;
+    private final MeterRegistry meterRegistry;
+    private final ExecutorService toolThreads = Executors.newVirtualThreadPerTaskExecutor();
+    private final Map<String, Timer> executionTimers = new ConcurrentHashMap<>();
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+
+    private Map<String, ToolRuntime> runtimes = Map.of();
+    private NearCache<ToolExecutionResult> sharedResults;
+    private NearCache<ToolExecutionResult> runResults;
+
+    public DefaultToolExecutor(AgentToolRegistry toolRegistry,
+                               List<ToolHandler> toolHandlers,
+                               List<AgentTool> tools,
+                               ToolRuntimeProperties properties,
+                               NearCacheManager nearCacheManager,
+                               MeterRegistry meterRegistry) {
+        this.toolRegistry = toolRegistry;
+        this.toolHandlers = toolHandlers == null ? List.of() : toolHandlers;
+        this.tools = tools == null ? List.of() : tools;
+        this.properties = properties;
+        this.nearCacheManager = nearCacheManager;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    public void init() {
+        Map<String, AgentTool> toolsByKey = new HashMap<>();
+        for (AgentTool tool : tools) {
+            if (tool != null && StringUtils.hasText(tool.getKey())) {
+                toolsByKey.put(tool.getKey(), tool);
+            }
+        }
+        Map<String, ToolRuntime> built = new HashMap<>();
+        for (AgentToolDefinition definition : toolRegistry.listAll()) {
+            String key = definition.getKey();
+            Function<ToolExecutionRequest, ToolExecutionResult> invoker = resolveInvoker(key);
+            if (invoker == null) {
+                continue;
+            }
+            AgentTool tool = toolsByKey.get(key);
+            built.put(key, new ToolRuntime(key,
+                    invoker,
+                    tool == null ? ToolResultCaching.NONE : tool.getResultCaching(),
+                    new Semaphore(properties.maxConcurrencyFor(key)),
+                    properties.timeoutFor(key)));
+        }
+        runtimes = Map.copyOf(built);
+        // Lookup-only caches: entries are put after successful calls and never loaded.
+        sharedResults = nearCacheManager.<ToolExecutionResult>builder(NearCacheNames.TOOL_RESULTS)
+                .maximumSize(Math.max(1, properties.getCacheMaxEntries()))
+                .expireAfterWrite(Duration.ofMillis(Math.max(1000, properties.getCacheTtlMs())))
+                .loader(key -> null)
+                .build();
+        runResults = nearCacheManager.<ToolExecutionResult>builder(NearCacheNames.TOOL_RUN_RESULTS)
+                .maximumSize(Math.max(1, properties.getCacheMaxEntries()))
+                .expireAfterWrite(Duration.ofMillis(Math.max(1000, properties.getRunCacheTtlMs())))
+                .loader(key -> null)
+                .build();
+        log.info("Tool runtime ready: tools={}", runtimes.keySet());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        toolThreads.shutdownNow();
+    }
 
     @Override
     public ToolExecutionResult execute(ToolExecutionRequest request) {
@@ -26,26 +129,179 @@ public class DefaultToolExecutor implements ToolExecutor {
             return ToolExecutionResult.fail("Tool key is required");
         }
         String key = request.getToolKey().trim();
-        if (!toolRegistry.isValidKey(key)) {
-            return ToolExecutionResult.fail("Unknown tool: " + key);
+        ToolRuntime runtime = runtimes.get(key);
+        if (runtime == null) {
+            return toolRegistry.isValidKey(key)
+                    ? ToolExecutionResult.fail("Tool execution not implemented")
+                    : ToolExecutionResult.fail("Unknown tool: " + key);
+        }
+
+        NearCache<ToolExecutionResult> cache = cacheFor(runtime, request);
+        String cacheKey = cache == null ? null : cacheKey(runtime, request);
+        if (cache != null) {
+            ToolExecutionResult cached = cache.getIfPresent(cacheKey);
+            cacheCounter(key, cached != null).increment();
+            if (cached != null) {
+                return cachedCopy(cached);
+            }
         }
-        ToolHandler handler = findHandler(key);
-        if (handler == null) {
-            return ToolExecutionResult.fail("Tool execution not implemented");
+
+        long startedAt = System.nanoTime();
+        ToolExecutionResult result = invoke(runtime, request);
+        String outcome = result.isSuccess() ? "success" : Objects.toString(result.getMetadata().get("tool_outcome"), "error");
+        executionTimers.computeIfAbsent(key + "|" + outcome, k -> Timer.builder("tool.execution")
+                        .tag("tool", key).tag("outcome", outcome)
+                        .register(meterRegistry))
+                .record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        recordTokens(key, "prompt", result.getPromptTokens());
+        recordTokens(key, "completion", result.getCompletionTokens());
+
+        if (cache != null && result.isSuccess()) {
+            cache.putLocal(cacheKey, result);
+            return cachedCopy(result, false);
         }
-        return handler.execute(request);
+        return result;
     }
 
-    private ToolHandler findHandler(String key) {
-        if (toolHandlers == null || toolHandlers.isEmpty()) {
-            return null;
+    /**
+     * The bulkhead permit belongs to the tool thread, not to the caller: a tool that outlives its
+     * deadline (or ignores the interrupt) keeps its slot until it actually returns, so timed-out
+     * calls cannot pile up beyond the concurrency limit.
+     */
+    private ToolExecutionResult invoke(ToolRuntime runtime, ToolExecutionRequest request) {
+        boolean acquired;
+        try {
+            acquired = runtime.bulkhead().tryAcquire(Math.max(0, properties.getBulkheadWaitMs()), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return failure("Tool call interrupted", "interrupted");
+        }
+        if (!acquired) {
+            log.warn("Tool bulkhead full: toolKey={}", runtime.key());
+            return failure("Tool is busy, try again later: " + runtime.key(), "rejected");
+        }
+        AtomicBoolean started = new AtomicBoolean();
+        Future<ToolExecutionResult> future;
+        try {
+            future = toolThreads.submit(() -> {
+                if (!started.compareAndSet(false, true)) {
+                    return null;
+                }
+                try {
+                    return runtime.invoker().apply(request);
+                } finally {
+                    runtime.bulkhead().release();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            runtime.bulkhead().release();
+            return failure("Tool executor is shut down", "rejected");
+        }
+        try {
+            ToolExecutionResult result = future.get(runtime.timeoutMs(), TimeUnit.MILLISECONDS);
+            return result == null ? ToolExecutionResult.fail("Tool returned no result") : result;
+        } catch (TimeoutException e) {
+            cancel(runtime, future, started);
+            log.warn("Tool timed out: toolKey={}, timeoutMs={}", runtime.key(), runtime.timeoutMs());
+            return failure("Tool timed out after " + runtime.timeoutMs() + "ms", "timeout");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            cancel(runtime, future, started);
+            return failure("Tool call interrupted", "interrupted");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause() == null ? e : e.getCause();
+            log.warn("Tool failed: toolKey={}, error={}", runtime.key(), cause.getMessage());
+            return ToolExecutionResult.fail(StringUtils.hasText(cause.getMessage()) ? cause.getMessage() : "Tool execution failed");
+        }
+    }
+
+    /**
+     * A task cancelled before its thread picked it up never runs, so the caller gives its permit back;
+     * once the task has started, its own finally block does.
+     */
+    private void cancel(ToolRuntime runtime, Future<ToolExecutionResult> future, AtomicBoolean started) {
+        future.cancel(true);
+        if (started.compareAndSet(false, true)) {
+            runtime.bulkhead().release();
+        }
+    }
+
+    private Function<ToolExecutionRequest, ToolExecutionResult> resolveInvoker(String key) {
+        ExecutableAgentTool executable = toolRegistry.getExecutable(key);
+        if (executable != null) {
+            return executable::execute;
         }
         for (ToolHandler handler : toolHandlers) {
             if (handler != null && handler.supports(key)) {
-                return handler;
+                return handler::execute;
             }
         }
         return null;
     }
-}
 
+    private NearCache<ToolExecutionResult> cacheFor(ToolRuntime runtime, ToolExecutionRequest request) {
+        if (!properties.isCacheEnabled()) {
+            return null;
+        }
+        return switch (runtime.caching()) {
+            case SHARED -> sharedResults;
+            case RUN -> StringUtils.hasText(request.getExecutionId()) ? runResults : null;
+            case NONE -> null;
+        };
+    }
+
+    private String cacheKey(ToolRuntime runtime, ToolExecutionRequest request) {
+        String scope = runtime.caching() == ToolResultCaching.RUN ? request.getExecutionId() : "";
+        String material = String.join("\n", runtime.key(), Objects.toString(request.getModel(), ""),
+                scope, Objects.toString(request.getInput(), ""));
+        return runtime.key() + ":" + Hashing.sha256().hashString(material, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Cached results are shared, so callers get a copy; a hit spent no tokens, so it reports none.
+     */
+    private ToolExecutionResult cachedCopy(ToolExecutionResult cached) {
+        return cachedCopy(cached, true);
+    }
+
+    private ToolExecutionResult cachedCopy(ToolExecutionResult source, boolean hit) {
+        Map<String, Object> metadata = new LinkedHashMap<>(source.getMetadata());
+        if (hit) {
+            metadata.put("tool_cache", "hit");
+        }
+        return new ToolExecutionResult(true,
+                source.getOutput(),
+                null,
+                source.getModel(),
+                hit ? 0 : source.getPromptTokens(),
+                hit ? 0 : source.getCompletionTokens(),
+                List.copyOf(source.getUsedTools()),
+                metadata);
+    }
+
+    private ToolExecutionResult failure(String error, String outcome) {
+        return new ToolExecutionResult(false, null, error, null, null, null, List.of(), Map.of("tool_outcome", outcome));
+    }
+
+    private Counter cacheCounter(String toolKey, boolean hit) {
+        String result = hit ? "hit" : "miss";
+        return counters.computeIfAbsent("cache|" + toolKey + "|" + result, k -> Counter.builder("tool.cache.requests")
+                .tag("tool", toolKey).tag("result", result)
+                .register(meterRegistry));
+    }
+
+    private void recordTokens(String toolKey, String type, Integer tokens) {
+        if (tokens != null && tokens > 0) {
+            counters.computeIfAbsent("tokens|" + toolKey + "|" + type, k -> Counter.builder("tool.tokens")
+                    .tag("tool", toolKey).tag("type", type)
+                    .register(meterRegistry)).increment(tokens);
+        }
+    }
+
+    private record ToolRuntime(String key,
+                               Function<ToolExecutionRequest, ToolExecutionResult> invoker,
+                               ToolResultCaching caching,
+                               Semaphore bulkhead,
+                               long timeoutMs) {
+    }
+}
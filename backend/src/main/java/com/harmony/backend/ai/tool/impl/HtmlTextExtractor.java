@@ -0,0 +1,483 @@
+package com.harmony.backend.ai.tool.impl;
+
+import com.google.common.io.ByteStreams;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+final class HtmlTextExtractor {
+
+    private static final Set<String> SKIPPED_ELEMENTS = Set.of("script", "style", "nav", "header", "footer");
+    private static final Set<String> RAW_TEXT_ELEMENTS = Set.of("script", "style");
+    private static final int MIN_SENTENCE_LENGTH = 30;
+
+    private HtmlTextExtractor() {
+    }
+
+    static String extractReadableText(InputStream body, Charset charset, long maxBytes, int maxChars) throws IOException {
+        try (Reader reader = new InputStreamReader(ByteStreams.limit(body, Math.max(1, maxBytes)),
+                charset == null ? StandardCharsets.UTF_8 : charset)) {
+            ReadableTextHandler handler = new ReadableTextHandler(maxChars);
+            new Tokenizer(reader, handler).run();
+            return handler.result();
+        }
+    }
+
+    static String toPlainText(String html) {
+        if (html == null || html.isEmpty()) {
+            return "";
+        }
+        PlainTextHandler handler = new PlainTextHandler();
+        try {
+            new Tokenizer(new StringReader(html), handler).run();
+        } catch (IOException ignored) {
+        }
+        return handler.result();
+    }
+
+    static List<String> extractHeadingLinks(String html, String headingTag, int limit) {
+        HeadingLinkHandler handler = new HeadingLinkHandler(headingTag, limit);
+        if (html == null || html.isEmpty() || limit <= 0) {
+            return handler.results;
+        }
+        try {
+            new Tokenizer(new StringReader(html), handler).run();
+        } catch (IOException ignored) {
+        }
+        return handler.results;
+    }
+
+    static Charset charsetOf(String contentType) {
+        if (contentType == null) {
+            return StandardCharsets.UTF_8;
+        }
+        for (String part : contentType.split(";")) {
+            String trimmed = part.trim();
+            if (trimmed.regionMatches(true, 0, "charset=", 0, 8)) {
+                try {
+                    return Charset.forName(trimmed.substring(8).replace("\"", "").trim());
+                } catch (Exception ignored) {
+                    return StandardCharsets.UTF_8;
+                }
+            }
+        }
+        return StandardCharsets.UTF_8;
+    }
+
+    static String attribute(String rawAttributes, String name) {
+        if (rawAttributes == null || rawAttributes.isEmpty()) {
+            return null;
+        }
+        int i = 0;
+        int length = rawAttributes.length();
+        while (i < length) {
+            while (i < length && (Character.isWhitespace(rawAttributes.charAt(i)) || rawAttributes.charAt(i) == '/')) {
+                i++;
+            }
+            int nameStart = i;
+            while (i < length && rawAttributes.charAt(i) != '=' && !Character.isWhitespace(rawAttributes.charAt(i))) {
+                i++;
+            }
+            String attrName = rawAttributes.substring(nameStart, i);
+            while (i < length && Character.isWhitespace(rawAttributes.charAt(i))) {
+                i++;
+            }
+            String value = "";
+            if (i < length && rawAttributes.charAt(i) == '=') {
+                i++;
+                while (i < length && Character.isWhitespace(rawAttributes.charAt(i))) {
+                    i++;
+                }
+                if (i < length && (rawAttributes.charAt(i) == '"' || rawAttributes.charAt(i) == '\'')) {
+                    char quote = rawAttributes.charAt(i++);
+                    int valueStart = i;
+                    while (i < length && rawAttributes.charAt(i) != quote) {
+                        i++;
+                    }
+                    value = rawAttributes.substring(valueStart, i);
+                    i++;
+                } else {
+                    int valueStart = i;
+                    while (i < length && !Character.isWhitespace(rawAttributes.charAt(i))) {
+                        i++;
+                    }
+                    value = rawAttributes.substring(valueStart, i);
+                }
+            }
+            if (attrName.equalsIgnoreCase(name)) {
+                return value;
+            }
+            if (attrName.isEmpty()) {
+                i++;
+            }
+        }
+        return null;
+    }
+
+    interface Handler {
+        default boolean startTag(String name, String rawAttributes) {
+            return true;
+        }
+
+        default boolean endTag(String name) {
+            return true;
+        }
+
+        boolean text(char c);
+    }
+
+    private static final class Tokenizer {
+        private final Reader reader;
+        private final Handler handler;
+        private final char[] buffer = new char[8192];
+        private int position;
+        private int limit;
+        private String skipping;
+        private int skipDepth;
+
+        private Tokenizer(Reader reader, Handler handler) {
+            this.reader = reader;
+            this.handler = handler;
+        }
+
+        private void run() throws IOException {
+            int c;
+            while ((c = next()) != -1) {
+                boolean proceed;
+                if (c == '<') {
+                    proceed = readMarkup();
+                } else if (skipping != null) {
+                    proceed = true;
+                } else if (c == '&') {
+                    proceed = readEntity();
+                } else {
+                    proceed = handler.text((char) c);
+                }
+                if (!proceed) {
+                    return;
+                }
+            }
+        }
+
+        private boolean readMarkup() throws IOException {
+            int c = peek();
+            if (c == '!' || c == '?') {
+                next();
+                if (c == '!' && peek() == '-') {
+                    skipPast("-->");
+                } else {
+                    skipPast(">");
+                }
+                return true;
+            }
+            boolean closing = c == '/';
+            if (closing) {
+                next();
+                c = peek();
+            }
+            if (!isNameStart(c)) {
+                return skipping != null || (handler.text('<') && (!closing || handler.text('/')));
+            }
+            String name = readName();
+            StringBuilder attributes = closing ? null : new StringBuilder();
+            boolean selfClosing = readTagRemainder(attributes);
+            if (closing) {
+                return handleEndTag(name);
+            }
+            return handleStartTag(name, attributes.toString(), selfClosing);
+        }
+
+        private boolean handleStartTag(String name, String attributes, boolean selfClosing) throws IOException {
+            if (RAW_TEXT_ELEMENTS.contains(name) && !selfClosing) {
+                // Script and style bodies are not markup, so skip straight to the matching close tag.
+                skipPast("</" + name);
+                skipPast(">");
+                return skipping != null || handler.text(' ');
+            }
+            if (skipping != null) {
+                if (skipping.equals(name) && !selfClosing) {
+                    skipDepth++;
+                }
+                return true;
+            }
+            if (SKIPPED_ELEMENTS.contains(name) && !selfClosing) {
+                skipping = name;
+                skipDepth = 1;
+                return handler.text(' ');
+            }
+            return handler.startTag(name, attributes) && handler.text(' ');
+        }
+
+        private boolean handleEndTag(String name) {
+            if (skipping != null) {
+                if (skipping.equals(name) && --skipDepth == 0) {
+                    skipping = null;
+                }
+                return true;
+            }
+            return handler.endTag(name) && handler.text(' ');
+        }
+
+        private boolean readEntity() throws IOException {
+            StringBuilder entity = new StringBuilder();
+            int c;
+            while (entity.length() < 10 && (c = peek()) != -1 && c != ';' && c != '<' && c != '&' && !Character.isWhitespace(c)) {
+                entity.append((char) next());
+            }
+            boolean terminated = peek() == ';';
+            String decoded = terminated ? decodeEntity(entity.toString()) : null;
+            if (decoded == null) {
+                if (!handler.text('&')) {
+                    return false;
+                }
+                for (int i = 0; i < entity.length(); i++) {
+                    if (!handler.text(entity.charAt(i))) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+            next();
+            for (int i = 0; i < decoded.length(); i++) {
+                if (!handler.text(decoded.charAt(i))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private String decodeEntity(String entity) {
+            switch (entity) {
+                case "nbsp":
+                    return " ";
+                case "amp":
+                    return "&";
+                case "lt":
+                    return "<";
+                case "gt":
+                    return ">";
+                case "quot":
+                    return "\"";
+                case "apos":
+                    return "'";
+                default:
+                    break;
+            }
+            if (entity.length() > 1 && entity.charAt(0) == '#') {
+                try {
+                    int codePoint = entity.charAt(1) == 'x' || entity.charAt(1) == 'X'
+                            ? Integer.parseInt(entity.substring(2), 16)
+                            : Integer.parseInt(entity.substring(1));
+                    return Character.isValidCodePoint(codePoint) ? new String(Character.toChars(codePoint)) : null;
+                } catch (NumberFormatException e) {
+                    return null;
+                }
+            }
+            return null;
+        }
+
+        private String readName() throws IOException {
+            StringBuilder name = new StringBuilder();
+            int c;
+            while ((c = peek()) != -1 && (Character.isLetterOrDigit(c) || c == '-' || c == ':')) {
+                name.append((char) next());
+            }
+            return name.toString().toLowerCase(Locale.ROOT);
+        }
+
+        private boolean readTagRemainder(StringBuilder attributes) throws IOException {
+            char quote = 0;
+            int last = 0;
+            int c;
+            while ((c = next()) != -1) {
+                if (quote != 0) {
+                    if (c == quote) {
+                        quote = 0;
+                    }
+                } else if (c == '"' || c == '\'') {
+                    quote = (char) c;
+                } else if (c == '>') {
+                    return last == '/';
+                }
+                if (attributes != null) {
+                    attributes.append((char) c);
+                }
+                if (!Character.isWhitespace(c)) {
+                    last = c;
+                }
+            }
+            return false;
+        }
+
+        private void skipPast(String terminator) throws IOException {
+            int matched = 0;
+            int c;
+            while ((c = next()) != -1) {
+                if (Character.toLowerCase(c) == terminator.charAt(matched)) {
+                    if (++matched == terminator.length()) {
+                        return;
+                    }
+                } else {
+                    matched = Character.toLowerCase(c) == terminator.charAt(0) ? 1 : 0;
+                }
+            }
+        }
+
+        private boolean isNameStart(int c) {
+            return c != -1 && Character.isLetter(c);
+        }
+
+        private int next() throws IOException {
+            if (position >= limit && !fill()) {
+                return -1;
+            }
+            return buffer[position++];
+        }
+
+        private int peek() throws IOException {
+            if (position >= limit && !fill()) {
+                return -1;
+            }
+            return buffer[position];
+        }
+
+        private boolean fill() throws IOException {
+            limit = reader.read(buffer, 0, buffer.length);
+            position = 0;
+            return limit > 0;
+        }
+    }
+
+    private static final class ReadableTextHandler implements Handler {
+        private final int maxChars;
+        private final StringBuilder sentence = new StringBuilder();
+        private final StringBuilder output = new StringBuilder();
+
+        private ReadableTextHandler(int maxChars) {
+            this.maxChars = maxChars;
+        }
+
+        @Override
+        public boolean text(char c) {
+            if (c == '.' || c == '。' || c == '！' || c == '？') {
+                flushSentence();
+                return output.length() < maxChars;
+            }
+            if (Character.isWhitespace(c)) {
+                if (sentence.length() > 0 && sentence.charAt(sentence.length() - 1) != ' ') {
+                    sentence.append(' ');
+                }
+                return true;
+            }
+            sentence.append(c);
+            return true;
+        }
+
+        private void flushSentence() {
+            String s = sentence.toString().trim();
+            sentence.setLength(0);
+            if (s.length() < MIN_SENTENCE_LENGTH) {
+                return;
+            }
+            String lower = s.toLowerCase(Locale.ROOT);
+            if (lower.contains("cookie") || lower.contains("privacy") || lower.contains("subscribe")) {
+                return;
+            }
+            output.append(s).append(". ");
+        }
+
+        private String result() {
+            if (output.length() < maxChars) {
+                flushSentence();
+            }
+            String out = output.toString().trim();
+            if (out.length() > maxChars) {
+                out = out.substring(0, maxChars) + "...";
+            }
+            return out;
+        }
+    }
+
+    private static final class PlainTextHandler implements Handler {
+        private final StringBuilder output = new StringBuilder();
+
+        @Override
+        public boolean text(char c) {
+            if (Character.isWhitespace(c)) {
+                if (output.length() > 0 && output.charAt(output.length() - 1) != ' ') {
+                    output.append(' ');
+                }
+                return true;
+            }
+            output.append(c);
+            return true;
+        }
+
+        private String result() {
+            return output.toString().trim();
+        }
+    }
+
+    private static final class HeadingLinkHandler implements Handler {
+        private final String headingTag;
+        private final int limit;
+        private final List<String> results = new ArrayList<>();
+        private final PlainTextHandler title = new PlainTextHandler();
+        private boolean inHeading;
+        private boolean captured;
+        private String href;
+
+        private HeadingLinkHandler(String headingTag, int limit) {
+            this.headingTag = headingTag;
+            this.limit = limit;
+        }
+
+        @Override
+        public boolean startTag(String name, String rawAttributes) {
+            if (headingTag.equals(name)) {
+                inHeading = true;
+                captured = false;
+                href = null;
+            } else if (inHeading && !captured && href == null && "a".equals(name)) {
+                String value = attribute(rawAttributes, "href");
+                if (value != null && !value.isEmpty()) {
+                    href = value;
+                    title.output.setLength(0);
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public boolean endTag(String name) {
+            if ("a".equals(name) && href != null && !captured) {
+                String text = title.result();
+                if (!text.isEmpty()) {
+                    results.add(text + " - " + href);
+                }
+                captured = true;
+                href = null;
+                return results.size() < limit;
+            }
+            if (headingTag.equals(name)) {
+                inHeading = false;
+                href = null;
+            }
+            return true;
+        }
+
+        @Override
+        public boolean text(char c) {
+            return href == null || captured || title.text(c);
+        }
+    }
+}
@@ -6,7 +6,6 @@ import com.harmony.backend.ai.tool.ToolExecutionRequest;
 import com.harmony.backend.ai.tool.ToolExecutionResult;
 import com.harmony.backend.ai.tool.ToolHandler;
 import com.harmony.backend.common.util.TokenCounter;
-import com.harmony.backend.modules.chat.adapter.LlmAdapter;
 import com.harmony.backend.modules.chat.adapter.LlmAdapterRegistry;
 import com.harmony.backend.modules.chat.adapter.LlmMessage;
 import lombok.RequiredArgsConstructor;
@@ -14,6 +13,8 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -63,25 +64,26 @@ public class LlmTextToolHandler implements ToolHandler {
         String text = parsed.text != null ? parsed.text : input;
         List<String> targets = splitTargets(target);
         if (targets.size() <= 1) {
-            String system = "You are a professional translator. Translate the user text to " + target
-                    + ". Output only the translated text.";
-            return callLlm(system, text, modelOverride);
+            return callLlm(translationPrompt(target), text, modelOverride).block();
         }
+        // Targets are independent requests, so they are issued together and merged in input order.
+        List<ToolExecutionResult> results = Flux.fromIterable(targets)
+                .flatMapSequential(t -> callLlm(translationPrompt(t), text, modelOverride))
+                .collectList()
+                .block();
         StringBuilder combined = new StringBuilder();
         int promptTokens = 0;
         int completionTokens = 0;
         String usedModel = resolveToolModel(modelOverride);
-        for (String t : targets) {
-            String system = "You are a professional translator. Translate the user text to " + t
-                    + ". Output only the translated text.";
-            ToolExecutionResult result = callLlm(system, text, modelOverride);
+        for (int i = 0; i < targets.size() && results != null && i < results.size(); i++) {
+            ToolExecutionResult result = results.get(i);
             if (result == null || !result.isSuccess()) {
                 continue;
             }
             if (combined.length() > 0) {
                 combined.append("\n\n");
             }
-            combined.append(t).append(":\n").append(result.getOutput());
+            combined.append(targets.get(i)).append(":\n").append(result.getOutput());
             if (result.getPromptTokens() != null) {
                 promptTokens += result.getPromptTokens();
             }
@@ -95,40 +97,58 @@ public class LlmTextToolHandler implements ToolHandler {
         return ToolExecutionResult.ok(combined.toString(), usedModel, promptTokens, completionTokens);
     }
 
+    private String translationPrompt(String target) {
+        return "You are a professional translator. Translate the user text to " + target
+                + ". Output only the translated text.";
+    }
+
     private ToolExecutionResult executeSummarize(String input, String modelOverride) {
         if (!StringUtils.hasText(input)) {
             return ToolExecutionResult.fail("Summarize input is required");
         }
         String system = "You are a professional summarizer. Provide a concise summary in 3-6 bullet points.";
-        return callLlm(system, input, modelOverride);
+        return callLlm(system, input, modelOverride).block();
     }
 
-    private ToolExecutionResult callLlm(String systemPrompt, String userText, String modelOverride) {
-        try {
-            String model = resolveToolModel(modelOverride);
-            LlmAdapter adapter = adapterRegistry.getAdapter(model);
-            List<LlmMessage> messages = new ArrayList<>();
-            if (StringUtils.hasText(systemPrompt)) {
-                messages.add(new LlmMessage("system", systemPrompt));
-            }
-            messages.add(new LlmMessage("user", userText));
-            String response = adapter.chat(messages, model);
-            if (!StringUtils.hasText(response)) {
-                return ToolExecutionResult.fail("LLM returned empty response");
-            }
-            int promptTokens = 0;
-            if (StringUtils.hasText(systemPrompt)) {
-                promptTokens += TokenCounter.estimateMessageTokens("system", systemPrompt);
-            }
-            if (StringUtils.hasText(userText)) {
-                promptTokens += TokenCounter.estimateMessageTokens("user", userText);
-            }
-            int completionTokens = TokenCounter.estimateMessageTokens("assistant", response);
-            return ToolExecutionResult.ok(response.trim(), model, promptTokens, completionTokens);
-        } catch (Exception e) {
-            log.warn("Tool LLM request failed: {}", e.getMessage());
-            return ToolExecutionResult.fail("LLM request failed");
+    /**
+     * Provider usage is preferred for token accounting; estimates cover providers that omit it.
+     */
+    private Mono<ToolExecutionResult> callLlm(String systemPrompt, String userText, String modelOverride) {
+        String model = resolveToolModel(modelOverride);
+        List<LlmMessage> messages = new ArrayList<>();
+        if (StringUtils.hasText(systemPrompt)) {
+            messages.add(new LlmMessage("system", systemPrompt));
+        }
+        messages.add(new LlmMessage("user", userText));
+        return Mono.defer(() -> adapterRegistry.getAdapter(model).chatAsync(messages, model))
+                .map(response -> {
+                    String content = response.getContent();
+                    if (!StringUtils.hasText(content)) {
+                        return ToolExecutionResult.fail("LLM returned empty response");
+                    }
+                    int promptTokens = response.getPromptTokens() != null
+                            ? response.getPromptTokens()
+                            : estimatePromptTokens(systemPrompt, userText);
+                    int completionTokens = response.getCompletionTokens() != null
+                            ? response.getCompletionTokens()
+                            : TokenCounter.estimateMessageTokens("assistant", content);
+                    return ToolExecutionResult.ok(content.trim(), model, promptTokens, completionTokens);
+                })
+                .onErrorResume(e -> {
+                    log.warn("Tool LLM request failed: {}", e.getMessage());
+                    return Mono.just(ToolExecutionResult.fail("LLM request failed"));
+                });
+    }
+
+    private int estimatePromptTokens(String systemPrompt, String userText) {
+        int promptTokens = 0;
+        if (StringUtils.hasText(systemPrompt)) {
+            promptTokens += TokenCounter.estimateMessageTokens("system", systemPrompt);
+        }
+        if (StringUtils.hasText(userText)) {
+            promptTokens += TokenCounter.estimateMessageTokens("user", userText);
         }
+        return promptTokens;
     }
 
     private String resolveToolModel(String modelOverride) {
@@ -3,6 +3,7 @@ package com.harmony.backend.ai.tool.impl;
 import com.harmony.backend.ai.tool.ExecutableAgentTool;
 import com.harmony.backend.ai.tool.ToolExecutionRequest;
 import com.harmony.backend.ai.tool.ToolExecutionResult;
+import com.harmony.backend.ai.tool.ToolResultCaching;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
@@ -44,6 +45,11 @@ public class TranslationTool implements ExecutableAgentTool {
         );
     }
 
+    @Override
+    public ToolResultCaching getResultCaching() {
+        return ToolResultCaching.SHARED;
+    }
+
     @Override
     public ToolExecutionResult execute(ToolExecutionRequest request) {
         String input = request == null ? null : request.getInput();
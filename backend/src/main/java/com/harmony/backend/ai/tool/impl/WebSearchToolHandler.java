@@ -6,7 +6,9 @@ import com.harmony.backend.ai.tool.ToolExecutionRequest;
 import com.harmony.backend.ai.tool.ToolExecutionResult;
 import com.harmony.backend.ai.tool.ToolHandler;
 import com.harmony.backend.ai.tool.model.ToolSearchSettings;
+import com.harmony.backend.ai.tool.service.SearchProviderHealthService;
 import com.harmony.backend.ai.tool.service.ToolSearchSettingsService;
+import com.harmony.backend.ai.tool.service.WebSearchCacheService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Component;
@@ -22,10 +24,15 @@ import java.net.http.HttpResponse;
 import java.time.Duration;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -36,13 +43,19 @@ public class WebSearchToolHandler implements ToolHandler {
     private final ObjectMapper objectMapper;
     private final ToolSearchSettingsService toolSearchSettingsService;
     private final ExecutorService webSearchExecutor;
+    private final WebSearchCacheService webSearchCacheService;
+    private final SearchProviderHealthService searchProviderHealthService;
 
     public WebSearchToolHandler(ObjectMapper objectMapper,
                                 ToolSearchSettingsService toolSearchSettingsService,
-                                @Qualifier("webSearchExecutor") ExecutorService webSearchExecutor) {
+                                @Qualifier("webSearchExecutor") ExecutorService webSearchExecutor,
+                                WebSearchCacheService webSearchCacheService,
+                                SearchProviderHealthService searchProviderHealthService) {
         this.objectMapper = objectMapper;
         this.toolSearchSettingsService = toolSearchSettingsService;
         this.webSearchExecutor = webSearchExecutor;
+        this.webSearchCacheService = webSearchCacheService;
+        this.searchProviderHealthService = searchProviderHealthService;
     }
 
     @Value("${app.tools.search.wikipedia-user-agent:zlAI/1.0 (contact: tomchares0@gmail.com)}")
@@ -69,11 +82,27 @@ public class WebSearchToolHandler implements ToolHandler {
     @Value("${app.tools.search.http-retry-max-backoff-ms:1200}")
     private int httpRetryMaxBackoffMs;
 
+    @Value("${app.tools.search.page-fetch-deadline-ms:4000}")
+    private long pageFetchDeadlineMs;
+
+    @Value("${app.tools.search.page-max-bytes:1048576}")
+    private long pageMaxBytes;
+
+    @Value("${app.tools.search.primary-fanout:2}")
+    private int primaryFanout;
+
     private Semaphore concurrencyLimiter;
 
+    private HttpClient httpClient;
+
     @PostConstruct
     public void initLimiter() {
         concurrencyLimiter = new Semaphore(Math.max(1, maxConcurrentRequests));
+        httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
     }
 
     @Override
@@ -145,74 +174,79 @@ public class WebSearchToolHandler implements ToolHandler {
                     && ((settings.isSearxEnabled() && StringUtils.hasText(settings.getSearxUrl()))
                     || StringUtils.hasText(settings.getSerpApiKey()));
 
-            java.util.concurrent.ExecutorCompletionService<ToolExecutionResult> ecs =
-                    new java.util.concurrent.ExecutorCompletionService<>(webSearchExecutor);
-            java.util.List<java.util.concurrent.Future<ToolExecutionResult>> futures = new java.util.ArrayList<>();
-            java.util.Map<java.util.concurrent.Future<ToolExecutionResult>, String> sources = new java.util.HashMap<>();
-
-            if (wikiEnabled) {
-                log.info("Web search task started: wikipedia");
-                java.util.concurrent.Future<ToolExecutionResult> wikiFuture =
-                        ecs.submit(() -> executeWikiSearchInternal(input));
-                futures.add(wikiFuture);
-                sources.put(wikiFuture, "wikipedia");
-            } else {
-                log.info("Web search task skipped: wikipedia disabled");
+            boolean cacheable = !isTimeLikeQuery(input);
+            if (cacheable) {
+                ToolExecutionResult cached = findCachedResult(input, settings, apiEnabled, bochaEnabled, wikiEnabled, baikeEnabled, baiduEnabled);
+                if (cached != null) {
+                    return cached;
+                }
             }
 
-            if (baiduEnabled) {
-                log.info("Web search task started: baidu");
-                java.util.concurrent.Future<ToolExecutionResult> baiduFuture =
-                        ecs.submit(() -> executeBaiduSearch(input, settings));
-                futures.add(baiduFuture);
-                sources.put(baiduFuture, "baidu");
-            } else {
-                log.info("Web search task skipped: baidu disabled");
+            Map<String, java.util.concurrent.Callable<ToolExecutionResult>> tasks = new java.util.LinkedHashMap<>();
+            if (apiEnabled) {
+                tasks.put("api", () -> executeSearchViaApi(input, settings));
             }
-
             if (bochaEnabled) {
-                log.info("Web search task started: bocha");
-                java.util.concurrent.Future<ToolExecutionResult> bochaFuture =
-                        ecs.submit(() -> executeBochaSearch(input, settings));
-                futures.add(bochaFuture);
-                sources.put(bochaFuture, "bocha");
+                tasks.put("bocha", () -> executeBochaSearch(input, settings));
             } else {
                 log.info("Web search task skipped: bocha disabled");
             }
-
+            if (wikiEnabled) {
+                tasks.put("wikipedia", () -> executeWikiSearchInternal(input));
+            } else {
+                log.info("Web search task skipped: wikipedia disabled");
+            }
             if (baikeEnabled) {
-                log.info("Web search task started: baike");
-                java.util.concurrent.Future<ToolExecutionResult> baikeFuture =
-                        ecs.submit(() -> executeBaikeSearch(input));
-                futures.add(baikeFuture);
-                sources.put(baikeFuture, "baike");
+                tasks.put("baike", () -> executeBaikeSearch(input));
             } else {
                 log.info("Web search task skipped: baike disabled");
             }
+            if (baiduEnabled) {
+                tasks.put("baidu", () -> executeBaiduSearch(input, settings));
+            } else {
+                log.info("Web search task skipped: baidu disabled");
+            }
 
-            if (apiEnabled) {
-                log.info("Web search task started: api");
-                java.util.concurrent.Future<ToolExecutionResult> apiFuture =
-                        ecs.submit(() -> executeSearchViaApi(input, settings));
-                futures.add(apiFuture);
-                sources.put(apiFuture, "api");
+            // Query the healthiest, fastest providers first and only hedge to the rest once they
+            // are slower than their usual p90 or have all finished without a usable answer.
+            List<String> ranked = searchProviderHealthService.rankProviders(new ArrayList<>(tasks.keySet()));
+            int primaryCount = Math.min(ranked.size(), Math.max(1, primaryFanout));
+            List<String> hedges = new ArrayList<>(ranked.subList(primaryCount, ranked.size()));
+
+            java.util.concurrent.ExecutorCompletionService<ToolExecutionResult> ecs =
+                    new java.util.concurrent.ExecutorCompletionService<>(webSearchExecutor);
+            java.util.List<java.util.concurrent.Future<ToolExecutionResult>> futures = new java.util.ArrayList<>();
+            java.util.Map<java.util.concurrent.Future<ToolExecutionResult>, String> sources = new java.util.HashMap<>();
+            Map<java.util.concurrent.Future<ToolExecutionResult>, Long> startedAt = new HashMap<>();
+            for (String provider : ranked.subList(0, primaryCount)) {
+                submitProvider(ecs, provider, tasks.get(provider), futures, sources, startedAt);
             }
 
             long deadline = System.currentTimeMillis() + 14000;
-            ToolExecutionResult wiki = null;
-            ToolExecutionResult baidu = null;
-            ToolExecutionResult bocha = null;
-            ToolExecutionResult baike = null;
-            ToolExecutionResult api = null;
-
-            while (System.currentTimeMillis() < deadline && !futures.isEmpty()) {
-                long wait = Math.max(1, deadline - System.currentTimeMillis());
+            long hedgeAt = System.currentTimeMillis() + searchProviderHealthService.hedgeDelayMs(ranked.subList(0, primaryCount));
+            int inFlight = futures.size();
+            Map<String, ToolExecutionResult> results = new HashMap<>();
+
+            while (System.currentTimeMillis() < deadline && (inFlight > 0 || !hedges.isEmpty())) {
+                long now = System.currentTimeMillis();
+                if (!hedges.isEmpty() && (inFlight == 0 || now >= hedgeAt)) {
+                    log.info("Web search hedging to providers: {}", hedges);
+                    for (String provider : hedges) {
+                        submitProvider(ecs, provider, tasks.get(provider), futures, sources, startedAt);
+                        inFlight++;
+                    }
+                    hedges.clear();
+                    continue;
+                }
+                long waitUntil = hedges.isEmpty() ? deadline : Math.min(deadline, hedgeAt);
                 java.util.concurrent.Future<ToolExecutionResult> done =
-                        ecs.poll(wait, java.util.concurrent.TimeUnit.MILLISECONDS);
+                        ecs.poll(Math.max(1, waitUntil - now), java.util.concurrent.TimeUnit.MILLISECONDS);
                 if (done == null) {
-                    break;
+                    continue;
                 }
+                inFlight--;
                 String source = sources.getOrDefault(done, "unknown");
+                long latencyMs = System.currentTimeMillis() - startedAt.getOrDefault(done, now);
                 ToolExecutionResult result;
                 try {
                     result = done.get();
@@ -220,59 +254,51 @@ public class WebSearchToolHandler implements ToolHandler {
                     result = null;
                     logSearchCompletion(source, null, ex);
                 }
+                recordProviderHealth(source, result, latencyMs);
 
+                if (cacheable && isUsableSearchResult(result)) {
+                    webSearchCacheService.putProviderResult(cacheProvider(source, settings), input, result.getOutput());
+                }
                 if (result != null && result.isSuccess() && !isNoResults(result.getOutput())) {
                     log.info("Web search selected result (first-success): {}", source);
-                    cancelAll(futures);
+                    cancelLosers(futures, sources, startedAt);
                     return withTimeFallbackIfNeeded(input, result);
                 }
 
                 if (result != null) {
-                    switch (source) {
-                        case "wikipedia" -> {
-                            if (wiki == null) wiki = result;
-                            logSearchCompletion("wikipedia", result, null);
-                        }
-                        case "baidu" -> {
-                            if (baidu == null) baidu = result;
-                            logSearchCompletion("baidu", result, null);
-                        }
-                        case "bocha" -> {
-                            if (bocha == null) bocha = result;
-                            logSearchCompletion("bocha", result, null);
-                        }
-                        case "baike" -> {
-                            if (baike == null) baike = result;
-                            logSearchCompletion("baike", result, null);
-                        }
-                        case "api" -> {
-                            if (api == null) api = result;
-                            logSearchCompletion("api", result, null);
-                        }
-                        default -> logSearchCompletion(source, result, null);
-                    }
+                    results.putIfAbsent(source, result);
+                    logSearchCompletion(source, result, null);
                 }
             }
 
             // If no usable result arrived in time, fall back to best-effort selection.
-            ToolExecutionResult selected = selectBestSearchResult(api, bocha, wiki, baike, baidu);
+            ToolExecutionResult selected = selectBestSearchResult(results.get("api"), results.get("bocha"),
+                    results.get("wikipedia"), results.get("baike"), results.get("baidu"));
             if (selected != null) {
-                log.info("Web search selected result (fallback): {}", selected == api ? "api"
-                        : (selected == bocha ? "bocha"
-                        : (selected == wiki ? "wikipedia" : (selected == baike ? "baike" : "baidu"))));
+                String selectedSource = results.entrySet().stream()
+                        .filter(entry -> entry.getValue() == selected)
+                        .map(Map.Entry::getKey)
+                        .findFirst()
+                        .orElse("unknown");
+                log.info("Web search selected result (fallback): {}", selectedSource);
+                cancelLosers(futures, sources, startedAt);
                 return withTimeFallbackIfNeeded(input, selected);
             }
+            List<String> pending = new java.util.ArrayList<>();
+            long now = System.currentTimeMillis();
+            for (java.util.concurrent.Future<ToolExecutionResult> f : futures) {
+                if (!f.isDone()) {
+                    String source = sources.getOrDefault(f, "unknown");
+                    pending.add(source);
+                    searchProviderHealthService.recordFailure(source, now - startedAt.getOrDefault(f, now));
+                }
+            }
+            cancelAll(futures);
             if (isTimeLikeQuery(input)) {
                 return fetchTimeFallback(input);
             }
-            if (!futures.isEmpty()) {
-                List<String> pending = new java.util.ArrayList<>();
-                for (java.util.concurrent.Future<ToolExecutionResult> f : futures) {
-                    if (!f.isDone()) {
-                        pending.add(sources.getOrDefault(f, "unknown"));
-                    }
-                }
-                log.warn("Web search timed out: pendingTasks={} sources={}", futures.size(), pending);
+            if (!pending.isEmpty()) {
+                log.warn("Web search timed out: pendingTasks={} sources={}", pending.size(), pending);
             }
             return ToolExecutionResult.ok("No results found.");
         } catch (InterruptedException e) {
@@ -285,6 +311,90 @@ public class WebSearchToolHandler implements ToolHandler {
         }
     }
 
+    private void submitProvider(java.util.concurrent.ExecutorCompletionService<ToolExecutionResult> ecs,
+                                String provider,
+                                java.util.concurrent.Callable<ToolExecutionResult> task,
+                                List<java.util.concurrent.Future<ToolExecutionResult>> futures,
+                                Map<java.util.concurrent.Future<ToolExecutionResult>, String> sources,
+                                Map<java.util.concurrent.Future<ToolExecutionResult>, Long> startedAt) {
+        log.info("Web search task started: {}", provider);
+        java.util.concurrent.Future<ToolExecutionResult> future = ecs.submit(task);
+        futures.add(future);
+        sources.put(future, provider);
+        startedAt.put(future, System.currentTimeMillis());
+    }
+
+    private void recordProviderHealth(String source, ToolExecutionResult result, long latencyMs) {
+        if (result == null || !result.isSuccess()) {
+            searchProviderHealthService.recordFailure(source, latencyMs);
+        } else if (isNoResults(result.getOutput())) {
+            searchProviderHealthService.recordNoResults(source, latencyMs);
+        } else {
+            searchProviderHealthService.recordSuccess(source, latencyMs);
+        }
+    }
+
+    private ToolExecutionResult findCachedResult(String input,
+                                                 ToolSearchSettings settings,
+                                                 boolean apiEnabled,
+                                                 boolean bochaEnabled,
+                                                 boolean wikiEnabled,
+                                                 boolean baikeEnabled,
+                                                 boolean baiduEnabled) {
+        Map<String, Boolean> providers = new java.util.LinkedHashMap<>();
+        providers.put("api", apiEnabled);
+        providers.put("bocha", bochaEnabled);
+        providers.put("wikipedia", wikiEnabled);
+        providers.put("baike", baikeEnabled);
+        providers.put("baidu", baiduEnabled);
+        for (Map.Entry<String, Boolean> provider : providers.entrySet()) {
+            if (!provider.getValue()) {
+                continue;
+            }
+            String output = webSearchCacheService.getProviderResult(cacheProvider(provider.getKey(), settings), input);
+            if (StringUtils.hasText(output) && !isNoResults(output)) {
+                log.info("Web search selected result (cache): {}", provider.getKey());
+                return ToolExecutionResult.ok(output);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * The "api" task dispatches to whichever backend the settings select, so its cached results are
+     * keyed by that backend and, for SerpAPI, by engine.
+     */
+    private String cacheProvider(String provider, ToolSearchSettings settings) {
+        if (!"api".equals(provider) || settings == null) {
+            return provider;
+        }
+        if (settings.isSearxEnabled() && StringUtils.hasText(settings.getSearxUrl())) {
+            return "api:searx";
+        }
+        return "api:serpapi:" + serpApiEngine(settings);
+    }
+
+    private String serpApiEngine(ToolSearchSettings settings) {
+        return StringUtils.hasText(settings.getSerpApiEngine()) ? settings.getSerpApiEngine().trim() : "baidu";
+    }
+
+    /**
+     * Providers still running when another one wins are cancelled; their elapsed time is recorded as
+     * a censored latency sample so the hedge delay is not learned from the winners alone.
+     */
+    private void cancelLosers(List<java.util.concurrent.Future<ToolExecutionResult>> futures,
+                              Map<java.util.concurrent.Future<ToolExecutionResult>, String> sources,
+                              Map<java.util.concurrent.Future<ToolExecutionResult>, Long> startedAt) {
+        long now = System.currentTimeMillis();
+        for (java.util.concurrent.Future<ToolExecutionResult> f : futures) {
+            if (!f.isDone()) {
+                searchProviderHealthService.recordCancelled(sources.getOrDefault(f, "unknown"),
+                        now - startedAt.getOrDefault(f, now));
+            }
+        }
+        cancelAll(futures);
+    }
+
     private void cancelAll(java.util.List<java.util.concurrent.Future<ToolExecutionResult>> futures) {
         for (java.util.concurrent.Future<ToolExecutionResult> f : futures) {
             try {
@@ -422,7 +532,7 @@ public class WebSearchToolHandler implements ToolHandler {
             List<String> queries = expandQueries(input);
             for (String query : queries) {
                 String encoded = URLEncoder.encode(query.trim(), StandardCharsets.UTF_8);
-                String engine = StringUtils.hasText(settings.getSerpApiEngine()) ? settings.getSerpApiEngine().trim() : "baidu";
+                String engine = serpApiEngine(settings);
                 String url = "https://serpapi.com/search.json?engine=" + engine
                         + "&q=" + encoded + "&api_key=" + URLEncoder.encode(settings.getSerpApiKey(), StandardCharsets.UTF_8);
                 HttpResponse<String> response = httpGet(url);
@@ -657,19 +767,7 @@ public class WebSearchToolHandler implements ToolHandler {
         if (isBaiduBlocked(html)) {
             return results;
         }
-        Pattern pattern = Pattern.compile(
-                "<h3[^>]*>\\s*<a[^>]*href=\"([^\"]+)\"[^>]*>(.*?)</a>",
-                Pattern.CASE_INSENSITIVE | Pattern.DOTALL
-        );
-        Matcher matcher = pattern.matcher(html);
-        while (matcher.find() && results.size() < limit) {
-            String link = matcher.group(1);
-            String title = matcher.group(2).replaceAll("<.*?>", "").replaceAll("\\s+", " ").trim();
-            if (!title.isEmpty()) {
-                results.add(title + " - " + link);
-            }
-        }
-        return results;
+        return HtmlTextExtractor.extractHeadingLinks(html, "h3", limit);
     }
 
     private List<String> parseSearxResults(String json, int limit) {
@@ -895,13 +993,7 @@ public class WebSearchToolHandler implements ToolHandler {
         if (!StringUtils.hasText(input)) {
             return "";
         }
-        return input.replaceAll("(?is)<script.*?>.*?</script>", " ")
-                .replaceAll("(?is)<style.*?>.*?</style>", " ")
-                .replaceAll("<[^>]+>", " ")
-                .replaceAll("&nbsp;", " ")
-                .replaceAll("&amp;", "&")
-                .replaceAll("\\s+", " ")
-                .trim();
+        return HtmlTextExtractor.toPlainText(input);
     }
 
     private List<String> executeBaiduQuery(String query) throws Exception {
@@ -933,9 +1025,6 @@ public class WebSearchToolHandler implements ToolHandler {
     }
 
     private HttpResponse<String> httpPostJson(String url, String json, String apiKey) throws Exception {
-        HttpClient client = HttpClient.newBuilder()
-                .followRedirects(HttpClient.Redirect.NORMAL)
-                .build();
         HttpRequest request = HttpRequest.newBuilder()
                 .uri(URI.create(url))
                 .header("User-Agent", desktopUserAgent())
@@ -945,7 +1034,7 @@ public class WebSearchToolHandler implements ToolHandler {
                 .timeout(Duration.ofSeconds(12))
                 .POST(HttpRequest.BodyPublishers.ofString(json))
                 .build();
-        return sendWithRetry(client, request);
+        return sendWithRetry(request);
     }
 
     private HttpResponse<String> httpGet(String url, String userAgent) throws Exception {
@@ -953,9 +1042,6 @@ public class WebSearchToolHandler implements ToolHandler {
     }
 
     private HttpResponse<String> httpGet(String url, String userAgent, int timeoutSeconds) throws Exception {
-        HttpClient client = HttpClient.newBuilder()
-                .followRedirects(HttpClient.Redirect.NORMAL)
-                .build();
         HttpRequest request = HttpRequest.newBuilder()
                 .uri(URI.create(url))
                 .header("User-Agent", userAgent)
@@ -963,15 +1049,15 @@ public class WebSearchToolHandler implements ToolHandler {
                 .timeout(Duration.ofSeconds(timeoutSeconds))
                 .GET()
                 .build();
-        return sendWithRetry(client, request);
+        return sendWithRetry(request);
     }
 
-    private HttpResponse<String> sendWithRetry(HttpClient client, HttpRequest request) throws Exception {
+    private HttpResponse<String> sendWithRetry(HttpRequest request) throws Exception {
         int maxAttempts = Math.max(1, httpRetryMaxAttempts);
         long backoff = Math.max(50, httpRetryInitialBackoffMs);
         for (int attempt = 1; attempt <= maxAttempts; attempt++) {
             try {
-                HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+                HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
                 if (!shouldRetryStatus(response.statusCode()) || attempt == maxAttempts) {
                     return response;
                 }
@@ -1017,6 +1103,14 @@ public class WebSearchToolHandler implements ToolHandler {
     private String fetchAndFormatSearchResults(List<String> results, int maxFetch) {
         StringBuilder sb = new StringBuilder();
         int fetchCount = Math.min(maxFetch, results.size());
+        Map<Integer, Future<String>> fetches = new HashMap<>();
+        for (int i = 0; i < fetchCount; i++) {
+            String url = resultUrl(results.get(i));
+            if (!url.isBlank()) {
+                fetches.put(i, submitPageFetch(url));
+            }
+        }
+        long deadline = System.currentTimeMillis() + Math.max(1, pageFetchDeadlineMs);
         for (int i = 0; i < results.size(); i++) {
             String row = results.get(i);
             String[] parts = row.split(" - ", 2);
@@ -1026,8 +1120,9 @@ public class WebSearchToolHandler implements ToolHandler {
             if (!url.isBlank()) {
                 sb.append("\nSource: ").append(url);
             }
-            if (i < fetchCount && !url.isBlank()) {
-                String text = fetchPageText(url, 1200);
+            Future<String> fetch = fetches.get(i);
+            if (fetch != null) {
+                String text = awaitPageFetch(fetch, deadline);
                 if (StringUtils.hasText(text)) {
                     sb.append("\nSnippet: ").append(text);
                 }
@@ -1037,57 +1132,99 @@ public class WebSearchToolHandler implements ToolHandler {
         return sb.toString().trim();
     }
 
-    private String fetchPageText(String url, int maxChars) {
+    private String resultUrl(String row) {
+        String[] parts = row.split(" - ", 2);
+        return parts.length > 1 ? parts[1].trim() : "";
+    }
+
+    /**
+     * Page fetches run on the HTTP client's own async machinery rather than on webSearchExecutor:
+     * they are awaited by provider tasks that already hold a slot of that pool, and queueing them
+     * behind those same tasks starves the fetches until the deadline.
+     */
+    private Future<String> submitPageFetch(String url) {
         try {
-            HttpResponse<String> response = httpGet(url, desktopUserAgent());
-            if (response.statusCode() >= 400) {
-                return "";
-            }
-            String html = response.body();
-            if (!StringUtils.hasText(html)) {
-                return "";
-            }
-            String text = html
-                    .replaceAll("(?is)<script.*?>.*?</script>", " ")
-                    .replaceAll("(?is)<style.*?>.*?</style>", " ")
-                    .replaceAll("(?is)<nav.*?>.*?</nav>", " ")
-                    .replaceAll("(?is)<header.*?>.*?</header>", " ")
-                    .replaceAll("(?is)<footer.*?>.*?</footer>", " ")
-                    .replaceAll("<[^>]+>", " ")
-                    .replaceAll("\\s+", " ")
-                    .trim();
-            if (!StringUtils.hasText(text)) {
-                return "";
-            }
-            String cleaned = extractReadableText(text, maxChars);
-            return cleaned;
+            return fetchPageText(url, 1200);
         } catch (Exception e) {
+            return CompletableFuture.completedFuture("");
+        }
+    }
+
+    private String awaitPageFetch(Future<String> fetch, long deadline) {
+        try {
+            long wait = Math.max(0, deadline - System.currentTimeMillis());
+            return fetch.get(wait, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            fetch.cancel(true);
+            return "";
+        } catch (Exception e) {
+            fetch.cancel(true);
             return "";
         }
     }
 
-        private String extractReadableText(String text, int maxChars) {
-        String[] parts = text.split("[\\.\\u3002\\uFF01\\uFF1F]");
-        StringBuilder sb = new StringBuilder();
-        for (String part : parts) {
-            String s = part.trim();
-            if (s.length() < 30) {
-                continue;
+    private CompletableFuture<String> fetchPageText(String url, int maxChars) {
+        String cached = webSearchCacheService.getPageText(url);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        return downloadPageText(url, maxChars).thenApply(text -> {
+            webSearchCacheService.putPageText(url, text);
+            return text;
+        });
+    }
+
+    private CompletableFuture<String> downloadPageText(String url, int maxChars) {
+        HttpRequest request = HttpRequest.newBuilder()
+                .uri(URI.create(url))
+                .header("User-Agent", desktopUserAgent())
+                .header("Accept-Language", "zh-CN,zh;q=0.9,en;q=0.8")
+                .timeout(Duration.ofSeconds(12))
+                .GET()
+                .build();
+        CompletableFuture<HttpResponse<java.io.InputStream>> exchange =
+                httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofInputStream());
+        CompletableFuture<String> text = new CompletableFuture<>();
+        AtomicReference<java.io.InputStream> bodyRef = new AtomicReference<>();
+        exchange.whenComplete((response, error) -> {
+            if (error != null) {
+                text.complete("");
+                return;
             }
-            if (s.toLowerCase().contains("cookie") || s.toLowerCase().contains("privacy")
-                    || s.toLowerCase().contains("subscribe")) {
-                continue;
+            java.io.InputStream body = response.body();
+            bodyRef.set(body);
+            if (text.isDone() || response.statusCode() >= 400) {
+                closeQuietly(body);
+                text.complete("");
+                return;
+            }
+            try (body) {
+                String contentType = response.headers().firstValue("Content-Type").orElse(null);
+                text.complete(HtmlTextExtractor.extractReadableText(body, HtmlTextExtractor.charsetOf(contentType), pageMaxBytes, maxChars));
+            } catch (Exception e) {
+                text.complete("");
             }
-            sb.append(s).append(". ");
-            if (sb.length() >= maxChars) {
-                break;
+        });
+        // Cancelling the exchange only stops it before the headers arrive; once the body is being read
+        // on the client's executor, closing the stream is what makes the blocked read return.
+        text.whenComplete((value, error) -> {
+            if (text.isCancelled()) {
+                exchange.cancel(true);
+                closeQuietly(bodyRef.get());
             }
+        });
+        return text;
+    }
+
+    private void closeQuietly(java.io.InputStream stream) {
+        if (stream == null) {
+            return;
         }
-        String out = sb.toString().trim();
-        if (out.length() > maxChars) {
-            out = out.substring(0, maxChars) + "...";
+        try {
+            stream.close();
+        } catch (Exception ignored) {
         }
-        return out;
     }
 
     private List<String> expandQueries(String input) {
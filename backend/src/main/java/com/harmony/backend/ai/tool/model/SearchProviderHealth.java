@@ -0,0 +1,22 @@
+package com.harmony.backend.ai.tool.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchProviderHealth {
+    private String provider;
+    private long calls;
+    private double ewmaLatencyMs;
+    private double latencyP90Ms;
+    private double successRate;
+    private double noResultRate;
+    private int consecutiveFailures;
+    private boolean ejected;
+    private Long ejectedUntil;
+}
@@ -0,0 +1,26 @@
+package com.harmony.backend.ai.tool.service;
+
+import com.harmony.backend.ai.tool.model.SearchProviderHealth;
+
+import java.util.List;
+
+public interface SearchProviderHealthService {
+
+    List<String> rankProviders(List<String> candidates);
+
+    long hedgeDelayMs(List<String> launchedProviders);
+
+    void recordSuccess(String provider, long latencyMs);
+
+    void recordNoResults(String provider, long latencyMs);
+
+    void recordFailure(String provider, long latencyMs);
+
+    /**
+     * Records an attempt abandoned after {@code elapsedMs} because another provider won; the true
+     * latency is only known to be at least that long.
+     */
+    void recordCancelled(String provider, long elapsedMs);
+
+    List<SearchProviderHealth> listHealth();
+}
@@ -0,0 +1,12 @@
+package com.harmony.backend.ai.tool.service;
+
+public interface WebSearchCacheService {
+
+    String getProviderResult(String provider, String query);
+
+    void putProviderResult(String provider, String query, String output);
+
+    String getPageText(String url);
+
+    void putPageText(String url, String text);
+}
@@ -0,0 +1,228 @@
+package com.harmony.backend.ai.tool.service.impl;
+
+import com.harmony.backend.ai.tool.model.SearchProviderHealth;
+import com.harmony.backend.ai.tool.service.SearchProviderHealthService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+@Service
+@Slf4j
+public class SearchProviderHealthServiceImpl implements SearchProviderHealthService {
+
+    private static final double INITIAL_LATENCY_MS = 1500.0;
+    private static final double P90_Z_SCORE = 1.28;
+
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentHashMap<String, ProviderState> states = new ConcurrentHashMap<>();
+    private final double alpha;
+    private final int ejectAfterFailures;
+    private final long ejectMs;
+    private final long hedgeMinMs;
+    private final long hedgeMaxMs;
+
+    public SearchProviderHealthServiceImpl(MeterRegistry meterRegistry,
+                                           @Value("${app.tools.search.health.ewma-alpha:0.2}") double alpha,
+                                           @Value("${app.tools.search.health.eject-after-failures:3}") int ejectAfterFailures,
+                                           @Value("${app.tools.search.health.eject-ms:30000}") long ejectMs,
+                                           @Value("${app.tools.search.health.hedge-min-ms:300}") long hedgeMinMs,
+                                           @Value("${app.tools.search.health.hedge-max-ms:4000}") long hedgeMaxMs) {
+        this.meterRegistry = meterRegistry;
+        this.alpha = Math.min(1.0, Math.max(0.01, alpha));
+        this.ejectAfterFailures = Math.max(1, ejectAfterFailures);
+        this.ejectMs = Math.max(0, ejectMs);
+        this.hedgeMinMs = Math.max(0, hedgeMinMs);
+        this.hedgeMaxMs = Math.max(this.hedgeMinMs, hedgeMaxMs);
+    }
+
+    @Override
+    public List<String> rankProviders(List<String> candidates) {
+        if (candidates == null || candidates.isEmpty()) {
+            return List.of();
+        }
+        long now = System.currentTimeMillis();
+        List<String> healthy = new ArrayList<>();
+        for (String candidate : candidates) {
+            if (!state(candidate).isEjected(now)) {
+                healthy.add(candidate);
+            }
+        }
+        // When every provider is ejected, probing all of them beats answering with nothing.
+        List<String> ranked = healthy.isEmpty() ? new ArrayList<>(candidates) : healthy;
+        ranked.sort(Comparator.comparingDouble(provider -> state(provider).score()));
+        return ranked;
+    }
+
+    @Override
+    public long hedgeDelayMs(List<String> launchedProviders) {
+        double best = hedgeMaxMs;
+        if (launchedProviders != null) {
+            for (String provider : launchedProviders) {
+                best = Math.min(best, state(provider).latencyP90());
+            }
+        }
+        return Math.max(hedgeMinMs, Math.min(hedgeMaxMs, Math.round(best)));
+    }
+
+    @Override
+    public void recordSuccess(String provider, long latencyMs) {
+        ProviderState state = state(provider);
+        state.record(latencyMs, true, false, alpha);
+        state.outcome("success", latencyMs);
+    }
+
+    @Override
+    public void recordNoResults(String provider, long latencyMs) {
+        ProviderState state = state(provider);
+        state.record(latencyMs, true, true, alpha);
+        state.outcome("no_results", latencyMs);
+    }
+
+    @Override
+    public void recordFailure(String provider, long latencyMs) {
+        ProviderState state = state(provider);
+        boolean ejected = state.record(latencyMs, false, false, alpha) >= ejectAfterFailures;
+        state.outcome("failure", latencyMs);
+        if (ejected) {
+            state.ejectUntil(System.currentTimeMillis() + ejectMs);
+            log.warn("Web search provider ejected: provider={}, consecutiveFailures={}, ejectMs={}",
+                    provider, state.consecutiveFailures, ejectMs);
+        }
+    }
+
+    @Override
+    public void recordCancelled(String provider, long elapsedMs) {
+        ProviderState state = state(provider);
+        state.recordCensored(elapsedMs, alpha);
+        state.outcome("cancelled", elapsedMs);
+    }
+
+    @Override
+    public List<SearchProviderHealth> listHealth() {
+        long now = System.currentTimeMillis();
+        return states.values().stream()
+                .sorted(Comparator.comparing(state -> state.provider))
+                .map(state -> state.toHealth(now))
+                .toList();
+    }
+
+    private ProviderState state(String provider) {
+        return states.computeIfAbsent(provider == null ? "unknown" : provider, this::register);
+    }
+
+    private ProviderState register(String provider) {
+        ProviderState state = new ProviderState(provider);
+        Gauge.builder("websearch.provider.latency.ewma", state, s -> s.ewmaLatencyMs)
+                .tag("provider", provider).baseUnit("milliseconds").register(meterRegistry);
+        Gauge.builder("websearch.provider.success.rate", state, s -> s.successRate)
+                .tag("provider", provider).register(meterRegistry);
+        Gauge.builder("websearch.provider.noresult.rate", state, s -> s.noResultRate)
+                .tag("provider", provider).register(meterRegistry);
+        Gauge.builder("websearch.provider.ejected", state, s -> s.isEjected(System.currentTimeMillis()) ? 1 : 0)
+                .tag("provider", provider).register(meterRegistry);
+        state.meterRegistry = meterRegistry;
+        return state;
+    }
+
+    private static final class ProviderState {
+        private final String provider;
+        private MeterRegistry meterRegistry;
+        private final ConcurrentHashMap<String, Counter> callCounters = new ConcurrentHashMap<>();
+        private final ConcurrentHashMap<String, Timer> latencyTimers = new ConcurrentHashMap<>();
+        private long calls;
+        private double ewmaLatencyMs = INITIAL_LATENCY_MS;
+        private double ewmaDeviationMs = INITIAL_LATENCY_MS / 2;
+        private double successRate = 1.0;
+        private double noResultRate;
+        private int consecutiveFailures;
+        private volatile long ejectedUntil;
+
+        private ProviderState(String provider) {
+            this.provider = provider;
+        }
+
+        private synchronized int record(long latencyMs, boolean success, boolean noResults, double alpha) {
+            double latency = Math.max(0, latencyMs);
+            if (calls == 0) {
+                ewmaLatencyMs = latency;
+                ewmaDeviationMs = latency / 2;
+            } else {
+                ewmaDeviationMs = (1 - alpha) * ewmaDeviationMs + alpha * Math.abs(latency - ewmaLatencyMs);
+                ewmaLatencyMs = (1 - alpha) * ewmaLatencyMs + alpha * latency;
+            }
+            calls++;
+            successRate = (1 - alpha) * successRate + alpha * (success ? 1.0 : 0.0);
+            if (success) {
+                noResultRate = (1 - alpha) * noResultRate + alpha * (noResults ? 1.0 : 0.0);
+                consecutiveFailures = 0;
+            } else {
+                consecutiveFailures++;
+            }
+            return consecutiveFailures;
+        }
+
+        /**
+         * A censored sample only says the latency was at least {@code elapsedMs}, so it can only pull
+         * the estimate up: samples below the current mean carry no usable information and are
+         * skipped. Success rate and failure streaks are untouched.
+         */
+        private synchronized void recordCensored(long elapsedMs, double alpha) {
+            double latency = Math.max(0, elapsedMs);
+            if (calls == 0 || latency <= ewmaLatencyMs) {
+                return;
+            }
+            ewmaDeviationMs = (1 - alpha) * ewmaDeviationMs + alpha * (latency - ewmaLatencyMs);
+            ewmaLatencyMs = (1 - alpha) * ewmaLatencyMs + alpha * latency;
+        }
+
+        private void outcome(String outcome, long latencyMs) {
+            callCounters.computeIfAbsent(outcome, key -> Counter.builder("websearch.provider.calls")
+                    .tag("provider", provider).tag("outcome", key)
+                    .register(meterRegistry)).increment();
+            latencyTimers.computeIfAbsent(outcome, key -> Timer.builder("websearch.provider.latency")
+                    .tag("provider", provider).tag("outcome", key)
+                    .register(meterRegistry)).record(Math.max(0, latencyMs), TimeUnit.MILLISECONDS);
+        }
+
+        private void ejectUntil(long until) {
+            ejectedUntil = until;
+        }
+
+        private boolean isEjected(long now) {
+            return ejectedUntil > now;
+        }
+
+        private synchronized double latencyP90() {
+            return ewmaLatencyMs + P90_Z_SCORE * ewmaDeviationMs;
+        }
+
+        private synchronized double score() {
+            double usefulness = successRate * (1.0 - 0.5 * noResultRate);
+            return ewmaLatencyMs / Math.max(0.05, usefulness);
+        }
+
+        private synchronized SearchProviderHealth toHealth(long now) {
+            return SearchProviderHealth.builder()
+                    .provider(provider)
+                    .calls(calls)
+                    .ewmaLatencyMs(ewmaLatencyMs)
+                    .latencyP90Ms(ewmaLatencyMs + P90_Z_SCORE * ewmaDeviationMs)
+                    .successRate(successRate)
+                    .noResultRate(noResultRate)
+                    .consecutiveFailures(consecutiveFailures)
+                    .ejected(isEjected(now))
+                    .ejectedUntil(isEjected(now) ? ejectedUntil : null)
+                    .build();
+        }
+    }
+}
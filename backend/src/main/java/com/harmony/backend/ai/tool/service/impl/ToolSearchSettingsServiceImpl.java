@@ -2,18 +2,27 @@ package com.harmony.backend.ai.tool.service.impl;
 
 import com.harmony.backend.ai.tool.model.ToolSearchSettings;
 import com.harmony.backend.ai.tool.service.ToolSearchSettingsService;
+import com.harmony.backend.common.cache.NearCache;
+import com.harmony.backend.common.cache.NearCacheManager;
+import com.harmony.backend.common.cache.NearCacheNames;
 import com.harmony.backend.common.constant.AppConfigKeys;
 import com.harmony.backend.common.service.AppConfigService;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 
+import java.time.Duration;
+
 @Service
 @RequiredArgsConstructor
 public class ToolSearchSettingsServiceImpl implements ToolSearchSettingsService {
 
+    private static final String CACHE_KEY = "settings";
+
     private final AppConfigService appConfigService;
+    private final NearCacheManager nearCacheManager;
 
     @Value("${app.tools.search.searx-url:}")
     private String defaultSearxUrl;
@@ -54,8 +63,24 @@ public class ToolSearchSettingsServiceImpl implements ToolSearchSettingsService
     @Value("${app.tools.search.wikipedia-proxy-url:}")
     private String defaultWikipediaProxyUrl;
 
+    private NearCache<ToolSearchSettings> cache;
+
+    @PostConstruct
+    public void initCache() {
+        cache = nearCacheManager.<ToolSearchSettings>builder(NearCacheNames.TOOL_SEARCH_SETTINGS)
+                .maximumSize(1)
+                .refreshAfterWrite(Duration.ofSeconds(30))
+                .loader(key -> loadSettings())
+                .dependsOn(NearCacheNames.APP_CONFIG)
+                .build();
+    }
+
     @Override
     public ToolSearchSettings getSettings() {
+        return cache.get(CACHE_KEY);
+    }
+
+    private ToolSearchSettings loadSettings() {
         String searxEnabled = appConfigService.getValue(AppConfigKeys.TOOLS_SEARCH_SEARX_ENABLED);
         String searxUrl = appConfigService.getValue(AppConfigKeys.TOOLS_SEARCH_SEARX_URL);
         String serpKey = appConfigService.getValue(AppConfigKeys.TOOLS_SEARCH_SERPAPI_KEY);
@@ -0,0 +1,126 @@
+package com.harmony.backend.ai.tool.service.impl;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.Hashing;
+import com.harmony.backend.ai.tool.service.WebSearchCacheService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+@Service
+@Slf4j
+public class WebSearchCacheServiceImpl implements WebSearchCacheService {
+
+    private static final String QUERY_KEY_PREFIX = "tool:websearch:query:";
+    private static final String PAGE_KEY_PREFIX = "tool:websearch:page:";
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final Cache<String, String> queryCache;
+    private final Cache<String, String> pageCache;
+    private final Duration queryTtl;
+    private final Duration pageTtl;
+    private final boolean redisEnabled;
+
+    public WebSearchCacheServiceImpl(RedisTemplate<String, Object> redisTemplate,
+                                     @Value("${app.tools.search.cache.local-max-entries:500}") long localMaxEntries,
+                                     @Value("${app.tools.search.cache.query-ttl-seconds:600}") long queryTtlSeconds,
+                                     @Value("${app.tools.search.cache.page-ttl-seconds:1800}") long pageTtlSeconds,
+                                     @Value("${app.tools.search.cache.redis-enabled:true}") boolean redisEnabled) {
+        this.redisTemplate = redisTemplate;
+        this.queryTtl = Duration.ofSeconds(Math.max(1, queryTtlSeconds));
+        this.pageTtl = Duration.ofSeconds(Math.max(1, pageTtlSeconds));
+        this.redisEnabled = redisEnabled;
+        this.queryCache = CacheBuilder.newBuilder()
+                .maximumSize(Math.max(1, localMaxEntries))
+                .expireAfterWrite(queryTtl.toSeconds(), TimeUnit.SECONDS)
+                .build();
+        this.pageCache = CacheBuilder.newBuilder()
+                .maximumSize(Math.max(1, localMaxEntries))
+                .expireAfterWrite(pageTtl.toSeconds(), TimeUnit.SECONDS)
+                .build();
+    }
+
+    @Override
+    public String getProviderResult(String provider, String query) {
+        String key = queryKey(provider, query);
+        return key == null ? null : read(queryCache, key);
+    }
+
+    @Override
+    public void putProviderResult(String provider, String query, String output) {
+        String key = queryKey(provider, query);
+        if (key != null && StringUtils.hasText(output)) {
+            write(queryCache, key, output, queryTtl);
+        }
+    }
+
+    @Override
+    public String getPageText(String url) {
+        String key = pageKey(url);
+        return key == null ? null : read(pageCache, key);
+    }
+
+    @Override
+    public void putPageText(String url, String text) {
+        String key = pageKey(url);
+        if (key != null && StringUtils.hasText(text)) {
+            write(pageCache, key, text, pageTtl);
+        }
+    }
+
+    private String read(Cache<String, String> local, String key) {
+        String value = local.getIfPresent(key);
+        if (value != null || !redisEnabled) {
+            return value;
+        }
+        try {
+            Object remote = redisTemplate.opsForValue().get(key);
+            if (remote instanceof String text && !text.isEmpty()) {
+                local.put(key, text);
+                return text;
+            }
+        } catch (Exception e) {
+            log.debug("Web search cache read failed: key={}, error={}", key, e.getMessage());
+        }
+        return null;
+    }
+
+    private void write(Cache<String, String> local, String key, String value, Duration ttl) {
+        local.put(key, value);
+        if (!redisEnabled) {
+            return;
+        }
+        try {
+            redisTemplate.opsForValue().set(key, value, ttl);
+        } catch (Exception e) {
+            log.debug("Web search cache write failed: key={}, error={}", key, e.getMessage());
+        }
+    }
+
+    private String queryKey(String provider, String query) {
+        if (!StringUtils.hasText(provider) || !StringUtils.hasText(query)) {
+            return null;
+        }
+        String normalized = query.trim().toLowerCase(Locale.ROOT).replaceAll("\\s+", " ");
+        return QUERY_KEY_PREFIX + provider + ":" + hash(normalized);
+    }
+
+    private String pageKey(String url) {
+        if (!StringUtils.hasText(url)) {
+            return null;
+        }
+        return PAGE_KEY_PREFIX + hash(url.trim());
+    }
+
+    private String hash(String value) {
+        return Hashing.sha256().hashString(value, StandardCharsets.UTF_8).toString();
+    }
+}
@@ -0,0 +1,298 @@
+package com.harmony.backend.common.cache;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.LoadingCache;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import org.springframework.util.StringUtils;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+
+/**
+ * Bounded per-node cache keyed by string. When a refresh interval is set, entries older than it are
+ * refreshed in the background, so readers keep getting the previous value while one thread
+ * reloads; invalidations are broadcast to every node through {@link NearCacheManager}.
+ * <p>
+ * Each entry is stamped with the invalidation generation seen when its load started. Guava stores
+ * a reload that was already in flight when the key was invalidated, so an entry stamped before a
+ * later invalidation of its key is treated as a miss and reloaded instead of being served.
+ */
+public final class NearCache<V> {
+
+    private static final int GENERATION_STRIPES = 1024;
+
+    private final String name;
+    private final NearCacheManager manager;
+    private final LoadingCache<String, Versioned<V>> cache;
+    private final AtomicLongArray keyGenerations = new AtomicLongArray(GENERATION_STRIPES);
+    private final AtomicLong globalGeneration = new AtomicLong();
+
+    NearCache(Builder<V> builder, Executor refreshExecutor) {
+        this.name = builder.name;
+        this.manager = builder.manager;
+        Function<String, V> loader = builder.loader;
+        Function<Set<String>, Map<String, V>> bulkLoader = builder.bulkLoader;
+        CacheLoader<String, Versioned<V>> cacheLoader = new CacheLoader<>() {
+            @Override
+            public Versioned<V> load(String key) {
+                long global = globalGeneration.get();
+                long keyGeneration = keyGenerations.get(stripe(key));
+                return new Versioned<>(Optional.ofNullable(loader.apply(key)), global, keyGeneration);
+            }
+
+            @Override
+            public Map<String, Versioned<V>> loadAll(Iterable<? extends String> keys) throws Exception {
+                if (bulkLoader == null) {
+                    return super.loadAll(keys);
+                }
+                Set<String> requested = new LinkedHashSet<>();
+                keys.forEach(requested::add);
+                long global = globalGeneration.get();
+                Map<String, Long> started = new HashMap<>();
+                for (String key : requested) {
+                    started.put(key, keyGenerations.get(stripe(key)));
+                }
+                Map<String, V> loaded = bulkLoader.apply(requested);
+                Map<String, Versioned<V>> result = new HashMap<>();
+                for (String key : requested) {
+                    result.put(key, new Versioned<>(Optional.ofNullable(loaded != null ? loaded.get(key) : null),
+                            global, started.get(key)));
+                }
+                return result;
+            }
+        };
+        CacheBuilder<Object, Object> cacheBuilder = CacheBuilder.newBuilder()
+                .maximumSize(builder.maximumSize)
+                .expireAfterWrite(builder.expireAfterWrite)
+                .recordStats();
+        if (builder.refreshAfterWrite != null && builder.refreshAfterWrite.compareTo(builder.expireAfterWrite) < 0) {
+            cacheBuilder.refreshAfterWrite(builder.refreshAfterWrite);
+        }
+        this.cache = cacheBuilder.build(CacheLoader.asyncReloading(cacheLoader, refreshExecutor));
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public V get(String key) {
+        if (key == null) {
+            return null;
+        }
+        try {
+            Versioned<V> entry = cache.get(key);
+            if (isStale(key, entry)) {
+                cache.invalidate(key);
+                entry = cache.get(key);
+            }
+            return entry.value().orElse(null);
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            throw unwrap(e);
+        }
+    }
+
+    public Map<String, V> getAll(Collection<String> keys) {
+        Map<String, V> result = new HashMap<>();
+        if (keys == null || keys.isEmpty()) {
+            return result;
+        }
+        Set<String> distinct = new LinkedHashSet<>();
+        for (String key : keys) {
+            if (StringUtils.hasText(key)) {
+                distinct.add(key);
+            }
+        }
+        try {
+            Map<String, Versioned<V>> entries = new HashMap<>(cache.getAll(distinct));
+            Set<String> stale = new LinkedHashSet<>();
+            entries.forEach((key, entry) -> {
+                if (isStale(key, entry)) {
+                    stale.add(key);
+                }
+            });
+            if (!stale.isEmpty()) {
+                cache.invalidateAll(stale);
+                entries.putAll(cache.getAll(stale));
+            }
+            entries.forEach((key, entry) -> result.put(key, entry.value().orElse(null)));
+        } catch (ExecutionException | UncheckedExecutionException e) {
+            throw unwrap(e);
+        }
+        return result;
+    }
+
+    public V getIfPresent(String key) {
+        if (key == null) {
+            return null;
+        }
+        Versioned<V> entry = cache.getIfPresent(key);
+        if (entry == null) {
+            return null;
+        }
+        if (isStale(key, entry)) {
+            cache.invalidate(key);
+            return null;
+        }
+        return entry.value().orElse(null);
+    }
+
+    /**
+     * Write-through update: replaces the entry on this node and drops it on every other node,
+     * which reload it on next access.
+     */
+    public void put(String key, V value) {
+        if (key == null) {
+            return;
+        }
+        manager.invalidate(name, key);
+        cache.put(key, current(key, value));
+    }
+
+    /**
+     * Caches a value on this node only, for values every node can compute for itself; entries
+     * other nodes hold for the key are left alone.
+     */
+    public void putLocal(String key, V value) {
+        if (key != null) {
+            cache.put(key, current(key, value));
+        }
+    }
+
+    public long size() {
+        return cache.size();
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    /**
+     * Drops the entry on this node and every other node, together with caches derived from this one.
+     */
+    public void invalidate(String key) {
+        manager.invalidate(name, key);
+    }
+
+    public void invalidateAll() {
+        manager.invalidate(name, null);
+    }
+
+    /**
+     * Bumps the generation before dropping the entry, so a load that started earlier is recognised
+     * as stale even if Guava stores it after this call returns.
+     */
+    void invalidateLocal(String key) {
+        if (key == null) {
+            globalGeneration.incrementAndGet();
+            cache.invalidateAll();
+        } else {
+            keyGenerations.incrementAndGet(stripe(key));
+            cache.invalidate(key);
+        }
+    }
+
+    LoadingCache<String, Versioned<V>> delegate() {
+        return cache;
+    }
+
+    private boolean isStale(String key, Versioned<V> entry) {
+        return entry.globalGeneration() != globalGeneration.get()
+                || entry.keyGeneration() != keyGenerations.get(stripe(key));
+    }
+
+    private Versioned<V> current(String key, V value) {
+        return new Versioned<>(Optional.ofNullable(value), globalGeneration.get(), keyGenerations.get(stripe(key)));
+    }
+
+    private static int stripe(String key) {
+        return (key.hashCode() & Integer.MAX_VALUE) % GENERATION_STRIPES;
+    }
+
+    private RuntimeException unwrap(Exception e) {
+        Throwable cause = e.getCause() != null ? e.getCause() : e;
+        if (cause instanceof RuntimeException runtime) {
+            return runtime;
+        }
+        return new IllegalStateException("Near cache load failed: " + name, cause);
+    }
+
+    record Versioned<V>(Optional<V> value, long globalGeneration, long keyGeneration) {
+    }
+
+    public static final class Builder<V> {
+        private final NearCacheManager manager;
+        private final String name;
+        private long maximumSize = 1000;
+        private Duration expireAfterWrite = Duration.ofMinutes(10);
+        private Duration refreshAfterWrite;
+        private Function<String, V> loader;
+        private Function<Set<String>, Map<String, V>> bulkLoader;
+        private final Set<String> upstreams = new LinkedHashSet<>();
+
+        Builder(NearCacheManager manager, String name) {
+            this.manager = manager;
+            this.name = name;
+        }
+
+        public Builder<V> maximumSize(long maximumSize) {
+            this.maximumSize = Math.max(1, maximumSize);
+            return this;
+        }
+
+        public Builder<V> expireAfterWrite(Duration expireAfterWrite) {
+            this.expireAfterWrite = expireAfterWrite;
+            return this;
+        }
+
+        public Builder<V> refreshAfterWrite(Duration refreshAfterWrite) {
+            this.refreshAfterWrite = refreshAfterWrite;
+            return this;
+        }
+
+        public Builder<V> loader(Function<String, V> loader) {
+            this.loader = loader;
+            return this;
+        }
+
+        public Builder<V> bulkLoader(Function<Set<String>, Map<String, V>> bulkLoader) {
+            this.bulkLoader = bulkLoader;
+            return this;
+        }
+
+        /**
+         * Invalidates this whole cache whenever an entry of the named cache is invalidated,
+         * for values computed from another near-cached source.
+         */
+        public Builder<V> dependsOn(String upstreamCache) {
+            this.upstreams.add(upstreamCache);
+            return this;
+        }
+
+        Set<String> upstreams() {
+            return upstreams;
+        }
+
+        String name() {
+            return name;
+        }
+
+        public NearCache<V> build() {
+            if (loader == null) {
+                throw new IllegalStateException("Near cache loader is required: " + name);
+            }
+            return manager.register(this);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.harmony.backend.common.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+@Component
+@Slf4j
+public class NearCacheManager implements MessageListener {
+
+    static final String INVALIDATION_CHANNEL = "cache:near:invalidate";
+    private static final String SEPARATOR = "|";
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final ConcurrentHashMap<String, NearCache<?>> caches = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Set<String>> dependents = new ConcurrentHashMap<>();
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final MeterRegistry meterRegistry;
+    private final Executor taskExecutor;
+
+    public NearCacheManager(StringRedisTemplate stringRedisTemplate,
+                            RedisMessageListenerContainer listenerContainer,
+                            MeterRegistry meterRegistry,
+                            @Qualifier("taskExecutor") Executor taskExecutor) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.meterRegistry = meterRegistry;
+        this.taskExecutor = taskExecutor;
+    }
+
+    @PostConstruct
+    public void subscribe() {
+        listenerContainer.addMessageListener(this, new ChannelTopic(INVALIDATION_CHANNEL));
+    }
+
+    public <V> NearCache.Builder<V> builder(String name) {
+        return new NearCache.Builder<>(this, name);
+    }
+
+    <V> NearCache<V> register(NearCache.Builder<V> builder) {
+        NearCache<V> cache = new NearCache<>(builder, taskExecutor);
+        if (caches.putIfAbsent(builder.name(), cache) != null) {
+            throw new IllegalStateException("Near cache already registered: " + builder.name());
+        }
+        for (String upstream : builder.upstreams()) {
+            dependents.computeIfAbsent(upstream, key -> ConcurrentHashMap.newKeySet()).add(builder.name());
+        }
+        GuavaCacheMetrics.monitor(meterRegistry, cache.delegate(), builder.name());
+        return cache;
+    }
+
+    void invalidate(String cacheName, String key) {
+        invalidateLocal(cacheName, key, new HashSet<>());
+        try {
+            stringRedisTemplate.convertAndSend(INVALIDATION_CHANNEL,
+                    nodeId + SEPARATOR + cacheName + SEPARATOR + (key == null ? "" : key));
+        } catch (Exception e) {
+            log.warn("Near cache invalidation broadcast failed: cache={}, key={}, error={}", cacheName, key, e.getMessage());
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split("\\|", 3);
+        if (parts.length < 3 || nodeId.equals(parts[0])) {
+            return;
+        }
+        invalidateLocal(parts[1], parts[2].isEmpty() ? null : parts[2], new HashSet<>());
+    }
+
+    private void invalidateLocal(String cacheName, String key, Set<String> visited) {
+        if (!visited.add(cacheName)) {
+            return;
+        }
+        NearCache<?> cache = caches.get(cacheName);
+        if (cache != null) {
+            cache.invalidateLocal(key);
+        }
+        for (String dependent : dependents.getOrDefault(cacheName, Set.of())) {
+            invalidateLocal(dependent, null, visited);
+        }
+    }
+}
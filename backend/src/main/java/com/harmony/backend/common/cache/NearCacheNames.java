@@ -0,0 +1,25 @@
+package com.harmony.backend.common.cache;
+
+public final class NearCacheNames {
+
+    public static final String APP_CONFIG = "app-config";
+    public static final String USERS = "users";
+    public static final String GLOBAL_RATE_LIMIT_SETTINGS = "global-rate-limit-settings";
+    public static final String TOOL_SEARCH_SETTINGS = "tool-search-settings";
+    public static final String OPENAI_STREAM_SETTING = "openai-stream-setting";
+    public static final String CATALOG_GPT_INDEX = "catalog-gpt-index";
+    public static final String CATALOG_AGENT_INDEX = "catalog-agent-index";
+    public static final String CATALOG_GPT_RESULTS = "catalog-gpt-results";
+    public static final String CATALOG_AGENT_RESULTS = "catalog-agent-results";
+    public static final String CHAT_GPT_DEFINITIONS = "chat-gpt-definitions";
+    public static final String CHAT_AGENT_DEFINITIONS = "chat-agent-definitions";
+    public static final String MEMORY_CHAT_CONTEXT = "memory-chat-context";
+    public static final String MEMORY_USER_CONTEXT = "memory-user-context";
+    public static final String AGENT_SINGLE_PLANS = "agent-single-plans";
+    public static final String AGENT_MULTI_PLANS = "agent-multi-plans";
+    public static final String TOOL_RESULTS = "tool-results";
+    public static final String TOOL_RUN_RESULTS = "tool-run-results";
+
+    private NearCacheNames() {
+    }
+}
@@ -0,0 +1,38 @@
+package com.harmony.backend.common.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.retention")
+public class RetentionProperties {
+    /**
+     * Off unless explicitly enabled: the jobs physically delete rows, billing history included.
+     */
+    private boolean enabled = false;
+    private int batchSize = 500;
+    private long batchPauseMs = 100;
+    private int maxBatchesPerRun = 200;
+    private long lockTtlSeconds = 1800;
+    /**
+     * Absolute path on durable storage shared by every node that can win the job lock. Left unset,
+     * session-archive does not run, since nothing may be deleted before it is archived.
+     */
+    private String archiveDir;
+    /**
+     * Per-job overrides keyed by job name; jobs missing here keep their built-in defaults.
+     */
+    private Map<String, Job> jobs = new LinkedHashMap<>();
+
+    @Data
+    public static class Job {
+        private Boolean enabled;
+        private String cron;
+        private Integer retentionDays;
+    }
+}
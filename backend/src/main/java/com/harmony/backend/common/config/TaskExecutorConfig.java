@@ -1,22 +1,23 @@
 package com.harmony.backend.common.config;
 
-import lombok.extern.slf4j.Slf4j;
+import com.harmony.backend.common.executor.ExecutorMode;
+import com.harmony.backend.common.executor.ManagedExecutor;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
-
-import java.util.concurrent.Executor;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.RejectedExecutionException;
-import java.util.concurrent.RejectedExecutionHandler;
-import java.util.concurrent.ThreadPoolExecutor;
 
+/**
+ * Application executors. Each pool runs on platform threads or, with {@code mode: virtual}, on
+ * virtual threads bounded by a semaphore of {@code max-pool-size} permits with {@code queue-capacity}
+ * waiters; either way they are instrumented and resizable through {@link ManagedExecutor}.
+ */
 @Configuration
-@Slf4j
 public class TaskExecutorConfig {
 
+    @Value("${app.agents.executor.mode:platform}")
+    private String agentMode;
+
     @Value("${app.agents.executor.core-pool-size:10}")
     private int corePoolSize;
 
@@ -29,6 +30,9 @@ public class TaskExecutorConfig {
     @Value("${app.agents.executor.await-termination-seconds:30}")
     private int awaitTerminationSeconds;
 
+    @Value("${app.webmvc.async.mode:platform}")
+    private String webMvcMode;
+
     @Value("${app.webmvc.async.core-pool-size:4}")
     private int webMvcCorePoolSize;
 
@@ -41,6 +45,9 @@ public class TaskExecutorConfig {
     @Value("${app.webmvc.async.await-termination-seconds:30}")
     private int webMvcAwaitTerminationSeconds;
 
+    @Value("${app.async.background.mode:platform}")
+    private String backgroundMode;
+
     @Value("${app.async.background.core-pool-size:4}")
     private int backgroundCorePoolSize;
 
@@ -53,6 +60,9 @@ public class TaskExecutorConfig {
     @Value("${app.async.background.await-termination-seconds:30}")
     private int backgroundAwaitTerminationSeconds;
 
+    @Value("${app.rag.async.mode:platform}")
+    private String ragMode;
+
     @Value("${app.rag.async.core-pool-size:2}")
     private int ragCorePoolSize;
 
@@ -65,6 +75,9 @@ public class TaskExecutorConfig {
     @Value("${app.rag.async.await-termination-seconds:30}")
     private int ragAwaitTerminationSeconds;
 
+    @Value("${app.user.activity.async.mode:platform}")
+    private String userActivityMode;
+
     @Value("${app.user.activity.async.core-pool-size:1}")
     private int userActivityCorePoolSize;
 
@@ -77,12 +90,28 @@ public class TaskExecutorConfig {
     @Value("${app.user.activity.async.await-termination-seconds:10}")
     private int userActivityAwaitTerminationSeconds;
 
+    @Value("${app.tools.search.executor.mode:platform}")
+    private String webSearchMode;
+
     @Value("${app.tools.search.executor.pool-size:12}")
     private int webSearchPoolSize;
 
+    @Value("${app.tools.search.executor.queue-capacity:2147483647}")
+    private int webSearchQueueCapacity;
+
+    @Value("${app.tools.search.executor.await-termination-seconds:10}")
+    private int webSearchAwaitTerminationSeconds;
+
+    private final MeterRegistry meterRegistry;
+
+    public TaskExecutorConfig(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
     @Bean(name = "agentExecutor")
-    public Executor agentExecutor() {
+    public ManagedExecutor agentExecutor() {
         return buildExecutor(
+                agentMode,
                 "agent-pool-",
                 corePoolSize,
                 maxPoolSize,
@@ -93,8 +122,9 @@ public class TaskExecutorConfig {
     }
 
     @Bean(name = "webMvcTaskExecutor")
-    public ThreadPoolTaskExecutor webMvcTaskExecutor() {
+    public ManagedExecutor webMvcTaskExecutor() {
         return buildExecutor(
+                webMvcMode,
                 "webmvc-",
                 webMvcCorePoolSize,
                 webMvcMaxPoolSize,
@@ -105,8 +135,9 @@ public class TaskExecutorConfig {
     }
 
     @Bean(name = "taskExecutor")
-    public ThreadPoolTaskExecutor taskExecutor() {
+    public ManagedExecutor taskExecutor() {
         return buildExecutor(
+                backgroundMode,
                 "async-bg-",
                 backgroundCorePoolSize,
                 backgroundMaxPoolSize,
@@ -117,8 +148,9 @@ public class TaskExecutorConfig {
     }
 
     @Bean(name = "ragTaskExecutor")
-    public ThreadPoolTaskExecutor ragTaskExecutor() {
+    public ManagedExecutor ragTaskExecutor() {
         return buildExecutor(
+                ragMode,
                 "rag-async-",
                 ragCorePoolSize,
                 ragMaxPoolSize,
@@ -129,8 +161,9 @@ public class TaskExecutorConfig {
     }
 
     @Bean(name = "userActivityExecutor")
-    public ThreadPoolTaskExecutor userActivityExecutor() {
+    public ManagedExecutor userActivityExecutor() {
         return buildExecutor(
+                userActivityMode,
                 "user-activity-",
                 userActivityCorePoolSize,
                 userActivityMaxPoolSize,
@@ -140,45 +173,32 @@ public class TaskExecutorConfig {
         );
     }
 
-    @Bean(name = "webSearchExecutor", destroyMethod = "shutdown")
-    public ExecutorService webSearchExecutor() {
-        return Executors.newFixedThreadPool(Math.max(2, webSearchPoolSize));
-    }
-
-    private ThreadPoolTaskExecutor buildExecutor(String threadNamePrefix,
-                                                 int corePoolSize,
-                                                 int maxPoolSize,
-                                                 int queueCapacity,
-                                                 int awaitTerminationSeconds,
-                                                 String executorName) {
-        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
-        executor.setCorePoolSize(corePoolSize);
-        executor.setMaxPoolSize(maxPoolSize);
-        executor.setQueueCapacity(queueCapacity);
-        executor.setThreadNamePrefix(threadNamePrefix);
-        executor.setRejectedExecutionHandler(new LoggingAbortPolicy(executorName));
-        executor.setWaitForTasksToCompleteOnShutdown(true);
-        executor.setAwaitTerminationSeconds(awaitTerminationSeconds);
-        executor.initialize();
-        return executor;
+    /**
+     * Runs search provider calls only. Page fetches awaited by those calls go through the HTTP
+     * client's async API, so a provider task never waits on work queued behind its own permit.
+     */
+    @Bean(name = "webSearchExecutor")
+    public ManagedExecutor webSearchExecutor() {
+        int poolSize = Math.max(2, webSearchPoolSize);
+        return buildExecutor(
+                webSearchMode,
+                "web-search-",
+                poolSize,
+                poolSize,
+                webSearchQueueCapacity,
+                webSearchAwaitTerminationSeconds,
+                "webSearchExecutor"
+        );
     }
 
-    private static final class LoggingAbortPolicy implements RejectedExecutionHandler {
-        private final String executorName;
-
-        private LoggingAbortPolicy(String executorName) {
-            this.executorName = executorName;
-        }
-
-        @Override
-        public void rejectedExecution(Runnable r, ThreadPoolExecutor executor) {
-            int queueSize = executor.getQueue() == null ? -1 : executor.getQueue().size();
-            log.warn("Executor saturated: executorName={}, poolSize={}, activeCount={}, queueSize={}",
-                    executorName,
-                    executor.getPoolSize(),
-                    executor.getActiveCount(),
-                    queueSize);
-            throw new RejectedExecutionException("Executor is saturated: " + executorName);
-        }
+    private ManagedExecutor buildExecutor(String mode,
+                                          String threadNamePrefix,
+                                          int corePoolSize,
+                                          int maxPoolSize,
+                                          int queueCapacity,
+                                          int awaitTerminationSeconds,
+                                          String executorName) {
+        return ManagedExecutor.create(ExecutorMode.from(mode), executorName, threadNamePrefix, corePoolSize,
+                maxPoolSize, queueCapacity, awaitTerminationSeconds, meterRegistry);
     }
 }
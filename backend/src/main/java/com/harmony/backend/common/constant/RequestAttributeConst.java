@@ -7,6 +7,7 @@ public class RequestAttributeConst {
 
     public static final String CURRENT_USER = "currentUser";
     public static final String CURRENT_TOKEN = "currentToken";
+    public static final String VERIFIED_ACCESS_TOKEN = "verifiedAccessToken";
 
     private RequestAttributeConst() {
     }
@@ -0,0 +1,13 @@
+package com.harmony.backend.common.event;
+
+import lombok.Getter;
+
+@Getter
+public class SkillCatalogChangedEvent extends BaseEvent {
+    private final long version;
+
+    public SkillCatalogChangedEvent(Object source, long version) {
+        super(source);
+        this.version = version;
+    }
+}
@@ -0,0 +1,21 @@
+package com.harmony.backend.common.executor;
+
+import java.util.Locale;
+
+public enum ExecutorMode {
+    /**
+     * Fixed platform-thread pool with a bounded queue.
+     */
+    PLATFORM,
+    /**
+     * A virtual thread per task; a semaphore sized for downstream capacity bounds how many run at once.
+     */
+    VIRTUAL;
+
+    public static ExecutorMode from(String value) {
+        if (value == null || value.isBlank()) {
+            return PLATFORM;
+        }
+        return ExecutorMode.valueOf(value.trim().toUpperCase(Locale.ROOT));
+    }
+}
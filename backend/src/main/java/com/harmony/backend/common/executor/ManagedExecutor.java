@@ -0,0 +1,157 @@
+package com.harmony.backend.common.executor;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.core.task.AsyncTaskExecutor;
+
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Named application executor backed either by a platform-thread pool or by virtual threads behind a
+ * semaphore. Both report queue depth, active tasks, rejections and task wait time (submit to start)
+ * through Micrometer under {@code task.executor.*}, and both can be resized while running.
+ * Tasks submitted from a task of the same executor are counted as nested submissions: if the outer
+ * task waits for them, they compete for the slot it holds, which is how pools starve themselves.
+ */
+@Slf4j
+public abstract class ManagedExecutor extends AbstractExecutorService implements AsyncTaskExecutor, DisposableBean {
+
+    private final String name;
+    private static final ThreadLocal<ManagedExecutor> RUNNING_IN = new ThreadLocal<>();
+
+    private final AtomicLong completed = new AtomicLong();
+    private Counter nested;
+    private Counter rejected;
+    private Timer waitTimer;
+
+    protected ManagedExecutor(String name) {
+        this.name = name;
+    }
+
+    public static ManagedExecutor platform(String name, String threadNamePrefix, int corePoolSize, int maxPoolSize,
+                                           int queueCapacity, int awaitTerminationSeconds, MeterRegistry meterRegistry) {
+        return new PlatformManagedExecutor(name, threadNamePrefix, corePoolSize, maxPoolSize, queueCapacity,
+                awaitTerminationSeconds).bindMeters(meterRegistry);
+    }
+
+    public static ManagedExecutor virtual(String name, String threadNamePrefix, int maxConcurrency,
+                                          int queueCapacity, int awaitTerminationSeconds, MeterRegistry meterRegistry) {
+        return new VirtualManagedExecutor(name, threadNamePrefix, maxConcurrency, queueCapacity,
+                awaitTerminationSeconds).bindMeters(meterRegistry);
+    }
+
+    public static ManagedExecutor create(ExecutorMode mode, String name, String threadNamePrefix, int corePoolSize,
+                                         int maxPoolSize, int queueCapacity, int awaitTerminationSeconds,
+                                         MeterRegistry meterRegistry) {
+        return mode == ExecutorMode.VIRTUAL
+                ? virtual(name, threadNamePrefix, maxPoolSize, queueCapacity, awaitTerminationSeconds, meterRegistry)
+                : platform(name, threadNamePrefix, corePoolSize, maxPoolSize, queueCapacity, awaitTerminationSeconds, meterRegistry);
+    }
+
+    ManagedExecutor bindMeters(MeterRegistry meterRegistry) {
+        rejected = Counter.builder("task.executor.rejected")
+                .tag("name", name)
+                .register(meterRegistry);
+        nested = Counter.builder("task.executor.nested.submissions")
+                .tag("name", name)
+                .register(meterRegistry);
+        waitTimer = Timer.builder("task.executor.wait")
+                .tag("name", name)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        Gauge.builder("task.executor.queue.depth", this, ManagedExecutor::queueSize)
+                .tag("name", name)
+                .register(meterRegistry);
+        Gauge.builder("task.executor.active", this, ManagedExecutor::activeCount)
+                .tag("name", name)
+                .register(meterRegistry);
+        Gauge.builder("task.executor.max.concurrency", this, ManagedExecutor::maxConcurrency)
+                .tag("name", name)
+                .register(meterRegistry);
+        return this;
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        if (RUNNING_IN.get() == this) {
+            nested.increment();
+            log.debug("Nested submission: executorName={}, activeCount={}, queueSize={}", name, activeCount(), queueSize());
+        }
+        long submittedAt = System.nanoTime();
+        Runnable timed = () -> {
+            waitTimer.record(System.nanoTime() - submittedAt, TimeUnit.NANOSECONDS);
+            ManagedExecutor outer = RUNNING_IN.get();
+            RUNNING_IN.set(this);
+            try {
+                task.run();
+            } finally {
+                RUNNING_IN.set(outer);
+                completed.incrementAndGet();
+            }
+        };
+        try {
+            dispatch(timed);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            log.warn("Executor saturated: executorName={}, mode={}, activeCount={}, queueSize={}, maxConcurrency={}",
+                    name, mode(), activeCount(), queueSize(), maxConcurrency());
+            throw e;
+        }
+    }
+
+    @Override
+    public void destroy() {
+        shutdown();
+        awaitShutdown();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public ManagedExecutorStatus status() {
+        return ManagedExecutorStatus.builder()
+                .name(name)
+                .mode(mode())
+                .corePoolSize(corePoolSize())
+                .maxConcurrency(maxConcurrency())
+                .queueCapacity(queueCapacity())
+                .activeCount(activeCount())
+                .queueSize(queueSize())
+                .completedCount(completed.get())
+                .rejectedCount((long) rejected.count())
+                .meanWaitMs(waitTimer.mean(TimeUnit.MILLISECONDS))
+                .maxWaitMs(waitTimer.max(TimeUnit.MILLISECONDS))
+                .shutdown(isShutdown())
+                .build();
+    }
+
+    /**
+     * Applies new limits to the running executor. {@code corePoolSize} only applies to platform pools;
+     * null leaves a limit unchanged.
+     */
+    public abstract void resize(Integer corePoolSize, Integer maxConcurrency);
+
+    public abstract ExecutorMode mode();
+
+    protected abstract void dispatch(Runnable task);
+
+    protected abstract void awaitShutdown();
+
+    protected abstract Integer corePoolSize();
+
+    protected abstract int maxConcurrency();
+
+    protected abstract int queueCapacity();
+
+    protected abstract int activeCount();
+
+    protected abstract int queueSize();
+}
@@ -0,0 +1,41 @@
+package com.harmony.backend.common.executor;
+
+import com.harmony.backend.common.exception.BusinessException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Component
+@Slf4j
+public class ManagedExecutorRegistry {
+
+    private final Map<String, ManagedExecutor> executors = new LinkedHashMap<>();
+
+    public ManagedExecutorRegistry(List<ManagedExecutor> executors) {
+        executors.stream()
+                .sorted(Comparator.comparing(ManagedExecutor::getName))
+                .forEach(executor -> this.executors.put(executor.getName(), executor));
+    }
+
+    public List<ManagedExecutorStatus> listStatuses() {
+        return executors.values().stream().map(ManagedExecutor::status).toList();
+    }
+
+    public ManagedExecutorStatus resize(String name, Integer corePoolSize, Integer maxPoolSize) {
+        ManagedExecutor executor = executors.get(name);
+        if (executor == null) {
+            throw new BusinessException(404, "Unknown executor: " + name);
+        }
+        try {
+            executor.resize(corePoolSize, maxPoolSize);
+        } catch (IllegalArgumentException e) {
+            throw new BusinessException(400, e.getMessage());
+        }
+        log.info("Executor resized: executorName={}, corePoolSize={}, maxPoolSize={}", name, corePoolSize, maxPoolSize);
+        return executor.status();
+    }
+}
@@ -0,0 +1,25 @@
+package com.harmony.backend.common.executor;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ManagedExecutorStatus {
+    private String name;
+    private ExecutorMode mode;
+    private Integer corePoolSize;
+    private int maxConcurrency;
+    private int queueCapacity;
+    private int activeCount;
+    private int queueSize;
+    private long completedCount;
+    private long rejectedCount;
+    private double meanWaitMs;
+    private double maxWaitMs;
+    private boolean shutdown;
+}
@@ -0,0 +1,112 @@
+package com.harmony.backend.common.executor;
+
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.List;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+final class PlatformManagedExecutor extends ManagedExecutor {
+
+    private final ThreadPoolTaskExecutor delegate = new ThreadPoolTaskExecutor();
+    private final int queueCapacity;
+
+    PlatformManagedExecutor(String name, String threadNamePrefix, int corePoolSize, int maxPoolSize,
+                            int queueCapacity, int awaitTerminationSeconds) {
+        super(name);
+        this.queueCapacity = Math.max(0, queueCapacity);
+        delegate.setCorePoolSize(Math.max(1, corePoolSize));
+        delegate.setMaxPoolSize(Math.max(Math.max(1, corePoolSize), maxPoolSize));
+        delegate.setQueueCapacity(this.queueCapacity);
+        delegate.setThreadNamePrefix(threadNamePrefix);
+        delegate.setWaitForTasksToCompleteOnShutdown(true);
+        delegate.setAwaitTerminationSeconds(Math.max(0, awaitTerminationSeconds));
+        delegate.initialize();
+    }
+
+    @Override
+    protected void dispatch(Runnable task) {
+        // TaskRejectedException is a RejectedExecutionException, so saturation surfaces unchanged.
+        delegate.execute(task);
+    }
+
+    /**
+     * Grows the maximum before the core size and shrinks it after, so core never exceeds max.
+     */
+    @Override
+    public synchronized void resize(Integer corePoolSize, Integer maxConcurrency) {
+        int core = corePoolSize == null ? delegate.getCorePoolSize() : corePoolSize;
+        int max = maxConcurrency == null ? delegate.getMaxPoolSize() : maxConcurrency;
+        if (core < 1 || max < core) {
+            throw new IllegalArgumentException("Require 1 <= corePoolSize <= maxPoolSize");
+        }
+        if (max >= delegate.getMaxPoolSize()) {
+            delegate.setMaxPoolSize(max);
+            delegate.setCorePoolSize(core);
+        } else {
+            delegate.setCorePoolSize(core);
+            delegate.setMaxPoolSize(max);
+        }
+    }
+
+    @Override
+    public ExecutorMode mode() {
+        return ExecutorMode.PLATFORM;
+    }
+
+    @Override
+    protected void awaitShutdown() {
+        // ThreadPoolTaskExecutor#shutdown already waits up to the configured termination timeout.
+    }
+
+    @Override
+    public void shutdown() {
+        delegate.shutdown();
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        return delegate.getThreadPoolExecutor().shutdownNow();
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return delegate.getThreadPoolExecutor().isShutdown();
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return delegate.getThreadPoolExecutor().isTerminated();
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return delegate.getThreadPoolExecutor().awaitTermination(timeout, unit);
+    }
+
+    @Override
+    protected Integer corePoolSize() {
+        return delegate.getCorePoolSize();
+    }
+
+    @Override
+    protected int maxConcurrency() {
+        return delegate.getMaxPoolSize();
+    }
+
+    @Override
+    protected int queueCapacity() {
+        return queueCapacity;
+    }
+
+    @Override
+    protected int activeCount() {
+        return delegate.getActiveCount();
+    }
+
+    @Override
+    protected int queueSize() {
+        ThreadPoolExecutor pool = delegate.getThreadPoolExecutor();
+        return pool.getQueue() == null ? 0 : pool.getQueue().size();
+    }
+}
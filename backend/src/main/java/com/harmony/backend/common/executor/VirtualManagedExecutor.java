@@ -0,0 +1,176 @@
+package com.harmony.backend.common.executor;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Starts a virtual thread per task; the thread parks on a semaphore until one of
+ * {@code maxConcurrency} permits frees up, so parked threads play the role of the queue. Admission
+ * counts every task from submission until it finishes against {@code maxConcurrency + queueCapacity},
+ * so the bound still holds right after a shrink, while more tasks run than the new limit allows.
+ */
+@Slf4j
+final class VirtualManagedExecutor extends ManagedExecutor {
+
+    private final ExecutorService threads;
+    private final ResizableSemaphore permits;
+    private final int queueCapacity;
+    private final int awaitTerminationSeconds;
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final AtomicInteger running = new AtomicInteger();
+    private final AtomicInteger admitted = new AtomicInteger();
+    private volatile int maxConcurrency;
+
+    VirtualManagedExecutor(String name, String threadNamePrefix, int maxConcurrency, int queueCapacity,
+                           int awaitTerminationSeconds) {
+        super(name);
+        this.maxConcurrency = Math.max(1, maxConcurrency);
+        this.queueCapacity = Math.max(0, queueCapacity);
+        this.awaitTerminationSeconds = Math.max(0, awaitTerminationSeconds);
+        this.permits = new ResizableSemaphore(this.maxConcurrency);
+        this.threads = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(threadNamePrefix, 0).factory());
+    }
+
+    @Override
+    protected void dispatch(Runnable task) {
+        if (admitted.incrementAndGet() > maxConcurrency + queueCapacity) {
+            admitted.decrementAndGet();
+            throw new RejectedExecutionException("Executor is saturated: " + getName());
+        }
+        waiting.incrementAndGet();
+        try {
+            threads.execute(() -> run(task));
+        } catch (RejectedExecutionException e) {
+            waiting.decrementAndGet();
+            admitted.decrementAndGet();
+            throw e;
+        }
+    }
+
+    private void run(Runnable task) {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            admitted.decrementAndGet();
+            return;
+        } finally {
+            waiting.decrementAndGet();
+        }
+        running.incrementAndGet();
+        try {
+            task.run();
+        } finally {
+            running.decrementAndGet();
+            admitted.decrementAndGet();
+            permits.release();
+        }
+    }
+
+    /**
+     * Shrinking takes effect as running tasks finish; nothing already running is interrupted.
+     */
+    @Override
+    public synchronized void resize(Integer corePoolSize, Integer maxConcurrency) {
+        if (maxConcurrency == null) {
+            return;
+        }
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("Require maxPoolSize >= 1");
+        }
+        int delta = maxConcurrency - this.maxConcurrency;
+        if (delta > 0) {
+            permits.release(delta);
+        } else if (delta < 0) {
+            permits.reducePermits(-delta);
+        }
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    @Override
+    public ExecutorMode mode() {
+        return ExecutorMode.VIRTUAL;
+    }
+
+    @Override
+    protected void awaitShutdown() {
+        try {
+            if (!threads.awaitTermination(awaitTerminationSeconds, TimeUnit.SECONDS)) {
+                log.warn("Executor did not terminate in time: executorName={}, activeCount={}, queueSize={}",
+                        getName(), running.get(), waiting.get());
+                threads.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            threads.shutdownNow();
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        threads.shutdown();
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        return threads.shutdownNow();
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return threads.isShutdown();
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return threads.isTerminated();
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return threads.awaitTermination(timeout, unit);
+    }
+
+    @Override
+    protected Integer corePoolSize() {
+        return null;
+    }
+
+    @Override
+    protected int maxConcurrency() {
+        return maxConcurrency;
+    }
+
+    @Override
+    protected int queueCapacity() {
+        return queueCapacity;
+    }
+
+    @Override
+    protected int activeCount() {
+        return running.get();
+    }
+
+    @Override
+    protected int queueSize() {
+        return waiting.get();
+    }
+
+    private static final class ResizableSemaphore extends Semaphore {
+        private ResizableSemaphore(int permits) {
+            super(permits);
+        }
+
+        @Override
+        protected void reducePermits(int reduction) {
+            super.reducePermits(reduction);
+        }
+    }
+}
@@ -2,11 +2,12 @@ package com.harmony.backend.common.filter;
 
 import com.harmony.backend.common.config.GlobalRateLimitProperties;
 import com.harmony.backend.common.model.GlobalRateLimitSettings;
+import com.harmony.backend.common.model.VerifiedAccessToken;
 import com.harmony.backend.common.service.RedisTokenBucketService;
 import com.harmony.backend.common.service.GlobalRateLimitSettingsService;
+import com.harmony.backend.common.util.AccessTokenVerifier;
 import com.harmony.backend.common.util.AuthCookieService;
 import com.harmony.backend.common.util.ClientIpResolver;
-import com.harmony.backend.common.util.JwtUtil;
 import com.harmony.backend.common.util.RequestUtils;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -19,6 +20,7 @@ import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
 
 @Component
@@ -30,7 +32,7 @@ public class GlobalRateLimitFilter extends OncePerRequestFilter {
 
     private final GlobalRateLimitProperties properties;
     private final GlobalRateLimitSettingsService settingsService;
-    private final JwtUtil jwtUtil;
+    private final AccessTokenVerifier accessTokenVerifier;
     private final RedisTokenBucketService tokenBucketService;
     private final AuthCookieService authCookieService;
     private final ClientIpResolver clientIpResolver;
@@ -65,8 +67,9 @@ public class GlobalRateLimitFilter extends OncePerRequestFilter {
         if (!StringUtils.hasText(token)) {
             token = authCookieService.resolveAccessToken(request);
         }
-        Long currentUserId = resolveUserId(token);
-        if (Boolean.TRUE.equals(settings.getAdminBypass()) && isAdminRequest(token)) {
+        VerifiedAccessToken verified = accessTokenVerifier.verify(request, token);
+        Long currentUserId = verified != null ? verified.getUserId() : null;
+        if (Boolean.TRUE.equals(settings.getAdminBypass()) && isAdminRequest(verified)) {
             filterChain.doFilter(request, response);
             return;
         }
@@ -96,31 +99,16 @@ public class GlobalRateLimitFilter extends OncePerRequestFilter {
         int ipLimit = settings.getIpLimit() != null ? settings.getIpLimit() : properties.getIpLimit();
         int userLimit = settings.getUserLimit() != null ? settings.getUserLimit() : properties.getUserLimit();
 
-        String ipKey = KEY_PREFIX + "ip:" + ip;
-        if (!tokenBucketService.tryConsume(ipKey, ipLimit, window)) {
-            return false;
-        }
-
+        List<RedisTokenBucketService.Bucket> buckets = new ArrayList<>(2);
+        buckets.add(new RedisTokenBucketService.Bucket(KEY_PREFIX + "ip:" + ip, ipLimit, window));
         if (userId != null) {
-            String userKey = KEY_PREFIX + "user:" + userId;
-            return tokenBucketService.tryConsume(userKey, userLimit, window);
+            buckets.add(new RedisTokenBucketService.Bucket(KEY_PREFIX + "user:" + userId, userLimit, window));
         }
-
-        return true;
+        return tokenBucketService.tryConsumeAll(buckets) < 0;
     }
 
-    private Long resolveUserId(String token) {
-        if (!StringUtils.hasText(token)) {
-            return null;
-        }
-        return jwtUtil.getInternalUserIdFromToken(token, false);
-    }
-
-    private boolean isAdminRequest(String token) {
-        if (!StringUtils.hasText(token)) {
-            return false;
-        }
-        return "ADMIN".equalsIgnoreCase(jwtUtil.getRoleFromToken(token));
+    private boolean isAdminRequest(VerifiedAccessToken verified) {
+        return verified != null && "ADMIN".equalsIgnoreCase(verified.getRole());
     }
 
     private boolean isWhitelistedPath(String path, GlobalRateLimitSettings settings) {
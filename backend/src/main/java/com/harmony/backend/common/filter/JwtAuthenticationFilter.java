@@ -1,10 +1,10 @@
 package com.harmony.backend.common.filter;
 
-import com.auth0.jwt.interfaces.DecodedJWT;
 import com.harmony.backend.common.constant.RequestAttributeConst;
 import com.harmony.backend.common.entity.User;
+import com.harmony.backend.common.model.VerifiedAccessToken;
+import com.harmony.backend.common.util.AccessTokenVerifier;
 import com.harmony.backend.common.util.AuthCookieService;
-import com.harmony.backend.common.util.JwtUtil;
 import com.harmony.backend.common.util.RequestUtils;
 import com.harmony.backend.modules.user.service.UserSecurityService;
 import jakarta.servlet.FilterChain;
@@ -31,7 +31,7 @@ import java.util.List;
 @RequiredArgsConstructor
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
-    private final JwtUtil jwtUtil;
+    private final AccessTokenVerifier accessTokenVerifier;
     private final UserSecurityService userSecurityService;
     private final AuthCookieService authCookieService;
 
@@ -57,13 +57,13 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             return;
         }
 
-        DecodedJWT decodedJWT = jwtUtil.verifyAccessToken(token);
-        if (decodedJWT == null) {
+        VerifiedAccessToken verifiedToken = accessTokenVerifier.verify(request, token);
+        if (verifiedToken == null) {
             sendError(response, "Invalid or expired token");
             return;
         }
 
-        Long internalId = jwtUtil.getInternalUserIdFromToken(token, false);
+        Long internalId = verifiedToken.getUserId();
         if (internalId == null) {
             sendError(response, "Invalid token format");
             return;
@@ -80,7 +80,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             return;
         }
 
-        Date issuedAt = decodedJWT.getIssuedAt();
+        Date issuedAt = verifiedToken.getIssuedAt();
         if (!userSecurityService.validateTokenIssuedTime(internalId, issuedAt)) {
             sendError(response, "Token is no longer valid");
             return;
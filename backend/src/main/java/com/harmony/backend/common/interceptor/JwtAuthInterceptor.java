@@ -2,10 +2,10 @@
 
 package com.harmony.backend.common.interceptor;
 
-import com.auth0.jwt.interfaces.DecodedJWT;
 import com.harmony.backend.common.constant.RequestAttributeConst;
 import com.harmony.backend.common.entity.User;
-import com.harmony.backend.common.util.JwtUtil;
+import com.harmony.backend.common.model.VerifiedAccessToken;
+import com.harmony.backend.common.util.AccessTokenVerifier;
 import com.harmony.backend.common.util.RequestUtils;
 import com.harmony.backend.modules.user.service.UserSecurityService;
 import lombok.RequiredArgsConstructor;
@@ -24,7 +24,7 @@ import java.util.Date;
 @RequiredArgsConstructor
 public class JwtAuthInterceptor implements HandlerInterceptor {
 
-    private final JwtUtil jwtUtil;
+    private final AccessTokenVerifier accessTokenVerifier;
     private final UserSecurityService userSecurityService;
 
     @Override
@@ -51,14 +51,14 @@ public class JwtAuthInterceptor implements HandlerInterceptor {
         }
 
         // 2) Verify access token
-        DecodedJWT decodedJWT = jwtUtil.verifyAccessToken(token);
-        if (decodedJWT == null) {
+        VerifiedAccessToken verifiedToken = accessTokenVerifier.verify(request, token);
+        if (verifiedToken == null) {
             sendError(response, 401, "Invalid or expired token");
             return false;
         }
 
         // 3) Get user id
-        Long internalId = jwtUtil.getInternalUserIdFromToken(token, false);
+        Long internalId = verifiedToken.getUserId();
         if (internalId == null) {
             sendError(response, 401, "Invalid token format");
             return false;
@@ -78,7 +78,7 @@ public class JwtAuthInterceptor implements HandlerInterceptor {
         }
 
         // 6) Validate issued-at time
-        Date issuedAt = decodedJWT.getIssuedAt();
+        Date issuedAt = verifiedToken.getIssuedAt();
         if (!userSecurityService.validateTokenIssuedTime(internalId, issuedAt)) {
             sendError(response, 401, "Token expired, please login again");
             return false;
@@ -0,0 +1,77 @@
+package com.harmony.backend.common.mapper;
+
+import com.harmony.backend.common.entity.Message;
+import com.harmony.backend.common.entity.Session;
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Physical-delete queries for retention jobs. Table, column and condition arguments are
+ * interpolated and must only ever come from constants in SessionCleanTask.
+ */
+@Mapper
+public interface RetentionMapper {
+
+    @Select("""
+            <script>
+            SELECT id FROM ${table}
+            WHERE ${timeColumn} &lt; #{cutoff}
+              AND id &gt; #{afterId}
+              <if test="condition != null"> AND ${condition}</if>
+            ORDER BY id
+            LIMIT #{limit}
+            </script>
+            """)
+    List<Long> selectExpiredIds(@Param("table") String table,
+                                @Param("timeColumn") String timeColumn,
+                                @Param("condition") String condition,
+                                @Param("cutoff") LocalDateTime cutoff,
+                                @Param("afterId") long afterId,
+                                @Param("limit") int limit);
+
+    @Delete("""
+            <script>
+            DELETE FROM ${table} WHERE ${column} IN
+            <foreach collection="values" item="value" open="(" separator="," close=")">#{value}</foreach>
+            </script>
+            """)
+    int deleteByColumnIn(@Param("table") String table,
+                         @Param("column") String column,
+                         @Param("values") Collection<?> values);
+
+    @Delete("""
+            <script>
+            DELETE FROM ${table} WHERE ${column} IN
+            <foreach collection="values" item="value" open="(" separator="," close=")">#{value}</foreach>
+            LIMIT #{limit}
+            </script>
+            """)
+    int deleteByColumnInLimit(@Param("table") String table,
+                              @Param("column") String column,
+                              @Param("values") Collection<?> values,
+                              @Param("limit") int limit);
+
+    @Select("""
+            <script>
+            SELECT * FROM chat_session WHERE id IN
+            <foreach collection="ids" item="id" open="(" separator="," close=")">#{id}</foreach>
+            </script>
+            """)
+    List<Session> selectSessionsIncludingDeleted(@Param("ids") Collection<Long> ids);
+
+    @Select("""
+            SELECT id, message_id, chat_id, parent_message_id, role, content, tokens, model, status, is_deleted, created_at, updated_at
+            FROM message WHERE chat_id = #{chatId} AND id > #{afterId}
+            ORDER BY id
+            LIMIT #{limit}
+            """)
+    List<Message> selectChatMessagesIncludingDeleted(@Param("chatId") String chatId,
+                                                     @Param("afterId") long afterId,
+                                                     @Param("limit") int limit);
+}
@@ -4,9 +4,13 @@ import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.harmony.backend.common.entity.Session;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
 import org.apache.ibatis.annotations.Update;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 
 @Mapper
 public interface SessionMapper extends BaseMapper<Session> {
@@ -29,4 +33,15 @@ public interface SessionMapper extends BaseMapper<Session> {
                               @Param("messageDelta") int messageDelta,
                               @Param("currentMessageId") String currentMessageId,
                               @Param("lastActiveTime") LocalDateTime lastActiveTime);
+
+    @Select("""
+            <script>
+            SELECT agent_id AS agentId, COUNT(*) AS sessions
+            FROM chat_session
+            WHERE agent_id IN
+            <foreach collection="agentIds" item="agentId" open="(" separator="," close=")">#{agentId}</foreach>
+            GROUP BY agent_id
+            </script>
+            """)
+    List<Map<String, Object>> countSessionsByAgentIds(@Param("agentIds") Collection<String> agentIds);
 }
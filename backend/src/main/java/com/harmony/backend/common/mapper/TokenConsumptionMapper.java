@@ -2,8 +2,33 @@ package com.harmony.backend.common.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.harmony.backend.common.entity.TokenConsumption;
+import com.harmony.backend.common.model.TokenUsageBucket;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.time.LocalDateTime;
 
 @Mapper
 public interface TokenConsumptionMapper extends BaseMapper<TokenConsumption> {
+
+    @Select("""
+            <script>
+            SELECT COALESCE(SUM(prompt_tokens), 0) AS prompt_tokens, COALESCE(SUM(completion_tokens), 0) AS completion_tokens,
+                   COALESCE(SUM(total_tokens), 0) AS total_tokens, COUNT(*) AS request_count
+            FROM token_consumption
+            <where>
+              <if test="userId != null">AND user_id = #{userId}</if>
+              <if test="model != null">AND model = #{model}</if>
+              <if test="start != null">AND created_at &gt;= #{start}</if>
+              <if test="before != null">AND created_at &lt; #{before}</if>
+              <if test="until != null">AND created_at &lt;= #{until}</if>
+            </where>
+            </script>
+            """)
+    TokenUsageBucket selectTotals(@Param("userId") Long userId,
+                                  @Param("model") String model,
+                                  @Param("start") LocalDateTime start,
+                                  @Param("before") LocalDateTime before,
+                                  @Param("until") LocalDateTime until);
 }
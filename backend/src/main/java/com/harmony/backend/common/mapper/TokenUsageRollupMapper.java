@@ -0,0 +1,107 @@
+package com.harmony.backend.common.mapper;
+
+import com.harmony.backend.common.model.TokenUsageBucket;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Mapper
+public interface TokenUsageRollupMapper {
+
+    @Insert("""
+            INSERT INTO token_usage_hourly (user_id, model, bucket_start, prompt_tokens, completion_tokens, total_tokens, request_count)
+            VALUES (#{userId}, #{model}, #{bucketStart}, #{promptTokens}, #{completionTokens}, #{totalTokens}, 1)
+            ON DUPLICATE KEY UPDATE
+                prompt_tokens = prompt_tokens + VALUES(prompt_tokens),
+                completion_tokens = completion_tokens + VALUES(completion_tokens),
+                total_tokens = total_tokens + VALUES(total_tokens),
+                request_count = request_count + 1
+            """)
+    int upsertHourly(@Param("userId") Long userId,
+                     @Param("model") String model,
+                     @Param("bucketStart") LocalDateTime bucketStart,
+                     @Param("promptTokens") long promptTokens,
+                     @Param("completionTokens") long completionTokens,
+                     @Param("totalTokens") long totalTokens);
+
+    @Insert("""
+            INSERT INTO token_usage_daily (user_id, model, bucket_start, prompt_tokens, completion_tokens, total_tokens, request_count)
+            VALUES (#{userId}, #{model}, #{bucketStart}, #{promptTokens}, #{completionTokens}, #{totalTokens}, 1)
+            ON DUPLICATE KEY UPDATE
+                prompt_tokens = prompt_tokens + VALUES(prompt_tokens),
+                completion_tokens = completion_tokens + VALUES(completion_tokens),
+                total_tokens = total_tokens + VALUES(total_tokens),
+                request_count = request_count + 1
+            """)
+    int upsertDaily(@Param("userId") Long userId,
+                    @Param("model") String model,
+                    @Param("bucketStart") LocalDate bucketStart,
+                    @Param("promptTokens") long promptTokens,
+                    @Param("completionTokens") long completionTokens,
+                    @Param("totalTokens") long totalTokens);
+
+    @Select("""
+            <script>
+            SELECT bucket_start, model,
+                   SUM(prompt_tokens) AS prompt_tokens, SUM(completion_tokens) AS completion_tokens,
+                   SUM(total_tokens) AS total_tokens, SUM(request_count) AS request_count
+            FROM token_usage_hourly
+            <where>
+              <if test="userId != null">AND user_id = #{userId}</if>
+              <if test="model != null">AND model = #{model}</if>
+              <if test="start != null">AND bucket_start &gt;= #{start}</if>
+              <if test="end != null">AND bucket_start &lt;= #{end}</if>
+            </where>
+            GROUP BY bucket_start, model
+            ORDER BY bucket_start, model
+            </script>
+            """)
+    List<TokenUsageBucket> selectHourly(@Param("userId") Long userId,
+                                        @Param("model") String model,
+                                        @Param("start") LocalDateTime start,
+                                        @Param("end") LocalDateTime end);
+
+    @Select("""
+            <script>
+            SELECT CAST(bucket_start AS DATETIME) AS bucket_start, model,
+                   SUM(prompt_tokens) AS prompt_tokens, SUM(completion_tokens) AS completion_tokens,
+                   SUM(total_tokens) AS total_tokens, SUM(request_count) AS request_count
+            FROM token_usage_daily
+            <where>
+              <if test="userId != null">AND user_id = #{userId}</if>
+              <if test="model != null">AND model = #{model}</if>
+              <if test="start != null">AND bucket_start &gt;= #{start}</if>
+              <if test="end != null">AND bucket_start &lt;= #{end}</if>
+            </where>
+            GROUP BY bucket_start, model
+            ORDER BY bucket_start, model
+            </script>
+            """)
+    List<TokenUsageBucket> selectDaily(@Param("userId") Long userId,
+                                       @Param("model") String model,
+                                       @Param("start") LocalDate start,
+                                       @Param("end") LocalDate end);
+
+    @Select("""
+            <script>
+            SELECT COALESCE(SUM(prompt_tokens), 0) AS prompt_tokens, COALESCE(SUM(completion_tokens), 0) AS completion_tokens,
+                   COALESCE(SUM(total_tokens), 0) AS total_tokens, COALESCE(SUM(request_count), 0) AS request_count
+            FROM token_usage_hourly
+            <where>
+              <if test="userId != null">AND user_id = #{userId}</if>
+              <if test="model != null">AND model = #{model}</if>
+              <if test="start != null">AND bucket_start &gt;= #{start}</if>
+              <if test="before != null">AND bucket_start &lt; #{before}</if>
+            </where>
+            </script>
+            """)
+    TokenUsageBucket selectTotals(@Param("userId") Long userId,
+                                  @Param("model") String model,
+                                  @Param("start") LocalDateTime start,
+                                  @Param("before") LocalDateTime before);
+}
@@ -0,0 +1,19 @@
+package com.harmony.backend.common.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TokenUsageBucket {
+    private LocalDateTime bucketStart;
+    private String model;
+    private Long promptTokens;
+    private Long completionTokens;
+    private Long totalTokens;
+    private Long requestCount;
+}
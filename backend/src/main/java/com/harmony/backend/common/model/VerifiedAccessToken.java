@@ -0,0 +1,16 @@
+package com.harmony.backend.common.model;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.Date;
+
+@Data
+@Builder
+public class VerifiedAccessToken {
+    private String token;
+    private Long userId;
+    private String role;
+    private Date issuedAt;
+    private Date expiresAt;
+}
@@ -0,0 +1,13 @@
+package com.harmony.backend.common.response;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class CursorPage<T> {
+    private List<T> content;
+    private String nextCursor;
+    private boolean hasMore;
+    private int pageSize;
+}
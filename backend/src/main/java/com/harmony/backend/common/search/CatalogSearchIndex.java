@@ -0,0 +1,126 @@
+package com.harmony.backend.common.search;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.function.Predicate;
+
+/**
+ * Immutable inverted index over a catalog snapshot. Every query term must match (alphabetic terms
+ * also match by prefix, so results follow the search box as the user types, and terms of three or
+ * more characters inside a word, like the old {@code LIKE %kw%}); matches are scored by field
+ * weight and term rarity, then boosted by log-scaled usage.
+ */
+public final class CatalogSearchIndex<T> {
+
+    private static final float PREFIX_MATCH_FACTOR = 0.7f;
+    private static final float INFIX_MATCH_FACTOR = 0.5f;
+    private static final int MIN_INFIX_LENGTH = 3;
+
+    private final List<Document<T>> documents;
+    private final NavigableMap<String, Map<Integer, Float>> postings;
+
+    private CatalogSearchIndex(List<Document<T>> documents, NavigableMap<String, Map<Integer, Float>> postings) {
+        this.documents = documents;
+        this.postings = postings;
+    }
+
+    public static <T> CatalogSearchIndex<T> build(List<Document<T>> documents) {
+        List<Document<T>> docs = List.copyOf(documents);
+        NavigableMap<String, Map<Integer, Float>> postings = new TreeMap<>();
+        for (int docIndex = 0; docIndex < docs.size(); docIndex++) {
+            for (Field field : docs.get(docIndex).fields()) {
+                for (String term : CatalogTokenizer.indexTerms(field.text())) {
+                    postings.computeIfAbsent(term, k -> new HashMap<>())
+                            .merge(docIndex, field.weight(), Float::sum);
+                }
+            }
+        }
+        return new CatalogSearchIndex<>(docs, postings);
+    }
+
+    public int size() {
+        return documents.size();
+    }
+
+    public List<T> search(String query, Predicate<T> filter, double popularityWeight) {
+        List<String> terms = CatalogTokenizer.queryTerms(query);
+        if (terms.isEmpty()) {
+            return List.of();
+        }
+        Map<Integer, Double> scores = null;
+        for (String term : terms.stream().distinct().toList()) {
+            Map<Integer, Double> termScores = scoreTerm(term);
+            if (scores == null) {
+                scores = termScores;
+            } else {
+                scores.keySet().retainAll(termScores.keySet());
+                for (Map.Entry<Integer, Double> entry : scores.entrySet()) {
+                    entry.setValue(entry.getValue() + termScores.get(entry.getKey()));
+                }
+            }
+            if (scores.isEmpty()) {
+                return List.of();
+            }
+        }
+
+        List<Scored<T>> ranked = new ArrayList<>(scores.size());
+        for (Map.Entry<Integer, Double> entry : scores.entrySet()) {
+            Document<T> doc = documents.get(entry.getKey());
+            if (filter != null && !filter.test(doc.item())) {
+                continue;
+            }
+            double boost = 1.0 + popularityWeight * Math.log1p(Math.max(0, doc.usage()));
+            ranked.add(new Scored<>(doc, entry.getValue() * boost));
+        }
+        ranked.sort(Comparator.<Scored<T>>comparingDouble(Scored::score).reversed()
+                .thenComparing(Comparator.<Scored<T>>comparingLong(s -> s.doc().usage()).reversed()));
+        return ranked.stream().map(s -> s.doc().item()).toList();
+    }
+
+    private Map<Integer, Double> scoreTerm(String term) {
+        Map<Integer, Double> best = new HashMap<>();
+        if (CatalogTokenizer.isCjkTerm(term)) {
+            collect(term, postings.get(term), 1f, best);
+            return best;
+        }
+        for (Map.Entry<String, Map<Integer, Float>> entry : postings.subMap(term, true, term + Character.MAX_VALUE, false).entrySet()) {
+            float factor = entry.getKey().length() == term.length() ? 1f : PREFIX_MATCH_FACTOR;
+            collect(entry.getKey(), entry.getValue(), factor, best);
+        }
+        if (term.length() >= MIN_INFIX_LENGTH) {
+            // Scans the vocabulary, which is bounded by the catalog; result pages are cached anyway.
+            for (Map.Entry<String, Map<Integer, Float>> entry : postings.entrySet()) {
+                String key = entry.getKey();
+                if (key.length() > term.length() && !key.startsWith(term) && key.contains(term)) {
+                    collect(key, entry.getValue(), INFIX_MATCH_FACTOR, best);
+                }
+            }
+        }
+        return best;
+    }
+
+    private void collect(String term, Map<Integer, Float> posting, float factor, Map<Integer, Double> best) {
+        if (posting == null || posting.isEmpty()) {
+            return;
+        }
+        double idf = Math.log(1.0 + (double) documents.size() / posting.size());
+        for (Map.Entry<Integer, Float> entry : posting.entrySet()) {
+            double score = entry.getValue() * factor * idf;
+            best.merge(entry.getKey(), score, Math::max);
+        }
+    }
+
+    public record Document<T>(T item, long usage, List<Field> fields) {
+    }
+
+    public record Field(String text, float weight) {
+    }
+
+    private record Scored<T>(Document<T> doc, double score) {
+    }
+}
@@ -0,0 +1,213 @@
+package com.harmony.backend.common.search;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.google.common.collect.Lists;
+import com.harmony.backend.common.cache.NearCache;
+import com.harmony.backend.common.cache.NearCacheManager;
+import com.harmony.backend.common.cache.NearCacheNames;
+import com.harmony.backend.common.entity.Agent;
+import com.harmony.backend.common.entity.Gpt;
+import com.harmony.backend.common.mapper.AgentMapper;
+import com.harmony.backend.common.mapper.GPTMapper;
+import com.harmony.backend.common.mapper.SessionMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Keyword search over the public GPT Store and Agent catalogs. Each catalog is indexed in memory
+ * from one snapshot query and shared through near caches, so keystroke searches never scan MySQL;
+ * any change that adds, removes or edits a public entry invalidates the index and, through it, the cached result pages
+ * on every node. Usage drift is picked up by the periodic background refresh.
+ */
+@Service
+@Slf4j
+public class CatalogSearchService {
+
+    private static final String INDEX_KEY = "public";
+    private static final int USAGE_QUERY_CHUNK = 500;
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final float NAME_WEIGHT = 3f;
+    private static final float CATEGORY_WEIGHT = 2f;
+    private static final float DESCRIPTION_WEIGHT = 1f;
+
+    private final GPTMapper gptMapper;
+    private final AgentMapper agentMapper;
+    private final SessionMapper sessionMapper;
+    private final NearCacheManager nearCacheManager;
+    private final long indexRefreshMs;
+    private final long indexTtlMs;
+    private final long resultCacheTtlMs;
+    private final long resultCacheMaxEntries;
+    private final double popularityWeight;
+
+    private NearCache<CatalogSearchIndex<Gpt>> gptIndex;
+    private NearCache<CatalogSearchIndex<Agent>> agentIndex;
+    private NearCache<Page<Gpt>> gptResults;
+    private NearCache<Page<Agent>> agentResults;
+
+    public CatalogSearchService(GPTMapper gptMapper,
+                                AgentMapper agentMapper,
+                                SessionMapper sessionMapper,
+                                NearCacheManager nearCacheManager,
+                                @Value("${app.catalog.search.index-refresh-ms:300000}") long indexRefreshMs,
+                                @Value("${app.catalog.search.index-ttl-ms:1800000}") long indexTtlMs,
+                                @Value("${app.catalog.search.result-cache-ttl-ms:60000}") long resultCacheTtlMs,
+                                @Value("${app.catalog.search.result-cache-max-entries:2000}") long resultCacheMaxEntries,
+                                @Value("${app.catalog.search.popularity-weight:0.15}") double popularityWeight) {
+        this.gptMapper = gptMapper;
+        this.agentMapper = agentMapper;
+        this.sessionMapper = sessionMapper;
+        this.nearCacheManager = nearCacheManager;
+        this.indexRefreshMs = Math.max(1000, indexRefreshMs);
+        this.indexTtlMs = Math.max(this.indexRefreshMs, indexTtlMs);
+        this.resultCacheTtlMs = Math.max(1000, resultCacheTtlMs);
+        this.resultCacheMaxEntries = Math.max(1, resultCacheMaxEntries);
+        this.popularityWeight = Math.max(0, popularityWeight);
+    }
+
+    @PostConstruct
+    public void initCaches() {
+        gptIndex = nearCacheManager.<CatalogSearchIndex<Gpt>>builder(NearCacheNames.CATALOG_GPT_INDEX)
+                .maximumSize(1)
+                .expireAfterWrite(Duration.ofMillis(indexTtlMs))
+                .refreshAfterWrite(Duration.ofMillis(indexRefreshMs))
+                .loader(key -> buildGptIndex())
+                .build();
+        agentIndex = nearCacheManager.<CatalogSearchIndex<Agent>>builder(NearCacheNames.CATALOG_AGENT_INDEX)
+                .maximumSize(1)
+                .expireAfterWrite(Duration.ofMillis(indexTtlMs))
+                .refreshAfterWrite(Duration.ofMillis(indexRefreshMs))
+                .loader(key -> buildAgentIndex())
+                .build();
+        gptResults = nearCacheManager.<Page<Gpt>>builder(NearCacheNames.CATALOG_GPT_RESULTS)
+                .maximumSize(resultCacheMaxEntries)
+                .expireAfterWrite(Duration.ofMillis(resultCacheTtlMs))
+                .loader(this::searchGpts)
+                .dependsOn(NearCacheNames.CATALOG_GPT_INDEX)
+                .build();
+        agentResults = nearCacheManager.<Page<Agent>>builder(NearCacheNames.CATALOG_AGENT_RESULTS)
+                .maximumSize(resultCacheMaxEntries)
+                .expireAfterWrite(Duration.ofMillis(resultCacheTtlMs))
+                .loader(this::searchAgents)
+                .dependsOn(NearCacheNames.CATALOG_AGENT_INDEX)
+                .build();
+    }
+
+    public Page<Gpt> searchPublicGpts(String keyword, String category, int page, int size) {
+        return gptResults.get(resultKey(keyword, category, page, size));
+    }
+
+    public Page<Agent> searchPublicAgents(String keyword, int page, int size) {
+        return agentResults.get(resultKey(keyword, null, page, size));
+    }
+
+    public void invalidateGpts() {
+        gptIndex.invalidateAll();
+    }
+
+    public void invalidateAgents() {
+        agentIndex.invalidateAll();
+    }
+
+    private Page<Gpt> searchGpts(String key) {
+        ResultKey parsed = ResultKey.parse(key);
+        List<Gpt> matches = gptIndex.get(INDEX_KEY).search(parsed.keyword(),
+                parsed.category() == null ? null : gpt -> parsed.category().equals(gpt.getCategory()),
+                popularityWeight);
+        return slice(matches, parsed.page(), parsed.size());
+    }
+
+    private Page<Agent> searchAgents(String key) {
+        ResultKey parsed = ResultKey.parse(key);
+        List<Agent> matches = agentIndex.get(INDEX_KEY).search(parsed.keyword(), null, popularityWeight);
+        return slice(matches, parsed.page(), parsed.size());
+    }
+
+    private CatalogSearchIndex<Gpt> buildGptIndex() {
+        List<Gpt> gpts = gptMapper.selectList(new LambdaQueryWrapper<Gpt>()
+                .eq(Gpt::getIsDeleted, false)
+                .eq(Gpt::getIsPublic, true));
+        List<CatalogSearchIndex.Document<Gpt>> documents = new ArrayList<>(gpts.size());
+        for (Gpt gpt : gpts) {
+            documents.add(new CatalogSearchIndex.Document<>(gpt,
+                    gpt.getUsageCount() == null ? 0 : gpt.getUsageCount(),
+                    List.of(new CatalogSearchIndex.Field(gpt.getName(), NAME_WEIGHT),
+                            new CatalogSearchIndex.Field(gpt.getCategory(), CATEGORY_WEIGHT),
+                            new CatalogSearchIndex.Field(gpt.getDescription(), DESCRIPTION_WEIGHT))));
+        }
+        log.debug("GPT catalog index built: documents={}", documents.size());
+        return CatalogSearchIndex.build(documents);
+    }
+
+    private CatalogSearchIndex<Agent> buildAgentIndex() {
+        List<Agent> agents = agentMapper.selectList(new LambdaQueryWrapper<Agent>()
+                .eq(Agent::getIsDeleted, false)
+                .eq(Agent::getIsPublic, true));
+        Map<String, Long> usage = loadAgentUsage(agents);
+        List<CatalogSearchIndex.Document<Agent>> documents = new ArrayList<>(agents.size());
+        for (Agent agent : agents) {
+            documents.add(new CatalogSearchIndex.Document<>(agent,
+                    usage.getOrDefault(agent.getAgentId(), 0L),
+                    List.of(new CatalogSearchIndex.Field(agent.getName(), NAME_WEIGHT),
+                            new CatalogSearchIndex.Field(agent.getDescription(), DESCRIPTION_WEIGHT))));
+        }
+        log.debug("Agent catalog index built: documents={}", documents.size());
+        return CatalogSearchIndex.build(documents);
+    }
+
+    /**
+     * Agents carry no usage counter, so popularity is the number of sessions opened with each agent.
+     */
+    private Map<String, Long> loadAgentUsage(List<Agent> agents) {
+        Map<String, Long> usage = new HashMap<>();
+        List<String> agentIds = agents.stream().map(Agent::getAgentId).filter(StringUtils::hasText).toList();
+        for (List<String> chunk : Lists.partition(agentIds, USAGE_QUERY_CHUNK)) {
+            try {
+                for (Map<String, Object> row : sessionMapper.countSessionsByAgentIds(chunk)) {
+                    Object agentId = row.get("agentId");
+                    Object sessions = row.get("sessions");
+                    if (agentId != null && sessions instanceof Number number) {
+                        usage.put(agentId.toString(), number.longValue());
+                    }
+                }
+            } catch (Exception e) {
+                log.warn("Agent usage lookup failed, ranking by relevance only: {}", e.getMessage());
+                return usage;
+            }
+        }
+        return usage;
+    }
+
+    private <T> Page<T> slice(List<T> matches, int page, int size) {
+        Page<T> result = new Page<>(page, size, matches.size());
+        int from = (int) Math.min((long) (page - 1) * size, matches.size());
+        int to = Math.min(from + size, matches.size());
+        result.setRecords(new ArrayList<>(matches.subList(from, to)));
+        return result;
+    }
+
+    private String resultKey(String keyword, String category, int page, int size) {
+        String normalizedKeyword = keyword == null ? "" : keyword.trim().toLowerCase(Locale.ROOT);
+        String normalizedCategory = StringUtils.hasText(category) ? category.trim() : "";
+        return Math.max(1, page) + "|" + Math.min(Math.max(1, size), MAX_PAGE_SIZE) + "|" + normalizedCategory + "|" + normalizedKeyword;
+    }
+
+    private record ResultKey(int page, int size, String category, String keyword) {
+        static ResultKey parse(String key) {
+            String[] parts = key.split("\\|", 4);
+            return new ResultKey(Integer.parseInt(parts[0]), Integer.parseInt(parts[1]),
+                    parts[2].isEmpty() ? null : parts[2], parts[3]);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.harmony.backend.common.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Splits catalog text into index terms: lower-cased letter/digit runs for alphabetic scripts and
+ * overlapping bigrams (plus unigrams when indexing) for CJK, which has no word separators.
+ */
+public final class CatalogTokenizer {
+
+    private CatalogTokenizer() {
+    }
+
+    public static List<String> indexTerms(String text) {
+        return tokenize(text, true);
+    }
+
+    public static List<String> queryTerms(String text) {
+        return tokenize(text, false);
+    }
+
+    public static boolean isCjkTerm(String term) {
+        return !term.isEmpty() && isCjk(term.codePointAt(0));
+    }
+
+    private static List<String> tokenize(String text, boolean indexing) {
+        List<String> terms = new ArrayList<>();
+        if (text == null || text.isBlank()) {
+            return terms;
+        }
+        String normalized = text.toLowerCase(Locale.ROOT);
+        StringBuilder word = new StringBuilder();
+        List<String> cjkRun = new ArrayList<>();
+        int i = 0;
+        while (i < normalized.length()) {
+            int cp = normalized.codePointAt(i);
+            i += Character.charCount(cp);
+            if (isCjk(cp)) {
+                flushWord(word, terms);
+                cjkRun.add(new String(Character.toChars(cp)));
+            } else if (Character.isLetterOrDigit(cp)) {
+                flushCjk(cjkRun, terms, indexing);
+                word.appendCodePoint(cp);
+            } else {
+                flushWord(word, terms);
+                flushCjk(cjkRun, terms, indexing);
+            }
+        }
+        flushWord(word, terms);
+        flushCjk(cjkRun, terms, indexing);
+        return terms;
+    }
+
+    private static void flushWord(StringBuilder word, List<String> terms) {
+        if (word.length() > 0) {
+            terms.add(word.toString());
+            word.setLength(0);
+        }
+    }
+
+    private static void flushCjk(List<String> run, List<String> terms, boolean indexing) {
+        if (run.isEmpty()) {
+            return;
+        }
+        if (run.size() == 1 || indexing) {
+            terms.addAll(run);
+        }
+        for (int i = 0; i + 1 < run.size(); i++) {
+            terms.add(run.get(i) + run.get(i + 1));
+        }
+        run.clear();
+    }
+
+    private static boolean isCjk(int cp) {
+        Character.UnicodeScript script = Character.UnicodeScript.of(cp);
+        return script == Character.UnicodeScript.HAN
+                || script == Character.UnicodeScript.HIRAGANA
+                || script == Character.UnicodeScript.KATAKANA
+                || script == Character.UnicodeScript.HANGUL;
+    }
+}
@@ -1,6 +1,18 @@
 package com.harmony.backend.common.service;
 
+import java.util.List;
+
 public interface RedisTokenBucketService {
 
     boolean tryConsume(String key, int capacity, int windowSeconds);
+
+    /**
+     * Consumes one token from every bucket atomically: either all buckets admit the request or none is charged.
+     *
+     * @return index of the first bucket that rejected the request, or -1 when all of them admitted it
+     */
+    int tryConsumeAll(List<Bucket> buckets);
+
+    record Bucket(String key, int capacity, int windowSeconds) {
+    }
 }
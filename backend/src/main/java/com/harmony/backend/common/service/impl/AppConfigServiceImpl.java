@@ -1,77 +1,67 @@
 package com.harmony.backend.common.service.impl;
 
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
+import com.harmony.backend.common.cache.NearCache;
+import com.harmony.backend.common.cache.NearCacheManager;
+import com.harmony.backend.common.cache.NearCacheNames;
 import com.harmony.backend.common.entity.AppConfig;
 import com.harmony.backend.common.mapper.AppConfigMapper;
 import com.harmony.backend.common.service.AppConfigService;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 import org.springframework.beans.factory.annotation.Value;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
-import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.Set;
 
 @Service
+@RequiredArgsConstructor
 public class AppConfigServiceImpl extends ServiceImpl<AppConfigMapper, AppConfig> implements AppConfigService {
 
-    @Value("${app.config.cache-ttl-ms:3000}")
+    private final NearCacheManager nearCacheManager;
+
+    @Value("${app.config.cache-ttl-ms:600000}")
     private long cacheTtlMs;
 
-    private final ConcurrentHashMap<String, CachedValue> cache = new ConcurrentHashMap<>();
+    @Value("${app.config.cache-refresh-ms:60000}")
+    private long cacheRefreshMs;
+
+    @Value("${app.config.cache-max-entries:1000}")
+    private long cacheMaxEntries;
+
+    private NearCache<String> cache;
+
+    @PostConstruct
+    public void initCache() {
+        cache = nearCacheManager.<String>builder(NearCacheNames.APP_CONFIG)
+                .maximumSize(cacheMaxEntries)
+                .expireAfterWrite(Duration.ofMillis(cacheTtlMs))
+                .refreshAfterWrite(Duration.ofMillis(cacheRefreshMs))
+                .loader(this::loadValue)
+                .bulkLoader(this::loadValues)
+                .build();
+    }
 
     @Override
     public String getValue(String key) {
         if (!StringUtils.hasText(key)) {
             return null;
         }
-        CachedValue cachedValue = cache.get(key);
-        if (cachedValue != null && !cachedValue.isExpired()) {
-            return cachedValue.value();
-        }
-        AppConfig config = lambdaQuery().eq(AppConfig::getConfigKey, key).one();
-        String value = config != null ? config.getConfigValue() : null;
-        cache.put(key, new CachedValue(value, System.currentTimeMillis() + cacheTtlMs));
-        return value;
+        return cache.get(key);
     }
 
     @Override
     public Map<String, String> getValues(List<String> keys) {
-        Map<String, String> result = new HashMap<>();
         if (keys == null || keys.isEmpty()) {
-            return result;
+            return new HashMap<>();
         }
-        long now = System.currentTimeMillis();
-        List<String> missingKeys = new ArrayList<>();
-        for (String key : keys) {
-            if (!StringUtils.hasText(key)) {
-                continue;
-            }
-            CachedValue cachedValue = cache.get(key);
-            if (cachedValue != null && !cachedValue.isExpired()) {
-                result.put(key, cachedValue.value());
-                continue;
-            }
-            missingKeys.add(key);
-        }
-        if (missingKeys.isEmpty()) {
-            return result;
-        }
-        List<AppConfig> configs = lambdaQuery().in(AppConfig::getConfigKey, missingKeys).list();
-        for (AppConfig config : configs) {
-            result.put(config.getConfigKey(), config.getConfigValue());
-            cache.put(config.getConfigKey(), new CachedValue(config.getConfigValue(), now + cacheTtlMs));
-        }
-        for (String missingKey : missingKeys) {
-            if (!result.containsKey(missingKey)) {
-                cache.put(missingKey, new CachedValue(null, now + cacheTtlMs));
-                result.put(missingKey, null);
-            }
-        }
-        return result;
+        return cache.getAll(keys);
     }
 
     @Override
@@ -102,12 +92,19 @@ public class AppConfigServiceImpl extends ServiceImpl<AppConfigMapper, AppConfig
         if (!StringUtils.hasText(key)) {
             return;
         }
-        cache.remove(key);
+        cache.invalidate(key);
+    }
+
+    private String loadValue(String key) {
+        AppConfig config = lambdaQuery().eq(AppConfig::getConfigKey, key).one();
+        return config != null ? config.getConfigValue() : null;
     }
 
-    private record CachedValue(String value, long expiresAt) {
-        private boolean isExpired() {
-            return System.currentTimeMillis() > expiresAt;
+    private Map<String, String> loadValues(Set<String> keys) {
+        Map<String, String> values = new HashMap<>();
+        for (AppConfig config : lambdaQuery().in(AppConfig::getConfigKey, keys).list()) {
+            values.put(config.getConfigKey(), config.getConfigValue());
         }
+        return values;
     }
 }
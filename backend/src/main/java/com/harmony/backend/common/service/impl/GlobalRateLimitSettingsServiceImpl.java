@@ -1,45 +1,50 @@
 package com.harmony.backend.common.service.impl;
 
+import com.harmony.backend.common.cache.NearCache;
+import com.harmony.backend.common.cache.NearCacheManager;
+import com.harmony.backend.common.cache.NearCacheNames;
 import com.harmony.backend.common.config.GlobalRateLimitProperties;
 import com.harmony.backend.common.constant.AppConfigKeys;
 import com.harmony.backend.common.model.GlobalRateLimitSettings;
 import com.harmony.backend.common.service.AppConfigService;
 import com.harmony.backend.common.service.GlobalRateLimitSettingsService;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.atomic.AtomicLong;
-import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class GlobalRateLimitSettingsServiceImpl implements GlobalRateLimitSettingsService {
 
-    private static final long CACHE_TTL_MS = 5000L;
+    private static final String CACHE_KEY = "settings";
 
     private final AppConfigService appConfigService;
     private final GlobalRateLimitProperties defaults;
+    private final NearCacheManager nearCacheManager;
 
-    private final AtomicReference<GlobalRateLimitSettings> cached = new AtomicReference<>();
-    private final AtomicLong lastLoaded = new AtomicLong(0);
+    private NearCache<GlobalRateLimitSettings> cache;
+
+    @PostConstruct
+    public void initCache() {
+        cache = nearCacheManager.<GlobalRateLimitSettings>builder(NearCacheNames.GLOBAL_RATE_LIMIT_SETTINGS)
+                .maximumSize(1)
+                .refreshAfterWrite(Duration.ofSeconds(30))
+                .loader(key -> loadSettings())
+                .dependsOn(NearCacheNames.APP_CONFIG)
+                .build();
+    }
 
     @Override
     public GlobalRateLimitSettings getSettings() {
-        long now = System.currentTimeMillis();
-        GlobalRateLimitSettings current = cached.get();
-        if (current != null && now - lastLoaded.get() < CACHE_TTL_MS) {
-            return current;
-        }
-        GlobalRateLimitSettings fresh = loadSettings();
-        cached.set(fresh);
-        lastLoaded.set(now);
-        return fresh;
+        return cache.get(CACHE_KEY);
     }
 
     @Override
@@ -75,10 +80,7 @@ public class GlobalRateLimitSettingsServiceImpl implements GlobalRateLimitSettin
             appConfigService.setValue(AppConfigKeys.RATE_LIMIT_GLOBAL_WHITELIST_PATHS,
                     String.join(",", settings.getWhitelistPaths()), updatedBy);
         }
-        GlobalRateLimitSettings refreshed = loadSettings();
-        cached.set(refreshed);
-        lastLoaded.set(System.currentTimeMillis());
-        return refreshed;
+        return getSettings();
     }
 
     private GlobalRateLimitSettings loadSettings() {
@@ -1,83 +1,242 @@
 package com.harmony.backend.common.service.impl;
 
 import com.harmony.backend.common.service.RedisTokenBucketService;
-import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.data.redis.core.script.DefaultRedisScript;
 import org.springframework.stereotype.Service;
 
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Service
-@RequiredArgsConstructor
 public class RedisTokenBucketServiceImpl implements RedisTokenBucketService {
 
     private static final DefaultRedisScript<List> TOKEN_BUCKET_SCRIPT = new DefaultRedisScript<>();
+    private static final int LEASE_PRUNE_THRESHOLD = 10_000;
 
     static {
         TOKEN_BUCKET_SCRIPT.setResultType(List.class);
+        // ARGV[1] is the current time; each bucket then contributes refill_per_sec, capacity,
+        // requested and ttl_ms. A bucket is granted min(requested, available) tokens, and the
+        // request is admitted only when every bucket can grant at least one. All KEYS carry the same
+        // hash tag (see redisKey) so the script stays on one slot when Redis runs as a cluster.
         TOKEN_BUCKET_SCRIPT.setScriptText("""
-                local key = KEYS[1]
                 local now = tonumber(ARGV[1])
-                local refill_per_sec = tonumber(ARGV[2])
-                local capacity = tonumber(ARGV[3])
-                local requested = tonumber(ARGV[4])
-                local ttl_ms = tonumber(ARGV[5])
+                local count = #KEYS
+                local tokens = {}
+                local grants = {}
+                local rejected = -1
 
-                local bucket = redis.call('HMGET', key, 'tokens', 'ts')
-                local tokens = tonumber(bucket[1])
-                local ts = tonumber(bucket[2])
+                for i = 1, count do
+                    local base = 1 + (i - 1) * 4
+                    local refill_per_sec = tonumber(ARGV[base + 1])
+                    local capacity = tonumber(ARGV[base + 2])
+                    local requested = tonumber(ARGV[base + 3])
 
-                if tokens == nil then
-                    tokens = capacity
-                end
-                if ts == nil then
-                    ts = now
-                end
+                    local bucket = redis.call('HMGET', KEYS[i], 'tokens', 'ts')
+                    local current = tonumber(bucket[1])
+                    local ts = tonumber(bucket[2])
+                    if current == nil then
+                        current = capacity
+                    end
+                    if ts == nil then
+                        ts = now
+                    end
 
-                local elapsed = math.max(0, now - ts)
-                local replenished = elapsed * refill_per_sec / 1000.0
-                tokens = math.min(capacity, tokens + replenished)
+                    local elapsed = math.max(0, now - ts)
+                    current = math.min(capacity, current + elapsed * refill_per_sec / 1000.0)
+                    tokens[i] = current
 
-                local allowed = 0
-                if tokens >= requested then
-                    tokens = tokens - requested
-                    allowed = 1
+                    local grant = math.min(requested, math.floor(current))
+                    if grant < 1 then
+                        grant = 0
+                        if rejected < 0 then
+                            rejected = i - 1
+                        end
+                    end
+                    grants[i] = grant
                 end
 
-                redis.call('HMSET', key, 'tokens', tokens, 'ts', now)
-                redis.call('PEXPIRE', key, ttl_ms)
-                return {allowed, tokens}
+                local result = {rejected}
+                for i = 1, count do
+                    local base = 1 + (i - 1) * 4
+                    local ttl_ms = tonumber(ARGV[base + 4])
+                    local remaining = tokens[i]
+                    if rejected < 0 then
+                        remaining = remaining - grants[i]
+                    else
+                        grants[i] = 0
+                    end
+                    redis.call('HMSET', KEYS[i], 'tokens', remaining, 'ts', now)
+                    redis.call('PEXPIRE', KEYS[i], ttl_ms)
+                    result[i + 1] = grants[i]
+                end
+                return result
                 """);
     }
 
     private final RedisTemplate<String, Object> redisTemplate;
+    private final ConcurrentHashMap<String, Lease> leases = new ConcurrentHashMap<>();
+    private final boolean leaseEnabled;
+    private final int leaseSize;
+    private final int leaseMinCapacity;
+    private final long leaseTtlMs;
+    private final String hashTag;
+
+    public RedisTokenBucketServiceImpl(RedisTemplate<String, Object> redisTemplate,
+                                       @Value("${app.rate-limit.lease.enabled:false}") boolean leaseEnabled,
+                                       @Value("${app.rate-limit.lease.size:10}") int leaseSize,
+                                       @Value("${app.rate-limit.lease.min-capacity:200}") int leaseMinCapacity,
+                                       @Value("${app.rate-limit.lease.ttl-ms:1000}") long leaseTtlMs,
+                                       @Value("${app.rate-limit.hash-tag:rate-limit}") String hashTag) {
+        this.redisTemplate = redisTemplate;
+        this.leaseEnabled = leaseEnabled;
+        this.leaseSize = Math.max(1, leaseSize);
+        this.leaseMinCapacity = Math.max(1, leaseMinCapacity);
+        this.leaseTtlMs = Math.max(1, leaseTtlMs);
+        if (hashTag == null || hashTag.isBlank() || hashTag.contains("{") || hashTag.contains("}")) {
+            throw new IllegalArgumentException("app.rate-limit.hash-tag must be a non-empty value without braces");
+        }
+        this.hashTag = hashTag.trim();
+    }
 
     @Override
     public boolean tryConsume(String key, int capacity, int windowSeconds) {
-        if (capacity <= 0 || windowSeconds <= 0) {
-            return false;
+        return tryConsumeAll(List.of(new Bucket(key, capacity, windowSeconds))) < 0;
+    }
+
+    @Override
+    public int tryConsumeAll(List<Bucket> buckets) {
+        if (buckets == null || buckets.isEmpty()) {
+            return -1;
+        }
+        for (int i = 0; i < buckets.size(); i++) {
+            Bucket bucket = buckets.get(i);
+            if (bucket.capacity() <= 0 || bucket.windowSeconds() <= 0) {
+                return i;
+            }
         }
-        double refillPerSecond = (double) capacity / (double) windowSeconds;
+
         long now = System.currentTimeMillis();
-        long ttlMs = Duration.ofSeconds(Math.max(windowSeconds * 2L, 60L)).toMillis();
-        List result = redisTemplate.execute(
-                TOKEN_BUCKET_SCRIPT,
-                List.of(key),
-                now,
-                refillPerSecond,
-                capacity,
-                1,
-                ttlMs
-        );
+        List<Lease> spentLocally = new ArrayList<>();
+        List<Integer> remoteIndexes = new ArrayList<>();
+        for (int i = 0; i < buckets.size(); i++) {
+            Lease lease = leaseEnabled ? leases.get(buckets.get(i).key()) : null;
+            if (lease != null && lease.tryTake(now)) {
+                spentLocally.add(lease);
+                continue;
+            }
+            if (lease != null && lease.isExpired(now)) {
+                leases.remove(buckets.get(i).key(), lease);
+            }
+            remoteIndexes.add(i);
+        }
+        if (remoteIndexes.isEmpty()) {
+            return -1;
+        }
+
+        List<String> keys = new ArrayList<>(remoteIndexes.size());
+        List<Object> args = new ArrayList<>(1 + remoteIndexes.size() * 4);
+        args.add(now);
+        for (int index : remoteIndexes) {
+            Bucket bucket = buckets.get(index);
+            keys.add(redisKey(bucket.key()));
+            args.add((double) bucket.capacity() / (double) bucket.windowSeconds());
+            args.add(bucket.capacity());
+            args.add(requestedTokens(bucket));
+            args.add(Duration.ofSeconds(Math.max(bucket.windowSeconds() * 2L, 60L)).toMillis());
+        }
+
+        List result;
+        try {
+            result = redisTemplate.execute(TOKEN_BUCKET_SCRIPT, keys, args.toArray());
+        } catch (RuntimeException e) {
+            spentLocally.forEach(Lease::giveBack);
+            throw e;
+        }
         if (result == null || result.isEmpty()) {
+            return -1;
+        }
+        int rejected = toInt(result.get(0));
+        if (rejected >= 0) {
+            // Nothing was charged in Redis, so the locally spent lease tokens go back as well.
+            spentLocally.forEach(Lease::giveBack);
+            return rejected < remoteIndexes.size() ? remoteIndexes.get(rejected) : 0;
+        }
+        if (leases.size() > LEASE_PRUNE_THRESHOLD) {
+            leases.values().removeIf(lease -> lease.isExpired(now));
+        }
+        for (int i = 0; i < remoteIndexes.size() && i + 1 < result.size(); i++) {
+            int granted = toInt(result.get(i + 1));
+            if (granted > 1) {
+                // One token pays for this request; the rest becomes a local lease for the next ones.
+                leases.put(buckets.get(remoteIndexes.get(i)).key(), new Lease(granted - 1, now + leaseTtlMs));
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Redis Cluster rejects a script whose keys hash to different slots (CROSSSLOT), and the user and
+     * IP buckets of one check rarely do. Prefixing every bucket with the same hash tag pins them to a
+     * single slot; the cost is that all rate limit state lives on the node owning that slot.
+     */
+    private String redisKey(String key) {
+        return "{" + hashTag + "}:" + key;
+    }
+
+    private int requestedTokens(Bucket bucket) {
+        if (!leaseEnabled || bucket.capacity() < leaseMinCapacity) {
+            return 1;
+        }
+        // Bound the lease to a small fraction of the bucket so a node cannot hoard the window.
+        return Math.max(1, Math.min(leaseSize, bucket.capacity() / 20));
+    }
+
+    private int toInt(Object value) {
+        if (value instanceof Number number) {
+            return number.intValue();
+        }
+        try {
+            return Integer.parseInt(String.valueOf(value));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static final class Lease {
+        private final AtomicInteger remaining;
+        private final long expiresAt;
+
+        private Lease(int tokens, long expiresAt) {
+            this.remaining = new AtomicInteger(tokens);
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean isExpired(long now) {
+            return now >= expiresAt;
+        }
+
+        private boolean tryTake(long now) {
+            if (isExpired(now)) {
+                return false;
+            }
+            int current;
+            do {
+                current = remaining.get();
+                if (current <= 0) {
+                    return false;
+                }
+            } while (!remaining.compareAndSet(current, current - 1));
             return true;
         }
-        Object allowed = result.get(0);
-        if (allowed instanceof Number number) {
-            return number.longValue() == 1L;
+
+        private void giveBack() {
+            remaining.incrementAndGet();
         }
-        return "1".equals(String.valueOf(allowed));
     }
 }
@@ -0,0 +1,110 @@
+package com.harmony.backend.common.util;
+
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.Hashing;
+import com.harmony.backend.common.constant.RequestAttributeConst;
+import com.harmony.backend.common.model.VerifiedAccessToken;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Verifies an access token at most once per request and remembers recently verified tokens,
+ * so rate limiting, authentication and interceptors share one HMAC check and claim decode.
+ */
+@Component
+public class AccessTokenVerifier {
+
+    private final JwtUtil jwtUtil;
+    private final IdCryptoUtil idCryptoUtil;
+    private final Cache<String, VerifiedAccessToken> verifiedTokens;
+
+    public AccessTokenVerifier(JwtUtil jwtUtil,
+                               IdCryptoUtil idCryptoUtil,
+                               @Value("${app.auth.verified-token-cache.max-entries:10000}") long maxEntries,
+                               @Value("${app.auth.verified-token-cache.ttl-seconds:300}") long ttlSeconds) {
+        this.jwtUtil = jwtUtil;
+        this.idCryptoUtil = idCryptoUtil;
+        this.verifiedTokens = CacheBuilder.newBuilder()
+                .maximumSize(Math.max(1, maxEntries))
+                .expireAfterWrite(Math.max(1, ttlSeconds), TimeUnit.SECONDS)
+                .build();
+    }
+
+    /**
+     * Returns the verified token for this request, or null when the token is missing or invalid.
+     * The result is kept as a request attribute so async dispatches and later filters reuse it.
+     */
+    public VerifiedAccessToken verify(HttpServletRequest request, String token) {
+        if (!StringUtils.hasText(token)) {
+            return null;
+        }
+        Object attached = request != null ? request.getAttribute(RequestAttributeConst.VERIFIED_ACCESS_TOKEN) : null;
+        if (attached instanceof VerifiedAccessToken verified && token.equals(verified.getToken())) {
+            return verified;
+        }
+        VerifiedAccessToken verified = verify(token);
+        if (verified != null && request != null) {
+            request.setAttribute(RequestAttributeConst.VERIFIED_ACCESS_TOKEN, verified);
+        }
+        return verified;
+    }
+
+    public VerifiedAccessToken verify(String token) {
+        if (!StringUtils.hasText(token)) {
+            return null;
+        }
+        String cacheKey = Hashing.sha256().hashString(token, StandardCharsets.UTF_8).toString();
+        VerifiedAccessToken cached = verifiedTokens.getIfPresent(cacheKey);
+        if (cached != null) {
+            if (token.equals(cached.getToken()) && !isExpired(cached)) {
+                return cached;
+            }
+            verifiedTokens.invalidate(cacheKey);
+        }
+        DecodedJWT jwt = jwtUtil.verifyAccessToken(token);
+        if (jwt == null) {
+            return null;
+        }
+        VerifiedAccessToken verified = VerifiedAccessToken.builder()
+                .token(token)
+                .userId(decryptUserId(jwt.getSubject()))
+                .role(jwt.getClaim("role").asString())
+                .issuedAt(jwt.getIssuedAt())
+                .expiresAt(jwt.getExpiresAt())
+                .build();
+        verifiedTokens.put(cacheKey, verified);
+        return verified;
+    }
+
+    /**
+     * Drops cached tokens of a user issued before the given time, e.g. after logout or a new login.
+     */
+    public void evictIssuedBefore(Long userId, Date issuedAt) {
+        if (userId == null) {
+            return;
+        }
+        verifiedTokens.asMap().values().removeIf(verified -> userId.equals(verified.getUserId())
+                && (issuedAt == null || verified.getIssuedAt() == null || verified.getIssuedAt().before(issuedAt)));
+    }
+
+    private boolean isExpired(VerifiedAccessToken verified) {
+        Date expiresAt = verified.getExpiresAt();
+        return expiresAt != null && expiresAt.getTime() <= System.currentTimeMillis();
+    }
+
+    private Long decryptUserId(String encryptedId) {
+        try {
+            return idCryptoUtil.decryptId(encryptedId);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package com.harmony.backend.modules.admin.controller;
 
 import com.harmony.backend.ai.agent.controller.response.AgentVO;
+import com.harmony.backend.ai.agent.planner.PlanCache;
+import com.harmony.backend.ai.agent.planner.PlanCacheStatus;
 import com.harmony.backend.ai.agent.service.AgentService;
 import com.harmony.backend.common.domain.ApiResponse;
 import com.harmony.backend.common.response.PageResult;
@@ -25,6 +27,7 @@ import java.util.List;
 public class AdminAgentController {
 
     private final AgentService agentService;
+    private final PlanCache planCache;
 
     @GetMapping
     public ApiResponse<PageResult<AgentVO>> listAgents(
@@ -35,6 +38,17 @@ public class AdminAgentController {
         return ApiResponse.success(agentService.listAll(page, size, keyword, requestPublic));
     }
 
+    @GetMapping("/plan-cache")
+    public ApiResponse<List<PlanCacheStatus>> planCacheStatus() {
+        return ApiResponse.success(planCache.status());
+    }
+
+    @DeleteMapping("/plan-cache")
+    public ApiResponse<Boolean> flushPlanCache() {
+        planCache.flush();
+        return ApiResponse.success(true);
+    }
+
     @GetMapping("/{agentId}")
     public ApiResponse<AgentVO> getDetail(@PathVariable String agentId) {
         Long adminUserId = RequestUtils.getCurrentUserId();
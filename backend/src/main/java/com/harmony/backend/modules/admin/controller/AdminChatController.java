@@ -5,6 +5,8 @@ import com.harmony.backend.common.entity.Message;
 import com.harmony.backend.common.entity.Session;
 import com.harmony.backend.common.response.PageResult;
 import com.harmony.backend.modules.admin.service.AdminChatService;
+import com.harmony.backend.modules.chat.support.trace.ChatTurnMetrics;
+import com.harmony.backend.modules.chat.support.trace.ChatTurnSummary;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpHeaders;
@@ -24,6 +26,20 @@ import java.util.List;
 public class AdminChatController {
 
     private final AdminChatService chatService;
+    private final ChatTurnMetrics chatTurnMetrics;
+
+    /**
+     * Most recent chat turns on this node with their stage timings; ids and timings only.
+     */
+    @GetMapping("/turns/recent")
+    public ApiResponse<List<ChatTurnSummary>> recentTurns() {
+        return ApiResponse.success(chatTurnMetrics.recentTurns());
+    }
+
+    @GetMapping("/turns/slowest")
+    public ApiResponse<List<ChatTurnSummary>> slowestTurns() {
+        return ApiResponse.success(chatTurnMetrics.slowestTurns());
+    }
 
     @GetMapping("/sessions")
     public ApiResponse<PageResult<Session>> listSessions(
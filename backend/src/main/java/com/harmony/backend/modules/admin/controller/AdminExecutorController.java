@@ -0,0 +1,34 @@
+package com.harmony.backend.modules.admin.controller;
+
+import com.harmony.backend.common.domain.ApiResponse;
+import com.harmony.backend.common.executor.ManagedExecutorRegistry;
+import com.harmony.backend.common.executor.ManagedExecutorStatus;
+import com.harmony.backend.modules.admin.controller.request.ExecutorResizeRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/admin/executors")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+public class AdminExecutorController {
+
+    private final ManagedExecutorRegistry executorRegistry;
+
+    @GetMapping
+    public ApiResponse<List<ManagedExecutorStatus>> listExecutors() {
+        return ApiResponse.success(executorRegistry.listStatuses());
+    }
+
+    /**
+     * Resizes a running executor; the change lasts until restart, so persist it in configuration too.
+     */
+    @PutMapping("/{name}/size")
+    public ApiResponse<ManagedExecutorStatus> resize(@PathVariable String name,
+                                                     @RequestBody ExecutorResizeRequest request) {
+        return ApiResponse.success(executorRegistry.resize(name, request.getCorePoolSize(), request.getMaxPoolSize()));
+    }
+}
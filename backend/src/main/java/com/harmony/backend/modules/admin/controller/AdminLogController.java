@@ -4,6 +4,8 @@ import com.harmony.backend.common.domain.ApiResponse;
 import com.harmony.backend.common.entity.LoginLog;
 import com.harmony.backend.common.entity.SystemLog;
 import com.harmony.backend.common.entity.TokenConsumption;
+import com.harmony.backend.common.model.TokenUsageBucket;
+import com.harmony.backend.common.response.CursorPage;
 import com.harmony.backend.common.response.PageResult;
 import com.harmony.backend.modules.admin.service.AdminLogService;
 import lombok.RequiredArgsConstructor;
@@ -56,6 +58,55 @@ public class AdminLogController {
         return ApiResponse.success(logService.listSystemLogs(userId, startTime, endTime, page, size));
     }
 
+    @GetMapping("/login/scroll")
+    public ApiResponse<CursorPage<LoginLog>> scrollLoginLogs(
+            @RequestParam(required = false) Long userId,
+            @RequestParam(required = false) String startTime,
+            @RequestParam(required = false) String endTime,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return ApiResponse.success(logService.scrollLoginLogs(userId, startTime, endTime, cursor, size));
+    }
+
+    @GetMapping("/tokens/scroll")
+    public ApiResponse<CursorPage<TokenConsumption>> scrollTokenLogs(
+            @RequestParam(required = false) Long userId,
+            @RequestParam(required = false) String startTime,
+            @RequestParam(required = false) String endTime,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return ApiResponse.success(logService.scrollTokenLogs(userId, startTime, endTime, cursor, size));
+    }
+
+    @GetMapping("/system/scroll")
+    public ApiResponse<CursorPage<SystemLog>> scrollSystemLogs(
+            @RequestParam(required = false) Long userId,
+            @RequestParam(required = false) String startTime,
+            @RequestParam(required = false) String endTime,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+        return ApiResponse.success(logService.scrollSystemLogs(userId, startTime, endTime, cursor, size));
+    }
+
+    @GetMapping("/tokens/usage")
+    public ApiResponse<List<TokenUsageBucket>> listTokenUsage(
+            @RequestParam(required = false) Long userId,
+            @RequestParam(required = false) String model,
+            @RequestParam(required = false) String startTime,
+            @RequestParam(required = false) String endTime,
+            @RequestParam(defaultValue = "hour") String granularity) {
+        return ApiResponse.success(logService.listTokenUsage(userId, model, startTime, endTime, granularity));
+    }
+
+    @GetMapping("/tokens/usage/total")
+    public ApiResponse<TokenUsageBucket> sumTokenUsage(
+            @RequestParam(required = false) Long userId,
+            @RequestParam(required = false) String model,
+            @RequestParam(required = false) String startTime,
+            @RequestParam(required = false) String endTime) {
+        return ApiResponse.success(logService.sumTokenUsage(userId, model, startTime, endTime));
+    }
+
     @GetMapping("/system/count")
     public ApiResponse<Long> countSystemLogs(
             @RequestParam(required = false) Long userId,
@@ -100,7 +151,7 @@ public class AdminLogController {
         StringBuilder sb = new StringBuilder();
         sb.append("type,time,user_id,status,content\n");
         if ("login".equalsIgnoreCase(type) || "all".equalsIgnoreCase(type)) {
-            List<LoginLog> logs = logService.listLoginLogs(userId, startTime, endTime, 1, 10000).getContent();
+            List<LoginLog> logs = logService.scrollLoginLogs(userId, startTime, endTime, null, 10000).getContent();
             for (LoginLog l : logs) {
                 sb.append(csv("login"))
                   .append(',').append(csv(l.getLoginTime()))
@@ -111,7 +162,7 @@ public class AdminLogController {
             }
         }
         if ("token".equalsIgnoreCase(type) || "tokens".equalsIgnoreCase(type) || "all".equalsIgnoreCase(type)) {
-            List<TokenConsumption> logs = logService.listTokenLogs(userId, startTime, endTime, 1, 10000).getContent();
+            List<TokenConsumption> logs = logService.scrollTokenLogs(userId, startTime, endTime, null, 10000).getContent();
             for (TokenConsumption t : logs) {
                 sb.append(csv("token"))
                   .append(',').append(csv(t.getCreatedAt()))
@@ -122,7 +173,7 @@ public class AdminLogController {
             }
         }
         if ("system".equalsIgnoreCase(type) || "all".equalsIgnoreCase(type)) {
-            List<SystemLog> logs = logService.listSystemLogs(userId, startTime, endTime, 1, 10000).getContent();
+            List<SystemLog> logs = logService.scrollSystemLogs(userId, startTime, endTime, null, 10000).getContent();
             for (SystemLog s : logs) {
                 sb.append(csv("system"))
                   .append(',').append(csv(s.getCreatedAt()))
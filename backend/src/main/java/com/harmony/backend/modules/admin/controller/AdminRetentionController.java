@@ -0,0 +1,29 @@
+package com.harmony.backend.modules.admin.controller;
+
+import com.harmony.backend.common.domain.ApiResponse;
+import com.harmony.backend.task.RetentionJobStatus;
+import com.harmony.backend.task.SessionCleanTask;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/admin/retention")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+public class AdminRetentionController {
+
+    private final SessionCleanTask sessionCleanTask;
+
+    @GetMapping("/jobs")
+    public ApiResponse<List<RetentionJobStatus>> listJobs() {
+        return ApiResponse.success(sessionCleanTask.listJobs());
+    }
+
+    @PostMapping("/jobs/{name}/run")
+    public ApiResponse<RetentionJobStatus> runJob(@PathVariable String name) {
+        return ApiResponse.success(sessionCleanTask.triggerJob(name));
+    }
+}
@@ -2,7 +2,9 @@ package com.harmony.backend.modules.admin.controller;
 
 import com.harmony.backend.ai.rag.model.OcrSettings;
 import com.harmony.backend.ai.rag.service.OcrSettingsService;
+import com.harmony.backend.ai.tool.model.SearchProviderHealth;
 import com.harmony.backend.ai.tool.model.ToolSearchSettings;
+import com.harmony.backend.ai.tool.service.SearchProviderHealthService;
 import com.harmony.backend.ai.tool.service.ToolSearchSettingsService;
 import com.harmony.backend.common.domain.ApiResponse;
 import com.harmony.backend.common.constant.AppConfigKeys;
@@ -18,6 +20,8 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("/api/admin/settings")
 @RequiredArgsConstructor
@@ -25,6 +29,7 @@ import org.springframework.web.bind.annotation.*;
 public class AdminSettingsController {
 
     private final ToolSearchSettingsService toolSearchSettingsService;
+    private final SearchProviderHealthService searchProviderHealthService;
     private final GlobalRateLimitSettingsService globalRateLimitSettingsService;
     private final OcrSettingsService ocrSettingsService;
     private final AppConfigService appConfigService;
@@ -56,6 +61,11 @@ public class AdminSettingsController {
         return ApiResponse.success(toolSearchSettingsService.updateSettings(updated, adminId));
     }
 
+    @GetMapping("/tools-search/providers")
+    public ApiResponse<List<SearchProviderHealth>> getSearchProviderHealth() {
+        return ApiResponse.success(searchProviderHealthService.listHealth());
+    }
+
     @GetMapping("/rate-limit")
     public ApiResponse<GlobalRateLimitSettings> getRateLimitSettings() {
         return ApiResponse.success(globalRateLimitSettingsService.getSettings());
@@ -0,0 +1,9 @@
+package com.harmony.backend.modules.admin.controller.request;
+
+import lombok.Data;
+
+@Data
+public class ExecutorResizeRequest {
+    private Integer corePoolSize;
+    private Integer maxPoolSize;
+}
@@ -4,8 +4,12 @@ import com.baomidou.mybatisplus.extension.service.IService;
 import com.harmony.backend.common.entity.LoginLog;
 import com.harmony.backend.common.entity.SystemLog;
 import com.harmony.backend.common.entity.TokenConsumption;
+import com.harmony.backend.common.model.TokenUsageBucket;
+import com.harmony.backend.common.response.CursorPage;
 import com.harmony.backend.common.response.PageResult;
 
+import java.util.List;
+
 public interface AdminLogService extends IService<SystemLog> {
     PageResult<LoginLog> listLoginLogs(Long userId, String startTime, String endTime, int page, int size);
 
@@ -13,6 +17,16 @@ public interface AdminLogService extends IService<SystemLog> {
 
     PageResult<SystemLog> listSystemLogs(Long userId, String startTime, String endTime, int page, int size);
 
+    CursorPage<LoginLog> scrollLoginLogs(Long userId, String startTime, String endTime, String cursor, int size);
+
+    CursorPage<TokenConsumption> scrollTokenLogs(Long userId, String startTime, String endTime, String cursor, int size);
+
+    CursorPage<SystemLog> scrollSystemLogs(Long userId, String startTime, String endTime, String cursor, int size);
+
+    List<TokenUsageBucket> listTokenUsage(Long userId, String model, String startTime, String endTime, String granularity);
+
+    TokenUsageBucket sumTokenUsage(Long userId, String model, String startTime, String endTime);
+
     long countSystemLogs(Long userId, String startTime, String endTime);
 
     long countLoginLogs(Long userId, String startTime, String endTime);
@@ -10,8 +10,10 @@ import com.harmony.backend.common.mapper.GPTMapper;
 import com.harmony.backend.common.mapper.MessageMapper;
 import com.harmony.backend.common.mapper.SessionMapper;
 import com.harmony.backend.common.response.PageResult;
+import com.harmony.backend.common.search.CatalogSearchService;
 import com.harmony.backend.common.util.PageResultUtils;
 import com.harmony.backend.modules.admin.service.AdminGptService;
+import com.harmony.backend.modules.chat.service.support.ChatDefinitionCache;
 import com.harmony.backend.modules.gptstore.controller.request.GptUpsertRequest;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
@@ -25,6 +27,8 @@ public class AdminGptServiceImpl extends ServiceImpl<GPTMapper, Gpt> implements
 
     private final SessionMapper sessionMapper;
     private final MessageMapper messageMapper;
+    private final CatalogSearchService catalogSearchService;
+    private final ChatDefinitionCache chatDefinitionCache;
 
     @Override
     public PageResult<Gpt> listGpts(int page, int size, String keyword, Boolean requestPublic) {
@@ -55,7 +59,12 @@ public class AdminGptServiceImpl extends ServiceImpl<GPTMapper, Gpt> implements
         gpt.setId(id);
         gpt.setIsPublic(isPublic);
         gpt.setRequestPublic(false);
-        return baseMapper.updateById(gpt) > 0;
+        boolean ok = baseMapper.updateById(gpt) > 0;
+        if (ok) {
+            chatDefinitionCache.invalidateAllGpts();
+            catalogSearchService.invalidateGpts();
+        }
+        return ok;
     }
 
     @Override
@@ -79,6 +88,12 @@ public class AdminGptServiceImpl extends ServiceImpl<GPTMapper, Gpt> implements
                             .set(Gpt::getUpdatedAt, LocalDateTime.now())
             );
         }
+        if (ok) {
+            chatDefinitionCache.invalidateGpt(gpt.getGptId());
+            if (Boolean.TRUE.equals(gpt.getIsPublic())) {
+                catalogSearchService.invalidateGpts();
+            }
+        }
         if (ok && StringUtils.hasText(gpt.getGptId())) {
             cleanupGptSessions(gpt.getGptId());
         }
@@ -153,7 +168,12 @@ public class AdminGptServiceImpl extends ServiceImpl<GPTMapper, Gpt> implements
             gpt.setIsPublic(request.getRequestPublic());
             gpt.setRequestPublic(false);
         }
-        return baseMapper.updateById(gpt) > 0;
+        boolean ok = baseMapper.updateById(gpt) > 0;
+        if (ok) {
+            chatDefinitionCache.invalidateAllGpts();
+            catalogSearchService.invalidateGpts();
+        }
+        return ok;
     }
 
     
@@ -6,9 +6,13 @@ import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import com.harmony.backend.common.entity.LoginLog;
 import com.harmony.backend.common.entity.SystemLog;
 import com.harmony.backend.common.entity.TokenConsumption;
+import com.harmony.backend.common.exception.BusinessException;
 import com.harmony.backend.common.mapper.LoginLogMapper;
 import com.harmony.backend.common.mapper.SystemLogMapper;
 import com.harmony.backend.common.mapper.TokenConsumptionMapper;
+import com.harmony.backend.common.mapper.TokenUsageRollupMapper;
+import com.harmony.backend.common.model.TokenUsageBucket;
+import com.harmony.backend.common.response.CursorPage;
 import com.harmony.backend.common.response.PageResult;
 import com.harmony.backend.common.util.PageResultUtils;
 import com.harmony.backend.modules.admin.service.AdminLogService;
@@ -16,17 +20,26 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
 import com.baomidou.mybatisplus.core.toolkit.support.SFunction;
 
 @Service
 @RequiredArgsConstructor
 public class AdminLogServiceImpl extends ServiceImpl<SystemLogMapper, SystemLog> implements AdminLogService {
 
+    private static final int MAX_SCROLL_SIZE = 10000;
+
     private final LoginLogMapper loginLogMapper;
     private final TokenConsumptionMapper tokenConsumptionMapper;
+    private final TokenUsageRollupMapper tokenUsageRollupMapper;
 
     @Override
     public PageResult<LoginLog> listLoginLogs(Long userId, String startTime, String endTime, int page, int size) {
@@ -38,8 +51,6 @@ public class AdminLogServiceImpl extends ServiceImpl<SystemLogMapper, SystemLog>
         applyTimeRange(query, startTime, endTime, LoginLog::getLoginTime);
         query.orderByDesc(LoginLog::getLoginTime);
         Page<LoginLog> result = loginLogMapper.selectPage(pageResult, query);
-        long total = loginLogMapper.selectCount(query);
-        result.setTotal(total);
         return PageResultUtils.from(result);
     }
 
@@ -53,8 +64,6 @@ public class AdminLogServiceImpl extends ServiceImpl<SystemLogMapper, SystemLog>
         applyTimeRange(query, startTime, endTime, TokenConsumption::getCreatedAt);
         query.orderByDesc(TokenConsumption::getCreatedAt);
         Page<TokenConsumption> result = tokenConsumptionMapper.selectPage(pageResult, query);
-        long total = tokenConsumptionMapper.selectCount(query);
-        result.setTotal(total);
         return PageResultUtils.from(result);
     }
 
@@ -68,11 +77,99 @@ public class AdminLogServiceImpl extends ServiceImpl<SystemLogMapper, SystemLog>
         applyTimeRange(query, startTime, endTime, SystemLog::getCreatedAt);
         query.orderByDesc(SystemLog::getCreatedAt);
         Page<SystemLog> result = baseMapper.selectPage(pageResult, query);
-        long total = baseMapper.selectCount(query);
-        result.setTotal(total);
         return PageResultUtils.from(result);
     }
 
+    @Override
+    public CursorPage<LoginLog> scrollLoginLogs(Long userId, String startTime, String endTime, String cursor, int size) {
+        LambdaQueryWrapper<LoginLog> query = new LambdaQueryWrapper<>();
+        if (userId != null) {
+            query.eq(LoginLog::getUserId, userId);
+        }
+        applyTimeRange(query, startTime, endTime, LoginLog::getLoginTime);
+        return scroll(query, cursor, size, LoginLog::getLoginTime, LoginLog::getId,
+                LoginLog::getLoginTime, LoginLog::getId, loginLogMapper::selectList);
+    }
+
+    @Override
+    public CursorPage<TokenConsumption> scrollTokenLogs(Long userId, String startTime, String endTime, String cursor, int size) {
+        LambdaQueryWrapper<TokenConsumption> query = new LambdaQueryWrapper<>();
+        if (userId != null) {
+            query.eq(TokenConsumption::getUserId, userId);
+        }
+        applyTimeRange(query, startTime, endTime, TokenConsumption::getCreatedAt);
+        return scroll(query, cursor, size, TokenConsumption::getCreatedAt, TokenConsumption::getId,
+                TokenConsumption::getCreatedAt, TokenConsumption::getId, tokenConsumptionMapper::selectList);
+    }
+
+    @Override
+    public CursorPage<SystemLog> scrollSystemLogs(Long userId, String startTime, String endTime, String cursor, int size) {
+        LambdaQueryWrapper<SystemLog> query = new LambdaQueryWrapper<>();
+        if (userId != null) {
+            query.eq(SystemLog::getUserId, userId);
+        }
+        applyTimeRange(query, startTime, endTime, SystemLog::getCreatedAt);
+        return scroll(query, cursor, size, SystemLog::getCreatedAt, SystemLog::getId,
+                SystemLog::getCreatedAt, SystemLog::getId, baseMapper::selectList);
+    }
+
+    @Override
+    public List<TokenUsageBucket> listTokenUsage(Long userId, String model, String startTime, String endTime, String granularity) {
+        LocalDateTime start = parseDateTime(startTime);
+        LocalDateTime end = parseDateTime(endTime);
+        String modelFilter = StringUtils.hasText(model) ? model.trim() : null;
+        if ("day".equalsIgnoreCase(granularity)) {
+            return tokenUsageRollupMapper.selectDaily(userId, modelFilter,
+                    start == null ? null : start.toLocalDate(),
+                    end == null ? null : end.toLocalDate());
+        }
+        return tokenUsageRollupMapper.selectHourly(userId, modelFilter,
+                start == null ? null : start.truncatedTo(ChronoUnit.HOURS), end);
+    }
+
+    @Override
+    public TokenUsageBucket sumTokenUsage(Long userId, String model, String startTime, String endTime) {
+        LocalDateTime start = parseDateTime(startTime);
+        LocalDateTime end = parseDateTime(endTime);
+        String modelFilter = StringUtils.hasText(model) ? model.trim() : null;
+        // Hourly rollups cover only whole hours inside the range; the partial hours at either
+        // edge are summed from the raw rows so the total matches the requested range exactly.
+        LocalDateTime firstHour = start == null ? null : start.truncatedTo(ChronoUnit.HOURS);
+        if (firstHour != null && firstHour.isBefore(start)) {
+            firstHour = firstHour.plusHours(1);
+        }
+        LocalDateTime lastHour = end == null ? null : end.truncatedTo(ChronoUnit.HOURS);
+        if (firstHour != null && lastHour != null && !firstHour.isBefore(lastHour)) {
+            return tokenConsumptionMapper.selectTotals(userId, modelFilter, start, null, end);
+        }
+        TokenUsageBucket total = tokenUsageRollupMapper.selectTotals(userId, modelFilter, firstHour, lastHour);
+        if (start != null && start.isBefore(firstHour)) {
+            total = addUsage(total, tokenConsumptionMapper.selectTotals(userId, modelFilter, start, firstHour, null));
+        }
+        if (end != null) {
+            total = addUsage(total, tokenConsumptionMapper.selectTotals(userId, modelFilter, lastHour, null, end));
+        }
+        return total;
+    }
+
+    private TokenUsageBucket addUsage(TokenUsageBucket total, TokenUsageBucket partial) {
+        if (total == null) {
+            return partial;
+        }
+        if (partial == null) {
+            return total;
+        }
+        return new TokenUsageBucket(null, null,
+                sum(total.getPromptTokens(), partial.getPromptTokens()),
+                sum(total.getCompletionTokens(), partial.getCompletionTokens()),
+                sum(total.getTotalTokens(), partial.getTotalTokens()),
+                sum(total.getRequestCount(), partial.getRequestCount()));
+    }
+
+    private long sum(Long left, Long right) {
+        return (left == null ? 0L : left) + (right == null ? 0L : right);
+    }
+
     @Override
     public long countSystemLogs(Long userId, String startTime, String endTime) {
         LambdaQueryWrapper<SystemLog> query = new LambdaQueryWrapper<>();
@@ -103,6 +200,62 @@ public class AdminLogServiceImpl extends ServiceImpl<SystemLogMapper, SystemLog>
         return tokenConsumptionMapper.selectCount(query);
     }
 
+    /**
+     * Keyset page ordered by (time, id) descending: fetches one extra row to detect the next page
+     * instead of counting, so deep pages cost the same as the first one.
+     */
+    private <T> CursorPage<T> scroll(LambdaQueryWrapper<T> query,
+                                     String cursor,
+                                     int size,
+                                     SFunction<T, ?> timeColumn,
+                                     SFunction<T, ?> idColumn,
+                                     Function<T, LocalDateTime> timeOf,
+                                     Function<T, Long> idOf,
+                                     Function<LambdaQueryWrapper<T>, List<T>> select) {
+        int limit = Math.min(Math.max(size, 1), MAX_SCROLL_SIZE);
+        Cursor position = decodeCursor(cursor);
+        if (position != null) {
+            query.and(w -> w.lt(timeColumn, position.time())
+                    .or(o -> o.eq(timeColumn, position.time()).lt(idColumn, position.id())));
+        }
+        query.orderByDesc(timeColumn).orderByDesc(idColumn).last("LIMIT " + (limit + 1));
+        List<T> rows = select.apply(query);
+        boolean hasMore = rows.size() > limit;
+        if (hasMore) {
+            rows = new ArrayList<>(rows.subList(0, limit));
+        }
+        CursorPage<T> page = new CursorPage<>();
+        page.setContent(rows);
+        page.setHasMore(hasMore);
+        page.setPageSize(limit);
+        if (hasMore) {
+            T last = rows.get(rows.size() - 1);
+            page.setNextCursor(encodeCursor(timeOf.apply(last), idOf.apply(last)));
+        }
+        return page;
+    }
+
+    private String encodeCursor(LocalDateTime time, Long id) {
+        if (time == null || id == null) {
+            return null;
+        }
+        String raw = time + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Cursor decodeCursor(String cursor) {
+        if (!StringUtils.hasText(cursor)) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int sep = raw.lastIndexOf('|');
+            return new Cursor(LocalDateTime.parse(raw.substring(0, sep)), Long.parseLong(raw.substring(sep + 1)));
+        } catch (Exception e) {
+            throw new BusinessException(400, "Invalid cursor");
+        }
+    }
+
     private <T> void applyTimeRange(LambdaQueryWrapper<T> query, String startTime, String endTime, SFunction<T, ?> field) {
         LocalDateTime start = parseDateTime(startTime);
         LocalDateTime end = parseDateTime(endTime);
@@ -128,4 +281,7 @@ public class AdminLogServiceImpl extends ServiceImpl<SystemLogMapper, SystemLog>
             return null;
         }
     }
+
+    private record Cursor(LocalDateTime time, long id) {
+    }
 }
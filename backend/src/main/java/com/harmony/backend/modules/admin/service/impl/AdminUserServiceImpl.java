@@ -9,6 +9,7 @@ import com.harmony.backend.common.response.PageResult;
 import com.harmony.backend.common.util.PageResultUtils;
 import com.harmony.backend.modules.admin.service.AdminUserService;
 import com.harmony.backend.modules.admin.controller.request.AdminUserUpdateRequest;
+import com.harmony.backend.modules.user.service.UserSecurityService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -21,6 +22,7 @@ import org.springframework.util.StringUtils;
 public class AdminUserServiceImpl extends ServiceImpl<UserMapper, User> implements AdminUserService {
 
     private final PasswordEncoder passwordEncoder;
+    private final UserSecurityService userSecurityService;
 
     @Override
     public PageResult<User> listUsers(int page, int size, String keyword) {
@@ -47,7 +49,7 @@ public class AdminUserServiceImpl extends ServiceImpl<UserMapper, User> implemen
         User user = new User();
         user.setId(id);
         user.setStatus(status);
-        return baseMapper.updateById(user) > 0;
+        return evictOnSuccess(id, baseMapper.updateById(user) > 0);
     }
 
     @Override
@@ -55,7 +57,7 @@ public class AdminUserServiceImpl extends ServiceImpl<UserMapper, User> implemen
         if (id == null) {
             return false;
         }
-        return baseMapper.updateTokenBalance(id, delta) > 0;
+        return evictOnSuccess(id, baseMapper.updateTokenBalance(id, delta) > 0);
     }
 
     @Override
@@ -67,7 +69,7 @@ public class AdminUserServiceImpl extends ServiceImpl<UserMapper, User> implemen
         user.setId(id);
         user.setPassword(passwordEncoder.encode(newPassword));
         user.setLastPasswordChange(java.time.LocalDateTime.now());
-        return baseMapper.updateById(user) > 0;
+        return evictOnSuccess(id, baseMapper.updateById(user) > 0);
     }
 
     @Override
@@ -78,7 +80,7 @@ public class AdminUserServiceImpl extends ServiceImpl<UserMapper, User> implemen
         User user = new User();
         user.setId(id);
         user.setDeleted(true);
-        return baseMapper.updateById(user) > 0;
+        return evictOnSuccess(id, baseMapper.updateById(user) > 0);
     }
 
     @Override
@@ -108,8 +110,13 @@ public class AdminUserServiceImpl extends ServiceImpl<UserMapper, User> implemen
         if (StringUtils.hasText(request.getStatus())) {
             user.setStatus(request.getStatus());
         }
-        return baseMapper.updateById(user) > 0;
+        return evictOnSuccess(id, baseMapper.updateById(user) > 0);
     }
 
-    
+    private boolean evictOnSuccess(Long id, boolean updated) {
+        if (updated) {
+            userSecurityService.evictCachedUser(id);
+        }
+        return updated;
+    }
 }
@@ -31,24 +31,46 @@ public abstract class AbstractOpenAiCompatibleAdapter implements LlmAdapter {
     }
 
     @Override
-    public String chat(List<LlmMessage> messages, String model) {
-        WebClient webClient = webClientBuilder.baseUrl(getBaseUrl()).build();
-        Map<String, Object> payload = buildPayload(messages, model, false);
-        logRequestSummary(model, messages, false);
-
-        String response = webClient.post()
-                .uri(getChatPath())
-                .contentType(MediaType.APPLICATION_JSON)
-                .accept(MediaType.APPLICATION_JSON)
-                .header("Authorization", "Bearer " + getApiKey())
-                .bodyValue(payload)
-                .exchangeToMono(clientResponse -> handleStringResponse(clientResponse, model, messages, false))
-                .block();
+    public Mono<LlmResponse> chatAsync(List<LlmMessage> messages, String model) {
+        return Mono.defer(() -> {
+            WebClient webClient = webClientBuilder.baseUrl(getBaseUrl()).build();
+            Map<String, Object> payload = buildPayload(messages, model, false);
+            logRequestSummary(model, messages, false);
+            return webClient.post()
+                    .uri(getChatPath())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .accept(MediaType.APPLICATION_JSON)
+                    .header("Authorization", "Bearer " + getApiKey())
+                    .bodyValue(payload)
+                    .exchangeToMono(clientResponse -> handleStringResponse(clientResponse, model, messages, false))
+                    .map(response -> toLlmResponse(response, model));
+        });
+    }
 
+    protected LlmResponse toLlmResponse(String response, String model) {
         if (response == null || response.isBlank()) {
-            return "";
+            return LlmResponse.of("", model);
+        }
+        LlmResponse result = LlmResponse.of(extractSyncContent(response), model);
+        try {
+            JsonNode root = objectMapper.readTree(response);
+            JsonNode usage = root.path("usage");
+            if (usage.hasNonNull("prompt_tokens")) {
+                result.setPromptTokens(usage.path("prompt_tokens").asInt());
+            }
+            if (usage.hasNonNull("completion_tokens")) {
+                result.setCompletionTokens(usage.path("completion_tokens").asInt());
+            }
+            JsonNode finishReason = root.path("choices").path(0).path("finish_reason");
+            if (finishReason.isTextual()) {
+                result.setFinishReason(finishReason.asText());
+            }
+            if (root.hasNonNull("model")) {
+                result.setModel(root.path("model").asText(model));
+            }
+        } catch (Exception ignored) {
         }
-        return extractSyncContent(response);
+        return result;
     }
 
     protected Flux<String> createStreamFlux(WebClient webClient,
@@ -60,24 +60,43 @@ public class ClaudeAdapter implements LlmAdapter {
     }
 
     @Override
-    public String chat(List<LlmMessage> messages, String model) {
-        WebClient webClient = webClientBuilder.baseUrl(baseUrl).build();
-        Map<String, Object> payload = buildPayload(messages, model, false);
-
-        String response = webClient.post()
-                .uri(resolveMessagesPath())
-                .contentType(MediaType.APPLICATION_JSON)
-                .accept(MediaType.APPLICATION_JSON)
-                .header("x-api-key", apiKey)
-                .bodyValue(payload)
-                .retrieve()
-                .bodyToMono(String.class)
-                .block();
+    public Mono<LlmResponse> chatAsync(List<LlmMessage> messages, String model) {
+        return Mono.defer(() -> {
+            WebClient webClient = webClientBuilder.baseUrl(baseUrl).build();
+            Map<String, Object> payload = buildPayload(messages, model, false);
+            return webClient.post()
+                    .uri(resolveMessagesPath())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .accept(MediaType.APPLICATION_JSON)
+                    .header("x-api-key", apiKey)
+                    .bodyValue(payload)
+                    .retrieve()
+                    .bodyToMono(String.class)
+                    .defaultIfEmpty("")
+                    .map(response -> toLlmResponse(response, model));
+        });
+    }
 
+    private LlmResponse toLlmResponse(String response, String model) {
         if (response == null || response.isBlank()) {
-            return "";
+            return LlmResponse.of("", model);
+        }
+        LlmResponse result = LlmResponse.of(extractSyncContent(response), model);
+        try {
+            JsonNode root = objectMapper.readTree(response);
+            JsonNode usage = root.path("usage");
+            if (usage.hasNonNull("input_tokens")) {
+                result.setPromptTokens(usage.path("input_tokens").asInt());
+            }
+            if (usage.hasNonNull("output_tokens")) {
+                result.setCompletionTokens(usage.path("output_tokens").asInt());
+            }
+            if (root.hasNonNull("stop_reason")) {
+                result.setFinishReason(root.path("stop_reason").asText());
+            }
+        } catch (Exception ignored) {
         }
-        return extractSyncContent(response);
+        return result;
     }
 
     private String resolveMessagesPath() {
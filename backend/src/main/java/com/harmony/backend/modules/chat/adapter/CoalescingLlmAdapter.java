@@ -0,0 +1,45 @@
+package com.harmony.backend.modules.chat.adapter;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Routes an adapter's non-streaming calls and its shared streams through {@link LlmSingleFlight}.
+ */
+class CoalescingLlmAdapter implements LlmAdapter {
+
+    private final LlmAdapter delegate;
+    private final LlmSingleFlight singleFlight;
+
+    CoalescingLlmAdapter(LlmAdapter delegate, LlmSingleFlight singleFlight) {
+        this.delegate = delegate;
+        this.singleFlight = singleFlight;
+    }
+
+    @Override
+    public boolean supports(String model) {
+        return delegate.supports(model);
+    }
+
+    @Override
+    public String providerKey() {
+        return delegate.providerKey();
+    }
+
+    @Override
+    public Flux<String> streamChat(List<LlmMessage> messages, String model) {
+        return delegate.streamChat(messages, model);
+    }
+
+    @Override
+    public Flux<String> streamChatShared(List<LlmMessage> messages, String model) {
+        return singleFlight.stream(model, messages, () -> delegate.streamChat(messages, model));
+    }
+
+    @Override
+    public Mono<LlmResponse> chatAsync(List<LlmMessage> messages, String model) {
+        return singleFlight.call(model, messages, () -> delegate.chatAsync(messages, model));
+    }
+}
@@ -1,13 +1,39 @@
 package com.harmony.backend.modules.chat.adapter;
 
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import java.util.List;
+import java.util.Locale;
 
 public interface LlmAdapter {
     boolean supports(String model);
 
+    default String providerKey() {
+        return getClass().getSimpleName().replace("Adapter", "").toLowerCase(Locale.ROOT);
+    }
+
     Flux<String> streamChat(List<LlmMessage> messages, String model);
 
-    String chat(List<LlmMessage> messages, String model);
+    /**
+     * Stream that identical concurrent requests may share, for callers whose output does not
+     * depend on who asked. Adapters without coalescing simply stream.
+     */
+    default Flux<String> streamChatShared(List<LlmMessage> messages, String model) {
+        return streamChat(messages, model);
+    }
+
+    /**
+     * Non-blocking completion; compose this from reactive pipelines instead of {@link #chat}.
+     */
+    Mono<LlmResponse> chatAsync(List<LlmMessage> messages, String model);
+
+    /**
+     * Blocking bridge for imperative callers running on worker or virtual threads. Never call it
+     * from inside a reactive pipeline.
+     */
+    default String chat(List<LlmMessage> messages, String model) {
+        LlmResponse response = chatAsync(messages, model).block();
+        return response == null ? "" : response.contentOrEmpty();
+    }
 }
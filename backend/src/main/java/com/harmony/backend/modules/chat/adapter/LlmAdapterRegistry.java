@@ -1,20 +1,25 @@
 package com.harmony.backend.modules.chat.adapter;
 
-import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
 
 @Component
-@RequiredArgsConstructor
 public class LlmAdapterRegistry {
 
     private final List<LlmAdapter> adapters;
-    private final MockAdapter mockAdapter;
+    private final LlmAdapter mockAdapter;
     @Value("${app.llm.mock-enabled:false}")
     private boolean mockEnabled;
 
+    public LlmAdapterRegistry(List<LlmAdapter> adapters, MockAdapter mockAdapter, LlmSingleFlight singleFlight) {
+        this.adapters = adapters.stream()
+                .map(adapter -> (LlmAdapter) new CoalescingLlmAdapter(adapter, singleFlight))
+                .toList();
+        this.mockAdapter = new CoalescingLlmAdapter(mockAdapter, singleFlight);
+    }
+
     public LlmAdapter getAdapter(String model) {
         if (mockEnabled) {
             return mockAdapter;
@@ -0,0 +1,30 @@
+package com.harmony.backend.modules.chat.adapter;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Result of a non-streaming completion. Token counts are the provider's usage figures and stay
+ * null when the provider does not report them.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LlmResponse {
+    private String content;
+    private String model;
+    private Integer promptTokens;
+    private Integer completionTokens;
+    private String finishReason;
+
+    public static LlmResponse of(String content, String model) {
+        return LlmResponse.builder().content(content).model(model).build();
+    }
+
+    public String contentOrEmpty() {
+        return content == null ? "" : content;
+    }
+}
@@ -0,0 +1,101 @@
+package com.harmony.backend.modules.chat.adapter;
+
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces identical in-flight LLM calls. Concurrent callers with the same model and messages share
+ * one upstream request; a shared stream replays the chunks already produced to late subscribers and
+ * then follows live. Entries live only while the call is in flight, so nothing is reused afterwards.
+ */
+@Component
+public class LlmSingleFlight {
+
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final boolean streamingEnabled;
+    private final ConcurrentHashMap<String, Mono<LlmResponse>> calls = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Flux<String>> streams = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Counter> requestCounters = new ConcurrentHashMap<>();
+
+    public LlmSingleFlight(MeterRegistry meterRegistry,
+                           @Value("${app.llm.single-flight.enabled:true}") boolean enabled,
+                           @Value("${app.llm.single-flight.streaming-enabled:true}") boolean streamingEnabled) {
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.streamingEnabled = streamingEnabled;
+    }
+
+    public Mono<LlmResponse> call(String model, List<LlmMessage> messages, Supplier<Mono<LlmResponse>> upstream) {
+        if (!enabled) {
+            return upstream.get();
+        }
+        return Mono.defer(() -> {
+            String key = key("chat", model, messages);
+            Mono<LlmResponse> created = Mono.defer(upstream)
+                    .doFinally(signal -> calls.remove(key))
+                    .cache();
+            Mono<LlmResponse> shared = calls.putIfAbsent(key, created);
+            record("chat", shared != null);
+            return shared != null ? shared : created;
+        });
+    }
+
+    /**
+     * Shares a stream between identical concurrent requests. The upstream is cancelled once every
+     * subscriber has cancelled.
+     */
+    public Flux<String> stream(String model, List<LlmMessage> messages, Supplier<Flux<String>> upstream) {
+        if (!enabled || !streamingEnabled) {
+            return upstream.get();
+        }
+        return Flux.defer(() -> {
+            String key = key("stream", model, messages);
+            Flux<String> created = Flux.defer(upstream)
+                    .doFinally(signal -> streams.remove(key))
+                    .replay()
+                    .refCount(1);
+            Flux<String> shared = streams.putIfAbsent(key, created);
+            record("stream", shared != null);
+            return shared != null ? shared : created;
+        });
+    }
+
+    private void record(String kind, boolean coalesced) {
+        String result = coalesced ? "coalesced" : "upstream";
+        requestCounters.computeIfAbsent(kind + "|" + result, key -> Counter.builder("llm.singleflight.requests")
+                .tag("kind", kind).tag("result", result)
+                .register(meterRegistry)).increment();
+    }
+
+    private String key(String kind, String model, List<LlmMessage> messages) {
+        Hasher hasher = Hashing.sha256().newHasher()
+                .putString(kind, StandardCharsets.UTF_8).putChar('\n')
+                .putString(Objects.toString(model, ""), StandardCharsets.UTF_8).putChar('\n');
+        if (messages != null) {
+            for (LlmMessage message : messages) {
+                if (message == null) {
+                    continue;
+                }
+                // Length prefixes keep ("ab","c") and ("a","bc") apart.
+                String role = Objects.toString(message.getRole(), "");
+                String content = Objects.toString(message.getContent(), "");
+                hasher.putInt(role.length()).putString(role, StandardCharsets.UTF_8)
+                        .putInt(content.length()).putString(content, StandardCharsets.UTF_8);
+            }
+        }
+        return hasher.hash().toString();
+    }
+}
@@ -2,6 +2,7 @@ package com.harmony.backend.modules.chat.adapter;
 
 import org.springframework.stereotype.Component;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -25,8 +26,12 @@ public class MockAdapter implements LlmAdapter {
     }
 
     @Override
-    public String chat(List<LlmMessage> messages, String model) {
-        return buildResponse(messages);
+    public Mono<LlmResponse> chatAsync(List<LlmMessage> messages, String model) {
+        return Mono.fromSupplier(() -> LlmResponse.builder()
+                .content(buildResponse(messages))
+                .model(model)
+                .finishReason("stop")
+                .build());
     }
 
     private String buildResponse(List<LlmMessage> messages) {
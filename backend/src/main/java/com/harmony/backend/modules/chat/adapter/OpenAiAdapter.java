@@ -2,10 +2,14 @@ package com.harmony.backend.modules.chat.adapter;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.harmony.backend.common.cache.NearCache;
+import com.harmony.backend.common.cache.NearCacheManager;
+import com.harmony.backend.common.cache.NearCacheNames;
 import com.harmony.backend.common.constant.AppConfigKeys;
 import com.harmony.backend.common.entity.SystemLog;
 import com.harmony.backend.common.mapper.SystemLogMapper;
 import com.harmony.backend.common.service.AppConfigService;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -16,10 +20,9 @@ import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Schedulers;
 import org.springframework.web.reactive.function.client.ClientResponse;
-import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicInteger;
-import java.util.concurrent.atomic.AtomicReference;
 
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -49,16 +52,28 @@ public class OpenAiAdapter extends AbstractOpenAiCompatibleAdapter {
     private final AppConfigService appConfigService;
     private final SystemLogMapper systemLogMapper;
     private final AtomicInteger streamLogCounter = new AtomicInteger(0);
-    private final AtomicReference<Boolean> cachedAdminStreamEnabled = new AtomicReference<>();
-    private final AtomicLong cachedAdminStreamLoadedAt = new AtomicLong(0);
+    private final NearCacheManager nearCacheManager;
+    private NearCache<Boolean> adminStreamSetting;
 
     public OpenAiAdapter(WebClient.Builder webClientBuilder,
                          ObjectMapper objectMapper,
                          AppConfigService appConfigService,
-                         SystemLogMapper systemLogMapper) {
+                         SystemLogMapper systemLogMapper,
+                         NearCacheManager nearCacheManager) {
         super(webClientBuilder, objectMapper);
         this.appConfigService = appConfigService;
         this.systemLogMapper = systemLogMapper;
+        this.nearCacheManager = nearCacheManager;
+    }
+
+    @PostConstruct
+    public void initStreamSettingCache() {
+        adminStreamSetting = nearCacheManager.<Boolean>builder(NearCacheNames.OPENAI_STREAM_SETTING)
+                .maximumSize(1)
+                .refreshAfterWrite(Duration.ofMillis(Math.max(1, streamConfigCacheTtlMs)))
+                .loader(this::loadAdminStreamSetting)
+                .dependsOn(NearCacheNames.APP_CONFIG)
+                .build();
     }
 
     @Override
@@ -74,10 +89,10 @@ public class OpenAiAdapter extends AbstractOpenAiCompatibleAdapter {
     public Flux<String> streamChat(List<LlmMessage> messages, String model) {
         if (!isStreamingSupported()) {
             log.warn("OpenAI stream disabled or unsupported for baseUrl={}, falling back to non-stream.", resolveBaseUrl());
-            return Mono.fromCallable(() -> chat(messages, model))
-                    .subscribeOn(Schedulers.boundedElastic())
-                    .flatMapMany(text -> Flux.just(text))
-                    .filter(content -> content != null && !content.isEmpty());
+            return chatAsync(messages, model)
+                    .map(LlmResponse::contentOrEmpty)
+                    .flux()
+                    .filter(content -> !content.isEmpty());
         }
         WebClient webClient = webClientBuilder.baseUrl(resolveBaseUrl()).build();
         Map<String, Object> payload = buildPayload(messages, model, true);
@@ -90,12 +105,15 @@ public class OpenAiAdapter extends AbstractOpenAiCompatibleAdapter {
                 .bodyValue(payload)
                 .exchangeToFlux(response -> toStreamFromResponse(response, messages, model));
 
-        return stream.switchIfEmpty(Mono.fromCallable(() -> {
+        // The fallback log row is a blocking insert, so only that part runs on boundedElastic.
+        Mono<String> fallback = Mono.fromRunnable(() -> {
                     log.warn("OpenAI stream returned empty content, falling back to non-stream response.");
                     recordStreamFallback();
-                    return chat(messages, model);
-                }).subscribeOn(Schedulers.boundedElastic())
-                .flatMapMany(text -> Flux.just(text)))
+                })
+                .subscribeOn(Schedulers.boundedElastic())
+                .then(chatAsync(messages, model))
+                .map(LlmResponse::contentOrEmpty);
+        return stream.switchIfEmpty(fallback)
                 .filter(content -> content != null && !content.isEmpty());
     }
 
@@ -197,21 +215,12 @@ public class OpenAiAdapter extends AbstractOpenAiCompatibleAdapter {
     }
 
     private Boolean resolveAdminStreamSetting() {
-        long now = System.currentTimeMillis();
-        Boolean cachedValue = cachedAdminStreamEnabled.get();
-        long loadedAt = cachedAdminStreamLoadedAt.get();
-        if (cachedValue != null && now - loadedAt < streamConfigCacheTtlMs) {
-            return cachedValue;
-        }
-        String adminSetting = appConfigService.getValue(AppConfigKeys.OPENAI_STREAM_ENABLED);
-        cachedAdminStreamLoadedAt.set(now);
-        if (adminSetting == null) {
-            cachedAdminStreamEnabled.set(null);
-            return null;
-        }
-        Boolean resolved = Boolean.parseBoolean(adminSetting);
-        cachedAdminStreamEnabled.set(resolved);
-        return resolved;
+        return adminStreamSetting.get(AppConfigKeys.OPENAI_STREAM_ENABLED);
+    }
+
+    private Boolean loadAdminStreamSetting(String key) {
+        String adminSetting = appConfigService.getValue(key);
+        return adminSetting == null ? null : Boolean.parseBoolean(adminSetting);
     }
 
     private void recordStreamFallback() {
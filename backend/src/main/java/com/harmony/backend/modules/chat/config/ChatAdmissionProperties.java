@@ -0,0 +1,34 @@
+package com.harmony.backend.modules.chat.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.chat.admission")
+public class ChatAdmissionProperties {
+    private boolean enabled = true;
+    private int maxConcurrent = 200;
+    private int defaultProviderLimit = 100;
+    /** Concurrent generations per provider (deepseek, openai, claude, ...). */
+    private Map<String, Integer> providerLimits = new HashMap<>();
+    private int maxQueueSize = 1000;
+    private int maxQueuedPerUser = 3;
+    private long maxWaitMs = 30000;
+    private double defaultWeight = 1.0;
+    /** Fair-share weight by user role; a user with weight 4 is served four times as often. */
+    private Map<String, Double> roleWeights = new HashMap<>(Map.of("ADMIN", 4.0));
+
+    public int limitFor(String provider) {
+        return Math.max(1, providerLimits.getOrDefault(provider, defaultProviderLimit));
+    }
+
+    public double weightFor(String role) {
+        Double weight = role == null ? null : roleWeights.get(role);
+        return Math.max(0.01, weight == null ? defaultWeight : weight);
+    }
+}
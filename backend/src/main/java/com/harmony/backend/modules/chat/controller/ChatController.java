@@ -1,6 +1,7 @@
 package com.harmony.backend.modules.chat.controller;
 
 import com.harmony.backend.common.domain.ApiResponse;
+import com.harmony.backend.common.entity.User;
 import com.harmony.backend.common.exception.BusinessException;
 import com.harmony.backend.common.service.RedisTokenBucketService;
 import com.harmony.backend.common.util.ClientIpResolver;
@@ -8,11 +9,13 @@ import com.harmony.backend.common.util.RequestUtils;
 import com.harmony.backend.modules.chat.controller.request.ChatRequest;
 import com.harmony.backend.modules.chat.controller.response.ChatSessionVO;
 import com.harmony.backend.modules.chat.config.BillingProperties;
+import com.harmony.backend.modules.chat.config.ChatAdmissionProperties;
 import com.harmony.backend.modules.chat.config.ChatRateLimitProperties;
 import com.harmony.backend.modules.chat.service.ChatService;
 import com.harmony.backend.modules.chat.service.ModelPricingService;
 import com.harmony.backend.modules.chat.service.SessionService;
 import com.harmony.backend.modules.chat.service.support.ChatSessionCacheService;
+import com.harmony.backend.modules.chat.support.ChatAdmissionService;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
@@ -27,6 +30,7 @@ import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.*;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 import java.time.Duration;
 import java.util.LinkedHashMap;
@@ -51,6 +55,8 @@ public class ChatController {
     private final RedisTokenBucketService tokenBucketService;
     private final ChatSessionCacheService chatSessionCacheService;
     private final ClientIpResolver clientIpResolver;
+    private final ChatAdmissionService chatAdmissionService;
+    private final ChatAdmissionProperties chatAdmissionProperties;
     @Value("${app.chat.stream-timeout-seconds:90}")
     private int streamTimeoutSeconds;
 
@@ -257,6 +263,7 @@ public class ChatController {
                 chatIdMono = Mono.just(chatId);
             }
             String finalModel = model;
+            String userRole = RequestUtils.getCurrentUser().map(User::getRole).orElse(null);
 
             return chatIdMono.flatMapMany(finalChatId -> {
                         Flux<ServerSentEvent<String>> initSSE = Flux.empty();
@@ -268,58 +275,88 @@ public class ChatController {
                                     .build());
                         }
 
-                        Flux<String> rawStream;
-                        if (regenerateAssistant) {
-                            if (isNewSession) {
-                                return errorEventFlux("Cannot regenerate on a new session");
-                            }
-                            rawStream = chatService.regenerateAssistant(
-                                    userId, finalChatId, regenerateFromAssistantMessageId, requestId, gptId, agentId, finalModel,
-                                    toolModel,
-                                    useRag, ragQuery, ragTopK);
-                        } else {
-                            rawStream = chatService.chat(
-                                    userId, finalChatId, prompt, parentMessageId, messageId, requestId, gptId, agentId, finalModel,
-                                    toolModel,
-                                    useRag, ragQuery, ragTopK);
+                        if (regenerateAssistant && isNewSession) {
+                            return errorEventFlux("Cannot regenerate on a new session");
                         }
-                        if (rawStream == null) {
-                            return errorEventFlux("Streaming not supported");
+                        ChatAdmissionService.Ticket ticket;
+                        try {
+                            ticket = chatAdmissionService.enqueue(userId, userRole, finalModel);
+                        } catch (BusinessException e) {
+                            return initSSE.concatWith(errorEventFlux(e.getMessage()));
                         }
-                        rawStream = rawStream.timeout(Duration.ofSeconds(streamTimeoutSeconds));
-
-                        Flux<ServerSentEvent<String>> chatStream = rawStream
-                                .map(chunk -> {
-                                    return ServerSentEvent.<String>builder()
-                                            .event("message_chunk")
-                                            .data(toJson(Map.of("role", "assistant", "content", chunk)))
-                                            .build();
-                                })
-                                .onBackpressureBuffer(100,
-                                        buffer -> log.warn("Backpressure buffer overflow, drop latest"),
-                                        reactor.core.publisher.BufferOverflowStrategy.DROP_LATEST)
-                                .doOnComplete(() -> {
-                                    long duration = System.currentTimeMillis() - startTime;
-                                    log.info("Stream chat completed: userId={}, chatId={}, duration={}ms",
-                                            userId, finalChatId, duration);
-                                    recordMetrics(userId, finalChatId, duration, true);
-                                })
-                                .doOnError(error -> {
-                                    log.error("Stream chat error: userId={}, chatId={}", userId, finalChatId, error);
-                                    recordMetrics(userId, finalChatId,
-                                            System.currentTimeMillis() - startTime, false);
-                                })
-                                .onErrorResume(error -> errorEventFlux(resolveStreamError(error)));
-
-                        ServerSentEvent<String> doneEvent = ServerSentEvent.<String>builder()
-                                .event("done")
-                                .data(toJson(Map.of("success", true)))
-                                .build();
+                        // Generation starts only once admitted; the wait does not count against the stream timeout.
+                        Mono<Boolean> admitted = ticket.granted()
+                                .timeout(Duration.ofMillis(Math.max(1000, chatAdmissionProperties.getMaxWaitMs())),
+                                        Mono.error(new BusinessException(429, "Server busy, please retry shortly")))
+                                .cache();
+                        // A queued grant fires on the thread that released the slot; move the blocking
+                        // stream preparation off it.
+                        Mono<Boolean> admittedOnWorker = ticket.wasQueued()
+                                ? admitted.publishOn(Schedulers.boundedElastic())
+                                : admitted;
+                        Flux<ServerSentEvent<String>> queuedEvents = ticket.positions()
+                                .takeUntilOther(admitted.onErrorReturn(false))
+                                .map(position -> ServerSentEvent.<String>builder()
+                                        .event("queued")
+                                        .data(toJson(Map.of("position", position)))
+                                        .build());
+
+                        Flux<ServerSentEvent<String>> generation = admittedOnWorker.flatMapMany(ignored -> {
+                            Flux<String> rawStream;
+                            if (regenerateAssistant) {
+                                rawStream = chatService.regenerateAssistant(
+                                        userId, finalChatId, regenerateFromAssistantMessageId, requestId, gptId, agentId, finalModel,
+                                        toolModel,
+                                        useRag, ragQuery, ragTopK);
+                            } else {
+                                rawStream = chatService.chat(
+                                        userId, finalChatId, prompt, parentMessageId, messageId, requestId, gptId, agentId, finalModel,
+                                        toolModel,
+                                        useRag, ragQuery, ragTopK, chatRequest.getCacheEligible());
+                            }
+                            if (rawStream == null) {
+                                return errorEventFlux("Streaming not supported");
+                            }
+                            rawStream = rawStream.timeout(Duration.ofSeconds(streamTimeoutSeconds));
+
+                            Flux<ServerSentEvent<String>> chatStream = rawStream
+                                    .map(chunk -> {
+                                        return ServerSentEvent.<String>builder()
+                                                .event("message_chunk")
+                                                .data(toJson(Map.of("role", "assistant", "content", chunk)))
+                                                .build();
+                                    })
+                                    .onBackpressureBuffer(100,
+                                            buffer -> log.warn("Backpressure buffer overflow, drop latest"),
+                                            reactor.core.publisher.BufferOverflowStrategy.DROP_LATEST)
+                                    .doOnComplete(() -> {
+                                        long duration = System.currentTimeMillis() - startTime;
+                                        log.info("Stream chat completed: userId={}, chatId={}, duration={}ms",
+                                                userId, finalChatId, duration);
+                                        recordMetrics(userId, finalChatId, duration, true);
+                                    })
+                                    .doOnError(error -> {
+                                        log.error("Stream chat error: userId={}, chatId={}", userId, finalChatId, error);
+                                        recordMetrics(userId, finalChatId,
+                                                System.currentTimeMillis() - startTime, false);
+                                    })
+                                    .onErrorResume(error -> errorEventFlux(resolveStreamError(error)));
+
+                            ServerSentEvent<String> doneEvent = ServerSentEvent.<String>builder()
+                                    .event("done")
+                                    .data(toJson(Map.of("success", true)))
+                                    .build();
+
+                            return chatStream.concatWithValues(doneEvent);
+                        }).onErrorResume(error -> errorEventFlux(resolveStreamError(error)));
 
                         return initSSE
-                                .concatWith(chatStream)
-                                .concatWithValues(doneEvent)
-                                .doFinally(signal -> invalidateUserSessionCache(userId));
+                                .concatWith(queuedEvents)
+                                .concatWith(generation)
+                                .doFinally(signal -> {
+                                    ticket.release();
+                                    invalidateUserSessionCache(userId);
+                                });
                     })
                     .onErrorResume(error -> errorEventFlux(resolveStreamError(error)));
         });
@@ -375,8 +412,15 @@ public class ChatController {
             chatSessionCacheService.cacheBelong(userId, chatId, true);
         }
 
+        // Same admission as streams: a synchronous generation occupies a provider just as long.
+        String userRole = RequestUtils.getCurrentUser().map(User::getRole).orElse(null);
+        ChatAdmissionService.Ticket ticket = chatAdmissionService.enqueue(userId, userRole, model);
         long startTime = System.currentTimeMillis();
         try {
+            ticket.granted()
+                    .timeout(Duration.ofMillis(Math.max(1000, chatAdmissionProperties.getMaxWaitMs())),
+                            Mono.error(new BusinessException(429, "Server busy, please retry shortly")))
+                    .block();
             Object response = chatService.sendMessage(
                     userId, chatId, prompt, parentMessageId, messageId, requestId,
                     gptId, agentId, model, toolModel, useRag, ragQuery, ragTopK);
@@ -393,6 +437,8 @@ public class ChatController {
             long duration = System.currentTimeMillis() - startTime;
             recordMetrics(userId, chatId, duration, false);
             throw e;
+        } finally {
+            ticket.release();
         }
     }
 
@@ -414,11 +460,13 @@ public class ChatController {
 
         RateLimitConfig config = getRateLimitConfig(action);
 
-        if (!tokenBucketService.tryConsume(userKey, config.userLimit, config.windowSeconds)) {
+        int rejected = tokenBucketService.tryConsumeAll(List.of(
+                new RedisTokenBucketService.Bucket(userKey, config.userLimit, config.windowSeconds),
+                new RedisTokenBucketService.Bucket(ipKey, config.ipLimit, config.windowSeconds)));
+        if (rejected == 0) {
             throw new BusinessException("Too many requests");
         }
-
-        if (!tokenBucketService.tryConsume(ipKey, config.ipLimit, config.windowSeconds)) {
+        if (rejected > 0) {
             throw new BusinessException("Too many requests from IP");
         }
     }
@@ -19,4 +19,9 @@ public class ChatRequest {
     private Integer ragTopK;
     private String model;
     private String toolModel;
+    /**
+     * Opts a plain reply into sharing one upstream stream with identical concurrent requests;
+     * only set it where the answer does not depend on who asked.
+     */
+    private Boolean cacheEligible;
 }
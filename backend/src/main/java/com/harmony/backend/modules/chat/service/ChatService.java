@@ -11,7 +11,7 @@ public interface ChatService extends IService<Message> {
 
     Flux<String> chat(Long userId, String chatId, String prompt, String parentMessageId,
                       String messageId, String requestId, String gptId, String agentId, String model, String toolModel,
-                      Boolean useRag, String ragQuery, Integer ragTopK);
+                      Boolean useRag, String ragQuery, Integer ragTopK, Boolean cacheEligible);
     Flux<String> regenerateAssistant(Long userId, String chatId, String assistantMessageId, String requestId,
                                      String gptId, String agentId, String model, String toolModel,
                                      Boolean useRag, String ragQuery, Integer ragTopK);
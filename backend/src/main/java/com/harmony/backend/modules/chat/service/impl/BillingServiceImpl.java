@@ -4,13 +4,20 @@ import com.harmony.backend.common.entity.Session;
 import com.harmony.backend.common.entity.TokenConsumption;
 import com.harmony.backend.common.entity.User;
 import com.harmony.backend.common.mapper.TokenConsumptionMapper;
+import com.harmony.backend.common.mapper.TokenUsageRollupMapper;
 import com.harmony.backend.common.mapper.UserMapper;
 import com.harmony.backend.modules.chat.config.BillingProperties;
 import com.harmony.backend.modules.chat.service.BillingService;
+import com.harmony.backend.modules.user.service.UserSecurityService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 
 @Service
 @Slf4j
@@ -18,8 +25,10 @@ import org.springframework.transaction.annotation.Transactional;
 public class BillingServiceImpl implements BillingService {
 
     private final TokenConsumptionMapper tokenConsumptionMapper;
+    private final TokenUsageRollupMapper tokenUsageRollupMapper;
     private final UserMapper userMapper;
     private final BillingProperties billingProperties;
+    private final UserSecurityService userSecurityService;
 
     @Override
     public void ensureBalance(Long userId, int requiredTokens) {
@@ -40,6 +49,8 @@ public class BillingServiceImpl implements BillingService {
                 .model(model)
                 .promptTokens(promptTokens)
                 .completionTokens(completionTokens)
+                // Whole seconds, so a DATETIME column cannot round the row into the next hour's rollup.
+                .createdAt(LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS))
                 .build();
         consumption.calculateTotalTokens();
         double multiplier = billingProperties.getMultiplier(model);
@@ -51,6 +62,36 @@ public class BillingServiceImpl implements BillingService {
             throw new IllegalStateException("Insufficient token balance");
         }
         tokenConsumptionMapper.insert(consumption);
+        recordRollups(consumption);
+        evictCachedUserAfterCommit(userId);
+    }
+
+    /**
+     * The auth near-cache holds the user row including tokenBalance; dropping it once the deduction
+     * commits keeps balances served from the cached user current.
+     */
+    private void evictCachedUserAfterCommit(Long userId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    userSecurityService.evictCachedUser(userId);
+                }
+            });
+        } else {
+            userSecurityService.evictCachedUser(userId);
+        }
+    }
+
+    private void recordRollups(TokenConsumption consumption) {
+        // Same transaction as the raw row, so usage charts never drift from what was billed.
+        String model = consumption.getModel() == null ? "" : consumption.getModel();
+        LocalDateTime hour = consumption.getCreatedAt().truncatedTo(ChronoUnit.HOURS);
+        long prompt = consumption.getPromptTokens();
+        long completion = consumption.getCompletionTokens();
+        long total = consumption.getTotalTokens();
+        tokenUsageRollupMapper.upsertHourly(consumption.getUserId(), model, hour, prompt, completion, total);
+        tokenUsageRollupMapper.upsertDaily(consumption.getUserId(), model, hour.toLocalDate(), prompt, completion, total);
     }
 
     @Override
@@ -55,6 +55,8 @@ import com.harmony.backend.modules.chat.service.support.model.GroundingAssessmen
 import com.harmony.backend.modules.chat.support.ChatBloomFilterService;
 import com.harmony.backend.modules.chat.support.IdempotencyStatus;
 import com.harmony.backend.modules.chat.support.MessageStatus;
+import com.harmony.backend.modules.chat.support.trace.ChatTurnMetrics;
+import com.harmony.backend.modules.chat.support.trace.ChatTurnTrace;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
@@ -107,6 +109,7 @@ public class ChatServiceImpl extends ServiceImpl<MessageMapper, Message> impleme
     private final AgentMemoryService agentMemoryService;
     private final ToolFollowupService toolFollowupService;
     private final AgentWorkflowService agentWorkflowService;
+    private final ChatTurnMetrics chatTurnMetrics;
     @Value("${app.chat.context.warn-messages:200}")
     private int contextWarnMessages;
 
@@ -149,20 +152,26 @@ public class ChatServiceImpl extends ServiceImpl<MessageMapper, Message> impleme
     @Override
     public Flux<String> chat(Long userId, String chatId, String prompt, String parentMessageId,
                              String messageId, String requestId, String gptId, String agentId, String model, String toolModel,
-                             Boolean useRag, String ragQuery, Integer ragTopK) {
+                             Boolean useRag, String ragQuery, Integer ragTopK,
+                             Boolean cacheEligible) {
         String requestHash = hashForIdempotency("CHAT_STREAM", chatId, prompt, parentMessageId, messageId,
                 gptId, agentId, model, toolModel, useRag, ragQuery, ragTopK);
+        ChatTurnTrace trace = chatTurnMetrics.start("chat", chatId);
         ChatIdempotencyGate idempotency = acquireIdempotency(userId, requestId, "CHAT_STREAM", chatId, messageId, requestHash);
+        trace.mark(ChatTurnTrace.STAGE_IDEMPOTENCY);
         if (idempotency.getReplayResponse() != null) {
+            chatTurnMetrics.finish(trace, "replay");
             return Flux.just(idempotency.getReplayResponse());
         }
         if (idempotency.isInProgress()) {
+            chatTurnMetrics.finish(trace, "rejected");
             throw new BusinessException(409, "requestId is already being processed");
         }
         try {
         PreparedChatStream prepared = inTransaction(() -> prepareChatStream(
                 userId, chatId, prompt, parentMessageId, messageId, gptId, agentId, model, toolModel,
-                useRag, ragQuery, ragTopK, idempotency));
+                useRag, ragQuery, ragTopK, idempotency, trace));
+            prepared.setTrace(trace);
             return chatStreamOrchestrationService.execute(prepared, idempotency, new ChatStreamOrchestrationService.ChatStreamCallbacks() {
                 @Override
                 public Flux<String> createSourceStream(PreparedChatStream preparedState) {
@@ -193,6 +202,9 @@ public class ChatServiceImpl extends ServiceImpl<MessageMapper, Message> impleme
                             sink.complete();
                         });
                     }
+                    if (Boolean.TRUE.equals(cacheEligible)) {
+                        return preparedState.getAdapter().streamChatShared(preparedState.getMessages(), preparedState.getFinalModel());
+                    }
                     return preparedState.getAdapter().streamChat(preparedState.getMessages(), preparedState.getFinalModel());
                 }
 
@@ -202,10 +214,9 @@ public class ChatServiceImpl extends ServiceImpl<MessageMapper, Message> impleme
                 }
 
                 @Override
-                public String resolveFinalContent(PreparedChatStream preparedState, String assistantContent) {
-                    String handled = chatToolSupportService.handleToolCallIfNeeded(preparedState.getSession(), preparedState.getMessages(),
+                public Mono<String> resolveFinalContent(PreparedChatStream preparedState, String assistantContent) {
+                    return chatToolSupportService.handleToolCallAsync(preparedState.getSession(), preparedState.getMessages(),
                             assistantContent, preparedState.getFinalModel(), preparedState.getAssistantMessageId());
-                    return handled != null ? handled : assistantContent;
                 }
 
                 @Override
@@ -254,6 +265,7 @@ public class ChatServiceImpl extends ServiceImpl<MessageMapper, Message> impleme
             });
         } catch (Exception e) {
             markIdempotencyFailed(idempotency.getRecord(), e.getMessage());
+            chatTurnMetrics.finish(trace, "error");
             throw e;
         }
     }
@@ -265,18 +277,23 @@ public class ChatServiceImpl extends ServiceImpl<MessageMapper, Message> impleme
                                             Boolean useRag, String ragQuery, Integer ragTopK) {
         String requestHash = hashForIdempotency("REGENERATE_STREAM", chatId, assistantMessageId,
                 gptId, agentId, model, toolModel, useRag, ragQuery, ragTopK);
+        ChatTurnTrace trace = chatTurnMetrics.start("regenerate", chatId);
         ChatIdempotencyGate idempotency = acquireIdempotency(userId, requestId, "REGENERATE_STREAM",
                 chatId, assistantMessageId, requestHash);
+        trace.mark(ChatTurnTrace.STAGE_IDEMPOTENCY);
         if (idempotency.getReplayResponse() != null) {
+            chatTurnMetrics.finish(trace, "replay");
             return Flux.just(idempotency.getReplayResponse());
         }
         if (idempotency.isInProgress()) {
+            chatTurnMetrics.finish(trace, "rejected");
             throw new BusinessException(409, "requestId is already being processed");
         }
         try {
         PreparedRegenerateStream prepared = inTransaction(() -> prepareRegenerateStream(
                 userId, chatId, assistantMessageId, gptId, agentId, model, toolModel,
-                useRag, ragQuery, ragTopK, idempotency));
+                useRag, ragQuery, ragTopK, idempotency, trace));
+            prepared.setTrace(trace);
             return chatRegenerateOrchestrationService.execute(prepared, idempotency,
                     new ChatRegenerateOrchestrationService.ChatRegenerateCallbacks() {
                         @Override
@@ -302,10 +319,9 @@ public class ChatServiceImpl extends ServiceImpl<MessageMapper, Message> impleme
                         }
 
                         @Override
-                        public String resolveFinalContent(PreparedRegenerateStream preparedState, String assistantContent) {
-                            String handled = chatToolSupportService.handleToolCallIfNeeded(preparedState.getSession(), preparedState.getMessages(),
+                        public Mono<String> resolveFinalContent(PreparedRegenerateStream preparedState, String assistantContent) {
+                            return chatToolSupportService.handleToolCallAsync(preparedState.getSession(), preparedState.getMessages(),
                                     assistantContent, preparedState.getFinalModel(), preparedState.getNewAssistantMessageId());
-                            return handled != null ? handled : assistantContent;
                         }
 
                         @Override
@@ -353,6 +369,7 @@ public class ChatServiceImpl extends ServiceImpl<MessageMapper, Message> impleme
                     });
         } catch (Exception e) {
             markIdempotencyFailed(idempotency.getRecord(), e.getMessage());
+            chatTurnMetrics.finish(trace, "error");
             throw e;
         }
     }
@@ -363,16 +380,35 @@ public class ChatServiceImpl extends ServiceImpl<MessageMapper, Message> impleme
                               String gptId, String agentId, String model, String toolModel, Boolean useRag, String ragQuery, Integer ragTopK) {
         String requestHash = hashForIdempotency("CHAT_SYNC", chatId, prompt, parentMessageId, messageId,
                 gptId, agentId, model, toolModel, useRag, ragQuery, ragTopK);
+        ChatTurnTrace trace = chatTurnMetrics.start("message", chatId);
         ChatIdempotencyGate idempotency = acquireIdempotency(userId, requestId, "CHAT_SYNC", chatId, messageId, requestHash);
+        trace.mark(ChatTurnTrace.STAGE_IDEMPOTENCY);
         if (idempotency.getReplayResponse() != null) {
+            chatTurnMetrics.finish(trace, "replay");
             return chatSyncResponseService.decodeReplayResponse(idempotency.getReplayResponse());
         }
         if (idempotency.isInProgress()) {
+            chatTurnMetrics.finish(trace, "rejected");
             throw new BusinessException(409, "requestId is already being processed");
         }
-        PreparedSyncMessage prepared = inTransaction(() -> prepareSyncMessage(
-                userId, chatId, prompt, parentMessageId, messageId, gptId, agentId, model, toolModel,
-                useRag, ragQuery, ragTopK, idempotency));
+        try {
+            PreparedSyncMessage prepared = inTransaction(() -> prepareSyncMessage(
+                    userId, chatId, prompt, parentMessageId, messageId, gptId, agentId, model, toolModel,
+                    useRag, ragQuery, ragTopK, idempotency, trace));
+            Object response = executeSyncMessage(userId, chatId, prepared, idempotency, trace);
+            chatTurnMetrics.finish(trace, prepared.getImmediateResponse() != null ? "immediate" : "success");
+            return response;
+        } catch (RuntimeException e) {
+            chatTurnMetrics.finish(trace, "error");
+            throw e;
+        }
+    }
+
+    private Object executeSyncMessage(Long userId,
+                                      String chatId,
+                                      PreparedSyncMessage prepared,
+                                      ChatIdempotencyGate idempotency,
+                                      ChatTurnTrace trace) {
         return chatSyncOrchestrationService.execute(prepared, idempotency, new ChatSyncOrchestrationService.ChatSyncCallbacks() {
             @Override
             public Object execute(PreparedSyncMessage preparedState, ChatIdempotencyGate gate) {
@@ -391,7 +427,7 @@ public class ChatServiceImpl extends ServiceImpl<MessageMapper, Message> impleme
                         assistantContent = agentRuntimeBridgeService.runSync(preparedState.getMessages(), preparedState.getFinalModel(),
                                 preparedState.getSessionAgent(), teamAgents, adapterRegistry, usageRecorder,
                                 userId, chatId, assistantMessageId);
-                        return finalizeSyncResponse(preparedState, gate, assistantMessageId, assistantContent);
+                        return finalizeSyncResponse(preparedState, gate, trace, assistantMessageId, assistantContent);
                     }
                     assistantContent = multiAgentOrchestrator.run(preparedState.getMessages(), preparedState.getFinalModel(), preparedState.getAdapter());
                 } else {
@@ -408,10 +444,10 @@ public class ChatServiceImpl extends ServiceImpl<MessageMapper, Message> impleme
                             preparedState.getFinalModel(),
                             assistantMessageId);
                     if (workflowResult != null && workflowResult.isHandled()) {
-                        return finalizeSyncResponse(preparedState, gate, assistantMessageId, workflowResult.getContent());
+                        return finalizeSyncResponse(preparedState, gate, trace, assistantMessageId, workflowResult.getContent());
                     }
                     assistantContent = preparedState.getAdapter().chat(preparedState.getMessages(), preparedState.getFinalModel());
-                    return finalizeSyncResponse(preparedState, gate, assistantMessageId, assistantContent);
+                    return finalizeSyncResponse(preparedState, gate, trace, assistantMessageId, assistantContent);
                 }
                 String assistantMessageId = UUID.randomUUID().toString();
                 inTransaction(() -> {
@@ -419,7 +455,7 @@ public class ChatServiceImpl extends ServiceImpl<MessageMapper, Message> impleme
                     chatWorkflowSupport.updateSessionStats(chatId, 1, assistantMessageId);
                     return null;
                 });
-                return finalizeSyncResponse(preparedState, gate, assistantMessageId, assistantContent);
+                return finalizeSyncResponse(preparedState, gate, trace, assistantMessageId, assistantContent);
             }
 
             @Override
@@ -464,7 +500,6 @@ public class ChatServiceImpl extends ServiceImpl<MessageMapper, Message> impleme
         if (userId == null) {
             throw new BusinessException(401, "Unauthorized");
         }
-        bloomFilterService.putRequest(userId, requestId);
         try {
             IdempotencyService.IdempotencyTicket ticket = idempotencyService.acquire(
                     userId, requestId, requestType, chatId, messageId, requestHash, regenerateDedupSeconds);
@@ -501,6 +536,13 @@ public class ChatServiceImpl extends ServiceImpl<MessageMapper, Message> impleme
         return idempotencyService.hashFor(parts);
     }
 
+    private String agentModeOf(Agent sessionAgent, boolean multiAgentEnabled) {
+        if (multiAgentEnabled) {
+            return "multi_agent";
+        }
+        return sessionAgent != null ? "agent" : "plain";
+    }
+
     private PreparedChatStream prepareChatStream(Long userId,
                                                  String chatId,
                                                  String prompt,
@@ -513,15 +555,18 @@ public class ChatServiceImpl extends ServiceImpl<MessageMapper, Message> impleme
                                                  Boolean useRag,
                                                  String ragQuery,
                                                  Integer ragTopK,
-                                                 ChatIdempotencyGate idempotency) {
+                                                 ChatIdempotencyGate idempotency,
+                                                 ChatTurnTrace trace) {
         Session session = chatSessionSupportService.getSession(chatId);
         chatSessionSupportService.applyToolModelUpdate(session, toolModel);
         String finalModel = chatSessionSupportService.resolveModelForSession(session, model);
         chatSessionSupportService.validateGptMatch(session, gptId);
         chatSessionSupportService.validateAgentMatch(session, agentId);
         String systemPrompt = chatSessionSupportService.resolveSystemPrompt(session);
+        trace.mark(ChatTurnTrace.STAGE_SESSION);
         ResolvedRagEvidence ragEvidence = chatContextService.resolveRagEvidence(session, userId, useRag, ragQuery, ragTopK, prompt);
         String ragContext = ragEvidence.getContext();
+        trace.mark(ChatTurnTrace.STAGE_RAG);
         String mergedPrompt = chatPromptService.mergeSystemPrompt(systemPrompt, ragContext);
         Agent sessionAgent = chatSessionSupportService.resolveAgentEntity(session);
         boolean multiAgentEnabled = chatSessionSupportService.isMultiAgentEnabled(sessionAgent);
@@ -562,7 +607,11 @@ public class ChatServiceImpl extends ServiceImpl<MessageMapper, Message> impleme
             return PreparedChatStream.immediate(content);
         }
         LlmAdapter adapter = adapterRegistry.getAdapter(finalModel);
+        trace.describe(finalModel, adapter.providerKey(), agentModeOf(sessionAgent, multiAgentEnabled),
+                ragContext != null && !ragContext.isBlank());
+        trace.mark(ChatTurnTrace.STAGE_PREPARE);
         List<LlmMessage> messages = chatContextService.buildContextMessages(userId, chatId, parentMessageId, prompt, finalModel, mergedPrompt);
+        trace.mark(ChatTurnTrace.STAGE_MEMORY_CONTEXT);
         String warning = buildLargeSessionWarning(session);
         String assistantMessageId = UUID.randomUUID().toString();
         chatWorkflowSupport.createAssistantPlaceholder(chatId, userMessageId, assistantMessageId, finalModel);
@@ -581,7 +630,8 @@ public class ChatServiceImpl extends ServiceImpl<MessageMapper, Message> impleme
                                                              Boolean useRag,
                                                              String ragQuery,
                                                              Integer ragTopK,
-                                                             ChatIdempotencyGate idempotency) {
+                                                             ChatIdempotencyGate idempotency,
+                                                             ChatTurnTrace trace) {
         Session session = chatSessionSupportService.getSession(chatId);
         chatSessionSupportService.applyToolModelUpdate(session, toolModel);
         String finalModel = chatSessionSupportService.resolveModelForSession(session, model);
@@ -610,8 +660,10 @@ public class ChatServiceImpl extends ServiceImpl<MessageMapper, Message> impleme
         String prompt = parentUser.getContent() == null ? "" : parentUser.getContent();
         String parentMessageId = parentUser.getParentMessageId();
         String systemPrompt = chatSessionSupportService.resolveSystemPrompt(session);
+        trace.mark(ChatTurnTrace.STAGE_SESSION);
         ResolvedRagEvidence ragEvidence = chatContextService.resolveRagEvidence(session, userId, useRag, ragQuery, ragTopK, prompt);
         String ragContext = ragEvidence.getContext();
+        trace.mark(ChatTurnTrace.STAGE_RAG);
         String mergedPrompt = chatPromptService.mergeSystemPrompt(systemPrompt, ragContext);
         Agent sessionAgent = chatSessionSupportService.resolveAgentEntity(session);
         boolean multiAgentEnabled = chatSessionSupportService.isMultiAgentEnabled(sessionAgent);
@@ -631,7 +683,11 @@ public class ChatServiceImpl extends ServiceImpl<MessageMapper, Message> impleme
             return PreparedRegenerateStream.immediate(content);
         }
         LlmAdapter adapter = adapterRegistry.getAdapter(finalModel);
+        trace.describe(finalModel, adapter.providerKey(), agentModeOf(sessionAgent, multiAgentEnabled),
+                ragContext != null && !ragContext.isBlank());
+        trace.mark(ChatTurnTrace.STAGE_PREPARE);
         List<LlmMessage> messages = chatContextService.buildContextMessages(userId, chatId, parentMessageId, prompt, finalModel, mergedPrompt);
+        trace.mark(ChatTurnTrace.STAGE_MEMORY_CONTEXT);
         String warning = buildLargeSessionWarning(session);
         return PreparedRegenerateStream.ready(session, finalModel, sessionAgent, multiAgentEnabled, bufferToolStream,
                 promptTokens, warning, newAssistantMessageId, parentUser.getMessageId(), adapter, messages);
@@ -649,15 +705,18 @@ public class ChatServiceImpl extends ServiceImpl<MessageMapper, Message> impleme
                                                    Boolean useRag,
                                                    String ragQuery,
                                                    Integer ragTopK,
-                                                   ChatIdempotencyGate idempotency) {
+                                                   ChatIdempotencyGate idempotency,
+                                                   ChatTurnTrace trace) {
         Session session = chatSessionSupportService.getSession(chatId);
         chatSessionSupportService.applyToolModelUpdate(session, toolModel);
         String finalModel = chatSessionSupportService.resolveModelForSession(session, model);
         chatSessionSupportService.validateGptMatch(session, gptId);
         chatSessionSupportService.validateAgentMatch(session, agentId);
         String systemPrompt = chatSessionSupportService.resolveSystemPrompt(session);
+        trace.mark(ChatTurnTrace.STAGE_SESSION);
         ResolvedRagEvidence ragEvidence = chatContextService.resolveRagEvidence(session, userId, useRag, ragQuery, ragTopK, prompt);
         String ragContext = ragEvidence.getContext();
+        trace.mark(ChatTurnTrace.STAGE_RAG);
         String mergedPrompt = chatPromptService.mergeSystemPrompt(systemPrompt, ragContext);
         Agent sessionAgent = chatSessionSupportService.resolveAgentEntity(session);
         boolean multiAgentEnabled = chatSessionSupportService.isMultiAgentEnabled(sessionAgent);
@@ -688,7 +747,11 @@ public class ChatServiceImpl extends ServiceImpl<MessageMapper, Message> impleme
             return PreparedSyncMessage.immediate(content);
         }
         LlmAdapter adapter = adapterRegistry.getAdapter(finalModel);
+        trace.describe(finalModel, adapter.providerKey(), agentModeOf(sessionAgent, multiAgentEnabled),
+                ragContext != null && !ragContext.isBlank());
+        trace.mark(ChatTurnTrace.STAGE_PREPARE);
         List<LlmMessage> messages = chatContextService.buildContextMessages(userId, chatId, parentMessageId, prompt, finalModel, mergedPrompt);
+        trace.mark(ChatTurnTrace.STAGE_MEMORY_CONTEXT);
         String warning = buildLargeSessionWarning(session);
         return PreparedSyncMessage.ready(session, chatId, finalModel, sessionAgent, multiAgentEnabled,
                 userMessageId, promptTokens, warning, adapter, messages, ragEvidence);
@@ -696,10 +759,13 @@ public class ChatServiceImpl extends ServiceImpl<MessageMapper, Message> impleme
 
     private Object finalizeSyncResponse(PreparedSyncMessage preparedState,
                                         ChatIdempotencyGate gate,
+                                        ChatTurnTrace trace,
                                         String assistantMessageId,
                                         String assistantContent) {
+        trace.mark(ChatTurnTrace.STAGE_GENERATION);
         String handled = chatToolSupportService.handleToolCallIfNeeded(preparedState.getSession(), preparedState.getMessages(),
                 assistantContent, preparedState.getFinalModel(), assistantMessageId);
+        trace.mark(ChatTurnTrace.STAGE_TOOL_FOLLOWUP);
         String finalContent = handled != null ? handled : assistantContent;
         var derivedCitations = ragCitationService.deriveCitations(finalContent, preparedState.getRagEvidence());
         GroundingAssessment groundingAssessment = null;
@@ -741,6 +807,7 @@ public class ChatServiceImpl extends ServiceImpl<MessageMapper, Message> impleme
         inTransaction(() -> {
             chatWorkflowSupport.markAssistantSucceeded(assistantMessageId, safeContent);
             int completionTokens = estimateCompletionTokens(safeContent);
+            trace.setCompletionTokens(completionTokens);
             recordConsumption(preparedState.getSession().getUserId(), preparedState.getChatId(), assistantMessageId,
                     preparedState.getFinalModel(), preparedState.getPromptTokens(), completionTokens);
             eventPublisher.publishEvent(new ChatMessageEvent(this, preparedState.getChatId()));
@@ -751,6 +818,7 @@ public class ChatServiceImpl extends ServiceImpl<MessageMapper, Message> impleme
                     preparedState.getUserMessageId(), assistantMessageId);
             return null;
         });
+        trace.mark(ChatTurnTrace.STAGE_PERSIST_AND_BILL);
         return responsePayload;
     }
 
@@ -1,24 +1,101 @@
 package com.harmony.backend.modules.chat.service.impl;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
 import com.harmony.backend.common.entity.ChatRequestIdempotency;
 import com.harmony.backend.common.mapper.ChatRequestIdempotencyMapper;
 import com.harmony.backend.modules.chat.service.IdempotencyService;
+import com.harmony.backend.modules.chat.support.ChatBloomFilterService;
 import com.harmony.backend.modules.chat.support.IdempotencyStatus;
-import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
 import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
 import org.springframework.stereotype.Service;
 
 import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 
 @Service
-@RequiredArgsConstructor
+@Slf4j
 public class IdempotencyServiceImpl implements IdempotencyService {
 
+    private static final String REQUEST_KEY_PREFIX = "chat:idem:req:";
+    private static final String REGENERATE_KEY_PREFIX = "chat:idem:regen:";
+    private static final String STATUS_NEW = "NEW";
+    private static final String STATUS_RETRY = "RETRY";
+    private static final String STATUS_CONFLICT = "CONFLICT";
+    private static final String STORED_IN_DATABASE = "db";
+    private static final String FIELD_STATUS = "status";
+    private static final String FIELD_HASH = "hash";
+    private static final String FIELD_CHAT_ID = "chatId";
+    private static final String FIELD_MESSAGE_ID = "messageId";
+    private static final String FIELD_RESPONSE_MESSAGE_ID = "responseMessageId";
+    private static final String FIELD_RESPONSE = "response";
+    private static final String FIELD_STORED = "stored";
+    private static final String FIELD_ERROR = "error";
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private static final DefaultRedisScript<List<String>> ACQUIRE_SCRIPT = new DefaultRedisScript(
+            """
+            local key = KEYS[1]
+            if redis.call('EXISTS', key) == 0 then
+                redis.call('HSET', key, 'status', 'PENDING', 'hash', ARGV[1], 'type', ARGV[2],
+                        'chatId', ARGV[3], 'messageId', ARGV[4])
+                redis.call('PEXPIRE', key, ARGV[5])
+                return {'NEW'}
+            end
+            local fields = redis.call('HMGET', key, 'status', 'hash', 'response', 'stored')
+            local status = fields[1]
+            local hash = fields[2]
+            if ARGV[1] ~= '' and hash and hash ~= '' and hash ~= ARGV[1] then
+                return {'CONFLICT'}
+            end
+            if status == 'FAILED' or status == 'INTERRUPTED' then
+                redis.call('HSET', key, 'status', 'PENDING')
+                redis.call('HDEL', key, 'error')
+                redis.call('PEXPIRE', key, ARGV[5])
+                return {'RETRY'}
+            end
+            if status == 'DONE' then
+                return {'DONE', fields[3] or '', fields[4] or ''}
+            end
+            return {'PENDING'}
+            """, List.class);
+
     private final ChatRequestIdempotencyMapper chatRequestIdempotencyMapper;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final ChatBloomFilterService bloomFilterService;
+    private final Executor taskExecutor;
+    private final Duration pendingTtl;
+    private final Duration doneTtl;
+    private final int maxInlineResponseChars;
+
+    public IdempotencyServiceImpl(ChatRequestIdempotencyMapper chatRequestIdempotencyMapper,
+                                  StringRedisTemplate stringRedisTemplate,
+                                  ChatBloomFilterService bloomFilterService,
+                                  @Qualifier("taskExecutor") Executor taskExecutor,
+                                  @Value("${app.chat.idempotency.pending-ttl-seconds:1800}") long pendingTtlSeconds,
+                                  @Value("${app.chat.idempotency.done-ttl-seconds:86400}") long doneTtlSeconds,
+                                  @Value("${app.chat.idempotency.max-inline-response-chars:65536}") int maxInlineResponseChars) {
+        this.chatRequestIdempotencyMapper = chatRequestIdempotencyMapper;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.bloomFilterService = bloomFilterService;
+        this.taskExecutor = taskExecutor;
+        this.pendingTtl = Duration.ofSeconds(Math.max(1, pendingTtlSeconds));
+        this.doneTtl = Duration.ofSeconds(Math.max(1, doneTtlSeconds));
+        this.maxInlineResponseChars = Math.max(0, maxInlineResponseChars);
+    }
 
     @Override
     public IdempotencyTicket acquire(Long userId, String requestId, String requestType,
@@ -26,6 +103,68 @@ public class IdempotencyServiceImpl implements IdempotencyService {
         if (requestId == null || requestId.isBlank()) {
             return new IdempotencyTicket(null, null, false);
         }
+        try {
+            return acquireFromRedis(userId, requestId, requestType, chatId, messageId, requestHash, regenerateDedupSeconds);
+        } catch (DataAccessException e) {
+            log.warn("Idempotency Redis path unavailable, using database: userId={}, requestId={}, error={}",
+                    userId, requestId, e.getMessage());
+            return acquireFromDatabase(userId, requestId, requestType, chatId, messageId, requestHash, regenerateDedupSeconds);
+        }
+    }
+
+    private IdempotencyTicket acquireFromRedis(Long userId, String requestId, String requestType,
+                                               String chatId, String messageId, String requestHash,
+                                               int regenerateDedupSeconds) {
+        if ("REGENERATE_STREAM".equals(requestType) && regenerateDedupSeconds > 0 && requestHash != null) {
+            IdempotencyTicket merged = tryMergeRecentRegenerateInRedis(userId, requestId, requestType, requestHash, regenerateDedupSeconds);
+            if (merged != null) {
+                return merged;
+            }
+        }
+        String key = requestKey(userId, requestId);
+        List<String> result = stringRedisTemplate.execute(ACQUIRE_SCRIPT, List.of(key),
+                nullToEmpty(requestHash), nullToEmpty(requestType), nullToEmpty(chatId), nullToEmpty(messageId),
+                String.valueOf(pendingTtl.toMillis()));
+        String outcome = result == null || result.isEmpty() ? STATUS_NEW : result.get(0);
+        ChatRequestIdempotency record = ChatRequestIdempotency.builder()
+                .userId(userId)
+                .requestId(requestId)
+                .requestType(requestType)
+                .chatId(chatId)
+                .messageId(messageId)
+                .requestHash(requestHash)
+                .status(IdempotencyStatus.PENDING)
+                .build();
+        switch (outcome) {
+            case STATUS_NEW -> {
+                IdempotencyTicket durable = findDurableReplay(key, userId, requestId, requestHash);
+                if (durable != null) {
+                    return durable;
+                }
+                bloomFilterService.putRequest(userId, requestId);
+                return new IdempotencyTicket(record, null, false);
+            }
+            case STATUS_CONFLICT -> throw new IllegalStateException("requestId already used with different payload");
+            case STATUS_RETRY -> {
+                return new IdempotencyTicket(record, null, false);
+            }
+            case IdempotencyStatus.DONE -> {
+                record.setStatus(IdempotencyStatus.DONE);
+                String response = result.size() > 1 ? result.get(1) : "";
+                if (result.size() > 2 && STORED_IN_DATABASE.equals(result.get(2))) {
+                    response = loadDurableResponse(userId, requestId);
+                }
+                return new IdempotencyTicket(record, response == null ? "" : response, false);
+            }
+            default -> {
+                return new IdempotencyTicket(record, null, true);
+            }
+        }
+    }
+
+    private IdempotencyTicket acquireFromDatabase(Long userId, String requestId, String requestType,
+                                                  String chatId, String messageId, String requestHash,
+                                                  int regenerateDedupSeconds) {
         ChatRequestIdempotency record = chatRequestIdempotencyMapper.selectOne(
                 new LambdaQueryWrapper<ChatRequestIdempotency>()
                         .eq(ChatRequestIdempotency::getUserId, userId)
@@ -86,6 +225,10 @@ public class IdempotencyServiceImpl implements IdempotencyService {
         if (record == null) {
             return;
         }
+        if (record.getId() == null) {
+            markDoneInRedis(record, responseContent, chatId, messageId, responseMessageId);
+            return;
+        }
         ChatRequestIdempotency update = new ChatRequestIdempotency();
         update.setId(record.getId());
         update.setStatus(IdempotencyStatus.DONE);
@@ -102,6 +245,10 @@ public class IdempotencyServiceImpl implements IdempotencyService {
         if (record == null) {
             return;
         }
+        if (record.getId() == null) {
+            markUnfinishedInRedis(record, IdempotencyStatus.FAILED, errorMessage);
+            return;
+        }
         ChatRequestIdempotency update = new ChatRequestIdempotency();
         update.setId(record.getId());
         update.setStatus(IdempotencyStatus.FAILED);
@@ -114,6 +261,10 @@ public class IdempotencyServiceImpl implements IdempotencyService {
         if (record == null) {
             return;
         }
+        if (record.getId() == null) {
+            markUnfinishedInRedis(record, IdempotencyStatus.INTERRUPTED, errorMessage);
+            return;
+        }
         ChatRequestIdempotency update = new ChatRequestIdempotency();
         update.setId(record.getId());
         update.setStatus(IdempotencyStatus.INTERRUPTED);
@@ -164,6 +315,185 @@ public class IdempotencyServiceImpl implements IdempotencyService {
         return null;
     }
 
+    private IdempotencyTicket tryMergeRecentRegenerateInRedis(Long userId, String requestId, String requestType,
+                                                              String requestHash, int regenerateDedupSeconds) {
+        String dedupKey = REGENERATE_KEY_PREFIX + userId + ":" + requestType + ":" + requestHash;
+        Boolean claimed = stringRedisTemplate.opsForValue()
+                .setIfAbsent(dedupKey, requestId, Duration.ofSeconds(regenerateDedupSeconds));
+        if (Boolean.TRUE.equals(claimed)) {
+            return null;
+        }
+        String latestRequestId = stringRedisTemplate.opsForValue().get(dedupKey);
+        if (latestRequestId == null || latestRequestId.equals(requestId)) {
+            return null;
+        }
+        Map<Object, Object> latest = stringRedisTemplate.opsForHash().entries(requestKey(userId, latestRequestId));
+        Object status = latest.get(FIELD_STATUS);
+        ChatRequestIdempotency record = ChatRequestIdempotency.builder()
+                .userId(userId)
+                .requestId(latestRequestId)
+                .requestType(requestType)
+                .requestHash(requestHash)
+                .build();
+        if (IdempotencyStatus.DONE.equals(status)) {
+            record.setStatus(IdempotencyStatus.DONE);
+            Object response = STORED_IN_DATABASE.equals(latest.get(FIELD_STORED))
+                    ? loadDurableResponse(userId, latestRequestId)
+                    : latest.get(FIELD_RESPONSE);
+            return new IdempotencyTicket(record, response == null ? "" : String.valueOf(response), false);
+        }
+        if (IdempotencyStatus.PENDING.equals(status)) {
+            record.setStatus(IdempotencyStatus.PENDING);
+            return new IdempotencyTicket(record, null, true);
+        }
+        return null;
+    }
+
+    private IdempotencyTicket findDurableReplay(String key, Long userId, String requestId, String requestHash) {
+        // Retries may land on another node, or arrive after the Redis done-key expired, so MySQL
+        // is the source of truth. Only the shared Redis Bloom filter (the default mode) has seen
+        // every node's requests and can vouch that a requestId is brand new.
+        if (bloomFilterService.isRequestFilterShared() && !bloomFilterService.mightContainRequest(userId, requestId)) {
+            return null;
+        }
+        ChatRequestIdempotency durable = chatRequestIdempotencyMapper.selectOne(
+                new LambdaQueryWrapper<ChatRequestIdempotency>()
+                        .eq(ChatRequestIdempotency::getUserId, userId)
+                        .eq(ChatRequestIdempotency::getRequestId, requestId)
+                        .last("limit 1"));
+        if (durable == null || !IdempotencyStatus.DONE.equalsIgnoreCase(durable.getStatus())) {
+            return null;
+        }
+        if (durable.getRequestHash() != null && requestHash != null && !requestHash.equals(durable.getRequestHash())) {
+            stringRedisTemplate.delete(key);
+            throw new IllegalStateException("requestId already used with different payload");
+        }
+        String response = durable.getResponseContent() == null ? "" : durable.getResponseContent();
+        writeDone(key, durable.getRequestHash(), durable.getChatId(), durable.getMessageId(),
+                durable.getResponseMessageId(), response, true);
+        durable.setId(null);
+        return new IdempotencyTicket(durable, response, false);
+    }
+
+    private void markDoneInRedis(ChatRequestIdempotency record, String responseContent,
+                                 String chatId, String messageId, String responseMessageId) {
+        ChatRequestIdempotency durable = ChatRequestIdempotency.builder()
+                .userId(record.getUserId())
+                .requestId(record.getRequestId())
+                .requestType(record.getRequestType())
+                .chatId(chatId)
+                .messageId(messageId)
+                .requestHash(record.getRequestHash())
+                .status(IdempotencyStatus.DONE)
+                .responseMessageId(responseMessageId)
+                .responseContent(responseContent)
+                .build();
+        boolean large = responseContent != null && responseContent.length() > maxInlineResponseChars;
+        // Large replays live only in MySQL, so Redis may point at the row only once it exists;
+        // when the insert fails the response stays inline instead.
+        boolean storedInDatabase = large && persistDone(durable);
+        try {
+            writeDone(requestKey(record.getUserId(), record.getRequestId()), record.getRequestHash(),
+                    chatId, messageId, responseMessageId, responseContent, storedInDatabase);
+        } catch (DataAccessException e) {
+            log.warn("Idempotency Redis done write failed, persisting inline: requestId={}, error={}",
+                    record.getRequestId(), e.getMessage());
+            if (!storedInDatabase) {
+                persistDone(durable);
+            }
+            return;
+        }
+        if (!storedInDatabase) {
+            persistDoneAsync(durable);
+        }
+    }
+
+    private void markUnfinishedInRedis(ChatRequestIdempotency record, String status, String errorMessage) {
+        String key = requestKey(record.getUserId(), record.getRequestId());
+        try {
+            Map<String, String> fields = new HashMap<>();
+            fields.put(FIELD_STATUS, status);
+            fields.put(FIELD_ERROR, nullToEmpty(trimError(errorMessage)));
+            stringRedisTemplate.opsForHash().putAll(key, fields);
+            stringRedisTemplate.expire(key, pendingTtl);
+        } catch (DataAccessException e) {
+            log.warn("Idempotency Redis status write failed: requestId={}, status={}, error={}",
+                    record.getRequestId(), status, e.getMessage());
+        }
+    }
+
+    private void writeDone(String key, String requestHash, String chatId, String messageId,
+                           String responseMessageId, String responseContent, boolean storedInDatabase) {
+        Map<String, String> fields = new HashMap<>();
+        fields.put(FIELD_STATUS, IdempotencyStatus.DONE);
+        fields.put(FIELD_HASH, nullToEmpty(requestHash));
+        fields.put(FIELD_CHAT_ID, nullToEmpty(chatId));
+        fields.put(FIELD_MESSAGE_ID, nullToEmpty(messageId));
+        fields.put(FIELD_RESPONSE_MESSAGE_ID, nullToEmpty(responseMessageId));
+        fields.put(FIELD_RESPONSE, storedInDatabase ? "" : nullToEmpty(responseContent));
+        fields.put(FIELD_STORED, storedInDatabase ? STORED_IN_DATABASE : "");
+        stringRedisTemplate.opsForHash().putAll(key, fields);
+        stringRedisTemplate.opsForHash().delete(key, FIELD_ERROR);
+        stringRedisTemplate.expire(key, doneTtl);
+    }
+
+    private void persistDoneAsync(ChatRequestIdempotency durable) {
+        try {
+            taskExecutor.execute(() -> persistDone(durable));
+        } catch (RejectedExecutionException e) {
+            persistDone(durable);
+        }
+    }
+
+    /**
+     * @return whether the DONE row is in MySQL
+     */
+    private boolean persistDone(ChatRequestIdempotency durable) {
+        try {
+            chatRequestIdempotencyMapper.insert(durable);
+            return true;
+        } catch (DuplicateKeyException e) {
+            return persistDoneUpdate(durable);
+        } catch (Exception e) {
+            log.warn("Idempotency durable write failed: requestId={}, error={}", durable.getRequestId(), e.getMessage());
+            return false;
+        }
+    }
+
+    private boolean persistDoneUpdate(ChatRequestIdempotency durable) {
+        try {
+            return chatRequestIdempotencyMapper.update(null, new LambdaUpdateWrapper<ChatRequestIdempotency>()
+                    .eq(ChatRequestIdempotency::getUserId, durable.getUserId())
+                    .eq(ChatRequestIdempotency::getRequestId, durable.getRequestId())
+                    .set(ChatRequestIdempotency::getStatus, IdempotencyStatus.DONE)
+                    .set(ChatRequestIdempotency::getChatId, durable.getChatId())
+                    .set(ChatRequestIdempotency::getMessageId, durable.getMessageId())
+                    .set(ChatRequestIdempotency::getResponseMessageId, durable.getResponseMessageId())
+                    .set(ChatRequestIdempotency::getResponseContent, durable.getResponseContent())
+                    .set(ChatRequestIdempotency::getErrorMessage, null)) > 0;
+        } catch (Exception e) {
+            log.warn("Idempotency durable write failed: requestId={}, error={}", durable.getRequestId(), e.getMessage());
+            return false;
+        }
+    }
+
+    private String loadDurableResponse(Long userId, String requestId) {
+        ChatRequestIdempotency durable = chatRequestIdempotencyMapper.selectOne(
+                new LambdaQueryWrapper<ChatRequestIdempotency>()
+                        .eq(ChatRequestIdempotency::getUserId, userId)
+                        .eq(ChatRequestIdempotency::getRequestId, requestId)
+                        .last("limit 1"));
+        return durable != null ? durable.getResponseContent() : null;
+    }
+
+    private String requestKey(Long userId, String requestId) {
+        return REQUEST_KEY_PREFIX + userId + ":" + requestId;
+    }
+
+    private String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
+
     private String trimError(String errorMessage) {
         if (errorMessage == null) {
             return null;
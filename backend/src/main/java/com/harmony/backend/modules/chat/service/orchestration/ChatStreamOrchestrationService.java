@@ -2,6 +2,10 @@ package com.harmony.backend.modules.chat.service.orchestration;
 
 import com.harmony.backend.modules.chat.service.orchestration.model.ChatIdempotencyGate;
 import com.harmony.backend.modules.chat.service.orchestration.model.PreparedChatStream;
+import com.harmony.backend.common.util.TokenCounter;
+import com.harmony.backend.modules.chat.support.trace.ChatTurnMetrics;
+import com.harmony.backend.modules.chat.support.trace.ChatTurnTrace;
+import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import reactor.core.Disposable;
 import reactor.core.publisher.Flux;
@@ -13,12 +17,17 @@ import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
 
 @Service
+@RequiredArgsConstructor
 public class ChatStreamOrchestrationService {
 
+    private final ChatTurnMetrics chatTurnMetrics;
+
     public Flux<String> execute(PreparedChatStream prepared,
                                 ChatIdempotencyGate idempotency,
                                 ChatStreamCallbacks callbacks) {
+        ChatTurnTrace trace = prepared.getTrace() != null ? prepared.getTrace() : chatTurnMetrics.start("chat", null);
         if (prepared.getImmediateResponse() != null) {
+            chatTurnMetrics.finish(trace, "immediate");
             return Flux.just(prepared.getImmediateResponse());
         }
         Flux<String> sourceStream = callbacks.createSourceStream(prepared);
@@ -29,10 +38,12 @@ public class ChatStreamOrchestrationService {
         Flux<String> stream = Flux.create(sink -> {
             AtomicBoolean finalized = new AtomicBoolean(false);
             AtomicBoolean streamingMarked = new AtomicBoolean(false);
+            trace.streamStarted();
             Disposable disposable = sourceStream.subscribe(
                     chunk -> {
                         assistantBuffer.get().append(chunk);
                         if (streamingMarked.compareAndSet(false, true)) {
+                            trace.firstToken();
                             callbacks.onStreamingStart(prepared);
                         }
                         String current = assistantBuffer.get().toString().trim();
@@ -46,40 +57,56 @@ public class ChatStreamOrchestrationService {
                             sink.next(chunk);
                         }
                     },
-                    error -> Mono.fromRunnable(() -> callbacks.onFailure(prepared, idempotency, assistantBuffer.get().toString(), error))
+                    error -> Mono.fromRunnable(() -> {
+                                trace.streamEnded();
+                                callbacks.onFailure(prepared, idempotency, assistantBuffer.get().toString(), error);
+                            })
                             .subscribeOn(Schedulers.boundedElastic())
                             .doFinally(signal -> {
+                                chatTurnMetrics.finish(trace, "error");
                                 if (finalized.compareAndSet(false, true)) {
                                     sink.error(error);
                                 }
                             })
                             .subscribe(),
-                    () -> Mono.fromRunnable(() -> {
-                                String assistantContent = assistantBuffer.get().toString();
-                                String finalContent = callbacks.resolveFinalContent(prepared, assistantContent);
-                                if (prepared.isBufferToolStream() || toolSuspected.get() || toolCallDetected.get()) {
-                                    callbacks.emitChunked(sink, finalContent);
-                                }
-                                callbacks.onSuccess(prepared, idempotency, finalContent);
-                            })
-                            .subscribeOn(Schedulers.boundedElastic())
-                            .doOnError(error -> {
-                                callbacks.onFailure(prepared, idempotency, assistantBuffer.get().toString(), error);
-                                if (finalized.compareAndSet(false, true)) {
-                                    sink.error(error);
-                                }
-                            })
-                            .doOnSuccess(v -> {
-                                if (finalized.compareAndSet(false, true)) {
-                                    sink.complete();
-                                }
-                            })
-                            .subscribe()
+                    () -> {
+                        trace.streamEnded();
+                        String assistantContent = assistantBuffer.get().toString();
+                        // The tool follow-up waits on the model without a thread; only persisting runs on boundedElastic.
+                        trace.time(ChatTurnTrace.STAGE_TOOL_FOLLOWUP,
+                                Mono.defer(() -> callbacks.resolveFinalContent(prepared, assistantContent)))
+                                .defaultIfEmpty(assistantContent)
+                                .publishOn(Schedulers.boundedElastic())
+                                .doOnNext(finalContent -> {
+                                    if (prepared.isBufferToolStream() || toolSuspected.get() || toolCallDetected.get()) {
+                                        callbacks.emitChunked(sink, finalContent);
+                                    }
+                                    trace.setCompletionTokens(TokenCounter.estimateTokens(finalContent));
+                                    trace.time(ChatTurnTrace.STAGE_PERSIST_AND_BILL,
+                                            () -> callbacks.onSuccess(prepared, idempotency, finalContent));
+                                })
+                                .then()
+                                .doOnError(error -> {
+                                    callbacks.onFailure(prepared, idempotency, assistantBuffer.get().toString(), error);
+                                    chatTurnMetrics.finish(trace, "error");
+                                    if (finalized.compareAndSet(false, true)) {
+                                        sink.error(error);
+                                    }
+                                })
+                                .doOnSuccess(v -> {
+                                    chatTurnMetrics.finish(trace, "success");
+                                    if (finalized.compareAndSet(false, true)) {
+                                        sink.complete();
+                                    }
+                                })
+                                .subscribe();
+                    }
             );
             sink.onCancel(() -> {
                 disposable.dispose();
                 if (finalized.compareAndSet(false, true)) {
                     callbacks.onCancel(prepared, idempotency, assistantBuffer.get().toString());
+                    chatTurnMetrics.finish(trace, "cancelled");
                 }
             });
         });
@@ -95,7 +122,10 @@ public class ChatStreamOrchestrationService {
 
         void onStreamingStart(PreparedChatStream prepared);
 
-        String resolveFinalContent(PreparedChatStream prepared, String assistantContent);
+        /**
+         * Final answer for the turn; must not block, since it is composed into the completion pipeline.
+         */
+        Mono<String> resolveFinalContent(PreparedChatStream prepared, String assistantContent);
 
         void onSuccess(PreparedChatStream prepared, ChatIdempotencyGate gate, String finalContent);
 
@@ -4,6 +4,7 @@ import com.harmony.backend.common.entity.Agent;
 import com.harmony.backend.common.entity.Session;
 import com.harmony.backend.modules.chat.adapter.LlmAdapter;
 import com.harmony.backend.modules.chat.adapter.LlmMessage;
+import com.harmony.backend.modules.chat.support.trace.ChatTurnTrace;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 
@@ -24,9 +25,10 @@ public class PreparedChatStream {
     private List<LlmMessage> messages;
     private String assistantMessageId;
     private String immediateResponse;
+    private ChatTurnTrace trace;
 
     public static PreparedChatStream immediate(String response) {
-        return new PreparedChatStream(null, null, null, false, false, null, 0, null, null, null, null, response);
+        return new PreparedChatStream(null, null, null, false, false, null, 0, null, null, null, null, response, null);
     }
 
     public static PreparedChatStream ready(Session session, String finalModel, Agent sessionAgent,
@@ -34,6 +36,6 @@ public class PreparedChatStream {
                                            int promptTokens, String warning, LlmAdapter adapter,
                                            List<LlmMessage> messages, String assistantMessageId) {
         return new PreparedChatStream(session, finalModel, sessionAgent, multiAgentEnabled, bufferToolStream,
-                userMessageId, promptTokens, warning, adapter, messages, assistantMessageId, null);
+                userMessageId, promptTokens, warning, adapter, messages, assistantMessageId, null, null);
     }
 }
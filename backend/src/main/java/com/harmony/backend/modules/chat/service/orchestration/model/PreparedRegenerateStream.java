@@ -4,6 +4,7 @@ import com.harmony.backend.common.entity.Agent;
 import com.harmony.backend.common.entity.Session;
 import com.harmony.backend.modules.chat.adapter.LlmAdapter;
 import com.harmony.backend.modules.chat.adapter.LlmMessage;
+import com.harmony.backend.modules.chat.support.trace.ChatTurnTrace;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 
@@ -24,9 +25,10 @@ public class PreparedRegenerateStream {
     private LlmAdapter adapter;
     private List<LlmMessage> messages;
     private String immediateResponse;
+    private ChatTurnTrace trace;
 
     public static PreparedRegenerateStream immediate(String response) {
-        return new PreparedRegenerateStream(null, null, null, false, false, 0, null, null, null, null, null, response);
+        return new PreparedRegenerateStream(null, null, null, false, false, 0, null, null, null, null, null, response, null);
     }
 
     public static PreparedRegenerateStream ready(Session session, String finalModel, Agent sessionAgent,
@@ -34,6 +36,6 @@ public class PreparedRegenerateStream {
                                                  String warning, String newAssistantMessageId, String parentUserMessageId,
                                                  LlmAdapter adapter, List<LlmMessage> messages) {
         return new PreparedRegenerateStream(session, finalModel, sessionAgent, multiAgentEnabled, bufferToolStream,
-                promptTokens, warning, newAssistantMessageId, parentUserMessageId, adapter, messages, null);
+                promptTokens, warning, newAssistantMessageId, parentUserMessageId, adapter, messages, null, null);
     }
 }
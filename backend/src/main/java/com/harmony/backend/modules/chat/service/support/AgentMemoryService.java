@@ -1,8 +1,12 @@
 package com.harmony.backend.modules.chat.service.support;
 
+import com.harmony.backend.modules.chat.service.support.model.MemoryContext;
+
 public interface AgentMemoryService {
     String buildMemoryContext(Long userId, String chatId);
 
+    MemoryContext loadMemoryContext(Long userId, String chatId);
+
     void updateMemoryAfterTurn(Long userId, String chatId, String userPrompt, String assistantContent, String assistantMessageId);
 
     void recordSkillExecution(Long userId,
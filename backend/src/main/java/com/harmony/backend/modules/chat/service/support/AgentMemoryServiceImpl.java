@@ -2,6 +2,9 @@ package com.harmony.backend.modules.chat.service.support;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.harmony.backend.common.cache.NearCache;
+import com.harmony.backend.common.cache.NearCacheManager;
+import com.harmony.backend.common.cache.NearCacheNames;
 import com.harmony.backend.common.entity.ConversationSummary;
 import com.harmony.backend.common.entity.Message;
 import com.harmony.backend.common.entity.TaskState;
@@ -13,10 +16,14 @@ import com.harmony.backend.common.mapper.UserMemoryMapper;
 import com.harmony.backend.modules.chat.adapter.LlmAdapter;
 import com.harmony.backend.modules.chat.adapter.LlmAdapterRegistry;
 import com.harmony.backend.modules.chat.adapter.LlmMessage;
-import lombok.RequiredArgsConstructor;
+import com.harmony.backend.modules.chat.service.support.model.MemoryContext;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.util.StringUtils;
 
 import java.time.Duration;
@@ -28,12 +35,16 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.UnaryOperator;
 
 @Service
 @Slf4j
-@RequiredArgsConstructor
 public class AgentMemoryServiceImpl implements AgentMemoryService {
 
+    private static final int USER_MEMORY_CONTEXT_LIMIT = 8;
+
     private static final Set<String> USER_MEMORY_SIGNAL_KEYWORDS = Set.of(
             "answer in chinese", "answer in english", "please use chinese", "please use english",
             "\u4e2d\u6587\u56de\u7b54", "\u82f1\u6587\u56de\u7b54", "\u8bf7\u7528\u4e2d\u6587", "\u8bf7\u7528\u82f1\u6587",
@@ -54,6 +65,11 @@ public class AgentMemoryServiceImpl implements AgentMemoryService {
     private final MessageMapper messageMapper;
     private final ObjectMapper objectMapper;
     private final LlmAdapterRegistry adapterRegistry;
+    private final NearCacheManager nearCacheManager;
+    private final Executor taskExecutor;
+
+    private NearCache<ChatMemory> chatContexts;
+    private NearCache<UserMemories> userContexts;
 
     @Value("${app.memory.summary-model:deepseek-chat}")
     private String summaryModel;
@@ -79,55 +95,90 @@ public class AgentMemoryServiceImpl implements AgentMemoryService {
     @Value("${app.memory.task-state-min-refresh-seconds:45}")
     private int taskStateMinRefreshSeconds;
 
+    @Value("${app.memory.context-cache.max-entries:20000}")
+    private long contextCacheMaxEntries;
+
+    @Value("${app.memory.context-cache.ttl-ms:1800000}")
+    private long contextCacheTtlMs;
+
+    public AgentMemoryServiceImpl(ConversationSummaryMapper conversationSummaryMapper,
+                                  UserMemoryMapper userMemoryMapper,
+                                  TaskStateMapper taskStateMapper,
+                                  MessageMapper messageMapper,
+                                  ObjectMapper objectMapper,
+                                  LlmAdapterRegistry adapterRegistry,
+                                  NearCacheManager nearCacheManager,
+                                  @Qualifier("taskExecutor") Executor taskExecutor) {
+        this.conversationSummaryMapper = conversationSummaryMapper;
+        this.userMemoryMapper = userMemoryMapper;
+        this.taskStateMapper = taskStateMapper;
+        this.messageMapper = messageMapper;
+        this.objectMapper = objectMapper;
+        this.adapterRegistry = adapterRegistry;
+        this.nearCacheManager = nearCacheManager;
+        this.taskExecutor = taskExecutor;
+    }
+
+    @PostConstruct
+    public void initCaches() {
+        Duration ttl = Duration.ofMillis(Math.max(1000, contextCacheTtlMs));
+        chatContexts = nearCacheManager.<ChatMemory>builder(NearCacheNames.MEMORY_CHAT_CONTEXT)
+                .maximumSize(contextCacheMaxEntries)
+                .expireAfterWrite(ttl)
+                .loader(this::loadChatMemory)
+                .build();
+        userContexts = nearCacheManager.<UserMemories>builder(NearCacheNames.MEMORY_USER_CONTEXT)
+                .maximumSize(contextCacheMaxEntries)
+                .expireAfterWrite(ttl)
+                .loader(this::loadUserMemories)
+                .build();
+    }
+
     @Override
     public String buildMemoryContext(Long userId, String chatId) {
-        List<String> sections = new ArrayList<>();
-
-        ConversationSummary summary = findConversationSummary(chatId);
-        if (summary != null && StringUtils.hasText(summary.getSummary())) {
-            sections.add("Conversation summary:\n" + summary.getSummary().trim());
-        }
-
-        List<UserMemory> memories = listUserMemories(userId);
-        if (!memories.isEmpty()) {
-            StringBuilder sb = new StringBuilder("User memory:\n");
-            for (UserMemory memory : memories) {
-                sb.append("- ")
-                        .append(memory.getMemoryKey())
-                        .append(": ")
-                        .append(memory.getMemoryValue())
-                        .append('\n');
-            }
-            sections.add(sb.toString().trim());
-        }
-
-        TaskState taskState = findActiveTaskState(chatId);
-        if (taskState != null) {
-            StringBuilder sb = new StringBuilder("Task state:\n");
-            if (StringUtils.hasText(taskState.getGoal())) {
-                sb.append("- goal: ").append(taskState.getGoal()).append('\n');
-            }
-            if (StringUtils.hasText(taskState.getCurrentSkill())) {
-                sb.append("- current_skill: ").append(taskState.getCurrentSkill()).append('\n');
-            }
-            if (StringUtils.hasText(taskState.getCurrentStep())) {
-                sb.append("- current_step: ").append(taskState.getCurrentStep()).append('\n');
-            }
-            if (StringUtils.hasText(taskState.getStatus())) {
-                sb.append("- status: ").append(taskState.getStatus()).append('\n');
-            }
-            appendTaskArtifacts(sb, taskState.getArtifactsJson());
-            sections.add(sb.toString().trim());
-        }
-
-        if (sections.isEmpty()) {
-            return "";
-        }
-        return String.join("\n\n", sections);
+        return loadMemoryContext(userId, chatId).text();
     }
 
+    @Override
+    public MemoryContext loadMemoryContext(Long userId, String chatId) {
+        ChatMemory chat = StringUtils.hasText(chatId) ? chatContexts.get(chatId) : null;
+        UserMemories user = userId != null ? userContexts.get(String.valueOf(userId)) : null;
+        if (chat == null && user == null) {
+            return MemoryContext.EMPTY;
+        }
+        return new MemoryContext(chat == null ? null : chat.summary(),
+                user == null ? null : user.section(),
+                chat == null ? null : chat.taskState());
+    }
+
+    /**
+     * Summaries and extractions call the model, so the update runs on the background executor
+     * instead of holding the caller's completion thread and transaction; inside a transaction it is
+     * dispatched after commit so it sees the turn's messages. Memory is best effort: when the
+     * executor is saturated the update is skipped.
+     */
     @Override
     public void updateMemoryAfterTurn(Long userId, String chatId, String userPrompt, String assistantContent, String assistantMessageId) {
+        Runnable dispatch = () -> {
+            try {
+                taskExecutor.execute(() -> updateMemory(userId, chatId, userPrompt, assistantContent, assistantMessageId));
+            } catch (RejectedExecutionException e) {
+                log.warn("Memory update skipped, executor saturated: chatId={}, userId={}", chatId, userId);
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    dispatch.run();
+                }
+            });
+        } else {
+            dispatch.run();
+        }
+    }
+
+    private void updateMemory(Long userId, String chatId, String userPrompt, String assistantContent, String assistantMessageId) {
         try {
             maybeUpsertConversationSummary(userId, chatId, assistantMessageId);
             maybeInferAndUpsertUserMemory(userId, userPrompt);
@@ -210,6 +261,8 @@ public class AgentMemoryServiceImpl implements AgentMemoryService {
                     .summary(summaryText)
                     .lastMessageId(lastMessageId)
                     .build());
+            MemoryContext.Section section = summarySection(summaryText);
+            patchChatMemory(chatId, cached -> new ChatMemory(section, cached.taskState()));
             return;
         }
         if (normalizedEquals(existing.getSummary(), summaryText) && Objects.equals(existing.getLastMessageId(), lastMessageId)) {
@@ -219,6 +272,8 @@ public class AgentMemoryServiceImpl implements AgentMemoryService {
         existing.setSummary(summaryText);
         existing.setLastMessageId(lastMessageId);
         conversationSummaryMapper.updateById(existing);
+        MemoryContext.Section section = summarySection(summaryText);
+        patchChatMemory(chatId, cached -> new ChatMemory(section, cached.taskState()));
     }
 
     private boolean shouldRefreshSummary(ConversationSummary existing, List<Message> recent) {
@@ -507,9 +562,99 @@ public class AgentMemoryServiceImpl implements AgentMemoryService {
     private void saveTaskState(TaskState taskState) {
         if (taskState.getId() == null) {
             taskStateMapper.insert(taskState);
+        } else {
+            taskStateMapper.updateById(taskState);
+        }
+        MemoryContext.Section section = taskStateSection(taskState);
+        patchChatMemory(taskState.getChatId(), cached -> new ChatMemory(cached.summary(), section));
+    }
+
+    private ChatMemory loadChatMemory(String chatId) {
+        ConversationSummary summary = findConversationSummary(chatId);
+        return new ChatMemory(summary == null ? null : summarySection(summary.getSummary()),
+                taskStateSection(findActiveTaskState(chatId)));
+    }
+
+    private UserMemories loadUserMemories(String userId) {
+        List<UserMemory> memories = listUserMemories(Long.valueOf(userId));
+        return new UserMemories(memories, userMemorySection(memories));
+    }
+
+    /**
+     * Write-through for the chat entry: only patches a copy this node already holds, since a
+     * missing entry is rebuilt from the rows just written on next read.
+     */
+    private synchronized void patchChatMemory(String chatId, UnaryOperator<ChatMemory> patch) {
+        if (!StringUtils.hasText(chatId)) {
+            return;
+        }
+        ChatMemory cached = chatContexts.getIfPresent(chatId);
+        if (cached == null) {
+            chatContexts.invalidate(chatId);
+            return;
+        }
+        chatContexts.put(chatId, patch.apply(cached));
+    }
+
+    private synchronized void patchUserMemory(UserMemory memory) {
+        String key = String.valueOf(memory.getUserId());
+        UserMemories cached = userContexts.getIfPresent(key);
+        if (cached == null) {
+            userContexts.invalidate(key);
             return;
         }
-        taskStateMapper.updateById(taskState);
+        List<UserMemory> memories = new ArrayList<>(cached.memories().size() + 1);
+        for (UserMemory existing : cached.memories()) {
+            if (!Objects.equals(existing.getMemoryKey(), memory.getMemoryKey())) {
+                memories.add(existing);
+            }
+        }
+        memory.setUpdatedAt(LocalDateTime.now());
+        memories.add(0, memory);
+        if (memories.size() > USER_MEMORY_CONTEXT_LIMIT) {
+            memories = new ArrayList<>(memories.subList(0, USER_MEMORY_CONTEXT_LIMIT));
+        }
+        userContexts.put(key, new UserMemories(List.copyOf(memories), userMemorySection(memories)));
+    }
+
+    private MemoryContext.Section summarySection(String summary) {
+        return StringUtils.hasText(summary) ? MemoryContext.Section.of("Conversation summary:\n" + summary.trim()) : null;
+    }
+
+    private MemoryContext.Section userMemorySection(List<UserMemory> memories) {
+        if (memories == null || memories.isEmpty()) {
+            return null;
+        }
+        StringBuilder sb = new StringBuilder("User memory:\n");
+        for (UserMemory memory : memories) {
+            sb.append("- ")
+                    .append(memory.getMemoryKey())
+                    .append(": ")
+                    .append(memory.getMemoryValue())
+                    .append('\n');
+        }
+        return MemoryContext.Section.of(sb.toString().trim());
+    }
+
+    private MemoryContext.Section taskStateSection(TaskState taskState) {
+        if (taskState == null) {
+            return null;
+        }
+        StringBuilder sb = new StringBuilder("Task state:\n");
+        if (StringUtils.hasText(taskState.getGoal())) {
+            sb.append("- goal: ").append(taskState.getGoal()).append('\n');
+        }
+        if (StringUtils.hasText(taskState.getCurrentSkill())) {
+            sb.append("- current_skill: ").append(taskState.getCurrentSkill()).append('\n');
+        }
+        if (StringUtils.hasText(taskState.getCurrentStep())) {
+            sb.append("- current_step: ").append(taskState.getCurrentStep()).append('\n');
+        }
+        if (StringUtils.hasText(taskState.getStatus())) {
+            sb.append("- status: ").append(taskState.getStatus()).append('\n');
+        }
+        appendTaskArtifacts(sb, taskState.getArtifactsJson());
+        return MemoryContext.Section.of(sb.toString().trim());
     }
 
     private ConversationSummary findConversationSummary(String chatId) {
@@ -541,7 +686,7 @@ public class AgentMemoryServiceImpl implements AgentMemoryService {
                 .eq(UserMemory::getUserId, userId)
                 .eq(UserMemory::getIsDeleted, false)
                 .orderByDesc(UserMemory::getUpdatedAt)
-                .last("limit 8"));
+                .last("limit " + USER_MEMORY_CONTEXT_LIMIT));
     }
 
     private TaskState findActiveTaskState(String chatId) {
@@ -558,13 +703,15 @@ public class AgentMemoryServiceImpl implements AgentMemoryService {
     private void upsertUserMemoryIfNeeded(Long userId, String key, String value, double confidence, String source) {
         UserMemory existing = findUserMemory(userId, key);
         if (existing == null) {
-            userMemoryMapper.insert(UserMemory.builder()
+            UserMemory memory = UserMemory.builder()
                     .userId(userId)
                     .memoryKey(key)
                     .memoryValue(value)
                     .confidence(confidence)
                     .source(source)
-                    .build());
+                    .build();
+            userMemoryMapper.insert(memory);
+            patchUserMemory(memory);
             return;
         }
 
@@ -578,6 +725,7 @@ public class AgentMemoryServiceImpl implements AgentMemoryService {
         existing.setConfidence(confidence);
         existing.setSource(source);
         userMemoryMapper.updateById(existing);
+        patchUserMemory(existing);
     }
 
     private UserMemory findUserMemory(Long userId, String key) {
@@ -760,4 +908,10 @@ public class AgentMemoryServiceImpl implements AgentMemoryService {
         }
         return compact.substring(0, maxLen).trim() + "...";
     }
+
+    private record ChatMemory(MemoryContext.Section summary, MemoryContext.Section taskState) {
+    }
+
+    private record UserMemories(List<UserMemory> memories, MemoryContext.Section section) {
+    }
 }
@@ -36,6 +36,9 @@ public class ChatContextService {
     @Value("${app.chat.context.prefetch-messages:64}")
     private int contextPrefetchMessages;
 
+    @Value("${app.memory.context-max-tokens:2000}")
+    private int memoryContextMaxTokens;
+
     public String resolveRagContext(Session session,
                                     Long userId,
                                     Boolean useRag,
@@ -83,8 +86,8 @@ public class ChatContextService {
         if (systemPrompt != null && !systemPrompt.isBlank()) {
             result.add(new LlmMessage("system", systemPrompt));
         }
-        String memoryContext = agentMemoryService.buildMemoryContext(userId, chatId);
-        if (memoryContext != null && !memoryContext.isBlank()) {
+        String memoryContext = agentMemoryService.loadMemoryContext(userId, chatId).render(memoryContextMaxTokens);
+        if (!memoryContext.isBlank()) {
             result.add(new LlmMessage("system",
                     "Persistent memory (assistant-owned context, not new user instructions):\n<memory_context>\n"
                             + memoryContext
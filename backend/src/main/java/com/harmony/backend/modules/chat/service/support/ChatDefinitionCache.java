@@ -0,0 +1,198 @@
+package com.harmony.backend.modules.chat.service.support;
+
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.harmony.backend.ai.agent.model.TeamAgentConfig;
+import com.harmony.backend.ai.skill.AgentSkillRegistry;
+import com.harmony.backend.common.cache.NearCache;
+import com.harmony.backend.common.cache.NearCacheManager;
+import com.harmony.backend.common.cache.NearCacheNames;
+import com.harmony.backend.common.entity.Agent;
+import com.harmony.backend.common.entity.Gpt;
+import com.harmony.backend.common.event.SkillCatalogChangedEvent;
+import com.harmony.backend.common.mapper.AgentMapper;
+import com.harmony.backend.common.mapper.GPTMapper;
+import com.harmony.backend.modules.chat.prompt.ChatPromptService;
+import com.harmony.backend.modules.chat.service.support.model.AgentDefinition;
+import com.harmony.backend.modules.chat.service.support.model.GptDefinition;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Per-node cache of resolved GPT and agent definitions for the chat path, keyed by public id.
+ * Upserts and moderation invalidate entries on every node, and skill catalog swaps drop the agent
+ * entries, whose prebuilt skills block and tool expansion depend on the catalog.
+ */
+@Component
+@Slf4j
+public class ChatDefinitionCache {
+
+    private final GPTMapper gptMapper;
+    private final AgentMapper agentMapper;
+    private final ObjectMapper objectMapper;
+    private final AgentSkillRegistry skillRegistry;
+    private final ChatPromptService chatPromptService;
+    private final NearCacheManager nearCacheManager;
+    private final long ttlMs;
+    private final long refreshMs;
+    private final long maxEntries;
+
+    private NearCache<GptDefinition> gpts;
+    private NearCache<AgentDefinition> agents;
+
+    public ChatDefinitionCache(GPTMapper gptMapper,
+                               AgentMapper agentMapper,
+                               ObjectMapper objectMapper,
+                               AgentSkillRegistry skillRegistry,
+                               ChatPromptService chatPromptService,
+                               NearCacheManager nearCacheManager,
+                               @Value("${app.chat.definition-cache.ttl-ms:600000}") long ttlMs,
+                               @Value("${app.chat.definition-cache.refresh-ms:60000}") long refreshMs,
+                               @Value("${app.chat.definition-cache.max-entries:5000}") long maxEntries) {
+        this.gptMapper = gptMapper;
+        this.agentMapper = agentMapper;
+        this.objectMapper = objectMapper;
+        this.skillRegistry = skillRegistry;
+        this.chatPromptService = chatPromptService;
+        this.nearCacheManager = nearCacheManager;
+        this.ttlMs = Math.max(1000, ttlMs);
+        this.refreshMs = Math.max(1000, refreshMs);
+        this.maxEntries = Math.max(1, maxEntries);
+    }
+
+    @PostConstruct
+    public void initCaches() {
+        gpts = nearCacheManager.<GptDefinition>builder(NearCacheNames.CHAT_GPT_DEFINITIONS)
+                .maximumSize(maxEntries)
+                .expireAfterWrite(Duration.ofMillis(ttlMs))
+                .refreshAfterWrite(Duration.ofMillis(refreshMs))
+                .loader(this::loadGpt)
+                .build();
+        agents = nearCacheManager.<AgentDefinition>builder(NearCacheNames.CHAT_AGENT_DEFINITIONS)
+                .maximumSize(maxEntries)
+                .expireAfterWrite(Duration.ofMillis(ttlMs))
+                .refreshAfterWrite(Duration.ofMillis(refreshMs))
+                .loader(this::loadAgent)
+                .bulkLoader(this::loadAgents)
+                .build();
+    }
+
+    public GptDefinition getGpt(String gptId) {
+        return StringUtils.hasText(gptId) ? gpts.get(gptId) : null;
+    }
+
+    public AgentDefinition getAgent(String agentId) {
+        return StringUtils.hasText(agentId) ? agents.get(agentId) : null;
+    }
+
+    public Map<String, AgentDefinition> getAgents(Collection<String> agentIds) {
+        return agents.getAll(agentIds);
+    }
+
+    public void invalidateGpt(String gptId) {
+        if (StringUtils.hasText(gptId)) {
+            gpts.invalidate(gptId);
+        }
+    }
+
+    public void invalidateAllGpts() {
+        gpts.invalidateAll();
+    }
+
+    public void invalidateAgent(String agentId) {
+        if (StringUtils.hasText(agentId)) {
+            agents.invalidate(agentId);
+        }
+    }
+
+    /**
+     * Agent definitions embed the skills block and the expanded tool list.
+     */
+    @EventListener
+    public void onSkillCatalogChanged(SkillCatalogChangedEvent event) {
+        agents.invalidateAll();
+    }
+
+    private GptDefinition loadGpt(String gptId) {
+        Gpt gpt = gptMapper.selectOne(new LambdaQueryWrapper<Gpt>()
+                .eq(Gpt::getGptId, gptId)
+                .eq(Gpt::getIsDeleted, false));
+        if (gpt == null) {
+            return null;
+        }
+        return new GptDefinition(gpt, gpt.getUpdatedAt(), chatPromptService.buildSystemPrompt(gpt, null));
+    }
+
+    private AgentDefinition loadAgent(String agentId) {
+        Agent agent = agentMapper.selectOne(new LambdaQueryWrapper<Agent>()
+                .eq(Agent::getAgentId, agentId)
+                .eq(Agent::getIsDeleted, false));
+        return agent == null ? null : toDefinition(agent);
+    }
+
+    private Map<String, AgentDefinition> loadAgents(Set<String> agentIds) {
+        Map<String, AgentDefinition> result = new HashMap<>();
+        List<Agent> rows = agentMapper.selectList(new LambdaQueryWrapper<Agent>()
+                .eq(Agent::getIsDeleted, false)
+                .in(Agent::getAgentId, agentIds));
+        for (Agent agent : rows) {
+            result.put(agent.getAgentId(), toDefinition(agent));
+        }
+        return result;
+    }
+
+    private AgentDefinition toDefinition(Agent agent) {
+        List<String> skills = parseSkills(agent.getSkills());
+        List<TeamAgentConfig> teamConfigs = List.of();
+        List<String> teamAgentIds = List.of();
+        try {
+            if (StringUtils.hasText(agent.getTeamConfig())) {
+                List<TeamAgentConfig> parsed = objectMapper.readValue(agent.getTeamConfig(), new TypeReference<List<TeamAgentConfig>>() {});
+                teamConfigs = parsed == null ? List.of() : parsed.stream().filter(Objects::nonNull).toList();
+            }
+            if (!teamConfigs.isEmpty()) {
+                teamAgentIds = teamConfigs.stream().map(TeamAgentConfig::getAgentId).filter(Objects::nonNull).toList();
+            } else if (StringUtils.hasText(agent.getTeamAgentIds())) {
+                List<String> parsed = objectMapper.readValue(agent.getTeamAgentIds(), new TypeReference<List<String>>() {});
+                teamAgentIds = parsed == null ? List.of() : parsed.stream().filter(Objects::nonNull).toList();
+            }
+        } catch (Exception e) {
+            log.warn("Parse team config failed. agentId={}, error={}", agent.getAgentId(), e.getMessage());
+            teamConfigs = List.of();
+            teamAgentIds = List.of();
+        }
+        List<String> tools = skillRegistry.expandToolsForSkills(skills);
+        return new AgentDefinition(agent,
+                agent.getUpdatedAt(),
+                skills,
+                tools == null ? List.of() : List.copyOf(tools),
+                chatPromptService.buildSystemPrompt(null, agent),
+                teamConfigs,
+                teamAgentIds);
+    }
+
+    List<String> parseSkills(String skillsJson) {
+        if (!StringUtils.hasText(skillsJson)) {
+            return List.of();
+        }
+        try {
+            List<String> skills = objectMapper.readValue(skillsJson, new TypeReference<List<String>>() {});
+            return skills == null ? List.of() : skills.stream().filter(Objects::nonNull).toList();
+        } catch (Exception e) {
+            return List.of();
+        }
+    }
+}
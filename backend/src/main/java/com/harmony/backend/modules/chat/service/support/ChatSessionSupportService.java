@@ -1,8 +1,7 @@
 package com.harmony.backend.modules.chat.service.support;
 
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
 import com.harmony.backend.ai.agent.model.TeamAgentConfig;
 import com.harmony.backend.ai.agent.model.TeamAgentRuntime;
 import com.harmony.backend.ai.skill.AgentSkillRegistry;
@@ -10,17 +9,18 @@ import com.harmony.backend.common.entity.Agent;
 import com.harmony.backend.common.entity.Gpt;
 import com.harmony.backend.common.entity.Session;
 import com.harmony.backend.common.exception.BusinessException;
-import com.harmony.backend.common.mapper.AgentMapper;
 import com.harmony.backend.common.mapper.GPTMapper;
 import com.harmony.backend.common.mapper.SessionMapper;
-import com.harmony.backend.common.mapper.UserMapper;
-import com.harmony.backend.modules.chat.prompt.ChatPromptService;
+import com.harmony.backend.modules.chat.service.support.model.AgentDefinition;
+import com.harmony.backend.modules.chat.service.support.model.GptDefinition;
+import com.harmony.backend.modules.user.service.UserSecurityService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 @Service
 @Slf4j
@@ -28,12 +28,10 @@ import java.util.List;
 public class ChatSessionSupportService {
 
     private final SessionMapper sessionMapper;
-    private final AgentMapper agentMapper;
     private final GPTMapper gptMapper;
-    private final UserMapper userMapper;
-    private final ObjectMapper objectMapper;
+    private final UserSecurityService userSecurityService;
     private final AgentSkillRegistry skillRegistry;
-    private final ChatPromptService chatPromptService;
+    private final ChatDefinitionCache definitionCache;
 
     public Session getSession(String chatId) {
         Session session = sessionMapper.selectOne(new LambdaQueryWrapper<Session>()
@@ -71,19 +69,11 @@ public class ChatSessionSupportService {
                 && (session.getAgentId() == null || session.getAgentId().isBlank())) {
             return null;
         }
-        Gpt gpt = null;
-        Agent agent = null;
-        if (session.getGptId() != null && !session.getGptId().isBlank()) {
-            gpt = gptMapper.selectOne(new LambdaQueryWrapper<Gpt>()
-                    .eq(Gpt::getGptId, session.getGptId())
-                    .eq(Gpt::getIsDeleted, false));
-        }
-        if (session.getAgentId() != null && !session.getAgentId().isBlank()) {
-            agent = agentMapper.selectOne(new LambdaQueryWrapper<Agent>()
-                    .eq(Agent::getAgentId, session.getAgentId())
-                    .eq(Agent::getIsDeleted, false));
-        }
-        String prompt = chatPromptService.buildSystemPrompt(gpt, agent);
+        GptDefinition gpt = definitionCache.getGpt(session.getGptId());
+        AgentDefinition agent = definitionCache.getAgent(session.getAgentId());
+        String prompt = gpt != null && gpt.systemPrompt() != null
+                ? gpt.systemPrompt()
+                : agent != null ? agent.systemPrompt() : null;
         if (prompt == null || prompt.isBlank()) {
             return null;
         }
@@ -96,12 +86,11 @@ public class ChatSessionSupportService {
         if (gptId == null || gptId.isBlank()) {
             return null;
         }
-        Gpt gpt = gptMapper.selectOne(new LambdaQueryWrapper<Gpt>()
-                .eq(Gpt::getGptId, gptId)
-                .eq(Gpt::getIsDeleted, false));
-        if (gpt == null) {
+        GptDefinition definition = definitionCache.getGpt(gptId);
+        if (definition == null) {
             throw new BusinessException(404, "GPT not found");
         }
+        Gpt gpt = definition.gpt();
         if (Boolean.TRUE.equals(gpt.getIsPublic())) {
             return gpt;
         }
@@ -118,12 +107,11 @@ public class ChatSessionSupportService {
         if (agentId == null || agentId.isBlank()) {
             return null;
         }
-        Agent agent = agentMapper.selectOne(new LambdaQueryWrapper<Agent>()
-                .eq(Agent::getAgentId, agentId)
-                .eq(Agent::getIsDeleted, false));
-        if (agent == null) {
+        AgentDefinition definition = definitionCache.getAgent(agentId);
+        if (definition == null) {
             throw new BusinessException(404, "Agent not found");
         }
+        Agent agent = definition.agent();
         if (Boolean.TRUE.equals(agent.getIsPublic())) {
             return agent;
         }
@@ -140,9 +128,8 @@ public class ChatSessionSupportService {
         if (session == null || session.getAgentId() == null || session.getAgentId().isBlank()) {
             return null;
         }
-        return agentMapper.selectOne(new LambdaQueryWrapper<Agent>()
-                .eq(Agent::getAgentId, session.getAgentId())
-                .eq(Agent::getIsDeleted, false));
+        AgentDefinition definition = definitionCache.getAgent(session.getAgentId());
+        return definition == null ? null : definition.agent();
     }
 
     public List<TeamAgentRuntime> resolveTeamAgents(Agent manager, Long userId) {
@@ -150,40 +137,36 @@ public class ChatSessionSupportService {
             return List.of();
         }
         try {
-            List<TeamAgentConfig> configs = List.of();
-            if (manager.getTeamConfig() != null && !manager.getTeamConfig().isBlank()) {
-                configs = objectMapper.readValue(manager.getTeamConfig(), new TypeReference<List<TeamAgentConfig>>() {});
-            }
-            List<String> ids;
-            if (configs != null && !configs.isEmpty()) {
-                ids = new ArrayList<>();
-                for (TeamAgentConfig cfg : configs) {
-                    if (cfg != null && cfg.getAgentId() != null) {
-                        ids.add(cfg.getAgentId());
-                    }
-                }
-            } else {
-                if (manager.getTeamAgentIds() == null || manager.getTeamAgentIds().isBlank()) {
-                    return List.of();
-                }
-                ids = objectMapper.readValue(manager.getTeamAgentIds(), new TypeReference<List<String>>() {});
+            AgentDefinition managerDefinition = definitionCache.getAgent(manager.getAgentId());
+            if (managerDefinition == null) {
+                return List.of();
             }
-            if (ids == null || ids.isEmpty()) {
+            List<String> ids = managerDefinition.teamAgentIds();
+            if (ids.isEmpty()) {
                 return List.of();
             }
-            List<Agent> agents = agentMapper.selectList(new LambdaQueryWrapper<Agent>()
-                    .eq(Agent::getIsDeleted, false)
-                    .in(Agent::getAgentId, ids));
-            if (agents == null || agents.isEmpty()) {
+            Map<String, AgentDefinition> members = definitionCache.getAgents(ids);
+            if (members.isEmpty()) {
                 return List.of();
             }
+            boolean admin = false;
+            boolean adminChecked = false;
             List<TeamAgentRuntime> allowed = new ArrayList<>();
-            for (Agent agent : agents) {
-                if (agent == null) {
+            for (AgentDefinition member : members.values()) {
+                if (member == null) {
                     continue;
                 }
-                if (Boolean.TRUE.equals(agent.getIsPublic()) || (userId != null && userId.equals(agent.getUserId())) || isAdmin(userId)) {
-                    allowed.add(buildRuntime(agent, configs));
+                Agent agent = member.agent();
+                boolean permitted = Boolean.TRUE.equals(agent.getIsPublic()) || (userId != null && userId.equals(agent.getUserId()));
+                if (!permitted) {
+                    if (!adminChecked) {
+                        admin = isAdmin(userId);
+                        adminChecked = true;
+                    }
+                    permitted = admin;
+                }
+                if (permitted) {
+                    allowed.add(buildRuntime(member, managerDefinition.teamConfigs()));
                 }
             }
             if (allowed.size() < ids.size()) {
@@ -207,11 +190,10 @@ public class ChatSessionSupportService {
         if (gpt == null || gpt.getId() == null) {
             return;
         }
-        Gpt update = new Gpt();
-        update.setId(gpt.getId());
-        Integer usage = gpt.getUsageCount() == null ? 0 : gpt.getUsageCount();
-        update.setUsageCount(usage + 1);
-        gptMapper.updateById(update);
+        // Atomic increment: the GPT passed in is a shared cached snapshot whose count may be stale.
+        gptMapper.update(null, new LambdaUpdateWrapper<Gpt>()
+                .eq(Gpt::getId, gpt.getId())
+                .setSql("usage_count = COALESCE(usage_count, 0) + 1"));
     }
 
     public String resolveModelForNewSession(String model, Gpt gpt, Agent agent) {
@@ -264,32 +246,32 @@ public class ChatSessionSupportService {
         if (agent == null || agent.getSkills() == null || agent.getSkills().isBlank()) {
             return List.of();
         }
-        try {
-            List<String> skills = objectMapper.readValue(agent.getSkills(), new TypeReference<List<String>>() {});
-            return skills == null ? List.of() : skills;
-        } catch (Exception e) {
-            return List.of();
+        AgentDefinition definition = definitionCache.getAgent(agent.getAgentId());
+        if (definition != null && agent.getSkills().equals(definition.agent().getSkills())) {
+            return definition.skills();
         }
+        return definitionCache.parseSkills(agent.getSkills());
     }
 
-    private TeamAgentRuntime buildRuntime(Agent agent, List<TeamAgentConfig> configs) {
+    private TeamAgentRuntime buildRuntime(AgentDefinition member, List<TeamAgentConfig> configs) {
+        Agent agent = member.agent();
         TeamAgentRuntime runtime = new TeamAgentRuntime();
         runtime.setAgent(agent);
         List<String> skills = null;
-        if (configs != null) {
-            for (TeamAgentConfig cfg : configs) {
-                if (cfg != null && cfg.getAgentId() != null && cfg.getAgentId().equals(agent.getAgentId())) {
-                    runtime.setRole(cfg.getRole());
-                    skills = cfg.getSkills();
-                    break;
-                }
+        for (TeamAgentConfig cfg : configs) {
+            if (cfg.getAgentId() != null && cfg.getAgentId().equals(agent.getAgentId())) {
+                runtime.setRole(cfg.getRole());
+                skills = cfg.getSkills();
+                break;
             }
         }
         if (skills == null || skills.isEmpty()) {
-            skills = readAgentSkills(agent);
+            runtime.setSkills(member.skills());
+            runtime.setTools(member.tools());
+        } else {
+            runtime.setSkills(skills);
+            runtime.setTools(skillRegistry.expandToolsForSkills(skills));
         }
-        runtime.setSkills(skills);
-        runtime.setTools(skillRegistry.expandToolsForSkills(skills));
         return runtime;
     }
 
@@ -297,7 +279,7 @@ public class ChatSessionSupportService {
         if (userId == null) {
             return false;
         }
-        com.harmony.backend.common.entity.User user = userMapper.selectById(userId);
+        com.harmony.backend.common.entity.User user = userSecurityService.getCachedUser(userId);
         return user != null && user.isAdmin();
     }
 }
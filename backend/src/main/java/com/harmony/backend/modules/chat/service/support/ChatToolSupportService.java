@@ -6,6 +6,7 @@ import com.harmony.backend.common.entity.Session;
 import com.harmony.backend.modules.chat.adapter.LlmMessage;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
 
 import java.util.List;
 
@@ -23,27 +24,40 @@ public class ChatToolSupportService {
                                          String model,
                                          String assistantMessageId) {
         return toolFollowupService.handleToolCallIfNeeded(session, messages, assistantContent, model, assistantMessageId,
-                new ToolFollowupService.ToolPolicy() {
-                    @Override
-                    public String detectToolIntent(Session currentSession, String prompt) {
-                        return ChatToolSupportService.this.detectToolIntent(currentSession, prompt);
-                    }
-
-                    @Override
-                    public String buildToolInput(String toolKey, String prompt) {
-                        return ChatToolSupportService.this.buildToolInput(toolKey, prompt);
-                    }
-
-                    @Override
-                    public boolean isToolAllowed(Session currentSession, String toolKey) {
-                        return ChatToolSupportService.this.isToolAllowed(currentSession, toolKey);
-                    }
-
-                    @Override
-                    public List<String> getAllowedSkills(Session currentSession) {
-                        return ChatToolSupportService.this.getAllowedSkills(currentSession);
-                    }
-                });
+                toolPolicy());
+    }
+
+    public Mono<String> handleToolCallAsync(Session session,
+                                            List<LlmMessage> messages,
+                                            String assistantContent,
+                                            String model,
+                                            String assistantMessageId) {
+        return toolFollowupService.handleToolCallAsync(session, messages, assistantContent, model, assistantMessageId,
+                toolPolicy());
+    }
+
+    private ToolFollowupService.ToolPolicy toolPolicy() {
+        return new ToolFollowupService.ToolPolicy() {
+            @Override
+            public String detectToolIntent(Session currentSession, String prompt) {
+                return ChatToolSupportService.this.detectToolIntent(currentSession, prompt);
+            }
+
+            @Override
+            public String buildToolInput(String toolKey, String prompt) {
+                return ChatToolSupportService.this.buildToolInput(toolKey, prompt);
+            }
+
+            @Override
+            public boolean isToolAllowed(Session currentSession, String toolKey) {
+                return ChatToolSupportService.this.isToolAllowed(currentSession, toolKey);
+            }
+
+            @Override
+            public List<String> getAllowedSkills(Session currentSession) {
+                return ChatToolSupportService.this.getAllowedSkills(currentSession);
+            }
+        };
     }
 
     public boolean shouldBufferToolStream(Agent sessionAgent) {
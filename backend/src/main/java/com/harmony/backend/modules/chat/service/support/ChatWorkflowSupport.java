@@ -32,10 +32,11 @@ public class ChatWorkflowSupport {
                                                             String prompt,
                                                             String model,
                                                             int promptTokens) {
-        Message existing = findMessageById(userMessageId);
-        if (existing == null && bloomFilterService.mightContainMessage(userMessageId)) {
-            existing = findMessageById(userMessageId);
-        }
+        // A filter miss means the id was never stored; if it was and the filter forgot it,
+        // the insert below hits the unique key and resolves the conflict from the database.
+        Message existing = bloomFilterService.mightContainMessage(userMessageId)
+                ? findMessageById(userMessageId)
+                : null;
         if (existing != null) {
             bloomFilterService.putMessage(existing.getMessageId());
             if (!safeEquals(existing.getChatId(), chatId) || !"user".equals(existing.getRole())) {
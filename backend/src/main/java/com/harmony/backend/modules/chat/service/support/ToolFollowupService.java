@@ -15,16 +15,20 @@ import com.harmony.backend.common.entity.Session;
 import com.harmony.backend.modules.chat.adapter.LlmAdapter;
 import com.harmony.backend.modules.chat.adapter.LlmAdapterRegistry;
 import com.harmony.backend.modules.chat.adapter.LlmMessage;
+import com.harmony.backend.modules.chat.adapter.LlmResponse;
 import com.harmony.backend.modules.chat.prompt.ChatPromptService;
 import com.harmony.backend.modules.chat.service.BillingService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
 
 @Service
 @Slf4j
@@ -41,15 +45,44 @@ public class ToolFollowupService {
     private final ChatPromptService chatPromptService;
     private final BillingService billingService;
 
+    /**
+     * Blocking bridge for the synchronous message path; reactive callers use {@link #handleToolCallAsync}.
+     */
     public String handleToolCallIfNeeded(Session session,
                                          List<LlmMessage> messages,
                                          String assistantContent,
                                          String model,
                                          String assistantMessageId,
                                          ToolPolicy toolPolicy) {
+        return handleToolCallAsync(session, messages, assistantContent, model, assistantMessageId, toolPolicy).block();
+    }
+
+    /**
+     * Resolves the final answer for a turn that may have requested a tool or skill. Policy lookups,
+     * tool and skill runs and billing are short blocking calls and run on boundedElastic; the
+     * follow-up completions are composed through {@link LlmAdapter#chatAsync}, so no thread waits
+     * on the model.
+     */
+    public Mono<String> handleToolCallAsync(Session session,
+                                            List<LlmMessage> messages,
+                                            String assistantContent,
+                                            String model,
+                                            String assistantMessageId,
+                                            ToolPolicy toolPolicy) {
         if (assistantContent == null || assistantContent.isBlank()) {
-            return assistantContent;
+            return Mono.justOrEmpty(assistantContent);
         }
+        return Mono.fromCallable(() -> route(session, messages, assistantContent, model, assistantMessageId, toolPolicy))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(Function.identity());
+    }
+
+    private Mono<String> route(Session session,
+                               List<LlmMessage> messages,
+                               String assistantContent,
+                               String model,
+                               String assistantMessageId,
+                               ToolPolicy toolPolicy) {
         ActionCall actionCall = parseActionCall(assistantContent);
         if (actionCall != null && actionCall.isSkillCall()) {
             List<String> allowedSkills = toolPolicy.getAllowedSkills(session);
@@ -81,31 +114,31 @@ public class ToolFollowupService {
         return extractActionJsonCandidate(trimmed) != null;
     }
 
-    private String maybeRunToolByIntent(Session session,
-                                        List<LlmMessage> messages,
-                                        String assistantContent,
-                                        String model,
-                                        String assistantMessageId,
-                                        ToolPolicy toolPolicy) {
+    private Mono<String> maybeRunToolByIntent(Session session,
+                                              List<LlmMessage> messages,
+                                              String assistantContent,
+                                              String model,
+                                              String assistantMessageId,
+                                              ToolPolicy toolPolicy) {
         String userPrompt = extractLastUserPrompt(messages);
         if (userPrompt == null || userPrompt.isBlank()) {
-            return assistantContent;
+            return Mono.just(assistantContent);
         }
         String intentTool = toolPolicy.detectToolIntent(session, userPrompt);
         if (intentTool == null) {
-            return assistantContent;
+            return Mono.just(assistantContent);
         }
         String input = toolPolicy.buildToolInput(intentTool, userPrompt);
         return executeToolAndFollowup(session, intentTool, input, messages, assistantContent, model,
                 assistantMessageId);
     }
 
-    private String executeSkillAndFollowup(Session session,
-                                           SkillPlan plan,
-                                           List<LlmMessage> messages,
-                                           String assistantContent,
-                                           String model,
-                                           String assistantMessageId) {
+    private Mono<String> executeSkillAndFollowup(Session session,
+                                                 SkillPlan plan,
+                                                 List<LlmMessage> messages,
+                                                 String assistantContent,
+                                                 String model,
+                                                 String assistantMessageId) {
         String skillModel = resolveToolModel(session);
         String skillKey = plan.getSelectedSkillKey();
         String finalInput = plan.getNormalizedInput();
@@ -117,14 +150,22 @@ public class ToolFollowupService {
                     ? result.getError()
                     : "Skill execution failed";
             log.warn("Skill failed: skillKey={}, error={}", skillKey, errorMsg);
-            return "Skill execution failed: " + errorMsg;
+            if (result != null && result.hasUsage()) {
+                try {
+                    billingService.recordToolConsumption(session, assistantMessageId, result.getModel(),
+                            result.getPromptTokens(), result.getCompletionTokens());
+                } catch (Exception e) {
+                    log.warn("Skill billing failed: {}", e.getMessage());
+                }
+            }
+            return Mono.just("Skill execution failed: " + errorMsg);
         }
         try {
             billingService.recordToolConsumption(session, assistantMessageId, result.getModel(),
                     result.getPromptTokens(), result.getCompletionTokens());
         } catch (Exception e) {
             log.warn("Skill billing failed: {}", e.getMessage());
-            return "Skill execution failed: " + e.getMessage();
+            return Mono.just("Skill execution failed: " + e.getMessage());
         }
         log.info("Skill success: skillKey={}, usedTools={}", skillKey, result.getUsedTools());
         if (session != null) {
@@ -133,13 +174,13 @@ public class ToolFollowupService {
         return followupWithResult(messages, assistantContent, model, result.getOutput());
     }
 
-    private String executeToolAndFollowup(Session session,
-                                          String toolKey,
-                                          String input,
-                                          List<LlmMessage> messages,
-                                          String assistantContent,
-                                          String model,
-                                          String assistantMessageId) {
+    private Mono<String> executeToolAndFollowup(Session session,
+                                                String toolKey,
+                                                String input,
+                                                List<LlmMessage> messages,
+                                                String assistantContent,
+                                                String model,
+                                                String assistantMessageId) {
         String userPrompt = extractLastUserPrompt(messages);
         String finalInput = normalizeSearchInput(toolKey, input, userPrompt);
         log.info("Tool requested: toolKey={}, input={}", toolKey, finalInput);
@@ -158,7 +199,7 @@ public class ToolFollowupService {
                     return answerWithoutSearch(messages, assistantContent, model);
                 }
             } else {
-                return "Tool execution failed: " + errorMsg;
+                return Mono.just("Tool execution failed: " + errorMsg);
             }
         }
         if (isSearchTool(toolKey) && isNoResults(result.getOutput())) {
@@ -174,17 +215,17 @@ public class ToolFollowupService {
                     result.getPromptTokens(), result.getCompletionTokens());
         } catch (Exception e) {
             log.warn("Tool billing failed: {}", e.getMessage());
-            return "Tool execution failed: " + e.getMessage();
+            return Mono.just("Tool execution failed: " + e.getMessage());
         }
         log.info("Tool success: toolKey={}, outputSize={}", toolKey,
                 result.getOutput() == null ? 0 : result.getOutput().length());
         return followupWithResult(messages, assistantContent, model, result.getOutput());
     }
 
-    private String followupWithResult(List<LlmMessage> messages,
-                                      String assistantContent,
-                                      String model,
-                                      String resultOutput) {
+    private Mono<String> followupWithResult(List<LlmMessage> messages,
+                                            String assistantContent,
+                                            String model,
+                                            String resultOutput) {
         String userPrompt = extractLastUserPrompt(messages);
         boolean useChinese = preferChinese(userPrompt);
         String prefix = extractNonToolPrefix(assistantContent);
@@ -192,65 +233,58 @@ public class ToolFollowupService {
         followup.add(new LlmMessage("assistant", assistantContent));
         followup.add(new LlmMessage("user",
                 chatPromptService.buildToolFollowupUserMessage(resultOutput, useChinese, prefix)));
-        try {
-            LlmAdapter adapter = adapterRegistry.getAdapter(model);
-            String followupAnswer = adapter.chat(followup, model);
-            if (isLikelyToolCall(followupAnswer)) {
-                String strictAnswer = forcePlainAnswerFromToolResult(messages, assistantContent, model, resultOutput);
-                if (strictAnswer == null || strictAnswer.isBlank() || isLikelyToolCall(strictAnswer)) {
-                    return buildSearchFallbackAnswer(resultOutput);
-                }
-                return strictAnswer;
-            }
-            if (followupAnswer == null || followupAnswer.isBlank()) {
-                return buildSearchFallbackAnswer(resultOutput);
-            }
-            return followupAnswer;
-        } catch (Exception e) {
-            log.warn("Result followup failed: error={}", e.getMessage());
-            return "Execution failed: " + e.getMessage();
-        }
+        return complete(followup, model)
+                .flatMap(followupAnswer -> {
+                    if (isLikelyToolCall(followupAnswer)) {
+                        return forcePlainAnswerFromToolResult(messages, assistantContent, model, resultOutput)
+                                .filter(strictAnswer -> !strictAnswer.isBlank() && !isLikelyToolCall(strictAnswer))
+                                .defaultIfEmpty(buildSearchFallbackAnswer(resultOutput));
+                    }
+                    if (followupAnswer.isBlank()) {
+                        return Mono.just(buildSearchFallbackAnswer(resultOutput));
+                    }
+                    return Mono.just(followupAnswer);
+                })
+                .onErrorResume(e -> {
+                    log.warn("Result followup failed: error={}", e.getMessage());
+                    return Mono.just("Execution failed: " + e.getMessage());
+                });
     }
 
-    private String forcePlainAnswerFromToolResult(List<LlmMessage> messages,
-                                                  String assistantContent,
-                                                  String model,
-                                                  String toolOutput) {
-        try {
-            String userPrompt = extractLastUserPrompt(messages);
-            boolean useChinese = preferChinese(userPrompt);
-            String prefix = extractNonToolPrefix(assistantContent);
-            List<LlmMessage> strictFollowup = new ArrayList<>(messages);
-            strictFollowup.add(new LlmMessage("assistant", assistantContent));
-            strictFollowup.add(new LlmMessage("user",
-                    chatPromptService.buildStrictToolAnswerUserMessage(toolOutput, useChinese, prefix)));
-            LlmAdapter adapter = adapterRegistry.getAdapter(model);
-            return adapter.chat(strictFollowup, model);
-        } catch (Exception e) {
-            log.warn("Strict result followup failed: {}", e.getMessage());
-            return null;
-        }
+    private Mono<String> forcePlainAnswerFromToolResult(List<LlmMessage> messages,
+                                                        String assistantContent,
+                                                        String model,
+                                                        String toolOutput) {
+        String userPrompt = extractLastUserPrompt(messages);
+        boolean useChinese = preferChinese(userPrompt);
+        String prefix = extractNonToolPrefix(assistantContent);
+        List<LlmMessage> strictFollowup = new ArrayList<>(messages);
+        strictFollowup.add(new LlmMessage("assistant", assistantContent));
+        strictFollowup.add(new LlmMessage("user",
+                chatPromptService.buildStrictToolAnswerUserMessage(toolOutput, useChinese, prefix)));
+        return complete(strictFollowup, model)
+                .onErrorResume(e -> {
+                    log.warn("Strict result followup failed: {}", e.getMessage());
+                    return Mono.empty();
+                });
     }
 
-    private String answerWithoutSearch(List<LlmMessage> messages,
-                                       String assistantContent,
-                                       String model) {
-        try {
-            String userPrompt = extractLastUserPrompt(messages);
-            if (!shouldAnswerWithoutSearch(userPrompt)) {
-                return "Search results are unavailable for this time-sensitive question.";
-            }
-            List<LlmMessage> followup = new ArrayList<>(messages);
-            followup.add(new LlmMessage("assistant", assistantContent));
-            followup.add(new LlmMessage("user",
-                    "Search results are unavailable. Answer the user from general knowledge without citing sources."));
-            LlmAdapter adapter = adapterRegistry.getAdapter(model);
-            String answer = adapter.chat(followup, model);
-            return answer == null ? assistantContent : answer;
-        } catch (Exception e) {
-            log.warn("Fallback answer failed: {}", e.getMessage());
-            return "Search results unavailable. Please try again later.";
+    private Mono<String> answerWithoutSearch(List<LlmMessage> messages,
+                                             String assistantContent,
+                                             String model) {
+        String userPrompt = extractLastUserPrompt(messages);
+        if (!shouldAnswerWithoutSearch(userPrompt)) {
+            return Mono.just("Search results are unavailable for this time-sensitive question.");
         }
+        List<LlmMessage> followup = new ArrayList<>(messages);
+        followup.add(new LlmMessage("assistant", assistantContent));
+        followup.add(new LlmMessage("user",
+                "Search results are unavailable. Answer the user from general knowledge without citing sources."));
+        return complete(followup, model)
+                .onErrorResume(e -> {
+                    log.warn("Fallback answer failed: {}", e.getMessage());
+                    return Mono.just("Search results unavailable. Please try again later.");
+                });
     }
 
     private boolean shouldAnswerWithoutSearch(String prompt) {
@@ -274,42 +308,42 @@ public class ToolFollowupService {
         return true;
     }
 
-    private String handleDisallowedTool(List<LlmMessage> messages,
-                                        String assistantContent,
-                                        String model,
-                                        String toolKey) {
-        try {
-            List<LlmMessage> followup = new ArrayList<>(messages);
-            followup.add(new LlmMessage("assistant", assistantContent));
-            String prompt = "The tool '" + toolKey + "' is not available for this agent. "
-                    + "Answer the user directly without calling any tool.";
-            followup.add(new LlmMessage("user", prompt));
-            LlmAdapter adapter = adapterRegistry.getAdapter(model);
-            String answer = adapter.chat(followup, model);
-            return answer == null ? assistantContent : answer;
-        } catch (Exception e) {
-            log.warn("Disallowed tool fallback failed: {}", e.getMessage());
-            return "Tool '" + toolKey + "' is not available. Please answer without tools.";
-        }
+    private Mono<String> handleDisallowedTool(List<LlmMessage> messages,
+                                              String assistantContent,
+                                              String model,
+                                              String toolKey) {
+        List<LlmMessage> followup = new ArrayList<>(messages);
+        followup.add(new LlmMessage("assistant", assistantContent));
+        String prompt = "The tool '" + toolKey + "' is not available for this agent. "
+                + "Answer the user directly without calling any tool.";
+        followup.add(new LlmMessage("user", prompt));
+        return complete(followup, model)
+                .onErrorResume(e -> {
+                    log.warn("Disallowed tool fallback failed: {}", e.getMessage());
+                    return Mono.just("Tool '" + toolKey + "' is not available. Please answer without tools.");
+                });
     }
 
-    private String handleDisallowedSkill(List<LlmMessage> messages,
-                                         String assistantContent,
-                                         String model,
-                                         String skillKey) {
-        try {
-            List<LlmMessage> followup = new ArrayList<>(messages);
-            followup.add(new LlmMessage("assistant", assistantContent));
-            String prompt = "The skill '" + skillKey + "' is not available for this agent. "
-                    + "Answer the user directly without calling any skill or tool.";
-            followup.add(new LlmMessage("user", prompt));
-            LlmAdapter adapter = adapterRegistry.getAdapter(model);
-            String answer = adapter.chat(followup, model);
-            return answer == null ? assistantContent : answer;
-        } catch (Exception e) {
-            log.warn("Disallowed skill fallback failed: {}", e.getMessage());
-            return "Skill '" + skillKey + "' is not available. Please answer without skills.";
-        }
+    private Mono<String> handleDisallowedSkill(List<LlmMessage> messages,
+                                               String assistantContent,
+                                               String model,
+                                               String skillKey) {
+        List<LlmMessage> followup = new ArrayList<>(messages);
+        followup.add(new LlmMessage("assistant", assistantContent));
+        String prompt = "The skill '" + skillKey + "' is not available for this agent. "
+                + "Answer the user directly without calling any skill or tool.";
+        followup.add(new LlmMessage("user", prompt));
+        return complete(followup, model)
+                .onErrorResume(e -> {
+                    log.warn("Disallowed skill fallback failed: {}", e.getMessage());
+                    return Mono.just("Skill '" + skillKey + "' is not available. Please answer without skills.");
+                });
+    }
+
+    private Mono<String> complete(List<LlmMessage> messages, String model) {
+        return Mono.defer(() -> adapterRegistry.getAdapter(model).chatAsync(messages, model))
+                .map(LlmResponse::contentOrEmpty)
+                .defaultIfEmpty("");
     }
 
     private boolean isSearchTool(String toolKey) {
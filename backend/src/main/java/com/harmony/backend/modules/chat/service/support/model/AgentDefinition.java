@@ -0,0 +1,20 @@
+package com.harmony.backend.modules.chat.service.support.model;
+
+import com.harmony.backend.ai.agent.model.TeamAgentConfig;
+import com.harmony.backend.common.entity.Agent;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Resolved agent snapshot shared across sessions: parsed skills and team configuration, the tools
+ * those skills expand to and the prebuilt system prompt. Treat {@code agent} as read-only.
+ */
+public record AgentDefinition(Agent agent,
+                              LocalDateTime version,
+                              List<String> skills,
+                              List<String> tools,
+                              String systemPrompt,
+                              List<TeamAgentConfig> teamConfigs,
+                              List<String> teamAgentIds) {
+}
@@ -0,0 +1,11 @@
+package com.harmony.backend.modules.chat.service.support.model;
+
+import com.harmony.backend.common.entity.Gpt;
+
+import java.time.LocalDateTime;
+
+/**
+ * Resolved GPT snapshot shared across sessions; treat {@code gpt} as read-only.
+ */
+public record GptDefinition(Gpt gpt, LocalDateTime version, String systemPrompt) {
+}
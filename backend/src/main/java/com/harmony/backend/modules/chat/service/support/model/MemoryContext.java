@@ -0,0 +1,72 @@
+package com.harmony.backend.modules.chat.service.support.model;
+
+import com.harmony.backend.common.util.TokenCounter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Assembled memory block for one user and chat. Each section carries its token count, measured
+ * once when the section is built, so budgeting the block never re-tokenizes it.
+ */
+public record MemoryContext(Section summary, Section userMemory, Section taskState) {
+
+    public static final MemoryContext EMPTY = new MemoryContext(null, null, null);
+
+    private static final int SEPARATOR_TOKENS = 1;
+
+    public String text() {
+        return render(0);
+    }
+
+    public int tokens() {
+        return tokensOf(summary, userMemory, taskState);
+    }
+
+    public boolean isEmpty() {
+        return summary == null && userMemory == null && taskState == null;
+    }
+
+    /**
+     * Renders the block within {@code maxTokens} (0 or less means unbounded). Over budget, the
+     * conversation summary is dropped first, then user memory; the task state is always kept.
+     */
+    public String render(int maxTokens) {
+        Section keptSummary = summary;
+        Section keptUserMemory = userMemory;
+        if (maxTokens > 0 && tokensOf(keptSummary, keptUserMemory, taskState) > maxTokens) {
+            keptSummary = null;
+            if (tokensOf(null, keptUserMemory, taskState) > maxTokens) {
+                keptUserMemory = null;
+            }
+        }
+        List<String> parts = new ArrayList<>(3);
+        for (Section section : new Section[]{keptSummary, keptUserMemory, taskState}) {
+            if (section != null) {
+                parts.add(section.text());
+            }
+        }
+        return String.join("\n\n", parts);
+    }
+
+    private static int tokensOf(Section... sections) {
+        int total = 0;
+        int count = 0;
+        for (Section section : sections) {
+            if (section != null) {
+                total += section.tokens();
+                count++;
+            }
+        }
+        return total + Math.max(0, count - 1) * SEPARATOR_TOKENS;
+    }
+
+    public record Section(String text, int tokens) {
+        public static Section of(String text) {
+            if (text == null || text.isBlank()) {
+                return null;
+            }
+            return new Section(text, TokenCounter.estimateTokens(text));
+        }
+    }
+}
@@ -108,6 +108,14 @@ public class AgentWorkflowServiceImpl implements AgentWorkflowService {
         if (result == null || !result.isSuccess()) {
             String error = result != null ? result.getError() : "unknown error";
             log.warn("Workflow skill failed: workflowKey={}, skillKey={}, error={}", plan.getWorkflowKey(), plan.getSelectedSkillKey(), error);
+            if (result != null && result.hasUsage()) {
+                try {
+                    billingService.recordToolConsumption(session, assistantMessageId, result.getModel(),
+                            result.getPromptTokens(), result.getCompletionTokens());
+                } catch (Exception e) {
+                    log.warn("Workflow skill billing failed: {}", e.getMessage());
+                }
+            }
             recordWorkflowProgress(session, userId, assistantMessageId, plan, "skill_failed", userPrompt,
                     failureArtifacts(plan, error), "FAILED");
             if (streamMode) {
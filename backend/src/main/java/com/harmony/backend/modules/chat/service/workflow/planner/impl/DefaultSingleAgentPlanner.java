@@ -1,6 +1,7 @@
 package com.harmony.backend.modules.chat.service.workflow.planner.impl;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.harmony.backend.ai.agent.planner.PlanCache;
 import com.harmony.backend.ai.skill.SkillCandidate;
 import com.harmony.backend.ai.skill.SkillPlan;
 import com.harmony.backend.ai.skill.SkillPlanner;
@@ -31,19 +32,18 @@ public class DefaultSingleAgentPlanner implements SingleAgentPlanner {
     private static final String WORKFLOW_DIRECT_QA = "direct_qa_workflow";
     private static final String WORKFLOW_SKILL = "skill_workflow";
     private static final String WORKFLOW_RESEARCH = "research_workflow";
+    private static final String CACHED_PLAN_REASON = "reused cached planner decision";
 
     private final ChatSessionSupportService chatSessionSupportService;
     private final SkillPlanner skillPlanner;
     private final ObjectMapper objectMapper;
+    private final PlanCache planCache;
 
     @Value("${app.workflow.skill-score-threshold:10}")
     private int skillScoreThreshold;
 
-    @Value("${app.workflow.single-planner-rule-gap-threshold:8}")
-    private int ruleGapThreshold;
-
-    @Value("${app.workflow.single-planner-rule-auto-threshold:14}")
-    private int ruleAutoThreshold;
+    @Value("${app.workflow.single-planner-llm-confidence-threshold:0.6}")
+    private double llmConfidenceThreshold;
 
     @Value("${app.workflow.single-planner-llm-enabled:true}")
     private boolean llmPlannerEnabled;
@@ -71,46 +71,58 @@ public class DefaultSingleAgentPlanner implements SingleAgentPlanner {
 
         SkillPlan skillPlan = skillPlanner.plan(userPrompt, null, userPrompt, allowedSkills);
         SkillCandidate top = candidateAt(skillPlan, 0);
-        SkillCandidate second = candidateAt(skillPlan, 1);
         int topScore = top != null ? top.getScore() : 0;
-        int secondScore = second != null ? second.getScore() : 0;
-        int gap = topScore - secondScore;
+        double confidence = skillPlan.getConfidence();
 
         if (top == null || !skillPlan.hasSelection() || topScore < Math.max(1, skillScoreThreshold)) {
-            return directPlan("top skill score below threshold", confidenceFromScore(topScore), false);
+            return directPlan("top skill score below threshold", confidence, false);
         }
 
-        if (matchesStrongRule(userPrompt, skillPlan.getSelectedSkillKey())
-                || (topScore >= ruleAutoThreshold && gap >= Math.max(1, ruleGapThreshold))) {
+        boolean strongRule = matchesStrongRule(userPrompt, skillPlan.getSelectedSkillKey());
+        if (strongRule || confidence >= llmConfidenceThreshold) {
             return skillPlanToWorkflow(skillPlan,
                     routeWorkflowKey(skillPlan.getSelectedSkillKey()),
-                    confidenceFromScore(topScore),
-                    matchesStrongRule(userPrompt, skillPlan.getSelectedSkillKey())
-                            ? "rule matched obvious intent"
-                            : "rule matched clear score gap",
+                    confidence,
+                    strongRule ? "rule matched obvious intent" : "skill match confidence above threshold",
                     false);
         }
 
+        // Only low-confidence matches pay for a planner model round trip.
         if (llmPlannerEnabled) {
-            SingleAgentPlan llmPlan = planWithLlm(userPrompt, model, adapterRegistry, skillPlan);
+            String plannerModel = resolvePlannerModel(model);
+            String cacheKey = planCache.singleAgentKey(agent, allowedSkills, plannerModel, userPrompt);
+            SingleAgentPlan cached = planCache.getSingle(cacheKey, SingleAgentPlan.class);
+            if (cached != null && (!cached.isUseSkill() || candidateMatches(skillPlan, cached.getSelectedSkillKey()))) {
+                cached.setNormalizedInput(cached.isUseSkill() ? skillPlan.getNormalizedInput() : null);
+                cached.setReason(CACHED_PLAN_REASON);
+                return cached;
+            }
+            SingleAgentPlan llmPlan = planWithLlm(userPrompt, plannerModel, adapterRegistry, skillPlan);
             if (llmPlan != null) {
+                // The skill input and the planner's reason are written for this prompt, so only the
+                // routing decision is cached.
+                planCache.putSingle(cacheKey, new SingleAgentPlan(llmPlan.getWorkflowKey(), llmPlan.getSelectedSkillKey(),
+                        null, llmPlan.isUseSkill(), llmPlan.getConfidence(), null, true));
                 return llmPlan;
             }
         }
 
         return skillPlanToWorkflow(skillPlan,
                 routeWorkflowKey(skillPlan.getSelectedSkillKey()),
-                confidenceFromScore(topScore),
+                confidence,
                 "fallback to highest-scoring allowed skill",
                 false);
     }
 
+    private String resolvePlannerModel(String defaultModel) {
+        return StringUtils.hasText(plannerModelOverride) ? plannerModelOverride.trim() : defaultModel;
+    }
+
     private SingleAgentPlan planWithLlm(String userPrompt,
-                                        String defaultModel,
+                                        String plannerModel,
                                         LlmAdapterRegistry adapterRegistry,
                                         SkillPlan skillPlan) {
         try {
-            String plannerModel = StringUtils.hasText(plannerModelOverride) ? plannerModelOverride.trim() : defaultModel;
             LlmAdapter adapter = adapterRegistry.getAdapter(plannerModel);
             List<LlmMessage> plannerMessages = new ArrayList<>();
             plannerMessages.add(new LlmMessage("system", """
@@ -273,10 +285,6 @@ public class DefaultSingleAgentPlanner implements SingleAgentPlanner {
         return WORKFLOW_SKILL;
     }
 
-    private double confidenceFromScore(int score) {
-        return Math.max(0.05, Math.min(0.95, score / 25.0));
-    }
-
     private String extractLastUserPrompt(List<LlmMessage> messages) {
         for (int i = messages.size() - 1; i >= 0; i--) {
             LlmMessage message = messages.get(i);
@@ -0,0 +1,292 @@
+package com.harmony.backend.modules.chat.support;
+
+import com.harmony.backend.common.exception.BusinessException;
+import com.harmony.backend.modules.chat.adapter.LlmAdapterRegistry;
+import com.harmony.backend.modules.chat.config.ChatAdmissionProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Per-node admission control for generations, streaming and synchronous alike. A generation holds
+ * one global slot and one slot of its provider while it runs; when either is exhausted it waits in a
+ * weighted fair queue (start-time fair queuing: each user's requests are tagged {@code max(virtualTime, lastTag) + 1/weight}
+ * and served in tag order), so one user's burst cannot starve others and heavier-weighted roles are
+ * served proportionally more often.
+ */
+@Component
+@Slf4j
+public class ChatAdmissionService {
+
+    private static final int USER_TAG_PRUNE_THRESHOLD = 10_000;
+    private static final Duration EMIT_RETRY = Duration.ofMillis(50);
+
+    private final ChatAdmissionProperties properties;
+    private final LlmAdapterRegistry adapterRegistry;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Timer> waitTimers = new ConcurrentHashMap<>();
+
+    private final Object lock = new Object();
+    private final TreeSet<Ticket> waiting = new TreeSet<>(Comparator.comparingDouble((Ticket t) -> t.tag)
+            .thenComparingLong(t -> t.sequence));
+    private final Map<Long, Double> userTags = new HashMap<>();
+    private final Map<Long, Integer> queuedByUser = new HashMap<>();
+    private final Map<String, Integer> activeByProvider = new HashMap<>();
+    private int active;
+    private double virtualTime;
+    private long sequence;
+
+    public ChatAdmissionService(ChatAdmissionProperties properties,
+                                LlmAdapterRegistry adapterRegistry,
+                                MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.adapterRegistry = adapterRegistry;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    public void registerMetrics() {
+        Gauge.builder("chat.admission.queue.depth", this, service -> service.queueDepth())
+                .register(meterRegistry);
+        Gauge.builder("chat.admission.active", this, service -> service.activeCount())
+                .register(meterRegistry);
+    }
+
+    /**
+     * Enqueues a generation for {@code model}. The ticket is granted immediately when capacity is
+     * free; callers must always {@link Ticket#release()} it, whether it was granted or abandoned.
+     */
+    public Ticket enqueue(Long userId, String role, String model) {
+        String provider = providerOf(model);
+        if (!properties.isEnabled()) {
+            Ticket ticket = new Ticket(this, userId, provider, 0, 0, false);
+            ticket.grant.tryEmitValue(Boolean.TRUE);
+            return ticket;
+        }
+        List<Ticket> granted;
+        Ticket ticket;
+        String rejection = null;
+        synchronized (lock) {
+            Double previousTag = userTags.get(userId);
+            double start = Math.max(virtualTime, previousTag == null ? 0.0 : previousTag);
+            double tag = start + 1.0 / properties.weightFor(role);
+            userTags.put(userId, tag);
+            queuedByUser.merge(userId, 1, Integer::sum);
+            ticket = new Ticket(this, userId, provider, tag, ++sequence, true);
+            waiting.add(ticket);
+            granted = dispatch();
+            // Queue limits apply only to a ticket that has to wait: waiting tickets for a saturated
+            // provider must not turn away requests that free capacity can serve right now.
+            if (!ticket.admitted) {
+                if (waiting.size() > properties.getMaxQueueSize()) {
+                    rejection = "Server busy, please retry shortly";
+                } else if (queuedByUser.getOrDefault(userId, 0) > Math.max(1, properties.getMaxQueuedPerUser())) {
+                    rejection = "Too many pending requests, please wait for the current reply";
+                }
+                if (rejection != null) {
+                    waiting.remove(ticket);
+                    dequeued(ticket);
+                    if (previousTag == null) {
+                        userTags.remove(userId);
+                    } else {
+                        userTags.put(userId, previousTag);
+                    }
+                    renumber();
+                }
+            }
+            ticket.queued = !ticket.admitted;
+        }
+        publish(granted);
+        if (rejection != null) {
+            throw new BusinessException(429, rejection);
+        }
+        return ticket;
+    }
+
+    public int queueDepth() {
+        synchronized (lock) {
+            return waiting.size();
+        }
+    }
+
+    public int activeCount() {
+        synchronized (lock) {
+            return active;
+        }
+    }
+
+    private void release(Ticket ticket) {
+        if (!ticket.tracked) {
+            return;
+        }
+        List<Ticket> granted;
+        boolean abandoned = false;
+        synchronized (lock) {
+            if (ticket.admitted) {
+                active--;
+                activeByProvider.merge(ticket.provider, -1, Integer::sum);
+            } else if (waiting.remove(ticket)) {
+                dequeued(ticket);
+                abandoned = true;
+            }
+            granted = dispatch();
+        }
+        if (abandoned) {
+            recordWait(ticket, "abandoned");
+        }
+        publish(granted);
+    }
+
+    /**
+     * Grants waiting tickets in tag order while global capacity lasts; a ticket whose provider is
+     * saturated is skipped so it does not block requests for other providers. Caller holds the lock.
+     */
+    private List<Ticket> dispatch() {
+        List<Ticket> granted = new ArrayList<>();
+        var iterator = waiting.iterator();
+        while (iterator.hasNext() && active < properties.getMaxConcurrent()) {
+            Ticket ticket = iterator.next();
+            if (activeByProvider.getOrDefault(ticket.provider, 0) >= properties.limitFor(ticket.provider)) {
+                continue;
+            }
+            iterator.remove();
+            dequeued(ticket);
+            ticket.admitted = true;
+            active++;
+            activeByProvider.merge(ticket.provider, 1, Integer::sum);
+            virtualTime = Math.max(virtualTime, ticket.tag);
+            granted.add(ticket);
+        }
+        if (!granted.isEmpty() && userTags.size() > USER_TAG_PRUNE_THRESHOLD) {
+            // Tags at or behind the virtual clock carry no credit, so dropping them changes nothing.
+            userTags.values().removeIf(tag -> tag <= virtualTime);
+        }
+        renumber();
+        return granted;
+    }
+
+    /**
+     * Caller holds the lock.
+     */
+    private void renumber() {
+        int position = 1;
+        for (Ticket ticket : waiting) {
+            ticket.pendingPosition = position++;
+        }
+    }
+
+    private void dequeued(Ticket ticket) {
+        queuedByUser.computeIfPresent(ticket.userId, (key, count) -> count <= 1 ? null : count - 1);
+    }
+
+    /**
+     * Sink signals run subscriber code, so they are emitted outside the lock.
+     */
+    private void publish(List<Ticket> granted) {
+        for (Ticket ticket : granted) {
+            recordWait(ticket, "admitted");
+            ticket.grant.emitValue(Boolean.TRUE, Sinks.EmitFailureHandler.busyLooping(EMIT_RETRY));
+        }
+        List<Ticket> snapshot;
+        synchronized (lock) {
+            snapshot = new ArrayList<>(waiting);
+        }
+        for (Ticket ticket : snapshot) {
+            int position = ticket.pendingPosition;
+            if (position > 0 && position != ticket.publishedPosition) {
+                ticket.publishedPosition = position;
+                ticket.positions.emitNext(position, Sinks.EmitFailureHandler.busyLooping(EMIT_RETRY));
+            }
+        }
+    }
+
+    private void recordWait(Ticket ticket, String outcome) {
+        waitTimers.computeIfAbsent(ticket.provider + "|" + outcome, key -> Timer.builder("chat.admission.wait")
+                        .tag("provider", ticket.provider).tag("outcome", outcome)
+                        .register(meterRegistry))
+                .record(System.nanoTime() - ticket.enqueuedAt, TimeUnit.NANOSECONDS);
+    }
+
+    private String providerOf(String model) {
+        if (!StringUtils.hasText(model)) {
+            return "default";
+        }
+        try {
+            return adapterRegistry.getAdapter(model.trim()).providerKey();
+        } catch (Exception e) {
+            return "default";
+        }
+    }
+
+    public static final class Ticket {
+        private final ChatAdmissionService owner;
+        private final Long userId;
+        private final String provider;
+        private final double tag;
+        private final long sequence;
+        private final boolean tracked;
+        private final long enqueuedAt = System.nanoTime();
+        private final Sinks.One<Boolean> grant = Sinks.one();
+        private final Sinks.Many<Integer> positions = Sinks.many().replay().latest();
+        private final AtomicBoolean released = new AtomicBoolean(false);
+        private boolean admitted;
+        private volatile boolean queued;
+        private volatile int pendingPosition;
+        private volatile int publishedPosition;
+
+        private Ticket(ChatAdmissionService owner, Long userId, String provider, double tag, long sequence, boolean tracked) {
+            this.owner = owner;
+            this.userId = userId;
+            this.provider = provider;
+            this.tag = tag;
+            this.sequence = sequence;
+            this.tracked = tracked;
+        }
+
+        /**
+         * Queue positions (1 = next) while waiting; nothing is emitted when admitted straight away.
+         */
+        public Flux<Integer> positions() {
+            return positions.asFlux();
+        }
+
+        public Mono<Boolean> granted() {
+            return grant.asMono();
+        }
+
+        /**
+         * Whether the ticket had to wait; its grant then arrives on whichever thread freed the slot.
+         */
+        public boolean wasQueued() {
+            return queued;
+        }
+
+        public String getProvider() {
+            return provider;
+        }
+
+        public void release() {
+            if (released.compareAndSet(false, true)) {
+                owner.release(this);
+            }
+        }
+    }
+}
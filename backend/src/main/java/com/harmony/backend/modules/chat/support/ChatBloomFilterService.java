@@ -1,47 +1,108 @@
 package com.harmony.backend.modules.chat.support;
 
-import com.google.common.hash.BloomFilter;
-import com.google.common.hash.Funnels;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
-import java.nio.charset.StandardCharsets;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.net.InetAddress;
+import java.util.Map;
 
 @Component
+@Slf4j
 public class ChatBloomFilterService {
 
-    private static final int LOCK_SEGMENTS = 16;
+    private static final String MODE_REDIS = "redis";
 
-    private final BloomFilter<CharSequence> messageBloom =
-            BloomFilter.create(Funnels.stringFunnel(StandardCharsets.UTF_8), 1_000_000, 0.01);
-    private final BloomFilter<CharSequence> requestBloom =
-            BloomFilter.create(Funnels.stringFunnel(StandardCharsets.UTF_8), 1_000_000, 0.01);
-    private final ReentrantReadWriteLock[] messageLocks = createLocks();
-    private final ReentrantReadWriteLock[] requestLocks = createLocks();
+    private final RotatingBloomFilter messageBloom;
+    private final RotatingBloomFilter requestBloom;
+    private final MeterRegistry meterRegistry;
+    private final boolean shared;
+    private final boolean snapshotEnabled;
+    private final long snapshotIntervalMs;
+    private volatile long lastSnapshotAt;
+
+    public ChatBloomFilterService(StringRedisTemplate stringRedisTemplate,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${app.chat.bloom.mode:redis}") String mode,
+                                  @Value("${app.chat.bloom.expected-insertions:1000000}") long expectedInsertions,
+                                  @Value("${app.chat.bloom.fpp:0.01}") double fpp,
+                                  @Value("${app.chat.bloom.generations:3}") int generations,
+                                  @Value("${app.chat.bloom.slice-minutes:1440}") long sliceMinutes,
+                                  @Value("${app.chat.bloom.snapshot-enabled:true}") boolean snapshotEnabled,
+                                  @Value("${app.chat.bloom.snapshot-interval-ms:300000}") long snapshotIntervalMs,
+                                  @Value("${app.chat.bloom.node-id:}") String nodeId) {
+        this.meterRegistry = meterRegistry;
+        this.snapshotEnabled = snapshotEnabled;
+        this.snapshotIntervalMs = snapshotIntervalMs;
+        long insertions = Math.max(1000L, expectedInsertions);
+        double boundedFpp = Math.min(0.5, Math.max(1e-6, fpp));
+        int generationCount = Math.max(1, generations);
+        long sliceMillis = Math.max(1L, sliceMinutes) * 60_000L;
+        this.shared = MODE_REDIS.equalsIgnoreCase(mode);
+        if (shared) {
+            this.messageBloom = new RedisRotatingBloomFilter("message", insertions, boundedFpp, generationCount, sliceMillis, stringRedisTemplate);
+            this.requestBloom = new RedisRotatingBloomFilter("request", insertions, boundedFpp, generationCount, sliceMillis, stringRedisTemplate);
+        } else {
+            StringRedisTemplate snapshotStore = snapshotEnabled ? stringRedisTemplate : null;
+            String snapshotNode = resolveNodeId(nodeId);
+            this.messageBloom = new LocalRotatingBloomFilter("message", insertions, boundedFpp, generationCount, sliceMillis,
+                    snapshotStore, snapshotNode);
+            this.requestBloom = new LocalRotatingBloomFilter("request", insertions, boundedFpp, generationCount, sliceMillis,
+                    snapshotStore, snapshotNode);
+        }
+    }
+
+    /**
+     * A restarted node must find its own snapshot, so the id has to survive restarts: the configured
+     * node id, else the host name (stable for StatefulSet pods and VMs).
+     */
+    private static String resolveNodeId(String configured) {
+        if (configured != null && !configured.isBlank()) {
+            return configured.trim();
+        }
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            String host = System.getenv("HOSTNAME");
+            return host == null || host.isBlank() ? "default" : host;
+        }
+    }
+
+    @PostConstruct
+    public void init() {
+        for (Map.Entry<String, RotatingBloomFilter> entry : filters().entrySet()) {
+            RotatingBloomFilter filter = entry.getValue();
+            try {
+                filter.restore();
+            } catch (Exception e) {
+                log.warn("Bloom filter restore failed: name={}, error={}", entry.getKey(), e.getMessage());
+            }
+            Gauge.builder("chat.bloom.fill.ratio", filter, RotatingBloomFilter::fillRatio)
+                    .tag("filter", entry.getKey())
+                    .register(meterRegistry);
+            Gauge.builder("chat.bloom.expected.fpp", filter, RotatingBloomFilter::expectedFpp)
+                    .tag("filter", entry.getKey())
+                    .register(meterRegistry);
+        }
+        lastSnapshotAt = System.currentTimeMillis();
+    }
 
     public boolean mightContainMessage(String messageId) {
         if (messageId == null) {
             return false;
         }
-        Lock lock = messageLocks[indexFor(messageId)].readLock();
-        lock.lock();
-        try {
-            return messageBloom.mightContain(messageId);
-        } finally {
-            lock.unlock();
-        }
+        return mightContain(messageBloom, messageId);
     }
 
     public void putMessage(String messageId) {
         if (messageId != null && !messageId.isBlank()) {
-            Lock lock = messageLocks[indexFor(messageId)].writeLock();
-            lock.lock();
-            try {
-                messageBloom.put(messageId);
-            } finally {
-                lock.unlock();
-            }
+            put(messageBloom, messageId);
         }
     }
 
@@ -49,39 +110,73 @@ public class ChatBloomFilterService {
         if (requestId == null) {
             return false;
         }
-        String requestKey = buildRequestKey(userId, requestId);
-        Lock lock = requestLocks[indexFor(requestKey)].readLock();
-        lock.lock();
-        try {
-            return requestBloom.mightContain(requestKey);
-        } finally {
-            lock.unlock();
-        }
+        return mightContain(requestBloom, buildRequestKey(userId, requestId));
+    }
+
+    /**
+     * Whether a negative {@link #mightContainRequest} can be trusted cluster-wide. Only the shared
+     * Redis filter sees every node's requests; a local filter only knows what this node has seen.
+     */
+    public boolean isRequestFilterShared() {
+        return shared;
     }
 
     public void putRequest(Long userId, String requestId) {
         if (requestId != null && !requestId.isBlank()) {
-            String requestKey = buildRequestKey(userId, requestId);
-            Lock lock = requestLocks[indexFor(requestKey)].writeLock();
-            lock.lock();
+            put(requestBloom, buildRequestKey(userId, requestId));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.chat.bloom.maintenance-interval-ms:60000}")
+    public void maintain() {
+        long now = System.currentTimeMillis();
+        filters().forEach((name, filter) -> {
             try {
-                requestBloom.put(requestKey);
-            } finally {
-                lock.unlock();
+                filter.rotateIfDue(now);
+            } catch (Exception e) {
+                log.warn("Bloom filter rotation failed: name={}, error={}", name, e.getMessage());
             }
+        });
+        if (snapshotEnabled && now - lastSnapshotAt >= snapshotIntervalMs) {
+            snapshot();
+            lastSnapshotAt = now;
         }
     }
 
-    private ReentrantReadWriteLock[] createLocks() {
-        ReentrantReadWriteLock[] locks = new ReentrantReadWriteLock[LOCK_SEGMENTS];
-        for (int i = 0; i < LOCK_SEGMENTS; i++) {
-            locks[i] = new ReentrantReadWriteLock();
+    @PreDestroy
+    public void snapshot() {
+        if (!snapshotEnabled) {
+            return;
+        }
+        filters().forEach((name, filter) -> {
+            try {
+                filter.snapshot();
+            } catch (Exception e) {
+                log.warn("Bloom filter snapshot failed: name={}, error={}", name, e.getMessage());
+            }
+        });
+    }
+
+    private boolean mightContain(RotatingBloomFilter filter, String key) {
+        try {
+            return filter.mightContain(key);
+        } catch (Exception e) {
+            // Answer "maybe" so callers fall back to the authoritative lookup.
+            log.debug("Bloom filter lookup failed: {}", e.getMessage());
+            return true;
+        }
+    }
+
+    private void put(RotatingBloomFilter filter, String key) {
+        try {
+            filter.put(key);
+        } catch (Exception e) {
+            log.debug("Bloom filter put failed: {}", e.getMessage());
         }
-        return locks;
     }
 
-    private int indexFor(String key) {
-        return Math.floorMod(key.hashCode(), LOCK_SEGMENTS);
+    private Map<String, RotatingBloomFilter> filters() {
+        return Map.of("message", messageBloom, "request", requestBloom);
     }
 
     private String buildRequestKey(Long userId, String requestId) {
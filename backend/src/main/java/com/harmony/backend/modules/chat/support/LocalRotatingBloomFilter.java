@@ -0,0 +1,171 @@
+package com.harmony.backend.modules.chat.support;
+
+import com.google.common.hash.BloomFilter;
+import com.google.common.hash.Funnels;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Heap-backed generations. Guava's put and mightContain are thread-safe, so readers never lock;
+ * only rotation swaps the volatile generation list under a monitor.
+ */
+@Slf4j
+final class LocalRotatingBloomFilter implements RotatingBloomFilter {
+
+    private final String name;
+    private final long expectedInsertions;
+    private final double fpp;
+    private final int generationCount;
+    private final long sliceMillis;
+    private final StringRedisTemplate snapshotStore;
+    private final byte[] snapshotKey;
+
+    private volatile List<Generation> generations;
+
+    LocalRotatingBloomFilter(String name,
+                             long expectedInsertions,
+                             double fpp,
+                             int generationCount,
+                             long sliceMillis,
+                             StringRedisTemplate snapshotStore,
+                             String nodeId) {
+        this.name = name;
+        this.expectedInsertions = expectedInsertions;
+        this.fpp = fpp;
+        this.generationCount = generationCount;
+        this.sliceMillis = sliceMillis;
+        this.snapshotStore = snapshotStore;
+        // Each node's filter holds only what that node has seen, so snapshots are per node.
+        this.snapshotKey = ("bloom:snapshot:" + nodeId + ":" + name).getBytes(StandardCharsets.UTF_8);
+        this.generations = List.of(newGeneration(System.currentTimeMillis()));
+    }
+
+    @Override
+    public boolean mightContain(String value) {
+        for (Generation generation : generations) {
+            if (generation.filter().mightContain(value)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public void put(String value) {
+        Generation current = generations.get(0);
+        current.filter().put(value);
+        if (current.filter().approximateElementCount() >= expectedInsertions) {
+            rotate(current, System.currentTimeMillis());
+        }
+    }
+
+    @Override
+    public void rotateIfDue(long now) {
+        Generation current = generations.get(0);
+        if (now - current.createdAt() >= sliceMillis) {
+            rotate(current, now);
+        }
+    }
+
+    @Override
+    public double fillRatio() {
+        return Math.min(1.0, (double) generations.get(0).filter().approximateElementCount() / expectedInsertions);
+    }
+
+    @Override
+    public double expectedFpp() {
+        double miss = 1.0;
+        for (Generation generation : generations) {
+            miss *= 1.0 - generation.filter().expectedFpp();
+        }
+        return 1.0 - miss;
+    }
+
+    @Override
+    public void snapshot() {
+        if (snapshotStore == null) {
+            return;
+        }
+        List<Generation> current = generations;
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(current.size());
+            for (Generation generation : current) {
+                out.writeLong(generation.createdAt());
+                generation.filter().writeTo(out);
+            }
+        } catch (IOException e) {
+            log.warn("Bloom filter snapshot encode failed: name={}, error={}", name, e.getMessage());
+            return;
+        }
+        byte[] data = bytes.toByteArray();
+        long ttlSeconds = Math.max(60L, sliceMillis * generationCount / 1000L);
+        snapshotStore.execute((RedisCallback<Object>) connection -> {
+            connection.stringCommands().setEx(snapshotKey, ttlSeconds, data);
+            return null;
+        });
+    }
+
+    @Override
+    public void restore() {
+        if (snapshotStore == null) {
+            return;
+        }
+        byte[] data = snapshotStore.execute((RedisConnection connection) -> connection.stringCommands().get(snapshotKey));
+        if (data == null || data.length == 0) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        List<Generation> restored = new ArrayList<>();
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                long createdAt = in.readLong();
+                BloomFilter<CharSequence> filter = BloomFilter.readFrom(in, Funnels.stringFunnel(StandardCharsets.UTF_8));
+                if (now - createdAt < sliceMillis * generationCount && restored.size() < generationCount) {
+                    restored.add(new Generation(filter, createdAt));
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Bloom filter snapshot decode failed: name={}, error={}", name, e.getMessage());
+            return;
+        }
+        if (!restored.isEmpty()) {
+            synchronized (this) {
+                generations = List.copyOf(restored);
+            }
+            log.info("Bloom filter restored from snapshot: name={}, generations={}", name, restored.size());
+        }
+    }
+
+    private synchronized void rotate(Generation expected, long now) {
+        List<Generation> current = generations;
+        if (current.get(0) != expected) {
+            return;
+        }
+        List<Generation> next = new ArrayList<>(generationCount);
+        next.add(newGeneration(now));
+        for (int i = 0; i < current.size() && next.size() < generationCount; i++) {
+            next.add(current.get(i));
+        }
+        generations = List.copyOf(next);
+    }
+
+    private Generation newGeneration(long createdAt) {
+        return new Generation(BloomFilter.create(Funnels.stringFunnel(StandardCharsets.UTF_8), expectedInsertions, fpp), createdAt);
+    }
+
+    private record Generation(BloomFilter<CharSequence> filter, long createdAt) {
+    }
+}
@@ -0,0 +1,138 @@
+package com.harmony.backend.modules.chat.support;
+
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Cluster-shared generations kept as Redis bitmaps. Generation keys are derived from the time slice,
+ * so every node writes and reads the same bitmaps without coordinating rotation.
+ */
+final class RedisRotatingBloomFilter implements RotatingBloomFilter {
+
+    private static final DefaultRedisScript<Long> PUT_SCRIPT = new DefaultRedisScript<>("""
+            for i = 2, #ARGV do
+                redis.call('SETBIT', KEYS[1], ARGV[i], 1)
+            end
+            redis.call('PEXPIRE', KEYS[1], ARGV[1])
+            return 1
+            """, Long.class);
+
+    private static final DefaultRedisScript<Long> CONTAINS_SCRIPT = new DefaultRedisScript<>("""
+            for k = 1, #KEYS do
+                local present = 1
+                for i = 1, #ARGV do
+                    if redis.call('GETBIT', KEYS[k], ARGV[i]) == 0 then
+                        present = 0
+                        break
+                    end
+                end
+                if present == 1 then
+                    return 1
+                end
+            end
+            return 0
+            """, Long.class);
+
+    private final String keyPrefix;
+    private final StringRedisTemplate redisTemplate;
+    private final int generationCount;
+    private final long sliceMillis;
+    private final long bitSize;
+    private final int hashCount;
+    private volatile double fillRatio;
+
+    RedisRotatingBloomFilter(String name,
+                             long expectedInsertions,
+                             double fpp,
+                             int generationCount,
+                             long sliceMillis,
+                             StringRedisTemplate redisTemplate) {
+        // The lookup script reads every generation at once, so they share one cluster slot.
+        this.keyPrefix = "bloom:{" + name + "}:";
+        this.redisTemplate = redisTemplate;
+        this.generationCount = generationCount;
+        this.sliceMillis = sliceMillis;
+        // Redis bitmaps are capped at 2^32 bits.
+        this.bitSize = Math.min(1L << 32, Math.max(64L,
+                (long) Math.ceil(-expectedInsertions * Math.log(fpp) / (Math.log(2) * Math.log(2)))));
+        this.hashCount = Math.max(1, (int) Math.round((double) bitSize / expectedInsertions * Math.log(2)));
+    }
+
+    @Override
+    public boolean mightContain(String value) {
+        long slice = currentSlice(System.currentTimeMillis());
+        List<String> keys = new ArrayList<>(generationCount);
+        for (int i = 0; i < generationCount; i++) {
+            keys.add(keyPrefix + (slice - i));
+        }
+        Long result = redisTemplate.execute(CONTAINS_SCRIPT, keys, bitIndexes(value).toArray());
+        return result == null || result != 0L;
+    }
+
+    @Override
+    public void put(String value) {
+        long slice = currentSlice(System.currentTimeMillis());
+        List<String> args = new ArrayList<>(hashCount + 1);
+        args.add(String.valueOf(sliceMillis * generationCount));
+        args.addAll(bitIndexes(value));
+        redisTemplate.execute(PUT_SCRIPT, List.of(keyPrefix + slice), args.toArray());
+    }
+
+    @Override
+    public void rotateIfDue(long now) {
+        // Rotation is implicit in the slice-derived key; refresh the cached fill ratio instead.
+        String key = keyPrefix + currentSlice(now);
+        Long bits = redisTemplate.execute((RedisConnection connection) ->
+                connection.stringCommands().bitCount(key.getBytes(StandardCharsets.UTF_8)));
+        fillRatio = bits == null ? 0.0 : Math.min(1.0, bits / (double) bitSize * 2.0);
+    }
+
+    @Override
+    public double fillRatio() {
+        return fillRatio;
+    }
+
+    @Override
+    public double expectedFpp() {
+        // A generation at its design capacity has half of its bits set.
+        double setFraction = fillRatio / 2.0;
+        double perGeneration = Math.pow(setFraction, hashCount);
+        return 1.0 - Math.pow(1.0 - perGeneration, generationCount);
+    }
+
+    @Override
+    public void snapshot() {
+    }
+
+    @Override
+    public void restore() {
+    }
+
+    private long currentSlice(long now) {
+        return now / sliceMillis;
+    }
+
+    private List<String> bitIndexes(String value) {
+        // Same double hashing scheme as Guava's BloomFilter.
+        HashCode hash = Hashing.murmur3_128().hashString(value, StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.wrap(hash.asBytes()).order(ByteOrder.LITTLE_ENDIAN);
+        long hash1 = buffer.getLong();
+        long hash2 = buffer.getLong();
+        List<String> indexes = new ArrayList<>(hashCount);
+        long combined = hash1;
+        for (int i = 0; i < hashCount; i++) {
+            indexes.add(String.valueOf((combined & Long.MAX_VALUE) % bitSize));
+            combined += hash2;
+        }
+        return indexes;
+    }
+}
@@ -0,0 +1,35 @@
+package com.harmony.backend.modules.chat.support;
+
+/**
+ * Time-sliced Bloom filter: inserts go to the current generation, lookups consult the last few
+ * generations, and generations older than the retention window are dropped so the false-positive
+ * rate stays bounded no matter how many keys pass through.
+ */
+interface RotatingBloomFilter {
+
+    boolean mightContain(String value);
+
+    void put(String value);
+
+    /**
+     * Advances to a new generation when the current time slice has ended or it is full.
+     */
+    void rotateIfDue(long now);
+
+    /**
+     * Fraction of the current generation's capacity already used.
+     */
+    double fillRatio();
+
+    /**
+     * Probability that {@link #mightContain} answers true for a key that was never put.
+     */
+    double expectedFpp();
+
+    /**
+     * Persists the filter for warm restarts; a no-op for filters that already live in shared storage.
+     */
+    void snapshot();
+
+    void restore();
+}
@@ -0,0 +1,139 @@
+package com.harmony.backend.modules.chat.support.trace;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Turns finished {@link ChatTurnTrace}s into Micrometer timers and histograms tagged by model,
+ * provider, agent mode and RAG usage, logs slow turns with their stage breakdown and keeps the
+ * most recent and slowest turns for the {@code chatturns} actuator endpoint and the admin API.
+ */
+@Component
+@Slf4j
+public class ChatTurnMetrics {
+
+    private final MeterRegistry meterRegistry;
+    private final long slowTurnMs;
+    private final int retained;
+    private final Deque<ChatTurnSummary> recent = new ArrayDeque<>();
+    private final List<ChatTurnSummary> slowest = new ArrayList<>();
+    private final Map<MeterKey, Meter> meters = new ConcurrentHashMap<>();
+
+    public ChatTurnMetrics(MeterRegistry meterRegistry,
+                           @Value("${app.chat.metrics.slow-turn-ms:15000}") long slowTurnMs,
+                           @Value("${app.chat.metrics.retained-turns:100}") int retained) {
+        this.meterRegistry = meterRegistry;
+        this.slowTurnMs = Math.max(1, slowTurnMs);
+        this.retained = Math.max(1, retained);
+    }
+
+    public ChatTurnTrace start(String kind, String chatId) {
+        return new ChatTurnTrace(kind, chatId);
+    }
+
+    /**
+     * Records the turn once; later calls for the same trace are ignored.
+     */
+    public void finish(ChatTurnTrace trace, String outcome) {
+        if (trace == null || !trace.markFinished()) {
+            return;
+        }
+        try {
+            ChatTurnSummary summary = summarize(trace, outcome);
+            record(trace, summary);
+            retain(summary);
+            if (summary.durationMs() >= slowTurnMs) {
+                log.warn("Slow chat turn: turnId={}, kind={}, chatId={}, outcome={}, model={}, agentMode={}, rag={}, durationMs={}, ttftMs={}, stagesMs={}",
+                        summary.turnId(), summary.kind(), summary.chatId(), outcome, summary.model(), summary.agentMode(),
+                        summary.rag(), summary.durationMs(), summary.ttftMs(), summary.stagesMs());
+            }
+        } catch (Exception e) {
+            log.debug("Chat turn metrics failed: {}", e.getMessage());
+        }
+    }
+
+    public synchronized List<ChatTurnSummary> recentTurns() {
+        return new ArrayList<>(recent);
+    }
+
+    public synchronized List<ChatTurnSummary> slowestTurns() {
+        return new ArrayList<>(slowest);
+    }
+
+    private ChatTurnSummary summarize(ChatTurnTrace trace, String outcome) {
+        Map<String, Long> stagesMs = new LinkedHashMap<>();
+        trace.stages().forEach((stage, nanos) -> stagesMs.put(stage, TimeUnit.NANOSECONDS.toMillis(nanos)));
+        long ttft = trace.ttftNanos();
+        long streaming = trace.streamingNanos();
+        Double tokensPerSecond = streaming > 0 && trace.getCompletionTokens() > 0
+                ? trace.getCompletionTokens() / (streaming / 1_000_000_000.0)
+                : null;
+        return new ChatTurnSummary(trace.getTurnId(), trace.getKind(), trace.getChatId(), trace.getStartedAtMs(), outcome,
+                trace.getModel(), trace.getProvider(), trace.getAgentMode(), trace.isRagUsed(),
+                TimeUnit.NANOSECONDS.toMillis(trace.elapsedNanos()),
+                ttft < 0 ? null : TimeUnit.NANOSECONDS.toMillis(ttft),
+                trace.getCompletionTokens(), tokensPerSecond, stagesMs);
+    }
+
+    private void record(ChatTurnTrace trace, ChatTurnSummary summary) {
+        Tags dimensions = Tags.of("kind", trace.getKind(),
+                "model", trace.getModel(),
+                "provider", trace.getProvider(),
+                "agent_mode", trace.getAgentMode(),
+                "rag", trace.isRagUsed() ? "on" : "off");
+        timer("chat.turn.duration", dimensions.and("outcome", summary.outcome()))
+                .record(trace.elapsedNanos(), TimeUnit.NANOSECONDS);
+        trace.stages().forEach((stage, nanos) -> timer("chat.turn.stage", dimensions.and("stage", stage))
+                .record(nanos, TimeUnit.NANOSECONDS));
+        if (trace.ttftNanos() >= 0) {
+            timer("chat.turn.ttft", dimensions).record(trace.ttftNanos(), TimeUnit.NANOSECONDS);
+        }
+        if (summary.tokensPerSecond() != null) {
+            DistributionSummary tokensPerSecond = (DistributionSummary) meters.computeIfAbsent(
+                    new MeterKey("chat.turn.tokens_per_second", dimensions),
+                    key -> DistributionSummary.builder(key.name())
+                            .tags(key.tags())
+                            .publishPercentileHistogram()
+                            .register(meterRegistry));
+            tokensPerSecond.record(summary.tokensPerSecond());
+        }
+    }
+
+    private Timer timer(String name, Tags tags) {
+        return (Timer) meters.computeIfAbsent(new MeterKey(name, tags), key -> Timer.builder(key.name())
+                .tags(key.tags())
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+    }
+
+    private synchronized void retain(ChatTurnSummary summary) {
+        recent.addFirst(summary);
+        while (recent.size() > retained) {
+            recent.removeLast();
+        }
+        slowest.add(summary);
+        slowest.sort(Comparator.comparingLong(ChatTurnSummary::durationMs).reversed());
+        while (slowest.size() > retained) {
+            slowest.remove(slowest.size() - 1);
+        }
+    }
+
+    private record MeterKey(String name, Tags tags) {
+    }
+}
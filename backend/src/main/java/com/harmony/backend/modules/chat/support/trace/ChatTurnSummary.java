@@ -0,0 +1,19 @@
+package com.harmony.backend.modules.chat.support.trace;
+
+import java.util.Map;
+
+public record ChatTurnSummary(String turnId,
+                              String kind,
+                              String chatId,
+                              long startedAt,
+                              String outcome,
+                              String model,
+                              String provider,
+                              String agentMode,
+                              boolean rag,
+                              long durationMs,
+                              Long ttftMs,
+                              int completionTokens,
+                              Double tokensPerSecond,
+                              Map<String, Long> stagesMs) {
+}
@@ -0,0 +1,179 @@
+package com.harmony.backend.modules.chat.support.trace;
+
+import reactor.core.publisher.Mono;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Timings of one chat turn, carried explicitly through preparation, the stream orchestration and
+ * the completion callbacks (a thread-local would not survive the reactive hops). Sequential
+ * preparation code uses {@link #mark(String)} laps; callbacks wrap their work in {@code time}.
+ * Stage durations accumulate, so a stage recorded twice reports its total.
+ */
+public final class ChatTurnTrace {
+
+    public static final String STAGE_IDEMPOTENCY = "idempotency";
+    public static final String STAGE_SESSION = "session";
+    public static final String STAGE_RAG = "rag";
+    public static final String STAGE_PREPARE = "prepare";
+    public static final String STAGE_MEMORY_CONTEXT = "memory_context";
+    public static final String STAGE_FIRST_TOKEN = "first_token";
+    public static final String STAGE_STREAMING = "streaming";
+    public static final String STAGE_GENERATION = "generation";
+    public static final String STAGE_TOOL_FOLLOWUP = "tool_followup";
+    public static final String STAGE_PERSIST_AND_BILL = "persist_and_bill";
+
+    private final String turnId = UUID.randomUUID().toString();
+    private final String kind;
+    private final String chatId;
+    private final long startedAtMs = System.currentTimeMillis();
+    private final long startedAtNanos = System.nanoTime();
+    private final Map<String, Long> stageNanos = new LinkedHashMap<>();
+    private final AtomicBoolean finished = new AtomicBoolean(false);
+    private volatile String model = "unknown";
+    private volatile String provider = "unknown";
+    private volatile String agentMode = "plain";
+    private volatile boolean ragUsed;
+    private long lastMarkNanos = startedAtNanos;
+    private volatile long streamStartedNanos;
+    private volatile long firstTokenNanos;
+    private volatile int completionTokens;
+
+    ChatTurnTrace(String kind, String chatId) {
+        this.kind = kind;
+        this.chatId = chatId;
+    }
+
+    /**
+     * Records the time since the previous mark (or the start of the turn) under {@code stage}.
+     */
+    public synchronized void mark(String stage) {
+        long now = System.nanoTime();
+        addStage(stage, now - lastMarkNanos);
+        lastMarkNanos = now;
+    }
+
+    public <T> T time(String stage, Supplier<T> work) {
+        long start = System.nanoTime();
+        try {
+            return work.get();
+        } finally {
+            addStage(stage, System.nanoTime() - start);
+        }
+    }
+
+    public void time(String stage, Runnable work) {
+        time(stage, () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    /**
+     * Times {@code work} from subscription until it terminates, for stages that complete asynchronously.
+     */
+    public <T> Mono<T> time(String stage, Mono<T> work) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            return work.doFinally(signal -> addStage(stage, System.nanoTime() - start));
+        });
+    }
+
+    public synchronized void addStage(String stage, long nanos) {
+        stageNanos.merge(stage, Math.max(0, nanos), Long::sum);
+    }
+
+    public void describe(String model, String provider, String agentMode, boolean ragUsed) {
+        this.model = model == null ? "unknown" : model;
+        this.provider = provider == null ? "unknown" : provider;
+        this.agentMode = agentMode == null ? "plain" : agentMode;
+        this.ragUsed = ragUsed;
+    }
+
+    public void streamStarted() {
+        streamStartedNanos = System.nanoTime();
+    }
+
+    public void firstToken() {
+        if (firstTokenNanos == 0 && streamStartedNanos != 0) {
+            firstTokenNanos = System.nanoTime();
+            addStage(STAGE_FIRST_TOKEN, firstTokenNanos - streamStartedNanos);
+        }
+    }
+
+    public void streamEnded() {
+        if (streamStartedNanos == 0) {
+            return;
+        }
+        long from = firstTokenNanos != 0 ? firstTokenNanos : streamStartedNanos;
+        addStage(STAGE_STREAMING, System.nanoTime() - from);
+    }
+
+    public void setCompletionTokens(int completionTokens) {
+        this.completionTokens = Math.max(0, completionTokens);
+    }
+
+    boolean markFinished() {
+        return finished.compareAndSet(false, true);
+    }
+
+    synchronized Map<String, Long> stages() {
+        return new LinkedHashMap<>(stageNanos);
+    }
+
+    public String getTurnId() {
+        return turnId;
+    }
+
+    public String getKind() {
+        return kind;
+    }
+
+    public String getChatId() {
+        return chatId;
+    }
+
+    public long getStartedAtMs() {
+        return startedAtMs;
+    }
+
+    long elapsedNanos() {
+        return System.nanoTime() - startedAtNanos;
+    }
+
+    public String getModel() {
+        return model;
+    }
+
+    public String getProvider() {
+        return provider;
+    }
+
+    public String getAgentMode() {
+        return agentMode;
+    }
+
+    public boolean isRagUsed() {
+        return ragUsed;
+    }
+
+    /**
+     * Time to first token measured from the start of the turn, or -1 when no token arrived.
+     */
+    long ttftNanos() {
+        return firstTokenNanos == 0 ? -1 : firstTokenNanos - startedAtNanos;
+    }
+
+    long streamingNanos() {
+        Long streaming = stages().get(STAGE_STREAMING);
+        return streaming == null ? 0 : streaming;
+    }
+
+    int getCompletionTokens() {
+        return completionTokens;
+    }
+}
@@ -0,0 +1,29 @@
+package com.harmony.backend.modules.chat.support.trace;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * {@code /actuator/chatturns}: the most recent and the slowest chat turns on this node with their
+ * stage breakdown. Summaries carry ids and timings only, never message content.
+ */
+@Component
+@Endpoint(id = "chatturns")
+@RequiredArgsConstructor
+public class ChatTurnTraceEndpoint {
+
+    private final ChatTurnMetrics chatTurnMetrics;
+
+    @ReadOperation
+    public Map<String, Object> turns() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("recent", chatTurnMetrics.recentTurns());
+        result.put("slowest", chatTurnMetrics.slowestTurns());
+        return result;
+    }
+}
@@ -11,7 +11,9 @@ import com.harmony.backend.common.mapper.GPTMapper;
 import com.harmony.backend.common.mapper.MessageMapper;
 import com.harmony.backend.common.mapper.SessionMapper;
 import com.harmony.backend.common.response.PageResult;
+import com.harmony.backend.common.search.CatalogSearchService;
 import com.harmony.backend.common.util.PageResultUtils;
+import com.harmony.backend.modules.chat.service.support.ChatDefinitionCache;
 import com.harmony.backend.modules.gptstore.controller.request.GptUpsertRequest;
 import com.harmony.backend.modules.gptstore.service.GptStoreService;
 import lombok.RequiredArgsConstructor;
@@ -28,28 +30,23 @@ public class GptStoreServiceImpl extends ServiceImpl<GPTMapper, Gpt> implements
 
     private final SessionMapper sessionMapper;
     private final MessageMapper messageMapper;
+    private final CatalogSearchService catalogSearchService;
+    private final ChatDefinitionCache chatDefinitionCache;
 
     @Override
     public PageResult<Gpt> listPublic(int page, int size, String keyword, String category) {
+        if (StringUtils.hasText(keyword)) {
+            return PageResultUtils.from(catalogSearchService.searchPublicGpts(keyword, category, page, size));
+        }
         Page<Gpt> pageResult = new Page<>(page, size);
         LambdaQueryWrapper<Gpt> query = new LambdaQueryWrapper<>();
         query.eq(Gpt::getIsDeleted, false)
                 .eq(Gpt::getIsPublic, true);
-        if (StringUtils.hasText(keyword)) {
-            query.and(q -> q.like(Gpt::getName, keyword)
-                    .or()
-                    .like(Gpt::getDescription, keyword)
-                    .or()
-                    .like(Gpt::getCategory, keyword));
-        }
         if (StringUtils.hasText(category)) {
             query.eq(Gpt::getCategory, category);
         }
         query.orderByDesc(Gpt::getCreatedAt);
-        Page<Gpt> result = baseMapper.selectPage(pageResult, query);
-        long total = baseMapper.selectCount(query);
-        result.setTotal(total);
-        return PageResultUtils.from(result);
+        return PageResultUtils.from(baseMapper.selectPage(pageResult, query));
     }
 
     @Override
@@ -119,6 +116,9 @@ public class GptStoreServiceImpl extends ServiceImpl<GPTMapper, Gpt> implements
         }
 
         baseMapper.insert(gpt);
+        if (Boolean.TRUE.equals(gpt.getIsPublic())) {
+            catalogSearchService.invalidateGpts();
+        }
         return gpt;
     }
 
@@ -137,6 +137,7 @@ public class GptStoreServiceImpl extends ServiceImpl<GPTMapper, Gpt> implements
         if (!isAdmin && Boolean.TRUE.equals(gpt.getIsPublic())) {
             throw new BusinessException(403, "Public GPT can only be updated by admin");
         }
+        boolean wasPublic = Boolean.TRUE.equals(gpt.getIsPublic());
         boolean updated = applyUpdates(gpt, request);
 
         boolean requestPublic = Boolean.TRUE.equals(request.getRequestPublic());
@@ -151,6 +152,12 @@ public class GptStoreServiceImpl extends ServiceImpl<GPTMapper, Gpt> implements
         }
 
         baseMapper.updateById(gpt);
+        chatDefinitionCache.invalidateGpt(gptId);
+        boolean isPublic = Boolean.TRUE.equals(gpt.getIsPublic());
+        // Private GPTs are not in the catalog index, so editing them must not force a rebuild.
+        if (wasPublic != isPublic || (isPublic && updated)) {
+            catalogSearchService.invalidateGpts();
+        }
         return gpt;
     }
 
@@ -183,6 +190,10 @@ public class GptStoreServiceImpl extends ServiceImpl<GPTMapper, Gpt> implements
             );
         }
         if (ok) {
+            chatDefinitionCache.invalidateGpt(gptId);
+            if (Boolean.TRUE.equals(gpt.getIsPublic())) {
+                catalogSearchService.invalidateGpts();
+            }
             cleanupGptSessions(gptId);
         }
         return ok;
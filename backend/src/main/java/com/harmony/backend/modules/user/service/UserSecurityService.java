@@ -33,4 +33,9 @@ public interface UserSecurityService {
      * Read a short-lived cached user snapshot for auth hot paths.
      */
     User getCachedUser(Long userId);
+
+    /**
+     * Drop the cached user snapshot on every node after the user row changes.
+     */
+    void evictCachedUser(Long userId);
 }
@@ -1,9 +1,14 @@
 
 package com.harmony.backend.modules.user.service.impl;
 
+import com.harmony.backend.common.cache.NearCache;
+import com.harmony.backend.common.cache.NearCacheManager;
+import com.harmony.backend.common.cache.NearCacheNames;
 import com.harmony.backend.common.entity.User;
 import com.harmony.backend.common.mapper.UserMapper;
+import com.harmony.backend.common.util.AccessTokenVerifier;
 import com.harmony.backend.modules.user.service.UserSecurityService;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Qualifier;
@@ -13,7 +18,6 @@ import org.springframework.stereotype.Service;
 
 import java.time.Duration;
 import java.util.Date;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executor;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
@@ -28,13 +32,32 @@ public class UserSecurityServiceImpl implements UserSecurityService {
 
     private final RedisTemplate<String, String> redisTemplate;
     private final UserMapper userMapper;
+    private final AccessTokenVerifier accessTokenVerifier;
     @Qualifier("userActivityExecutor")
     private final Executor userActivityExecutor;
 
-    @Value("${app.auth.user-cache-ttl-ms:3000}")
+    private final NearCacheManager nearCacheManager;
+
+    @Value("${app.auth.user-cache-ttl-ms:60000}")
     private long userCacheTtlMs;
 
-    private final ConcurrentHashMap<Long, CachedUser> userCache = new ConcurrentHashMap<>();
+    @Value("${app.auth.user-cache-refresh-ms:3000}")
+    private long userCacheRefreshMs;
+
+    @Value("${app.auth.user-cache-max-entries:10000}")
+    private long userCacheMaxEntries;
+
+    private NearCache<User> userCache;
+
+    @PostConstruct
+    public void initUserCache() {
+        userCache = nearCacheManager.<User>builder(NearCacheNames.USERS)
+                .maximumSize(userCacheMaxEntries)
+                .expireAfterWrite(Duration.ofMillis(userCacheTtlMs))
+                .refreshAfterWrite(Duration.ofMillis(userCacheRefreshMs))
+                .loader(key -> copyUser(userMapper.selectById(Long.valueOf(key))))
+                .build();
+    }
 
     // Redis Key
     private static final String TOKEN_BLACKLIST_KEY_PREFIX = "token:blacklist:";
@@ -81,6 +104,7 @@ public class UserSecurityServiceImpl implements UserSecurityService {
                 7,
                 TimeUnit.DAYS
         );
+        accessTokenVerifier.evictIssuedBefore(userId, issuedAt);
     }
 
     @Override
@@ -104,15 +128,14 @@ public class UserSecurityServiceImpl implements UserSecurityService {
         if (userId == null) {
             return null;
         }
-        CachedUser cachedUser = userCache.get(userId);
-        long now = System.currentTimeMillis();
-        if (cachedUser != null && !cachedUser.isExpired(now)) {
-            return cachedUser.user();
+        return userCache.get(String.valueOf(userId));
+    }
+
+    @Override
+    public void evictCachedUser(Long userId) {
+        if (userId != null) {
+            userCache.invalidate(String.valueOf(userId));
         }
-        User user = userMapper.selectById(userId);
-        User snapshot = copyUser(user);
-        userCache.put(userId, new CachedUser(snapshot, now + userCacheTtlMs));
-        return snapshot;
     }
 
     private User copyUser(User user) {
@@ -136,10 +159,4 @@ public class UserSecurityServiceImpl implements UserSecurityService {
                 .deleted(user.getDeleted())
                 .build();
     }
-
-    private record CachedUser(User user, long expiresAt) {
-        private boolean isExpired(long now) {
-            return now > expiresAt;
-        }
-    }
 }
@@ -335,7 +335,9 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements IU
             user.setAvatarUrl(userUpdateDTO.getAvatarUrl());
         }
 
-        return updateById(user);
+        boolean updated = updateById(user);
+        userSecurityService.evictCachedUser(userId);
+        return updated;
     }
 
     @Override
@@ -381,6 +383,7 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User> implements IU
         boolean success = userMapper.updateById(updateUser) > 0;
 
         if (success) {
+            userSecurityService.evictCachedUser(userId);
             logPasswordChange(userId, strength);
         }
 
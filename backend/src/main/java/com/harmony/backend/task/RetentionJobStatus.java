@@ -0,0 +1,28 @@
+package com.harmony.backend.task;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RetentionJobStatus {
+    private String name;
+    private boolean enabled;
+    private String cron;
+    private int retentionDays;
+    private boolean running;
+    private LocalDateTime nextRunAt;
+    private LocalDateTime lastStartedAt;
+    private LocalDateTime lastFinishedAt;
+    private long lastDurationMs;
+    private long lastDeleted;
+    private long totalDeleted;
+    private String lastOutcome;
+    private String lastError;
+}
@@ -1,4 +1,393 @@
 package com.harmony.backend.task;
 
-public class SessionCleanTask {
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.harmony.backend.ai.agent.runtime.AgentRunStatus;
+import com.harmony.backend.common.config.RetentionProperties;
+import com.harmony.backend.common.entity.Message;
+import com.harmony.backend.common.entity.Session;
+import com.harmony.backend.common.exception.BusinessException;
+import com.harmony.backend.common.mapper.RetentionMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+import org.springframework.scheduling.support.CronExpression;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Scheduled retention for the unbounded tables. Each job walks expired rows by primary key in
+ * small batches, pausing between batches so it never holds long locks or saturates MySQL, and
+ * takes a Redis lock so only one node runs a given job at a time.
+ */
+@Component
+@Slf4j
+public class SessionCleanTask implements SchedulingConfigurer {
+
+    private static final String LOCK_PREFIX = "retention:lock:";
+    private static final String SESSION_ARCHIVE = "session-archive";
+    private static final DefaultRedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('GET', KEYS[1]) == ARGV[1] then return redis.call('DEL', KEYS[1]) end return 0",
+            Long.class);
+    private static final DateTimeFormatter ARCHIVE_NAME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+    private static final String TERMINAL_RUN = "status IN ('" + AgentRunStatus.COMPLETED + "','"
+            + AgentRunStatus.FAILED + "','" + AgentRunStatus.CANCELLED + "')";
+
+    private final RetentionMapper retentionMapper;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RetentionProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final ObjectMapper objectMapper;
+    private final Executor taskExecutor;
+
+    private final Map<String, Job> jobs = new LinkedHashMap<>();
+    private final Map<String, RetentionJobStatus> statuses = new ConcurrentHashMap<>();
+
+    public SessionCleanTask(RetentionMapper retentionMapper,
+                            StringRedisTemplate stringRedisTemplate,
+                            RetentionProperties properties,
+                            MeterRegistry meterRegistry,
+                            ObjectMapper objectMapper,
+                            @Qualifier("taskExecutor") Executor taskExecutor) {
+        this.retentionMapper = retentionMapper;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.objectMapper = objectMapper;
+        this.taskExecutor = taskExecutor;
+
+        register(new Job("idempotency", "0 10 3 * * *", 7,
+                "chat_request_idempotency", "created_at", null, this::deleteByIds));
+        register(new Job("system-log", "0 20 3 * * *", 90,
+                "system_log", "created_at", null, this::deleteByIds));
+        register(new Job("login-log", "0 30 3 * * *", 180,
+                "login_log", "login_time", null, this::deleteByIds));
+        register(new Job("token-consumption", "0 40 3 * * *", 365,
+                "token_consumption", "created_at", null, this::deleteByIds));
+        register(new Job("agent-run", "0 50 3 * * *", 30,
+                "agent_run", "completed_at", TERMINAL_RUN, this::deleteAgentRuns));
+        register(new Job(SESSION_ARCHIVE, "0 0 4 * * *", 30,
+                "chat_session", "updated_at", "is_deleted = 1", this::archiveSessions));
+        // Soft-deleted messages of live sessions (regenerated branches, edits); messages of deleted
+        // sessions are left for session-archive so they end up in the archive file.
+        register(new Job("message-compact", "0 30 4 * * *", 30,
+                "message", "updated_at",
+                "is_deleted = 1 AND EXISTS (SELECT 1 FROM chat_session s WHERE s.chat_id = message.chat_id AND s.is_deleted = 0)",
+                this::deleteByIds));
+    }
+
+    @Override
+    public void configureTasks(ScheduledTaskRegistrar registrar) {
+        if (!properties.isEnabled()) {
+            log.info("Retention jobs disabled");
+            return;
+        }
+        if (archiveDir() == null) {
+            log.warn("Retention job {} disabled: app.retention.archive-dir must be an absolute path on durable storage",
+                    SESSION_ARCHIVE);
+        }
+        for (Job job : jobs.values()) {
+            if (isEnabled(job)) {
+                registrar.addCronTask(() -> runJob(job), cronOf(job));
+            }
+        }
+    }
+
+    public List<RetentionJobStatus> listJobs() {
+        List<RetentionJobStatus> result = new ArrayList<>();
+        for (Job job : jobs.values()) {
+            result.add(snapshot(job));
+        }
+        return result;
+    }
+
+    /**
+     * Starts a job out of schedule on the task executor; the Redis lock still applies, so a
+     * trigger while another node is running the job is a no-op.
+     */
+    public RetentionJobStatus triggerJob(String name) {
+        Job job = jobs.get(name);
+        if (job == null) {
+            throw new BusinessException(404, "Unknown retention job: " + name);
+        }
+        if (SESSION_ARCHIVE.equals(name) && archiveDir() == null) {
+            throw new BusinessException(400, "app.retention.archive-dir must be an absolute path on durable storage");
+        }
+        taskExecutor.execute(() -> runJob(job));
+        return snapshot(job);
+    }
+
+    private void register(Job job) {
+        jobs.put(job.name(), job);
+        statuses.put(job.name(), RetentionJobStatus.builder().name(job.name()).build());
+    }
+
+    private void runJob(Job job) {
+        RetentionJobStatus status = statuses.get(job.name());
+        String lockKey = LOCK_PREFIX + job.name();
+        String token = UUID.randomUUID().toString();
+        Boolean locked;
+        try {
+            locked = stringRedisTemplate.opsForValue()
+                    .setIfAbsent(lockKey, token, Duration.ofSeconds(Math.max(60, properties.getLockTtlSeconds())));
+        } catch (Exception e) {
+            log.warn("Retention lock unavailable, skipping run: job={}, error={}", job.name(), e.getMessage());
+            return;
+        }
+        if (!Boolean.TRUE.equals(locked)) {
+            log.debug("Retention job already running on another node: job={}", job.name());
+            return;
+        }
+
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(retentionDaysOf(job));
+        long startNanos = System.nanoTime();
+        synchronized (status) {
+            status.setRunning(true);
+            status.setLastStartedAt(LocalDateTime.now());
+        }
+        long deleted = 0;
+        String outcome = "success";
+        String error = null;
+        try {
+            deleted = purge(job, cutoff);
+        } catch (Exception e) {
+            outcome = "failure";
+            error = e.getMessage();
+            log.warn("Retention job failed: job={}, error={}", job.name(), e.getMessage());
+        } finally {
+            long elapsedNanos = System.nanoTime() - startNanos;
+            releaseLock(lockKey, token);
+            synchronized (status) {
+                status.setRunning(false);
+                status.setLastFinishedAt(LocalDateTime.now());
+                status.setLastDurationMs(TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+                status.setLastDeleted(deleted);
+                status.setTotalDeleted(status.getTotalDeleted() + deleted);
+                status.setLastOutcome(outcome);
+                status.setLastError(error);
+            }
+            Counter.builder("retention.rows.deleted").tag("job", job.name()).register(meterRegistry).increment(deleted);
+            Timer.builder("retention.job.duration").tag("job", job.name()).tag("outcome", outcome)
+                    .register(meterRegistry).record(elapsedNanos, TimeUnit.NANOSECONDS);
+        }
+        if (deleted > 0) {
+            log.info("Retention job finished: job={}, deleted={}, cutoff={}", job.name(), deleted, cutoff);
+        }
+    }
+
+    private long purge(Job job, LocalDateTime cutoff) throws Exception {
+        int batchSize = Math.max(1, properties.getBatchSize());
+        int maxBatches = Math.max(1, properties.getMaxBatchesPerRun());
+        long afterId = 0;
+        long deleted = 0;
+        for (int batch = 0; batch < maxBatches; batch++) {
+            List<Long> ids = retentionMapper.selectExpiredIds(job.table(), job.timeColumn(), job.condition(),
+                    cutoff, afterId, batchSize);
+            if (ids.isEmpty()) {
+                break;
+            }
+            deleted += job.handler().handle(job, ids);
+            afterId = ids.get(ids.size() - 1);
+            if (ids.size() < batchSize) {
+                break;
+            }
+            pause();
+        }
+        return deleted;
+    }
+
+    private long deleteByIds(Job job, List<Long> ids) {
+        return retentionMapper.deleteByColumnIn(job.table(), "id", ids);
+    }
+
+    private long deleteAgentRuns(Job job, List<Long> ids) {
+        retentionMapper.deleteByColumnIn("agent_run_step", "run_id", ids);
+        return retentionMapper.deleteByColumnIn(job.table(), "id", ids);
+    }
+
+    private long archiveSessions(Job job, List<Long> ids) throws IOException {
+        Path dir = archiveDir();
+        if (dir == null) {
+            throw new IllegalStateException("app.retention.archive-dir is not configured");
+        }
+        List<Session> sessions = retentionMapper.selectSessionsIncludingDeleted(ids);
+        List<String> chatIds = sessions.stream().map(Session::getChatId).filter(id -> id != null).toList();
+
+        // The archive must be on disk before anything is deleted; a write failure aborts the run.
+        writeArchive(dir, ids.get(0), sessions);
+        if (!chatIds.isEmpty()) {
+            deleteMessagesInBatches(chatIds);
+        }
+        return retentionMapper.deleteByColumnIn(job.table(), "id", ids);
+    }
+
+    /**
+     * One line per session; its messages are paged by id and streamed into the line, so a long
+     * conversation is never held in memory as a whole.
+     */
+    private void writeArchive(Path dir, Long firstId, List<Session> sessions) throws IOException {
+        int pageSize = Math.max(1, properties.getBatchSize());
+        Files.createDirectories(dir);
+        Path file = dir.resolve("sessions-" + LocalDateTime.now().format(ARCHIVE_NAME) + "-" + firstId + ".jsonl.gz");
+        try (BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(
+                new GZIPOutputStream(Files.newOutputStream(file)), StandardCharsets.UTF_8))) {
+            for (Session session : sessions) {
+                try (JsonGenerator generator = objectMapper.getFactory().createGenerator(writer)) {
+                    generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                    generator.disable(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM);
+                    generator.writeStartObject();
+                    generator.writeFieldName("session");
+                    objectMapper.writeValue(generator, session);
+                    generator.writeArrayFieldStart("messages");
+                    if (session.getChatId() != null) {
+                        long afterId = 0;
+                        List<Message> page;
+                        do {
+                            page = retentionMapper.selectChatMessagesIncludingDeleted(session.getChatId(), afterId, pageSize);
+                            for (Message message : page) {
+                                objectMapper.writeValue(generator, message);
+                            }
+                            if (!page.isEmpty()) {
+                                afterId = page.get(page.size() - 1).getId();
+                            }
+                        } while (page.size() == pageSize);
+                    }
+                    generator.writeEndArray();
+                    generator.writeEndObject();
+                }
+                writer.newLine();
+            }
+        }
+    }
+
+    private void deleteMessagesInBatches(List<String> chatIds) {
+        int batchSize = Math.max(1, properties.getBatchSize());
+        int removed;
+        do {
+            removed = retentionMapper.deleteByColumnInLimit("message", "chat_id", chatIds, batchSize);
+            if (removed == batchSize) {
+                pause();
+            }
+        } while (removed == batchSize);
+    }
+
+    private Path archiveDir() {
+        String configured = properties.getArchiveDir();
+        if (configured == null || configured.isBlank()) {
+            return null;
+        }
+        Path dir = Paths.get(configured.trim());
+        return dir.isAbsolute() ? dir : null;
+    }
+
+    private void pause() {
+        long pauseMs = properties.getBatchPauseMs();
+        if (pauseMs <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(pauseMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Retention job interrupted", e);
+        }
+    }
+
+    private void releaseLock(String lockKey, String token) {
+        try {
+            stringRedisTemplate.execute(RELEASE_SCRIPT, List.of(lockKey), token);
+        } catch (Exception e) {
+            log.warn("Retention lock release failed, it will expire: key={}, error={}", lockKey, e.getMessage());
+        }
+    }
+
+    private RetentionJobStatus snapshot(Job job) {
+        RetentionJobStatus status = statuses.get(job.name());
+        RetentionJobStatus copy;
+        synchronized (status) {
+            copy = RetentionJobStatus.builder()
+                    .name(job.name())
+                    .running(status.isRunning())
+                    .lastStartedAt(status.getLastStartedAt())
+                    .lastFinishedAt(status.getLastFinishedAt())
+                    .lastDurationMs(status.getLastDurationMs())
+                    .lastDeleted(status.getLastDeleted())
+                    .totalDeleted(status.getTotalDeleted())
+                    .lastOutcome(status.getLastOutcome())
+                    .lastError(status.getLastError())
+                    .build();
+        }
+        boolean enabled = properties.isEnabled() && isEnabled(job);
+        copy.setEnabled(enabled);
+        copy.setCron(cronOf(job));
+        copy.setRetentionDays(retentionDaysOf(job));
+        if (enabled) {
+            try {
+                copy.setNextRunAt(CronExpression.parse(cronOf(job)).next(LocalDateTime.now()));
+            } catch (IllegalArgumentException e) {
+                copy.setLastError("Invalid cron: " + cronOf(job));
+            }
+        }
+        return copy;
+    }
+
+    private boolean isEnabled(Job job) {
+        if (SESSION_ARCHIVE.equals(job.name()) && archiveDir() == null) {
+            return false;
+        }
+        RetentionProperties.Job override = properties.getJobs().get(job.name());
+        return override == null || override.getEnabled() == null || override.getEnabled();
+    }
+
+    private String cronOf(Job job) {
+        RetentionProperties.Job override = properties.getJobs().get(job.name());
+        return override != null && override.getCron() != null && !override.getCron().isBlank()
+                ? override.getCron() : job.defaultCron();
+    }
+
+    private int retentionDaysOf(Job job) {
+        RetentionProperties.Job override = properties.getJobs().get(job.name());
+        int days = override != null && override.getRetentionDays() != null
+                ? override.getRetentionDays() : job.defaultRetentionDays();
+        return Math.max(1, days);
+    }
+
+    @FunctionalInterface
+    private interface BatchHandler {
+        long handle(Job job, List<Long> ids) throws Exception;
+    }
+
+    private record Job(String name,
+                       String defaultCron,
+                       int defaultRetentionDays,
+                       String table,
+                       String timeColumn,
+                       String condition,
+                       BatchHandler handler) {
+    }
 }
@@ -0,0 +1,54 @@
+package com.harmony.backend.ai.skill;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SkillMatchIndexTest {
+
+    private static final List<String> SKILLS = List.of("time_lookup", "calculation", "translation");
+
+    private final SkillMatchIndex index = SkillMatchIndex.build(List.of(
+                    skill("time_lookup", "Time lookup", "Current time in a timezone", "datetime"),
+                    skill("calculation", "Calculator", "Evaluate arithmetic expressions", "calculator"),
+                    skill("translation", "Translator", "Translate text between languages", "translation")),
+            Map.of(
+                    "time_lookup", List.of("time", "timezone", "date", "clock", "时间"),
+                    "calculation", List.of("calculate", "compute", "math"),
+                    "translation", List.of("translate", "翻译")));
+
+    @Test
+    void shortAliasesDoNotMatchInsideOtherWords() {
+        assertThat(index.score("update this paragraph", SKILLS)).doesNotContainKey("time_lookup");
+        assertThat(index.score("sometimes I write long sentences", SKILLS)).doesNotContainKey("time_lookup");
+        assertThat(index.score("the aftermath of the storm", SKILLS)).doesNotContainKey("calculation");
+    }
+
+    @Test
+    void wholeWordAliasesStillMatch() {
+        assertThat(index.score("what time is it in Tokyo", SKILLS)).containsKey("time_lookup");
+        assertThat(index.score("help me with this math problem", SKILLS)).containsKey("calculation");
+    }
+
+    @Test
+    void multiWordPhrasesMatchAcrossSeparators() {
+        Map<String, Integer> underscored = index.score("run time_lookup for Paris", SKILLS);
+        Map<String, Integer> spaced = index.score("run time lookup for Paris", SKILLS);
+
+        assertThat(underscored).containsKey("time_lookup");
+        assertThat(spaced.get("time_lookup")).isEqualTo(underscored.get("time_lookup"));
+    }
+
+    @Test
+    void cjkAliasesMatchAsSubstrings() {
+        assertThat(index.score("请帮我翻译这段话", SKILLS)).containsKey("translation");
+        assertThat(index.score("现在北京时间几点", SKILLS)).containsKey("time_lookup");
+    }
+
+    private static AgentSkillDefinition skill(String key, String name, String description, String toolKey) {
+        return new AgentSkillDefinition(key, name, description, List.of(toolKey), null, null, null);
+    }
+}
@@ -0,0 +1,92 @@
+package com.harmony.backend.ai.skill.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.harmony.backend.ai.skill.AgentSkillDefinition;
+import com.harmony.backend.ai.skill.AgentSkillRegistry;
+import com.harmony.backend.ai.skill.SkillExecutionRequest;
+import com.harmony.backend.ai.skill.SkillExecutionResult;
+import com.harmony.backend.ai.skill.SkillStepDefinition;
+import com.harmony.backend.ai.tool.ToolExecutionRequest;
+import com.harmony.backend.ai.tool.ToolExecutionResult;
+import com.harmony.backend.ai.tool.ToolExecutor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class DefaultSkillExecutorTest {
+
+    private final AgentSkillRegistry registry = mock(AgentSkillRegistry.class);
+    private final ToolExecutor toolExecutor = mock(ToolExecutor.class);
+    private final DefaultSkillExecutor executor = new DefaultSkillExecutor(registry, toolExecutor, new ObjectMapper());
+
+    @BeforeEach
+    void configure() {
+        ReflectionTestUtils.setField(executor, "maxPipelineSteps", 4);
+        ReflectionTestUtils.setField(executor, "pipelineDeadlineMs", 30_000L);
+    }
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void failedPipelineReportsTokensOfStepsThatRan() {
+        pipeline(new SkillStepDefinition("search", null), new SkillStepDefinition("summarize", null));
+        when(toolExecutor.execute(any())).thenAnswer(invocation -> {
+            String toolKey = invocation.<ToolExecutionRequest>getArgument(0).getToolKey();
+            if ("search".equals(toolKey)) {
+                return ToolExecutionResult.ok("results", "model-a", 100, 20);
+            }
+            return new ToolExecutionResult(false, null, "summarize failed", "model-a", 50, 5);
+        });
+
+        SkillExecutionResult result = executor.execute(new SkillExecutionRequest("research", "query", null));
+
+        assertThat(result.isSuccess()).isFalse();
+        assertThat(result.getError()).isEqualTo("summarize failed");
+        assertThat(result.getPromptTokens()).isEqualTo(150);
+        assertThat(result.getCompletionTokens()).isEqualTo(25);
+        assertThat(result.getModel()).isEqualTo("model-a");
+        assertThat(result.getUsedTools()).containsExactly("search", "summarize");
+    }
+
+    @Test
+    void deadlineInterruptsRunningStep() throws InterruptedException {
+        ReflectionTestUtils.setField(executor, "pipelineDeadlineMs", 1000L);
+        pipeline(new SkillStepDefinition("slow", null), new SkillStepDefinition("after", null));
+        CountDownLatch interrupted = new CountDownLatch(1);
+        when(toolExecutor.execute(any())).thenAnswer(invocation -> {
+            try {
+                Thread.sleep(30_000);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+                Thread.currentThread().interrupt();
+            }
+            return ToolExecutionResult.fail("interrupted");
+        });
+
+        SkillExecutionResult result = executor.execute(new SkillExecutionRequest("research", "query", null));
+
+        assertThat(result.isSuccess()).isFalse();
+        assertThat(result.getError()).contains("timed out");
+        assertThat(interrupted.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    private void pipeline(SkillStepDefinition... steps) {
+        List<SkillStepDefinition> stepConfig = List.of(steps);
+        List<String> toolKeys = stepConfig.stream().map(SkillStepDefinition::getToolKey).toList();
+        when(registry.get("research")).thenReturn(new AgentSkillDefinition("research", "Research", "Research a topic",
+                toolKeys, "pipeline", null, stepConfig));
+    }
+}
@@ -0,0 +1,109 @@
+package com.harmony.backend.ai.tool.impl;
+
+import com.harmony.backend.ai.tool.AgentToolDefinition;
+import com.harmony.backend.ai.tool.AgentToolRegistry;
+import com.harmony.backend.ai.tool.ExecutableAgentTool;
+import com.harmony.backend.ai.tool.ToolExecutionRequest;
+import com.harmony.backend.ai.tool.ToolExecutionResult;
+import com.harmony.backend.ai.tool.config.ToolRuntimeProperties;
+import com.harmony.backend.common.cache.NearCacheManager;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class DefaultToolExecutorTest {
+
+    private static final String TOOL = "slow_tool";
+
+    private final CountDownLatch unblock = new CountDownLatch(1);
+    private DefaultToolExecutor executor;
+
+    @AfterEach
+    void shutdown() {
+        unblock.countDown();
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void timedOutCallKeepsItsPermitUntilTheToolReturns() {
+        executor = executorWith(new BlockingTool(unblock));
+
+        ToolExecutionResult timedOut = executor.execute(request());
+        assertThat(timedOut.getMetadata()).containsEntry("tool_outcome", "timeout");
+
+        ToolExecutionResult rejected = executor.execute(request());
+        assertThat(rejected.getMetadata()).containsEntry("tool_outcome", "rejected");
+
+        unblock.countDown();
+        await().atMost(5, TimeUnit.SECONDS)
+                .until(() -> executor.execute(request()).isSuccess());
+    }
+
+    private DefaultToolExecutor executorWith(ExecutableAgentTool tool) {
+        AgentToolRegistry registry = mock(AgentToolRegistry.class);
+        when(registry.listAll()).thenReturn(List.of(new AgentToolDefinition(TOOL, "Slow tool", "Blocks until released")));
+        when(registry.getExecutable(TOOL)).thenReturn(tool);
+        ToolRuntimeProperties properties = new ToolRuntimeProperties();
+        properties.setDefaultMaxConcurrency(1);
+        properties.setDefaultTimeoutMs(200);
+        properties.setBulkheadWaitMs(0);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        NearCacheManager cacheManager = new NearCacheManager(mock(StringRedisTemplate.class),
+                mock(RedisMessageListenerContainer.class), meterRegistry, Runnable::run);
+        DefaultToolExecutor toolExecutor = new DefaultToolExecutor(registry, List.of(), List.of(tool), properties,
+                cacheManager, meterRegistry);
+        toolExecutor.init();
+        return toolExecutor;
+    }
+
+    private ToolExecutionRequest request() {
+        return new ToolExecutionRequest(TOOL, "input", null, null, null);
+    }
+
+    /**
+     * Ignores interrupts the way blocking third-party clients often do.
+     */
+    private record BlockingTool(CountDownLatch unblock) implements ExecutableAgentTool {
+
+        @Override
+        public ToolExecutionResult execute(ToolExecutionRequest request) {
+            boolean released = false;
+            while (!released) {
+                try {
+                    released = unblock.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException ignored) {
+                    // keep holding the slot, like a client stuck in a socket read
+                }
+            }
+            return ToolExecutionResult.ok("done");
+        }
+
+        @Override
+        public String getKey() {
+            return TOOL;
+        }
+
+        @Override
+        public String getName() {
+            return "Slow tool";
+        }
+
+        @Override
+        public String getDescription() {
+            return "Blocks until released";
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.harmony.backend.ai.tool.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.harmony.backend.ai.tool.service.SearchProviderHealthService;
+import com.harmony.backend.ai.tool.service.ToolSearchSettingsService;
+import com.harmony.backend.ai.tool.service.WebSearchCacheService;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class HtmlTextExtractorTest {
+
+    private static final String SENTENCE = "The quick brown fox jumps over the lazy dog again";
+
+    @Test
+    void skipsScriptStyleAndPageChrome() throws IOException {
+        String html = "<html><head><style>p { color: red; } .hidden { display: none }</style></head><body>"
+                + "<header><p>Site header navigation text that is long enough to count.</p></header>"
+                + "<nav><ul><li>Navigation entry that should never reach the output text.</li></ul></nav>"
+                + "<script>var x = '<p>Injected script sentence that is long enough.</p>';</script>"
+                + "<p>" + SENTENCE + ".</p>"
+                + "<footer><div><footer>Nested footer copyright line that is long enough.</footer></div>"
+                + "Outer footer trailing text that is also long enough.</footer>"
+                + "</body></html>";
+
+        String text = extract(html, 1000, 1000);
+
+        assertThat(text).isEqualTo(SENTENCE + ".");
+    }
+
+    @Test
+    void byteCapInsideATagDropsThePartialTag() throws IOException {
+        String html = "<p>" + SENTENCE + ".</p><a href=\"https://example.com/very/long/path\">More</a>";
+        int cut = html.indexOf("example.com");
+
+        String text = extract(html, cut, 1000);
+
+        assertThat(text).isEqualTo(SENTENCE + ".");
+    }
+
+    @Test
+    void byteCapInsideAMultiByteCharacterKeepsTheDecodedPrefix() throws IOException {
+        String sentence = "这是一个足够长的中文句子用于测试字节上限在多字节字符中间截断的情况下仍然可以正常工作";
+        String html = "<p>" + sentence + "。" + sentence + "。</p>";
+        byte[] bytes = html.getBytes(StandardCharsets.UTF_8);
+        int firstEnd = ("<p>" + sentence + "。").getBytes(StandardCharsets.UTF_8).length;
+        // Stop one byte into the 36th three-byte character of the second sentence.
+        int cut = firstEnd + 35 * 3 + 1;
+
+        String text = HtmlTextExtractor.extractReadableText(new ByteArrayInputStream(bytes),
+                StandardCharsets.UTF_8, cut, 1000);
+
+        assertThat(text).isEqualTo(sentence + ". " + sentence.substring(0, 35) + "\uFFFD.");
+    }
+
+    @Test
+    void decodesNamedAndNumericEntities() {
+        String text = HtmlTextExtractor.toPlainText("Tom &amp; Jerry&nbsp;&lt;b&gt; &quot;q&quot; &apos;a&apos; &#65;&#x42;&#X43;");
+
+        assertThat(text).isEqualTo("Tom & Jerry <b> \"q\" 'a' ABC");
+    }
+
+    @Test
+    void leavesUnknownOrUnterminatedEntitiesAsText() {
+        assertThat(HtmlTextExtractor.toPlainText("a &bogus; b")).isEqualTo("a &bogus; b");
+        assertThat(HtmlTextExtractor.toPlainText("fish &chips")).isEqualTo("fish &chips");
+        assertThat(HtmlTextExtractor.toPlainText("bad &#xZZ; ref")).isEqualTo("bad &#xZZ; ref");
+    }
+
+    @Test
+    void stopsReadingOnceMaxCharsIsReached() throws IOException {
+        StringBuilder html = new StringBuilder("<div>");
+        for (int i = 0; i < 50; i++) {
+            html.append("Sentence number ").append(i).append(" is padded to be long enough.");
+        }
+        html.append("</div>");
+        TrackingInputStream body = new TrackingInputStream(html.toString().getBytes(StandardCharsets.UTF_8));
+
+        String text = HtmlTextExtractor.extractReadableText(body, StandardCharsets.UTF_8, Long.MAX_VALUE, 80);
+
+        assertThat(text).startsWith("Sentence number 0 is padded").endsWith("...");
+        assertThat(text).hasSize(83);
+        assertThat(text).doesNotContain("number 3 ");
+        assertThat(body.closed).isTrue();
+    }
+
+    @Test
+    void toleratesUnclosedAndMalformedMarkup() {
+        assertThat(HtmlTextExtractor.toPlainText("<p>one<p>two<div>three")).isEqualTo("one two three");
+        assertThat(HtmlTextExtractor.toPlainText("1 < 2 and 3 </ 4")).isEqualTo("1 < 2 and 3 </ 4");
+        assertThat(HtmlTextExtractor.toPlainText("<!-- hidden <b>x</b> -->shown<!DOCTYPE html>")).isEqualTo("shown");
+        assertThat(HtmlTextExtractor.toPlainText("<a title=\"x > y\">link</a>")).isEqualTo("link");
+        assertThat(HtmlTextExtractor.toPlainText("text <b unterminated")).isEqualTo("text");
+        assertThat(HtmlTextExtractor.toPlainText("before<script>never closed")).isEqualTo("before");
+    }
+
+    @Test
+    void readsCharsetFromContentType() {
+        assertThat(HtmlTextExtractor.charsetOf("text/html; charset=GBK").name()).isEqualTo("GBK");
+        assertThat(HtmlTextExtractor.charsetOf("text/html; charset=\"utf-8\"")).isEqualTo(StandardCharsets.UTF_8);
+        assertThat(HtmlTextExtractor.charsetOf("text/html; charset=nope")).isEqualTo(StandardCharsets.UTF_8);
+        assertThat(HtmlTextExtractor.charsetOf(null)).isEqualTo(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void parsesBaiduResultHeadings() {
+        WebSearchToolHandler handler = handler();
+        String html = "<div id=\"content_left\">"
+                + "<div class=\"result\"><h3 class=\"t\"><a href=\"https://www.baidu.com/link?url=a\">First <em>result</em></a></h3></div>"
+                + "<div><h3>No link here</h3></div>"
+                + "<div class=\"result\"><h3><span>icon</span><a data-x='1' href='https://www.baidu.com/link?url=b'>Second &amp; more</a>"
+                + "<a href=\"https://ignored\">ignored</a></h3></div>"
+                + "<div class=\"result\"><h3><a href=\"https://www.baidu.com/link?url=c\">Third</a></h3></div>"
+                + "</div>";
+
+        List<String> results = ReflectionTestUtils.invokeMethod(handler, "parseBaiduResults", html, 2);
+
+        assertThat(results).containsExactly(
+                "First result - https://www.baidu.com/link?url=a",
+                "Second & more - https://www.baidu.com/link?url=b");
+    }
+
+    @Test
+    void returnsNoBaiduResultsForAVerificationPage() {
+        String html = "<title>antispider</title><h3><a href=\"https://www.baidu.com/link?url=a\">Result</a></h3>";
+
+        List<String> results = ReflectionTestUtils.invokeMethod(handler(), "parseBaiduResults", html, 5);
+
+        assertThat(results).isEmpty();
+    }
+
+    @Test
+    void cleanHtmlFlattensMarkupAndEntities() {
+        WebSearchToolHandler handler = handler();
+
+        String cleaned = ReflectionTestUtils.invokeMethod(handler, "cleanHtml",
+                "<span class=\"hl\">Java</span>&nbsp;21 &lt;LTS&gt;\n<br/>release");
+
+        assertThat(cleaned).isEqualTo("Java 21 <LTS> release");
+        assertThat((String) ReflectionTestUtils.invokeMethod(handler, "cleanHtml", "")).isEmpty();
+    }
+
+    private static String extract(String html, long maxBytes, int maxChars) throws IOException {
+        return HtmlTextExtractor.extractReadableText(new ByteArrayInputStream(html.getBytes(StandardCharsets.UTF_8)),
+                StandardCharsets.UTF_8, maxBytes, maxChars);
+    }
+
+    private static WebSearchToolHandler handler() {
+        return new WebSearchToolHandler(new ObjectMapper(), mock(ToolSearchSettingsService.class),
+                mock(ExecutorService.class), mock(WebSearchCacheService.class), mock(SearchProviderHealthService.class));
+    }
+
+    private static final class TrackingInputStream extends ByteArrayInputStream {
+        private boolean closed;
+
+        private TrackingInputStream(byte[] bytes) {
+            super(Arrays.copyOf(bytes, bytes.length));
+        }
+
+        @Override
+        public void close() throws IOException {
+            closed = true;
+            super.close();
+        }
+    }
+}
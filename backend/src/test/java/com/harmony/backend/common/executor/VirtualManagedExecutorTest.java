@@ -0,0 +1,86 @@
+package com.harmony.backend.common.executor;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+class VirtualManagedExecutorTest {
+
+    private final CountDownLatch unblock = new CountDownLatch(1);
+    private final ManagedExecutor executor = ManagedExecutor.virtual("test", "test-", 50, 5, 5,
+            new SimpleMeterRegistry());
+
+    @AfterEach
+    void shutdown() {
+        unblock.countDown();
+        executor.destroy();
+    }
+
+    @Test
+    void shrinkingUnderLoadKeepsTheQueueBound() {
+        for (int i = 0; i < 50; i++) {
+            executor.execute(this::block);
+        }
+        await().atMost(5, TimeUnit.SECONDS).until(() -> executor.status().getActiveCount() == 50);
+
+        executor.resize(null, 10);
+
+        assertThatThrownBy(() -> executor.execute(this::block)).isInstanceOf(RejectedExecutionException.class);
+        ManagedExecutorStatus status = executor.status();
+        assertThat(status.getMaxConcurrency()).isEqualTo(10);
+        assertThat(status.getActiveCount()).isEqualTo(50);
+        assertThat(status.getQueueSize()).isZero();
+        assertThat(status.getRejectedCount()).isEqualTo(1);
+    }
+
+    @Test
+    void admitsQueuedTasksAgainOnceTheBacklogDrains() {
+        for (int i = 0; i < 50; i++) {
+            executor.execute(this::block);
+        }
+        await().atMost(5, TimeUnit.SECONDS).until(() -> executor.status().getActiveCount() == 50);
+        executor.resize(null, 10);
+
+        unblock.countDown();
+        await().atMost(5, TimeUnit.SECONDS).until(() -> executor.status().getActiveCount() == 0);
+
+        for (int i = 0; i < 15; i++) {
+            executor.execute(() -> {
+            });
+        }
+        await().atMost(5, TimeUnit.SECONDS).until(() -> executor.status().getCompletedCount() == 65);
+    }
+
+    @Test
+    void rejectsSubmissionsPastConcurrencyPlusQueue() {
+        ManagedExecutor small = ManagedExecutor.virtual("small", "small-", 2, 1, 5, new SimpleMeterRegistry());
+        try {
+            for (int i = 0; i < 3; i++) {
+                small.execute(this::block);
+            }
+            await().atMost(5, TimeUnit.SECONDS).until(() -> small.status().getQueueSize() == 1);
+
+            assertThatThrownBy(() -> small.execute(this::block)).isInstanceOf(RejectedExecutionException.class);
+            assertThat(small.status().getRejectedCount()).isEqualTo(1);
+        } finally {
+            unblock.countDown();
+            small.destroy();
+        }
+    }
+
+    private void block() {
+        try {
+            unblock.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.harmony.backend.common.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CatalogSearchIndexTest {
+
+    @Test
+    void nameMatchesOutrankDescriptionMatches() {
+        CatalogSearchIndex<String> index = CatalogSearchIndex.build(List.of(
+                doc("described", 0, "Helper", "Writes python scripts"),
+                doc("named", 0, "Python Tutor", "Answers questions")));
+
+        assertThat(index.search("python", null, 0)).containsExactly("named", "described");
+    }
+
+    @Test
+    void exactTermsOutrankPrefixMatches() {
+        CatalogSearchIndex<String> index = CatalogSearchIndex.build(List.of(
+                doc("prefix", 0, "Translator", ""),
+                doc("exact", 0, "Trans", "")));
+
+        assertThat(index.search("trans", null, 0)).containsExactly("exact", "prefix");
+    }
+
+    @Test
+    void termsInsideAWordMatchBehindPrefixMatches() {
+        CatalogSearchIndex<String> index = CatalogSearchIndex.build(List.of(
+                doc("infix", 0, "ChatGPT Helper", ""),
+                doc("prefix", 0, "GPTs Gallery", "")));
+
+        assertThat(index.search("gpt", null, 0)).containsExactly("prefix", "infix");
+    }
+
+    @Test
+    void shortTermsDoNotMatchInsideWords() {
+        CatalogSearchIndex<String> index = CatalogSearchIndex.build(List.of(doc("chat", 0, "Chatbot", "")));
+
+        assertThat(index.search("at", null, 0)).isEmpty();
+    }
+
+    @Test
+    void everyQueryTermMustMatch() {
+        CatalogSearchIndex<String> index = CatalogSearchIndex.build(List.of(
+                doc("both", 0, "SQL Review", ""),
+                doc("one", 0, "SQL Builder", "")));
+
+        assertThat(index.search("sql review", null, 0)).containsExactly("both");
+        assertThat(index.search("sql missing", null, 0)).isEmpty();
+    }
+
+    @Test
+    void cjkQueriesMatchOnBigrams() {
+        CatalogSearchIndex<String> index = CatalogSearchIndex.build(List.of(
+                doc("translator", 0, "翻译助手", ""),
+                doc("writer", 0, "写作助手", "")));
+
+        assertThat(index.search("翻译", null, 0)).containsExactly("translator");
+        assertThat(index.search("助手", null, 0)).containsExactlyInAnyOrder("translator", "writer");
+    }
+
+    @Test
+    void usageBoostsOtherwiseEqualMatches() {
+        CatalogSearchIndex<String> index = CatalogSearchIndex.build(List.of(
+                doc("quiet", 1, "Math Tutor", ""),
+                doc("popular", 500, "Math Tutor", "")));
+
+        assertThat(index.search("math", null, 0.15)).containsExactly("popular", "quiet");
+    }
+
+    @Test
+    void usageDoesNotOvertakeAStrongerFieldMatch() {
+        CatalogSearchIndex<String> index = CatalogSearchIndex.build(List.of(
+                doc("popular", 50, "Helper", "math"),
+                doc("named", 0, "Math Tutor", "")));
+
+        assertThat(index.search("math", null, 0.15)).containsExactly("named", "popular");
+    }
+
+    @Test
+    void filterDropsMatchesAfterScoring() {
+        CatalogSearchIndex<String> index = CatalogSearchIndex.build(List.of(
+                doc("keep", 0, "Chess Coach", ""),
+                doc("drop", 0, "Chess Engine", "")));
+
+        assertThat(index.search("chess", "keep"::equals, 0)).containsExactly("keep");
+    }
+
+    @Test
+    void blankQueriesReturnNothing() {
+        CatalogSearchIndex<String> index = CatalogSearchIndex.build(List.of(doc("a", 0, "Anything", "")));
+
+        assertThat(index.search(" ", null, 0)).isEmpty();
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    private static CatalogSearchIndex.Document<String> doc(String id, long usage, String name, String description) {
+        return new CatalogSearchIndex.Document<>(id, usage, List.of(
+                new CatalogSearchIndex.Field(name, 3f),
+                new CatalogSearchIndex.Field(description, 1f)));
+    }
+}
@@ -0,0 +1,41 @@
+package com.harmony.backend.common.search;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CatalogTokenizerTest {
+
+    @Test
+    void lowerCasesAndSplitsOnNonWordCharacters() {
+        assertThat(CatalogTokenizer.indexTerms("Code-Review Bot, v2!")).containsExactly("code", "review", "bot", "v2");
+    }
+
+    @Test
+    void indexesCjkRunsAsUnigramsAndBigrams() {
+        assertThat(CatalogTokenizer.indexTerms("翻译助手")).containsExactly(
+                "翻", "译", "助", "手", "翻译", "译助", "助手");
+    }
+
+    @Test
+    void queriesCjkRunsAsBigramsOnly() {
+        assertThat(CatalogTokenizer.queryTerms("翻译助手")).containsExactly("翻译", "译助", "助手");
+    }
+
+    @Test
+    void keepsASingleCjkCharacterAsAQueryTerm() {
+        assertThat(CatalogTokenizer.queryTerms("译")).containsExactly("译");
+    }
+
+    @Test
+    void splitsMixedScriptsAtTheBoundary() {
+        assertThat(CatalogTokenizer.queryTerms("GPT翻译器")).containsExactly("gpt", "翻译", "译器");
+        assertThat(CatalogTokenizer.indexTerms("ai写作")).containsExactly("ai", "写", "作", "写作");
+    }
+
+    @Test
+    void returnsNoTermsForBlankText() {
+        assertThat(CatalogTokenizer.queryTerms(null)).isEmpty();
+        assertThat(CatalogTokenizer.queryTerms("  -- ")).isEmpty();
+    }
+}
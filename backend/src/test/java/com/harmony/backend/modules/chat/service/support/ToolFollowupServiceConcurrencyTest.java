@@ -0,0 +1,141 @@
+package com.harmony.backend.modules.chat.service.support;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.harmony.backend.ai.skill.SkillExecutor;
+import com.harmony.backend.ai.skill.SkillPlanner;
+import com.harmony.backend.ai.tool.AgentToolRegistry;
+import com.harmony.backend.ai.tool.ToolExecutionResult;
+import com.harmony.backend.ai.tool.ToolExecutor;
+import com.harmony.backend.common.entity.Session;
+import com.harmony.backend.modules.chat.adapter.DeepSeekAdapter;
+import com.harmony.backend.modules.chat.adapter.LlmAdapterRegistry;
+import com.harmony.backend.modules.chat.adapter.LlmMessage;
+import com.harmony.backend.modules.chat.prompt.ChatPromptService;
+import com.harmony.backend.modules.chat.service.BillingService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Drives many tool follow-ups against a slow local provider: the follow-up completions must wait
+ * on the network without holding a thread each.
+ */
+class ToolFollowupServiceConcurrencyTest {
+
+    private static final int CONCURRENT_TURNS = 1000;
+    private static final Duration PROVIDER_LATENCY = Duration.ofMillis(500);
+    private static final String COMPLETION = "{\"choices\":[{\"message\":{\"content\":\"It is sunny.\"},"
+            + "\"finish_reason\":\"stop\"}],\"usage\":{\"prompt_tokens\":12,\"completion_tokens\":4}}";
+
+    private final AtomicInteger providerCalls = new AtomicInteger();
+    private DisposableServer provider;
+    private ToolFollowupService service;
+
+    @BeforeEach
+    void setUp() {
+        provider = HttpServer.create()
+                .port(0)
+                .route(routes -> routes.post("/v1/chat/completions", (request, response) -> request.receive().then()
+                        .then(Mono.delay(PROVIDER_LATENCY))
+                        .then(response.header("Content-Type", "application/json")
+                                .sendString(Mono.fromSupplier(() -> {
+                                    providerCalls.incrementAndGet();
+                                    return COMPLETION;
+                                }))
+                                .then())))
+                .bindNow();
+
+        DeepSeekAdapter adapter = new DeepSeekAdapter(WebClient.builder(), new ObjectMapper());
+        ReflectionTestUtils.setField(adapter, "apiKey", "test");
+        ReflectionTestUtils.setField(adapter, "baseUrl", "http://localhost:" + provider.port());
+        LlmAdapterRegistry adapterRegistry = mock(LlmAdapterRegistry.class);
+        when(adapterRegistry.getAdapter(anyString())).thenReturn(adapter);
+
+        ToolExecutor toolExecutor = mock(ToolExecutor.class);
+        when(toolExecutor.execute(any())).thenReturn(ToolExecutionResult.ok("Weather: sunny, 22C"));
+        ChatPromptService chatPromptService = mock(ChatPromptService.class);
+        when(chatPromptService.buildToolFollowupUserMessage(anyString(), anyBoolean(), anyString()))
+                .thenReturn("Answer using the tool result.");
+
+        service = new ToolFollowupService(new ObjectMapper(), toolExecutor, mock(SkillExecutor.class),
+                mock(SkillPlanner.class), mock(AgentToolRegistry.class), adapterRegistry,
+                mock(AgentMemoryService.class), chatPromptService, mock(BillingService.class));
+    }
+
+    @AfterEach
+    void tearDown() {
+        provider.disposeNow();
+    }
+
+    @Test
+    void concurrentFollowupsDoNotHoldAThreadPerCall() {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        // Warm up the client's event loops and connection pool so they are part of the baseline.
+        assertThat(followup().block(Duration.ofSeconds(10))).isEqualTo("It is sunny.");
+        int baseline = threads.getThreadCount();
+        threads.resetPeakThreadCount();
+
+        long startedAt = System.nanoTime();
+        List<String> answers = Flux.range(0, CONCURRENT_TURNS)
+                .flatMap(i -> followup(), CONCURRENT_TURNS)
+                .collectList()
+                .block(Duration.ofSeconds(60));
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - startedAt);
+
+        assertThat(answers).hasSize(CONCURRENT_TURNS).allMatch("It is sunny."::equals);
+        assertThat(providerCalls.get()).isEqualTo(CONCURRENT_TURNS + 1);
+        assertThat(threads.getPeakThreadCount() - baseline)
+                .as("threads started while %d follow-ups were in flight", CONCURRENT_TURNS)
+                .isLessThan(64);
+        // A thread blocked per call would serialise behind boundedElastic's cap (10 x cores).
+        assertThat(elapsed).isLessThan(Duration.ofSeconds(20));
+    }
+
+    private Mono<String> followup() {
+        return service.handleToolCallAsync(new Session(), List.of(new LlmMessage("user", "what is the weather in Paris")),
+                "{\"tool\":\"weather\",\"input\":\"Paris\"}", "deepseek-chat", "assistant-1", allowAll());
+    }
+
+    private ToolFollowupService.ToolPolicy allowAll() {
+        return new ToolFollowupService.ToolPolicy() {
+            @Override
+            public String detectToolIntent(Session session, String prompt) {
+                return null;
+            }
+
+            @Override
+            public String buildToolInput(String toolKey, String prompt) {
+                return prompt;
+            }
+
+            @Override
+            public boolean isToolAllowed(Session session, String toolKey) {
+                return true;
+            }
+
+            @Override
+            public List<String> getAllowedSkills(Session session) {
+                return List.of();
+            }
+        };
+    }
+}
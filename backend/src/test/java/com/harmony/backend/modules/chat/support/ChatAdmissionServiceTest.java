@@ -0,0 +1,144 @@
+package com.harmony.backend.modules.chat.support;
+
+import com.harmony.backend.common.exception.BusinessException;
+import com.harmony.backend.modules.chat.adapter.LlmAdapter;
+import com.harmony.backend.modules.chat.adapter.LlmAdapterRegistry;
+import com.harmony.backend.modules.chat.config.ChatAdmissionProperties;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ChatAdmissionServiceTest {
+
+    private static final String MODEL_A = "model-a";
+    private static final String MODEL_B = "model-b";
+
+    private final ChatAdmissionProperties properties = new ChatAdmissionProperties();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private ChatAdmissionService service;
+
+    @BeforeEach
+    void setUp() {
+        LlmAdapterRegistry registry = mock(LlmAdapterRegistry.class);
+        LlmAdapter adapterA = mock(LlmAdapter.class);
+        LlmAdapter adapterB = mock(LlmAdapter.class);
+        when(adapterA.providerKey()).thenReturn("a");
+        when(adapterB.providerKey()).thenReturn("b");
+        when(registry.getAdapter(MODEL_A)).thenReturn(adapterA);
+        when(registry.getAdapter(MODEL_B)).thenReturn(adapterB);
+        properties.setMaxConcurrent(1);
+        properties.setProviderLimits(Map.of("a", 1));
+        properties.setMaxQueuedPerUser(3);
+        service = new ChatAdmissionService(properties, registry, meterRegistry);
+    }
+
+    @Test
+    void grantsWaitingTicketsInFairTagOrder() {
+        ChatAdmissionService.Ticket running = service.enqueue(1L, "USER", MODEL_B);
+        ChatAdmissionService.Ticket burstFirst = service.enqueue(2L, "USER", MODEL_B);
+        ChatAdmissionService.Ticket burstSecond = service.enqueue(2L, "USER", MODEL_B);
+        ChatAdmissionService.Ticket other = service.enqueue(3L, "USER", MODEL_B);
+
+        assertThat(isGranted(running)).isTrue();
+        assertThat(burstFirst.wasQueued()).isTrue();
+
+        running.release();
+        assertThat(isGranted(burstFirst)).isTrue();
+        assertThat(isGranted(other)).isFalse();
+
+        burstFirst.release();
+        assertThat(isGranted(other)).isTrue();
+        assertThat(isGranted(burstSecond)).isFalse();
+
+        other.release();
+        assertThat(isGranted(burstSecond)).isTrue();
+    }
+
+    @Test
+    void heavierRolesOvertakeEarlierLighterRequests() {
+        ChatAdmissionService.Ticket running = service.enqueue(1L, "USER", MODEL_B);
+        ChatAdmissionService.Ticket user = service.enqueue(2L, "USER", MODEL_B);
+        ChatAdmissionService.Ticket admin = service.enqueue(3L, "ADMIN", MODEL_B);
+
+        running.release();
+
+        assertThat(isGranted(admin)).isTrue();
+        assertThat(isGranted(user)).isFalse();
+    }
+
+    @Test
+    void skipsTicketsWhoseProviderIsSaturated() {
+        properties.setMaxConcurrent(2);
+        ChatAdmissionService.Ticket runningA = service.enqueue(1L, "USER", MODEL_A);
+        ChatAdmissionService.Ticket runningB = service.enqueue(2L, "USER", MODEL_B);
+        ChatAdmissionService.Ticket waitingA = service.enqueue(3L, "USER", MODEL_A);
+        ChatAdmissionService.Ticket waitingB = service.enqueue(4L, "USER", MODEL_B);
+
+        runningB.release();
+
+        assertThat(isGranted(waitingB)).isTrue();
+        assertThat(isGranted(waitingA)).isFalse();
+        assertThat(service.queueDepth()).isEqualTo(1);
+
+        runningA.release();
+        assertThat(isGranted(waitingA)).isTrue();
+    }
+
+    @Test
+    void fullQueueForASaturatedProviderDoesNotRejectAnotherProvider() {
+        properties.setMaxConcurrent(5);
+        properties.setMaxQueueSize(1);
+        service.enqueue(1L, "USER", MODEL_A);
+        service.enqueue(2L, "USER", MODEL_A);
+
+        ChatAdmissionService.Ticket otherProvider = service.enqueue(3L, "USER", MODEL_B);
+
+        assertThat(isGranted(otherProvider)).isTrue();
+        assertThatThrownBy(() -> service.enqueue(4L, "USER", MODEL_A))
+                .isInstanceOfSatisfying(BusinessException.class, e -> assertThat(e.getCode()).isEqualTo(429));
+        assertThat(service.queueDepth()).isEqualTo(1);
+    }
+
+    @Test
+    void rejectsUsersPastTheirQueuedLimit() {
+        properties.setMaxQueuedPerUser(1);
+        service.enqueue(1L, "USER", MODEL_B);
+        service.enqueue(1L, "USER", MODEL_B);
+
+        assertThatThrownBy(() -> service.enqueue(1L, "USER", MODEL_B))
+                .isInstanceOfSatisfying(BusinessException.class, e -> assertThat(e.getCode()).isEqualTo(429));
+        assertThat(service.queueDepth()).isEqualTo(1);
+    }
+
+    @Test
+    void abandonedTicketsLeaveTheQueue() {
+        ChatAdmissionService.Ticket running = service.enqueue(1L, "USER", MODEL_B);
+        ChatAdmissionService.Ticket abandoned = service.enqueue(2L, "USER", MODEL_B);
+        ChatAdmissionService.Ticket next = service.enqueue(3L, "USER", MODEL_B);
+
+        abandoned.release();
+        assertThat(service.queueDepth()).isEqualTo(1);
+        assertThat(service.activeCount()).isEqualTo(1);
+
+        running.release();
+        assertThat(isGranted(next)).isTrue();
+        assertThat(isGranted(abandoned)).isFalse();
+        assertThat(service.activeCount()).isEqualTo(1);
+
+        Timer abandonedWaits = meterRegistry.find("chat.admission.wait").tag("outcome", "abandoned").timer();
+        assertThat(abandonedWaits).isNotNull();
+        assertThat(abandonedWaits.count()).isEqualTo(1);
+    }
+
+    private static boolean isGranted(ChatAdmissionService.Ticket ticket) {
+        return ticket.granted().toFuture().isDone();
+    }
+}
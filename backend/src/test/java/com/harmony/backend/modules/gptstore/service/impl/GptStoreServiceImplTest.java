@@ -0,0 +1,115 @@
+package com.harmony.backend.modules.gptstore.service.impl;
+
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import com.harmony.backend.common.entity.Gpt;
+import com.harmony.backend.common.mapper.GPTMapper;
+import com.harmony.backend.common.mapper.MessageMapper;
+import com.harmony.backend.common.mapper.SessionMapper;
+import com.harmony.backend.common.search.CatalogSearchService;
+import com.harmony.backend.modules.chat.service.support.ChatDefinitionCache;
+import com.harmony.backend.modules.gptstore.controller.request.GptUpsertRequest;
+import org.apache.ibatis.builder.MapperBuilderAssistant;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class GptStoreServiceImplTest {
+
+    private static final long OWNER = 7L;
+
+    private final GPTMapper gptMapper = mock(GPTMapper.class);
+    private final CatalogSearchService catalogSearchService = mock(CatalogSearchService.class);
+    private GptStoreServiceImpl service;
+
+    @BeforeAll
+    static void initTableInfo() {
+        // Lambda wrappers resolve column names from MyBatis-Plus table metadata.
+        TableInfoHelper.initTableInfo(new MapperBuilderAssistant(new MybatisConfiguration(), ""), Gpt.class);
+    }
+
+    @BeforeEach
+    void setUp() {
+        service = new GptStoreServiceImpl(mock(SessionMapper.class), mock(MessageMapper.class),
+                catalogSearchService, mock(ChatDefinitionCache.class));
+        ReflectionTestUtils.setField(service, "baseMapper", gptMapper);
+    }
+
+    @Test
+    void editingAPrivateGptLeavesTheCatalogIndexAlone() {
+        stored(false);
+
+        service.update("g1", OWNER, false, rename("Renamed"));
+
+        verify(catalogSearchService, never()).invalidateGpts();
+    }
+
+    @Test
+    void requestingReviewDoesNotTouchTheCatalogIndex() {
+        stored(false);
+        GptUpsertRequest request = new GptUpsertRequest();
+        request.setRequestPublic(true);
+
+        service.update("g1", OWNER, false, request);
+
+        verify(catalogSearchService, never()).invalidateGpts();
+    }
+
+    @Test
+    void editingAPublicGptInvalidatesTheCatalogIndex() {
+        stored(true);
+
+        service.update("g1", OWNER, true, rename("Renamed"));
+
+        verify(catalogSearchService).invalidateGpts();
+    }
+
+    @Test
+    void publishingAGptInvalidatesTheCatalogIndex() {
+        stored(false);
+        GptUpsertRequest request = new GptUpsertRequest();
+        request.setRequestPublic(true);
+
+        service.update("g1", OWNER, true, request);
+
+        verify(catalogSearchService).invalidateGpts();
+    }
+
+    @Test
+    void deletingOnlyInvalidatesForPublicGpts() {
+        stored(false);
+        when(gptMapper.delete(any())).thenReturn(1);
+
+        service.delete("g1", OWNER, false);
+
+        verify(catalogSearchService, never()).invalidateGpts();
+
+        stored(true);
+        service.delete("g1", OWNER, true);
+
+        verify(catalogSearchService).invalidateGpts();
+    }
+
+    private void stored(boolean isPublic) {
+        Gpt gpt = new Gpt();
+        gpt.setGptId("g1");
+        gpt.setUserId(OWNER);
+        gpt.setName("Original");
+        gpt.setIsPublic(isPublic);
+        gpt.setRequestPublic(false);
+        when(gptMapper.selectOne(any())).thenReturn(gpt);
+    }
+
+    private static GptUpsertRequest rename(String name) {
+        GptUpsertRequest request = new GptUpsertRequest();
+        request.setName(name);
+        return request;
+    }
+}